@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.benchmark;
+
+import java.io.IOException;
+
+import org.dmg.pmml.PMML;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * <p>
+ * Measures {@link org.jpmml.sklearn.Encodable#encodePMML()}.
+ * </p>
+ *
+ * <p>
+ * Every invocation works with a freshly unpickled object,
+ * because converters may cache intermediate results in the Python object graph.
+ * </p>
+ */
+public class EncodePMMLBenchmark extends SkLearnBenchmark {
+
+	private byte[] bytes = null;
+
+	private Object object = null;
+
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.bytes = loadPickle();
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation() throws IOException {
+		this.object = unpickle(this.bytes);
+	}
+
+	@Benchmark
+	public PMML encodePMML(){
+		return encodePMML(this.object);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.dmg.pmml.PMML;
+import org.jpmml.python.PickleUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.jpmml.sklearn.Encodable;
+import org.jpmml.sklearn.EncodableUtil;
+import org.jpmml.sklearn.SkLearnUtil;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * The base class of conversion pipeline benchmarks.
+ * </p>
+ *
+ * <p>
+ * Benchmarks are parameterized by the name of a test fixture,
+ * which is loaded from the <code>pmml-sklearn/src/test/resources/pkl</code> directory.
+ * Default fixtures are listed in the order of increasing pickle size.
+ * </p>
+ *
+ * <p>
+ * Allocation rates are reported by the JMH GC profiler:
+ * <pre>
+ * java -jar pmml-sklearn-benchmark/target/pmml-sklearn-benchmark-executable-1.7-SNAPSHOT.jar -prof gc
+ * </pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+abstract
+public class SkLearnBenchmark {
+
+	@Param({
+		"DecisionTreeIris",
+		"MLPIris",
+		"KNNIris",
+		"RandomForestIris",
+		"MLPHousing",
+		"ExtraTreesAuto",
+		"RandomForestAudit",
+		"RandomForestSentiment",
+		"KNNHousing",
+		"HistGradientBoostingAudit",
+		"LogisticRegressionSentiment",
+		"GradientBoostingSigmoidAudit"
+	})
+	public String name = null;
+
+
+	public byte[] loadPickle() throws IOException {
+		String path = "/pkl/" + this.name + ".pkl";
+
+		try(InputStream is = SkLearnBenchmark.class.getResourceAsStream(path)){
+
+			if(is == null){
+				throw new IllegalArgumentException("Test fixture " + path + " not found");
+			}
+
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+			byte[] buffer = new byte[16 * 1024];
+
+			while(true){
+				int count = is.read(buffer);
+				if(count < 0){
+					break;
+				}
+
+				os.write(buffer, 0, count);
+			}
+
+			return os.toByteArray();
+		}
+	}
+
+	static
+	public Object unpickle(byte[] bytes) throws IOException {
+
+		try(Storage storage = StorageUtil.createStorage(new ByteArrayInputStream(bytes))){
+			return PickleUtil.unpickle(storage);
+		}
+	}
+
+	static
+	public PMML encodePMML(Object object){
+		Encodable encodable = EncodableUtil.toEncodable(object);
+
+		return encodable.encodePMML();
+	}
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.google.common.io.CharStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sklearn.feature_extraction.text.CountVectorizer;
+import sklearn.feature_extraction.text.Tokenizer;
+import sklearn.feature_extraction.text.TokenizerUtil;
+import sklearn2pmml.feature_extraction.text.Matcher;
+import sklearn2pmml.feature_extraction.text.Splitter;
+
+/**
+ * <p>
+ * Measures the recursive stop words normalization of short documents,
+ * in the form that is encoded into <code>TextIndexNormalization</code> elements.
+ * </p>
+ *
+ * <p>
+ * The tokenizers and documents are the fixtures of <code>TokenizerTest</code>.
+ * Every tokenizer configuration is paired with its expected output file (eg. <code>MatcherSentiment.csv</code>),
+ * whose rows are re-joined into space-separated documents.
+ * The stop words list is either the <code>TokenizerTest</code> stop words list (14 words),
+ * the English stop words list (319 words),
+ * or the English stop words list followed by the most frequent words of the documents (1000 words in total).
+ * The stop words regex is either a plain alternation, or a prefix-factored alternation.
+ * </p>
+ *
+ * <p>
+ * The documents do not contain any <code>TokenizerTest</code> stop words, which is checked during setup.
+ * </p>
+ *
+ * @see Tokenizer#formatStopWordsRE(List)
+ * @see TokenizerUtil#formatWordsRE(List)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StopWordsBenchmark {
+
+	@Param({"CountVectorizer", "Matcher", "Splitter"})
+	public String tokenizer = null;
+
+	@Param({"14", "319", "1000"})
+	public int stopWords = 0;
+
+	@Param({"false", "true"})
+	public boolean factored = false;
+
+	private List<String> documents = null;
+
+	private Pattern pattern = null;
+
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Tokenizer tokenizer = createTokenizer(this.tokenizer);
+
+		List<String> documents = loadDocuments(this.tokenizer);
+
+		Pattern testPattern = Pattern.compile(formatStopWordsRE(tokenizer, StopWordsBenchmark.TEST_STOP_WORDS, this.factored));
+
+		for(String document : documents){
+			String normalizedDocument = normalize(testPattern, document);
+
+			if(!normalizedDocument.equals(document)){
+				throw new IllegalStateException("Expected \'" + document + "\', got \'" + normalizedDocument + "\'");
+			}
+		}
+
+		List<String> stopWords = loadStopWords(documents, this.stopWords);
+
+		this.documents = documents;
+		this.pattern = Pattern.compile(formatStopWordsRE(tokenizer, stopWords, this.factored));
+	}
+
+	@Benchmark
+	public List<String> normalize(){
+		Pattern pattern = this.pattern;
+
+		List<String> result = new ArrayList<>(this.documents.size());
+
+		for(String document : this.documents){
+			result.add(normalize(pattern, document));
+		}
+
+		return result;
+	}
+
+	static
+	private String normalize(Pattern pattern, String string){
+
+		while(true){
+			String normalizedString = (pattern.matcher(string)).replaceAll(" ");
+
+			if(normalizedString.equals(string)){
+				return normalizedString;
+			}
+
+			string = normalizedString;
+		}
+	}
+
+	static
+	private Tokenizer createTokenizer(String name){
+
+		// See org.jpmml.sklearn.testing.TokenizerTest
+		switch(name){
+			case "CountVectorizer":
+				return new Matcher()
+					.setWordRE(CountVectorizer.TOKEN_PATTERN);
+			case "Matcher":
+				return new Matcher()
+					.setWordRE("\\w+");
+			case "Splitter":
+				return new Splitter()
+					.setWordSeparatorRE("\\s+");
+			default:
+				throw new IllegalArgumentException(name);
+		}
+	}
+
+	static
+	private String formatStopWordsRE(Tokenizer tokenizer, List<String> stopWords, boolean factored){
+
+		if(tokenizer instanceof Matcher){
+			Matcher matcher = (Matcher)tokenizer;
+
+			// Matchers ignore stop words that their word regex does not match
+			Pattern wordPattern = Pattern.compile(matcher.getWordRE());
+
+			stopWords = stopWords.stream()
+				.filter(wordPattern.asPredicate())
+				.collect(Collectors.toList());
+		}
+
+		String result = tokenizer.formatStopWordsRE(stopWords);
+
+		if(!factored){
+			result = result.replace("(" + TokenizerUtil.formatWordsRE(stopWords) + ")", "(" + String.join("|", stopWords) + ")");
+		}
+
+		return result;
+	}
+
+	static
+	private List<String> loadDocuments(String tokenizer) throws IOException {
+		List<String> lines;
+
+		try(InputStream is = open("/csv/" + tokenizer + "Sentiment.csv")){
+			lines = CharStreams.readLines(new InputStreamReader(is, StandardCharsets.UTF_8));
+		}
+
+		List<String> result = new ArrayList<>();
+
+		// Skip the header row
+		for(String line : lines.subList(1, lines.size())){
+			result.add(line.replace('\t', ' '));
+		}
+
+		return result;
+	}
+
+	static
+	private List<String> loadStopWords(List<String> documents, int size) throws IOException {
+
+		if(size <= StopWordsBenchmark.TEST_STOP_WORDS.size()){
+			return StopWordsBenchmark.TEST_STOP_WORDS.subList(0, size);
+		}
+
+		Set<String> result = new LinkedHashSet<>();
+
+		try(InputStream is = (CountVectorizer.class).getResourceAsStream("/stop_words/english.txt")){
+			result.addAll(CharStreams.readLines(new InputStreamReader(is, StandardCharsets.UTF_8)));
+		}
+
+		Map<String, Integer> counts = new LinkedHashMap<>();
+
+		for(String document : documents){
+
+			for(String word : document.split(" ")){
+
+				if(!word.isEmpty()){
+					counts.merge(word, 1, Integer::sum);
+				}
+			}
+		}
+
+		(counts.entrySet()).stream()
+			.sorted((left, right) -> Integer.compare(right.getValue(), left.getValue()))
+			.map(Map.Entry::getKey)
+			.forEachOrdered(word -> {
+
+				if(result.size() < size){
+					result.add(word);
+				}
+			});
+
+		return new ArrayList<>(result);
+	}
+
+	static
+	private InputStream open(String path){
+		InputStream result = StopWordsBenchmark.class.getResourceAsStream(path);
+
+		if(result == null){
+			throw new IllegalArgumentException("Test fixture " + path + " not found");
+		}
+
+		return result;
+	}
+
+	// See src/test/resources/extensions/text.py
+	private static final List<String> TEST_STOP_WORDS = Arrays.asList("a", "and", "are", "d", "i", "is", "it", "ll", "m", "s", "the", "ve", "we", "you");
+}
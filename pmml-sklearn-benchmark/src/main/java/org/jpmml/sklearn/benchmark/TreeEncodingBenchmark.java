@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import numpy.core.NDArray;
+import org.dmg.pmml.DataField;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.MiningFunction;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.tree.TreeModel;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.ContinuousLabel;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.Schema;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sklearn.tree.DetachedNode;
+import sklearn.tree.Tree;
+import sklearn.tree.TreeRegressor;
+import sklearn.tree.TreeUtil;
+
+/**
+ * <p>
+ * Measures the encoding of a single decision tree into a PMML class model,
+ * and the follow-up transformation of its node graph (pruning, compaction, node cleaning) or detaching.
+ * </p>
+ *
+ * <p>
+ * The decision tree is synthetic, and has 65535 nodes.
+ * It is either a balanced tree (16 levels deep),
+ * or a degenerate tree, where every split node has a leaf node as its left child (32767 levels deep).
+ * The latter is beyond the reach of recursive node graph traversals with default thread stack sizes.
+ * </p>
+ *
+ * <p>
+ * Allocation rates are reported by the JMH GC profiler:
+ * <pre>
+ * java -jar pmml-sklearn-benchmark/target/pmml-sklearn-benchmark-executable-1.7-SNAPSHOT.jar TreeEncodingBenchmark -prof gc
+ * </pre>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TreeEncodingBenchmark {
+
+	@Param({"balanced", "degenerate"})
+	public String shape = null;
+
+	private byte[] nodes = null;
+
+	private byte[] values = null;
+
+	private TreeRegressor regressor = null;
+
+	private Schema schema = null;
+
+
+	@Setup(Level.Trial)
+	public void setUp(){
+		int[] leftChildren = new int[SIZE];
+		int[] rightChildren = new int[SIZE];
+
+		Arrays.fill(leftChildren, -1);
+		Arrays.fill(rightChildren, -1);
+
+		switch(this.shape){
+			case "balanced":
+				for(int i = 0; (2 * i) + 2 < SIZE; i++){
+					leftChildren[i] = (2 * i) + 1;
+					rightChildren[i] = (2 * i) + 2;
+				}
+				break;
+			case "degenerate":
+				for(int i = 0; i + 2 < SIZE; i += 2){
+					leftChildren[i] = i + 1;
+					rightChildren[i] = i + 2;
+				}
+				break;
+			default:
+				throw new IllegalArgumentException(this.shape);
+		}
+
+		ByteBuffer nodes = ByteBuffer.allocate(SIZE * (4 * 8 + 8))
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		ByteBuffer values = ByteBuffer.allocate(SIZE * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(int i = 0; i < SIZE; i++){
+			boolean leaf = (leftChildren[i] < 0);
+
+			nodes.putLong(leftChildren[i]);
+			nodes.putLong(rightChildren[i]);
+			nodes.putLong(leaf ? -2L : 0L);
+			nodes.putDouble(leaf ? -2d : (double)i);
+			nodes.putLong(1L);
+
+			values.putDouble((double)i);
+		}
+
+		this.nodes = nodes.array();
+		this.values = values.array();
+	}
+
+	/**
+	 * <p>
+	 * The encoder releases the content of the estimator,
+	 * so every invocation works with a fresh estimator.
+	 * </p>
+	 */
+	@Setup(Level.Invocation)
+	public void setUpInvocation(){
+		List<Object[]> nodesDescr = Arrays.asList(
+			new Object[]{"left_child", "<i8"},
+			new Object[]{"right_child", "<i8"},
+			new Object[]{"feature", "<i8"},
+			new Object[]{"threshold", "<f8"},
+			new Object[]{"n_node_samples", "<i8"}
+		);
+
+		Tree tree = new Tree("sklearn.tree._tree", "Tree");
+		tree.put("nodes", createArray(new Object[]{SIZE}, nodesDescr, this.nodes));
+		tree.put("values", createArray(new Object[]{SIZE, 1, 1}, "<f8", this.values));
+
+		this.regressor = new TreeRegressor("sklearn.tree._classes", "DecisionTreeRegressor");
+		this.regressor.put("tree_", tree);
+
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		DataField dataField = encoder.createDataField("x", OpType.CONTINUOUS, DataType.DOUBLE);
+
+		Feature feature = new ContinuousFeature(encoder, dataField);
+
+		this.schema = new Schema(encoder, new ContinuousLabel(DataType.DOUBLE), Collections.singletonList(feature));
+	}
+
+	@Benchmark
+	public TreeModel encode(){
+		return TreeUtil.encodeTreeModel(this.regressor, MiningFunction.REGRESSION, this.schema);
+	}
+
+	@Benchmark
+	public TreeModel encodeAndTransform(){
+		TreeModel treeModel = TreeUtil.encodeTreeModel(this.regressor, MiningFunction.REGRESSION, this.schema);
+
+		return TreeUtil.transform(this.regressor, treeModel);
+	}
+
+	@Benchmark
+	public TreeModel encodeAndDetach(){
+		TreeModel treeModel = TreeUtil.encodeTreeModel(this.regressor, MiningFunction.REGRESSION, this.schema);
+
+		return treeModel.setNode(DetachedNode.detach(treeModel.requireNode()));
+	}
+
+	static
+	private NDArray createArray(Object[] shape, Object descr, byte[] data){
+		NDArray result = new NDArray();
+		result.__setstate__(new Object[]{1, shape, descr, Boolean.FALSE, data});
+
+		return result;
+	}
+
+	private static final int SIZE = 65535;
+}
@@ -0,0 +1,600 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.example;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.ParametersDelegate;
+import jakarta.xml.bind.JAXBException;
+import org.dmg.pmml.PMML;
+import org.jpmml.model.metro.MetroJAXBUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.sklearn.Encodable;
+import org.jpmml.sklearn.EncodableUtil;
+import org.jpmml.sklearn.MappedPickleUtil;
+import org.jpmml.sklearn.SkLearnUtil;
+import org.jpmml.sklearn.StreamingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sklearn2pmml.HasPMMLOptions;
+
+/**
+ * <p>
+ * Converts many pickle files in one JVM, using a bounded pool of worker threads.
+ * </p>
+ *
+ * <p>
+ * The batch input is either a directory, or a manifest file.
+ * A directory contributes all its <code>*.pkl</code> and <code>*.pkl.z</code> files.
+ * A manifest file contains one entry per line, in the form of <code>&lt;pkl file&gt; [&lt;pmml file&gt;] [&lt;option&gt;=&lt;value&gt; ...]</code>.
+ * Relative PKL file paths are resolved against the directory of the manifest file.
+ * Relative PMML file paths are resolved against the PMML output directory.
+ * Empty lines and lines that start with the <code>#</code> character are ignored.
+ * </p>
+ *
+ * <p>
+ * By default, the PMML file is named after the PKL file, by replacing the <code>.pkl</code> or <code>.pkl.z</code> extension with the <code>.pmml</code> extension.
+ * It is an error if two entries map to the same PMML file (eg. <code>a.pkl</code> and <code>a.pkl.z</code>).
+ * </p>
+ *
+ * <p>
+ * Per-file options override command-line options.
+ * A failure to convert one file does not affect the conversion of other files.
+ * </p>
+ */
+public class BatchMain {
+
+	@Parameter (
+		names = {"--help"},
+		description = "Show the list of configuration options and exit",
+		help = true
+	)
+	private boolean help = false;
+
+	@Parameter (
+		names = {"--pkl-batch-input"},
+		description = "Pickle input directory or manifest file",
+		required = true
+	)
+	private File input = null;
+
+	@Parameter (
+		names = {"--pmml-batch-output"},
+		description = "PMML output directory",
+		required = true
+	)
+	private File output = null;
+
+	@Parameter (
+		names = {"--threads"},
+		description = "The number of worker threads"
+	)
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	@Parameter (
+		names = {"--pkl-mmap"},
+		description = "Memory-map pickle input files. The files must be uncompressed Joblib dumps",
+		arity = 1
+	)
+	private boolean mmap = false;
+
+	@ParametersDelegate
+	private TreeOptions treeOptions = new TreeOptions();
+
+
+	static
+	public void main(String... args) throws Exception {
+		BatchMain main = new BatchMain();
+
+		JCommander commander = new JCommander(main);
+		commander.setProgramName(BatchMain.class.getName());
+
+		try {
+			commander.parse(args);
+		} catch(ParameterException pe){
+			StringBuilder sb = new StringBuilder();
+
+			sb.append(pe.toString());
+			sb.append("\n");
+
+			commander.usage(sb);
+
+			System.err.println(sb.toString());
+
+			System.exit(-1);
+		}
+
+		if(main.help){
+			StringBuilder sb = new StringBuilder();
+
+			commander.usage(sb);
+
+			System.out.println(sb.toString());
+
+			System.exit(0);
+		}
+
+		List<Result> results = main.run();
+
+		boolean failed = results.stream()
+			.anyMatch(result -> !result.isSuccess());
+
+		if(failed){
+			System.exit(1);
+		}
+	}
+
+	public List<Result> run() throws Exception {
+		List<Task> tasks = loadTasks(this.input);
+
+		if(!this.output.isDirectory() && !this.output.mkdirs()){
+			throw new IOException("Failed to create PMML output directory " + this.output.getAbsolutePath());
+		}
+
+		TreeOptions treeOptions = getTreeOptions();
+
+		Map<String, ?> options = treeOptions.getOptions();
+
+		int threads = Math.max(Math.min(this.threads, tasks.size()), 1);
+
+		logger.info("Converting {} PKL file(s) using {} thread(s)..", tasks.size(), threads);
+
+		List<Result> results = new ArrayList<>();
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		long begin = System.currentTimeMillis();
+
+		try {
+			List<Future<Result>> futures = new ArrayList<>();
+
+			for(Task task : tasks){
+				futures.add(executorService.submit(() -> convert(task, options)));
+			}
+
+			for(int i = 0; i < futures.size(); i++){
+				Future<Result> future = futures.get(i);
+
+				try {
+					results.add(future.get());
+				} catch(ExecutionException ee){
+					Task task = tasks.get(i);
+
+					Result result = new Result(task);
+					result.setFailure(ee.getCause());
+
+					results.add(result);
+				}
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		long end = System.currentTimeMillis();
+
+		summarize(results, (end - begin));
+
+		return results;
+	}
+
+	private Result convert(Task task, Map<String, ?> options){
+		Result result = new Result(task);
+
+		File input = task.getInput();
+		File output = task.getOutput();
+
+		try {
+			Object object;
+
+			long begin = System.currentTimeMillis();
+
+			try(Storage storage = Main.createStorage(input, this.mmap)){
+				// PickleUtil#unpickle(Storage) is not safe for concurrent use
+				object = MappedPickleUtil.unpickle(storage);
+			}
+
+			long unpickleEnd = System.currentTimeMillis();
+
+			result.setUnpickleTime(unpickleEnd - begin);
+
+			Encodable encodable = EncodableUtil.toEncodable(object);
+
+			Map<String, Object> encodableOptions = new LinkedHashMap<>(options);
+			encodableOptions.putAll(task.getOptions());
+
+			mergePMMLOptions(encodable, encodableOptions);
+
+			PMML pmml = encodable.encodePMML();
+
+			long encodeEnd = System.currentTimeMillis();
+
+			result.setEncodeTime(encodeEnd - unpickleEnd);
+
+			try(OutputStream os = new FileOutputStream(output)){
+				marshalPMML(pmml, os);
+			} catch(Throwable t){
+				output.delete();
+
+				throw t;
+			}
+
+			long marshalEnd = System.currentTimeMillis();
+
+			result.setMarshalTime(marshalEnd - encodeEnd);
+
+			logger.info("Converted {} to {} in {} ms.", input.getPath(), output.getPath(), (marshalEnd - begin));
+		} catch(Throwable t){
+			// Includes errors (eg. OutOfMemoryError, StackOverflowError), which are specific to the current file
+			logger.error("Failed to convert " + input.getPath(), t);
+
+			result.setFailure(t);
+		}
+
+		return result;
+	}
+
+	private List<Task> loadTasks(File input) throws IOException {
+		List<Task> result = new ArrayList<>();
+
+		if(input.isDirectory()){
+			File[] files = input.listFiles((dir, name) -> name.endsWith(".pkl") || name.endsWith(".pkl.z"));
+			if(files == null){
+				throw new IOException("Failed to list PKL input directory " + input.getAbsolutePath());
+			}
+
+			Arrays.sort(files);
+
+			for(File file : files){
+				result.add(new Task(file, toOutput(file), new LinkedHashMap<>()));
+			}
+		} else
+
+		{
+			File dir = input.getAbsoluteFile().getParentFile();
+
+			List<String> lines = Files.readAllLines(input.toPath(), StandardCharsets.UTF_8);
+			for(String line : lines){
+				line = line.trim();
+
+				if(line.isEmpty() || line.startsWith("#")){
+					continue;
+				}
+
+				String[] tokens = line.split("\\s+");
+
+				File file = resolve(dir, tokens[0]);
+				File output = null;
+
+				Map<String, Object> options = new LinkedHashMap<>();
+
+				for(int i = 1; i < tokens.length; i++){
+					String token = tokens[i];
+
+					int index = token.indexOf('=');
+					if(index > 0){
+						options.put(token.substring(0, index), parseValue(token.substring(index + 1)));
+					} else
+
+					if(i == 1){
+						output = resolve(this.output, token);
+					} else
+
+					{
+						throw new IllegalArgumentException("Invalid manifest entry \'" + line + "\'");
+					}
+				}
+
+				if(output == null){
+					output = toOutput(file);
+				}
+
+				result.add(new Task(file, output, options));
+			}
+		}
+
+		Map<File, Task> outputTasks = new LinkedHashMap<>();
+
+		for(Task task : result){
+			File output = ((task.getOutput()).toPath()).toAbsolutePath().normalize().toFile();
+
+			Task prevTask = outputTasks.putIfAbsent(output, task);
+			if(prevTask != null){
+				throw new IllegalArgumentException("PKL files " + (prevTask.getInput()).getPath() + " and " + (task.getInput()).getPath() + " map to the same PMML file " + output.getPath());
+			}
+		}
+
+		return result;
+	}
+
+	private File toOutput(File input){
+		String name = input.getName();
+
+		if(name.endsWith(".z")){
+			name = name.substring(0, name.length() - ".z".length());
+		} // End if
+
+		if(name.endsWith(".pkl")){
+			name = name.substring(0, name.length() - ".pkl".length());
+		}
+
+		return new File(this.output, name + ".pmml");
+	}
+
+	public File getInput(){
+		return this.input;
+	}
+
+	public void setInput(File input){
+		this.input = input;
+	}
+
+	public File getOutput(){
+		return this.output;
+	}
+
+	public void setOutput(File output){
+		this.output = output;
+	}
+
+	public int getThreads(){
+		return this.threads;
+	}
+
+	public void setThreads(int threads){
+		this.threads = threads;
+	}
+
+	public boolean getMmap(){
+		return this.mmap;
+	}
+
+	public void setMmap(boolean mmap){
+		this.mmap = mmap;
+	}
+
+	public TreeOptions getTreeOptions(){
+		return this.treeOptions;
+	}
+
+	public void setTreeOptions(TreeOptions treeOptions){
+		this.treeOptions = treeOptions;
+	}
+
+	static
+	private void summarize(List<Result> results, long wallTime){
+		int success = 0;
+
+		long unpickleTime = 0;
+		long encodeTime = 0;
+		long marshalTime = 0;
+
+		for(Result result : results){
+
+			if(!result.isSuccess()){
+				continue;
+			}
+
+			success++;
+
+			unpickleTime += result.getUnpickleTime();
+			encodeTime += result.getEncodeTime();
+			marshalTime += result.getMarshalTime();
+		}
+
+		logger.info("Converted {} of {} PKL file(s) in {} ms.", success, results.size(), wallTime);
+
+		if(success > 0){
+			logger.info("Parsed PKL in {} ms total ({} ms average).", unpickleTime, (unpickleTime / success));
+			logger.info("Converted PKL to PMML in {} ms total ({} ms average).", encodeTime, (encodeTime / success));
+			logger.info("Marshalled PMML in {} ms total ({} ms average).", marshalTime, (marshalTime / success));
+		}
+
+		for(Result result : results){
+
+			if(!result.isSuccess()){
+				Task task = result.getTask();
+				Throwable failure = result.getFailure();
+
+				logger.error("Failed to convert {}: {}", (task.getInput()).getPath(), failure.toString());
+			}
+		}
+	}
+
+	static
+	private File resolve(File dir, String path){
+		File file = new File(path);
+
+		if(!file.isAbsolute()){
+			file = new File(dir, path);
+		}
+
+		return file;
+	}
+
+	/**
+	 * <p>
+	 * Merges conversion options over the PMML options that are stored in the pickle file.
+	 * </p>
+	 */
+	static
+	void mergePMMLOptions(Encodable encodable, Map<String, ?> options){
+
+		if(options.isEmpty()){
+			return;
+		}
+
+		HasPMMLOptions<?> hasPmmlOptions = (HasPMMLOptions<?>)encodable;
+
+		Map<String, Object> pmmlOptions = new LinkedHashMap<>();
+
+		Map<String, ?> prevPmmlOptions = hasPmmlOptions.getPMMLOptions();
+		if(prevPmmlOptions != null){
+			pmmlOptions.putAll(prevPmmlOptions);
+		}
+
+		pmmlOptions.putAll(options);
+
+		hasPmmlOptions.setPMMLOptions(pmmlOptions);
+	}
+
+	/**
+	 * <p>
+	 * Marshals a PMML class model.
+	 * PMML class models that have been encoded in streaming mode are marshalled using a dedicated marshalling path.
+	 * </p>
+	 *
+	 * @see StreamingUtil#marshalPMML(PMML, OutputStream)
+	 */
+	static
+	void marshalPMML(PMML pmml, OutputStream os) throws JAXBException {
+
+		if(StreamingUtil.hasDetachedNodes(pmml)){
+			StreamingUtil.marshalPMML(pmml, os);
+		} else
+
+		{
+			MetroJAXBUtil.marshalPMML(pmml, os);
+		}
+	}
+
+	static
+	Object parseValue(String value){
+
+		if(("true").equalsIgnoreCase(value) || ("false").equalsIgnoreCase(value)){
+			return Boolean.valueOf(value);
+		}
+
+		try {
+			return Integer.valueOf(value);
+		} catch(NumberFormatException nfe){
+			return value;
+		}
+	}
+
+	static
+	public class Task {
+
+		private File input = null;
+
+		private File output = null;
+
+		private Map<String, Object> options = null;
+
+
+		private Task(File input, File output, Map<String, Object> options){
+			this.input = input;
+			this.output = output;
+			this.options = options;
+		}
+
+		public File getInput(){
+			return this.input;
+		}
+
+		public File getOutput(){
+			return this.output;
+		}
+
+		public Map<String, Object> getOptions(){
+			return this.options;
+		}
+	}
+
+	static
+	public class Result {
+
+		private Task task = null;
+
+		private long unpickleTime = -1L;
+
+		private long encodeTime = -1L;
+
+		private long marshalTime = -1L;
+
+		private Throwable failure = null;
+
+
+		private Result(Task task){
+			this.task = task;
+		}
+
+		public boolean isSuccess(){
+			return (this.failure == null);
+		}
+
+		public Task getTask(){
+			return this.task;
+		}
+
+		public long getUnpickleTime(){
+			return this.unpickleTime;
+		}
+
+		private void setUnpickleTime(long unpickleTime){
+			this.unpickleTime = unpickleTime;
+		}
+
+		public long getEncodeTime(){
+			return this.encodeTime;
+		}
+
+		private void setEncodeTime(long encodeTime){
+			this.encodeTime = encodeTime;
+		}
+
+		public long getMarshalTime(){
+			return this.marshalTime;
+		}
+
+		private void setMarshalTime(long marshalTime){
+			this.marshalTime = marshalTime;
+		}
+
+		public Throwable getFailure(){
+			return this.failure;
+		}
+
+		private void setFailure(Throwable failure){
+			this.failure = failure;
+		}
+	}
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(BatchMain.class);
+}
@@ -20,25 +20,25 @@ package org.jpmml.sklearn.example;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.ParametersDelegate;
 import org.dmg.pmml.PMML;
-import org.jpmml.model.metro.MetroJAXBUtil;
 import org.jpmml.python.PickleUtil;
 import org.jpmml.python.Storage;
 import org.jpmml.python.StorageUtil;
 import org.jpmml.sklearn.Encodable;
 import org.jpmml.sklearn.EncodableUtil;
+import org.jpmml.sklearn.MappedPickleUtil;
+import org.jpmml.sklearn.MappedStorage;
 import org.jpmml.sklearn.SkLearnUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import sklearn.tree.HasTreeOptions;
 import sklearn2pmml.HasPMMLOptions;
 
 public class Main {
@@ -65,60 +65,14 @@ public class Main {
 	private File output = null;
 
 	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_ALLOW_MISSING},
-		description = "Allow \"value is missing\" node split conditions",
+		names = {"--pkl-mmap"},
+		description = "Memory-map the pickle input file. The file must be an uncompressed Joblib dump",
 		arity = 1
 	)
-	private Boolean allowMissing = null;
+	private boolean mmap = false;
 
-	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_COMPACT},
-		description = "Transform SkLearn-style trees to PMML-style trees",
-		arity = 1
-	)
-	private Boolean compact = null;
-
-	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_FLAT},
-		description = "Flatten trees",
-		arity = 1
-	)
-	private Boolean flat = null;
-
-	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_NODE_ID},
-		description = "Keep SkLearn node identifiers",
-		arity = 1
-	)
-	private Boolean nodeId = null;
-
-	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_NODE_SCORE},
-		description = "Keep SkLearn node scores for branch (non-leaf) nodes",
-		arity = 1
-	)
-	private Boolean nodeScore = null;
-
-	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_NUMERIC},
-		description = "Transform non-numeric node split conditions to numeric",
-		arity = 1
-	)
-	private Boolean numeric = null;
-
-	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_PRUNE},
-		description = "Truncate invariant leaf nodes",
-		arity = 1
-	)
-	private Boolean prune = null;
-
-	@Parameter (
-		names = {"--X-" + HasTreeOptions.OPTION_WINNER_ID},
-		description = "Output node identifiers",
-		arity = 1
-	)
-	private Boolean winnerId = null;
+	@ParametersDelegate
+	private TreeOptions treeOptions = new TreeOptions();
 
 
 	static
@@ -159,11 +113,17 @@ public class Main {
 	public void run() throws Exception {
 		Object object;
 
-		try(Storage storage = StorageUtil.createStorage(this.input)){
+		try(Storage storage = createStorage(this.input, this.mmap)){
 			logger.info("Parsing PKL..");
 
 			long begin = System.currentTimeMillis();
-			object = PickleUtil.unpickle(storage);
+			if(storage instanceof MappedStorage){
+				object = MappedPickleUtil.unpickle((MappedStorage)storage);
+			} else
+
+			{
+				object = PickleUtil.unpickle(storage);
+			}
 			long end = System.currentTimeMillis();
 
 			logger.info("Parsed PKL in {} ms.", (end - begin));
@@ -175,7 +135,9 @@ public class Main {
 
 		Encodable encodable = EncodableUtil.toEncodable(object);
 
-		Map<String, ?> options = getOptions();
+		TreeOptions treeOptions = getTreeOptions();
+
+		Map<String, ?> options = treeOptions.getOptions();
 		if(!options.isEmpty()){
 			HasPMMLOptions<?> hasPmmlOptions = (HasPMMLOptions<?>)encodable;
 
@@ -202,7 +164,7 @@ public class Main {
 			logger.info("Marshalling PMML..");
 
 			long begin = System.currentTimeMillis();
-			MetroJAXBUtil.marshalPMML(pmml, os);
+			BatchMain.marshalPMML(pmml, os);
 			long end = System.currentTimeMillis();
 
 			logger.info("Marshalled PMML in {} ms.", (end - begin));
@@ -213,24 +175,6 @@ public class Main {
 		}
 	}
 
-	private Map<String, ?> getOptions(){
-		Map<String, Object> options = new LinkedHashMap<>();
-
-		options.put(HasTreeOptions.OPTION_ALLOW_MISSING, this.allowMissing);
-		options.put(HasTreeOptions.OPTION_COMPACT, this.compact);
-		options.put(HasTreeOptions.OPTION_FLAT, this.flat);
-		options.put(HasTreeOptions.OPTION_NODE_ID, this.nodeId);
-		options.put(HasTreeOptions.OPTION_NODE_SCORE, this.nodeScore);
-		options.put(HasTreeOptions.OPTION_NUMERIC, this.numeric);
-		options.put(HasTreeOptions.OPTION_PRUNE, this.prune);
-		options.put(HasTreeOptions.OPTION_WINNER_ID, this.winnerId);
-
-		// Ignore defaults
-		options.values().removeIf(Objects::isNull);
-
-		return options;
-	}
-
 	public File getInput(){
 		return this.input;
 	}
@@ -247,6 +191,32 @@ public class Main {
 		this.output = output;
 	}
 
+	public boolean getMmap(){
+		return this.mmap;
+	}
+
+	public void setMmap(boolean mmap){
+		this.mmap = mmap;
+	}
+
+	public TreeOptions getTreeOptions(){
+		return this.treeOptions;
+	}
+
+	public void setTreeOptions(TreeOptions treeOptions){
+		this.treeOptions = treeOptions;
+	}
+
+	static
+	Storage createStorage(File file, boolean mmap) throws IOException {
+
+		if(mmap){
+			return new MappedStorage(file);
+		}
+
+		return StorageUtil.createStorage(file);
+	}
+
 	static {
 		SkLearnUtil.initOnce();
 	}
@@ -0,0 +1,749 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.ParametersDelegate;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dmg.pmml.PMML;
+import org.jpmml.model.metro.MetroJAXBUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.jpmml.sklearn.Encodable;
+import org.jpmml.sklearn.EncodableUtil;
+import org.jpmml.sklearn.MappedPickleUtil;
+import org.jpmml.sklearn.SkLearnUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Converts pickle files on demand in one long-running JVM, using a bounded pool of worker threads.
+ * </p>
+ *
+ * <p>
+ * The server exposes two HTTP endpoints:
+ * </p>
+ * <ul>
+ *   <li><code>POST /convert</code>. The request body is a pickle file (optionally compressed).
+ *   The query string holds conversion options in the form of <code>&lt;option&gt;=&lt;value&gt;</code>,
+ *   which override command-line options, which in turn override the options that are stored in the pickle file.
+ *   The response body is a PMML document.
+ *   The durations of the queue wait, unpickle, encode and marshal stages are returned in the <code>Server-Timing</code> response header.</li>
+ *   <li><code>GET /stats</code>. The response body is a plain text summary of request counts, and of stage duration percentiles over a window of recent conversions.</li>
+ * </ul>
+ *
+ * <p>
+ * At most <code>--threads</code> conversions run at the same time, and at most <code>--queue-capacity</code> conversions wait for a worker thread.
+ * Any further conversion request is rejected with the <code>503 Service Unavailable</code> status code,
+ * so that clients can back off instead of piling up memory-heavy payloads in the server.
+ * </p>
+ *
+ * <p>
+ * Conversion requests must declare the size of their body in the <code>Content-Length</code> request header.
+ * The declared size is checked before any of the request body is read.
+ * Requests without it (eg. chunked requests) are rejected with the <code>411 Length Required</code> status code,
+ * and requests whose body exceeds <code>--max-request-size</code> bytes are rejected with the <code>413 Payload Too Large</code> status code.
+ * </p>
+ *
+ * <p>
+ * HTTP exchanges are handled by a fixed pool of threads, which is one thread larger than the number of in-flight conversion requests.
+ * </p>
+ */
+public class ServerMain {
+
+	@Parameter (
+		names = {"--help"},
+		description = "Show the list of configuration options and exit",
+		help = true
+	)
+	private boolean help = false;
+
+	@Parameter (
+		names = {"--host"},
+		description = "The host name or IP address to bind to"
+	)
+	private String host = "127.0.0.1";
+
+	@Parameter (
+		names = {"--port"},
+		description = "The port to bind to"
+	)
+	private int port = 8080;
+
+	@Parameter (
+		names = {"--threads"},
+		description = "The number of worker threads"
+	)
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	@Parameter (
+		names = {"--queue-capacity"},
+		description = "The number of conversion requests that may wait for a worker thread"
+	)
+	private int queueCapacity = 2 * Runtime.getRuntime().availableProcessors();
+
+	@Parameter (
+		names = {"--max-request-size"},
+		description = "The maximum size of a conversion request body in bytes"
+	)
+	private int maxRequestSize = 64 * 1024 * 1024;
+
+	@Parameter (
+		names = {"--stats-window"},
+		description = "The number of recent conversions that stage duration percentiles are computed over"
+	)
+	private int statsWindow = 1024;
+
+	@ParametersDelegate
+	private TreeOptions treeOptions = new TreeOptions();
+
+	private HttpServer server = null;
+
+	private ExecutorService handlerService = null;
+
+	private ExecutorService workerService = null;
+
+	private Semaphore permits = null;
+
+	private Map<String, ?> options = null;
+
+	private AtomicLong accepted = new AtomicLong();
+
+	private AtomicLong rejected = new AtomicLong();
+
+	private AtomicLong failed = new AtomicLong();
+
+	private Map<String, Stats> stats = null;
+
+
+	static
+	public void main(String... args) throws Exception {
+		ServerMain main = new ServerMain();
+
+		JCommander commander = new JCommander(main);
+		commander.setProgramName(ServerMain.class.getName());
+
+		try {
+			commander.parse(args);
+		} catch(ParameterException pe){
+			StringBuilder sb = new StringBuilder();
+
+			sb.append(pe.toString());
+			sb.append("\n");
+
+			commander.usage(sb);
+
+			System.err.println(sb.toString());
+
+			System.exit(-1);
+		}
+
+		if(main.help){
+			StringBuilder sb = new StringBuilder();
+
+			commander.usage(sb);
+
+			System.out.println(sb.toString());
+
+			System.exit(0);
+		}
+
+		main.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread(main::stop));
+	}
+
+	public void start() throws IOException {
+
+		if(this.threads < 1){
+			throw new IllegalArgumentException("Expected a positive number of worker threads, got " + this.threads);
+		} // End if
+
+		if(this.queueCapacity < 0){
+			throw new IllegalArgumentException("Expected a non-negative queue capacity, got " + this.queueCapacity);
+		} // End if
+
+		if(this.maxRequestSize < 1){
+			throw new IllegalArgumentException("Expected a positive maximum request size, got " + this.maxRequestSize);
+		}
+
+		// Load the JAXB runtime before the first conversion request
+		try {
+			MetroJAXBUtil.getContext();
+		} catch(Exception e){
+			throw new IllegalStateException(e);
+		}
+
+		TreeOptions treeOptions = getTreeOptions();
+
+		this.options = treeOptions.getOptions();
+
+		this.stats = new LinkedHashMap<>();
+
+		for(String stage : ServerMain.STAGES){
+			this.stats.put(stage, new Stats(this.statsWindow));
+		}
+
+		this.permits = new Semaphore(this.threads + this.queueCapacity);
+
+		// One extra thread for rejecting conversion requests and serving stats requests.
+		// When all threads and queue slots are taken, the server's dispatcher thread handles the exchange itself, which stops it from accepting new connections
+		int handlerThreads = this.threads + this.queueCapacity + 1;
+
+		this.handlerService = new ThreadPoolExecutor(handlerThreads, handlerThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(handlerThreads), new ThreadPoolExecutor.CallerRunsPolicy());
+		this.workerService = Executors.newFixedThreadPool(this.threads);
+
+		this.server = HttpServer.create(new InetSocketAddress(this.host, this.port), 0);
+		this.server.setExecutor(this.handlerService);
+		this.server.createContext("/convert", this::handleConvert);
+		this.server.createContext("/stats", this::handleStats);
+		this.server.start();
+
+		logger.info("Listening on {}:{} using {} thread(s)..", this.host, this.port, this.threads);
+	}
+
+	public void stop(){
+
+		if(this.server != null){
+			this.server.stop(0);
+
+			this.server = null;
+		} // End if
+
+		if(this.workerService != null){
+			this.workerService.shutdownNow();
+
+			this.workerService = null;
+		} // End if
+
+		if(this.handlerService != null){
+			this.handlerService.shutdownNow();
+
+			this.handlerService = null;
+		}
+	}
+
+	private void handleConvert(HttpExchange exchange) throws IOException {
+
+		try {
+
+			if(!("POST").equals(exchange.getRequestMethod())){
+				sendText(exchange, 405, "Expected POST request, got " + exchange.getRequestMethod() + " request");
+
+				return;
+			}
+
+			Map<String, Object> options = new LinkedHashMap<>(this.options);
+
+			try {
+				options.putAll(parseQuery(exchange.getRequestURI().getRawQuery()));
+			} catch(IllegalArgumentException iae){
+				logger.warn("Rejected conversion request", iae);
+
+				sendText(exchange, 400, "Invalid query string");
+
+				return;
+			}
+
+			String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+			if(contentLength == null){
+				sendText(exchange, 411, "Request body size not declared");
+
+				return;
+			}
+
+			int length = parseLength(contentLength, this.maxRequestSize);
+			if(length < 0){
+				sendText(exchange, 413, "Request body too large");
+
+				return;
+			}
+
+			if(!this.permits.tryAcquire()){
+				this.rejected.incrementAndGet();
+
+				exchange.getResponseHeaders().set("Retry-After", "1");
+
+				sendText(exchange, 503, "Too many conversion requests");
+
+				return;
+			}
+
+			this.accepted.incrementAndGet();
+
+			try {
+				byte[] pkl = new byte[length];
+
+				try(InputStream is = exchange.getRequestBody()){
+					ByteStreams.readFully(is, pkl);
+				}
+
+				long submitted = System.nanoTime();
+
+				Future<Result> future = this.workerService.submit(() -> convert(pkl, options, submitted));
+
+				Result result;
+
+				try {
+					result = future.get();
+				} catch(InterruptedException ie){
+					future.cancel(true);
+
+					Thread.currentThread().interrupt();
+
+					throw new IOException(ie);
+				} catch(ExecutionException ee){
+					this.failed.incrementAndGet();
+
+					Throwable cause = ee.getCause();
+
+					logger.error("Failed to convert PKL", cause);
+
+					// The cause may disclose server-side details (eg. class names, file system paths), so it is only logged
+					sendText(exchange, 500, "Failed to convert PKL");
+
+					return;
+				}
+
+				record(result);
+
+				exchange.getResponseHeaders().set("Server-Timing", formatTimings(result));
+				exchange.getResponseHeaders().set("Content-Type", "application/xml; charset=UTF-8");
+
+				send(exchange, 200, result.getPmml());
+			} finally {
+				this.permits.release();
+			}
+		} finally {
+			// HttpExchange is AutoCloseable on Java 11+ only
+			exchange.close();
+		}
+	}
+
+	private void handleStats(HttpExchange exchange) throws IOException {
+
+		try {
+
+			if(!("GET").equals(exchange.getRequestMethod())){
+				sendText(exchange, 405, "Expected GET request, got " + exchange.getRequestMethod() + " request");
+
+				return;
+			}
+
+			StringBuilder sb = new StringBuilder();
+
+			sb.append("accepted=").append(this.accepted.get());
+			sb.append(" rejected=").append(this.rejected.get());
+			sb.append(" failed=").append(this.failed.get());
+			sb.append(" inflight=").append((this.threads + this.queueCapacity) - this.permits.availablePermits());
+			sb.append("\n");
+
+			for(Map.Entry<String, Stats> entry : this.stats.entrySet()){
+				String stage = entry.getKey();
+				Stats stats = entry.getValue();
+
+				sb.append(stage).append(" ").append(stats.format()).append("\n");
+			}
+
+			sendText(exchange, 200, sb.toString());
+		} finally {
+			// HttpExchange is AutoCloseable on Java 11+ only
+			exchange.close();
+		}
+	}
+
+	private Result convert(byte[] pkl, Map<String, ?> options, long submitted) throws Exception {
+		Result result = new Result();
+
+		long begin = System.nanoTime();
+
+		result.setQueueTime(begin - submitted);
+
+		Object object;
+
+		try(Storage storage = StorageUtil.createStorage(new ByteArrayInputStream(pkl))){
+			object = MappedPickleUtil.unpickle(storage);
+		}
+
+		long unpickleEnd = System.nanoTime();
+
+		result.setUnpickleTime(unpickleEnd - begin);
+
+		Encodable encodable = EncodableUtil.toEncodable(object);
+
+		BatchMain.mergePMMLOptions(encodable, options);
+
+		PMML pmml = encodable.encodePMML();
+
+		long encodeEnd = System.nanoTime();
+
+		result.setEncodeTime(encodeEnd - unpickleEnd);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		BatchMain.marshalPMML(pmml, os);
+
+		long marshalEnd = System.nanoTime();
+
+		result.setMarshalTime(marshalEnd - encodeEnd);
+		result.setPmml(os.toByteArray());
+
+		return result;
+	}
+
+	private void record(Result result){
+		long[] times = result.getTimes();
+
+		for(int i = 0; i < ServerMain.STAGES.length; i++){
+			Stats stats = this.stats.get(ServerMain.STAGES[i]);
+
+			stats.add(times[i]);
+		}
+	}
+
+	public String getHost(){
+		return this.host;
+	}
+
+	public void setHost(String host){
+		this.host = host;
+	}
+
+	public int getPort(){
+		return this.port;
+	}
+
+	public void setPort(int port){
+		this.port = port;
+	}
+
+	public int getThreads(){
+		return this.threads;
+	}
+
+	public void setThreads(int threads){
+		this.threads = threads;
+	}
+
+	public int getQueueCapacity(){
+		return this.queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity){
+		this.queueCapacity = queueCapacity;
+	}
+
+	public int getMaxRequestSize(){
+		return this.maxRequestSize;
+	}
+
+	public void setMaxRequestSize(int maxRequestSize){
+		this.maxRequestSize = maxRequestSize;
+	}
+
+	public int getStatsWindow(){
+		return this.statsWindow;
+	}
+
+	public void setStatsWindow(int statsWindow){
+		this.statsWindow = statsWindow;
+	}
+
+	/**
+	 * @return The address that the server is bound to, or <code>null</code> if the server is not running.
+	 */
+	public InetSocketAddress getAddress(){
+
+		if(this.server == null){
+			return null;
+		}
+
+		return this.server.getAddress();
+	}
+
+	public TreeOptions getTreeOptions(){
+		return this.treeOptions;
+	}
+
+	public void setTreeOptions(TreeOptions treeOptions){
+		this.treeOptions = treeOptions;
+	}
+
+	/**
+	 * @return The declared request body size, or <code>-1</code> if it is invalid or exceeds the limit.
+	 */
+	static
+	private int parseLength(String contentLength, int limit){
+		long length;
+
+		try {
+			length = Long.parseLong(contentLength.trim());
+		} catch(NumberFormatException nfe){
+			return -1;
+		}
+
+		if(length < 0 || length > limit){
+			return -1;
+		}
+
+		return (int)length;
+	}
+
+	static
+	private Map<String, Object> parseQuery(String query) throws UnsupportedEncodingException {
+		Map<String, Object> result = new LinkedHashMap<>();
+
+		if(query == null || query.isEmpty()){
+			return result;
+		}
+
+		String[] parameters = query.split("&");
+		for(String parameter : parameters){
+
+			if(parameter.isEmpty()){
+				continue;
+			}
+
+			int index = parameter.indexOf('=');
+			if(index <= 0){
+				throw new IllegalArgumentException("Invalid query parameter \'" + parameter + "\'");
+			}
+
+			String name = URLDecoder.decode(parameter.substring(0, index), "UTF-8");
+			String value = URLDecoder.decode(parameter.substring(index + 1), "UTF-8");
+
+			result.put(name, BatchMain.parseValue(value));
+		}
+
+		return result;
+	}
+
+	static
+	private String formatTimings(Result result){
+		long[] times = result.getTimes();
+
+		StringBuilder sb = new StringBuilder();
+
+		for(int i = 0; i < ServerMain.STAGES.length; i++){
+
+			if(i > 0){
+				sb.append(", ");
+			}
+
+			sb.append(ServerMain.STAGES[i]).append(";dur=").append(formatMillis(times[i]));
+		}
+
+		return sb.toString();
+	}
+
+	static
+	private String formatMillis(long nanos){
+		return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+
+	static
+	private void sendText(HttpExchange exchange, int status, String text) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+
+		send(exchange, status, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static
+	private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+
+		if(body.length > 0){
+
+			try(OutputStream os = exchange.getResponseBody()){
+				os.write(body);
+			}
+		}
+	}
+
+	static
+	private class Result {
+
+		private long queueTime = -1L;
+
+		private long unpickleTime = -1L;
+
+		private long encodeTime = -1L;
+
+		private long marshalTime = -1L;
+
+		private byte[] pmml = null;
+
+
+		/**
+		 * @return Stage durations, in the order of {@link ServerMain#STAGES}.
+		 */
+		public long[] getTimes(){
+			return new long[]{this.queueTime, this.unpickleTime, this.encodeTime, this.marshalTime, getTotalTime()};
+		}
+
+		public long getTotalTime(){
+			return this.queueTime + this.unpickleTime + this.encodeTime + this.marshalTime;
+		}
+
+		public long getQueueTime(){
+			return this.queueTime;
+		}
+
+		private void setQueueTime(long queueTime){
+			this.queueTime = queueTime;
+		}
+
+		public long getUnpickleTime(){
+			return this.unpickleTime;
+		}
+
+		private void setUnpickleTime(long unpickleTime){
+			this.unpickleTime = unpickleTime;
+		}
+
+		public long getEncodeTime(){
+			return this.encodeTime;
+		}
+
+		private void setEncodeTime(long encodeTime){
+			this.encodeTime = encodeTime;
+		}
+
+		public long getMarshalTime(){
+			return this.marshalTime;
+		}
+
+		private void setMarshalTime(long marshalTime){
+			this.marshalTime = marshalTime;
+		}
+
+		public byte[] getPmml(){
+			return this.pmml;
+		}
+
+		private void setPmml(byte[] pmml){
+			this.pmml = pmml;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Keeps the durations of a stage over a window of recent conversions.
+	 * </p>
+	 */
+	static
+	private class Stats {
+
+		private long[] window = null;
+
+		private long count = 0;
+
+
+		private Stats(int size){
+
+			if(size < 1){
+				throw new IllegalArgumentException("Expected a positive window size, got " + size);
+			}
+
+			this.window = new long[size];
+		}
+
+		synchronized
+		public void add(long nanos){
+			this.window[(int)(this.count % this.window.length)] = nanos;
+
+			this.count++;
+		}
+
+		public String format(){
+			long[] values;
+			long count;
+
+			synchronized(this){
+				count = this.count;
+
+				values = Arrays.copyOf(this.window, (int)Math.min(count, this.window.length));
+			}
+
+			Arrays.sort(values);
+
+			StringBuilder sb = new StringBuilder();
+
+			sb.append("count=").append(count);
+
+			for(int percentile : ServerMain.PERCENTILES){
+				sb.append(" p").append(percentile).append("=").append(values.length > 0 ? formatMillis(percentile(values, percentile)) : "NaN");
+			}
+
+			sb.append(" max=").append(values.length > 0 ? formatMillis(values[values.length - 1]) : "NaN");
+
+			return sb.toString();
+		}
+
+		/**
+		 * <p>
+		 * Computes a percentile using the nearest rank method.
+		 * </p>
+		 */
+		static
+		private long percentile(long[] sortedValues, int percentile){
+			int rank = (int)Math.ceil((percentile / 100d) * sortedValues.length);
+
+			return sortedValues[Math.max(rank, 1) - 1];
+		}
+	}
+
+	private static final String[] STAGES = {"queue", "unpickle", "encode", "marshal", "total"};
+
+	private static final int[] PERCENTILES = {50, 90, 99};
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(ServerMain.class);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.beust.jcommander.Parameter;
+import sklearn.tree.HasTreeOptions;
+
+public class TreeOptions {
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_ALLOW_MISSING},
+		description = "Allow \"value is missing\" node split conditions",
+		arity = 1
+	)
+	private Boolean allowMissing = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_COMPACT},
+		description = "Transform SkLearn-style trees to PMML-style trees",
+		arity = 1
+	)
+	private Boolean compact = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_FLAT},
+		description = "Flatten trees",
+		arity = 1
+	)
+	private Boolean flat = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_NODE_ID},
+		description = "Keep SkLearn node identifiers",
+		arity = 1
+	)
+	private Boolean nodeId = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_NODE_SCORE},
+		description = "Keep SkLearn node scores for branch (non-leaf) nodes",
+		arity = 1
+	)
+	private Boolean nodeScore = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_NUMERIC},
+		description = "Transform non-numeric node split conditions to numeric",
+		arity = 1
+	)
+	private Boolean numeric = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_PARALLEL},
+		description = "Encode the members of tree ensembles in parallel",
+		arity = 1
+	)
+	private Boolean parallel = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_PRUNE},
+		description = "Truncate invariant leaf nodes",
+		arity = 1
+	)
+	private Boolean prune = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_STREAMING},
+		description = "Keep the node graphs of tree ensemble members in compressed form until marshalling. Reduces peak memory usage for large tree ensembles",
+		arity = 1
+	)
+	private Boolean streaming = null;
+
+	@Parameter (
+		names = {"--X-" + HasTreeOptions.OPTION_WINNER_ID},
+		description = "Output node identifiers",
+		arity = 1
+	)
+	private Boolean winnerId = null;
+
+
+	public Map<String, ?> getOptions(){
+		Map<String, Object> options = new LinkedHashMap<>();
+
+		options.put(HasTreeOptions.OPTION_ALLOW_MISSING, this.allowMissing);
+		options.put(HasTreeOptions.OPTION_COMPACT, this.compact);
+		options.put(HasTreeOptions.OPTION_FLAT, this.flat);
+		options.put(HasTreeOptions.OPTION_NODE_ID, this.nodeId);
+		options.put(HasTreeOptions.OPTION_NODE_SCORE, this.nodeScore);
+		options.put(HasTreeOptions.OPTION_NUMERIC, this.numeric);
+		options.put(HasTreeOptions.OPTION_PARALLEL, this.parallel);
+		options.put(HasTreeOptions.OPTION_PRUNE, this.prune);
+		options.put(HasTreeOptions.OPTION_STREAMING, this.streaming);
+		options.put(HasTreeOptions.OPTION_WINNER_ID, this.winnerId);
+
+		// Ignore defaults
+		options.values().removeIf(Objects::isNull);
+
+		return options;
+	}
+}
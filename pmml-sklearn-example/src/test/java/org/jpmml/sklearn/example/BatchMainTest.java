@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.example;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchMainTest {
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+
+	@Test
+	public void run() throws Exception {
+		File inputDir = this.tmpFolder.newFolder("pkl");
+		File outputDir = new File(this.tmpFolder.getRoot(), "pmml");
+
+		try(InputStream is = BatchMainTest.class.getResourceAsStream("/pkl/DecisionTreeIrisNA.pkl")){
+			Files.copy(is, (new File(inputDir, "DecisionTreeIrisNA.pkl")).toPath());
+		}
+
+		Files.write((new File(inputDir, "broken.pkl")).toPath(), "not a pkl".getBytes(StandardCharsets.UTF_8));
+
+		BatchMain main = new BatchMain();
+		main.setInput(inputDir);
+		main.setOutput(outputDir);
+		main.setThreads(2);
+
+		List<BatchMain.Result> results = main.run();
+
+		assertEquals(2, results.size());
+
+		BatchMain.Result result = results.get(0);
+
+		assertTrue(result.isSuccess());
+		assertTrue((new File(outputDir, "DecisionTreeIrisNA.pmml")).isFile());
+
+		result = results.get(1);
+
+		assertFalse(result.isSuccess());
+		assertNotNull(result.getFailure());
+		assertFalse((new File(outputDir, "broken.pmml")).exists());
+	}
+
+	@Test
+	public void runConflicting() throws Exception {
+		File inputDir = this.tmpFolder.newFolder("pkl");
+		File outputDir = new File(this.tmpFolder.getRoot(), "pmml");
+
+		Files.write((new File(inputDir, "a.pkl")).toPath(), new byte[0]);
+		Files.write((new File(inputDir, "a.pkl.z")).toPath(), new byte[0]);
+
+		BatchMain main = new BatchMain();
+		main.setInput(inputDir);
+		main.setOutput(outputDir);
+
+		try {
+			main.run();
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+
+		assertFalse(outputDir.exists());
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.io.ByteStreams;
+import org.dmg.pmml.PMML;
+import org.jpmml.python.PickleUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.jpmml.sklearn.Encodable;
+import org.jpmml.sklearn.EncodableUtil;
+import org.jpmml.sklearn.StreamingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import sklearn.tree.HasTreeOptions;
+import sklearn2pmml.HasPMMLOptions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ServerMainTest {
+
+	private ServerMain server = null;
+
+
+	@Before
+	public void setUp() throws Exception {
+		this.server = new ServerMain();
+		this.server.setPort(0);
+		this.server.setThreads(1);
+		this.server.setQueueCapacity(1);
+		this.server.setMaxRequestSize(64 * 1024);
+
+		this.server.start();
+	}
+
+	@After
+	public void tearDown(){
+		this.server.stop();
+	}
+
+	@Test
+	public void convert() throws Exception {
+		byte[] pkl = loadPkl("DecisionTreeIrisNA");
+
+		Response response = post("/convert?" + HasTreeOptions.OPTION_WINNER_ID + "=true", pkl, false);
+
+		assertEquals(200, response.status);
+
+		// The pickle file stores the "allow_missing" option, which must be preserved
+		String expectedPmml = encodePMML(pkl, Collections.singletonMap(HasTreeOptions.OPTION_WINNER_ID, Boolean.TRUE), true);
+
+		assertEquals(expectedPmml, stripTimestamp(response.body));
+
+		String replacedPmml = encodePMML(pkl, Collections.singletonMap(HasTreeOptions.OPTION_WINNER_ID, Boolean.TRUE), false);
+
+		assertNotEquals(replacedPmml, expectedPmml);
+
+		response = get("/stats");
+
+		assertEquals(200, response.status);
+		assertTrue(response.body.startsWith("accepted=1 rejected=0 failed=0"));
+	}
+
+	@Test
+	public void rejectInvalid() throws Exception {
+		byte[] pkl = loadPkl("DecisionTreeIrisNA");
+
+		Response response = post("/convert?" + HasTreeOptions.OPTION_WINNER_ID, pkl, false);
+
+		assertEquals(400, response.status);
+		assertEquals("Invalid query string", response.body);
+
+		response = post("/convert", new byte[]{'n', 'o', 't', ' ', 'a', ' ', 'p', 'k', 'l'}, false);
+
+		assertEquals(500, response.status);
+		assertEquals("Failed to convert PKL", response.body);
+
+		byte[] largePkl = new byte[this.server.getMaxRequestSize() + 1];
+
+		response = post("/convert", largePkl, false);
+
+		assertEquals(413, response.status);
+
+		// Rejected based on the absence of the Content-Length request header, without reading the request body
+		response = post("/convert", largePkl, true);
+
+		assertEquals(411, response.status);
+
+		response = post("/convert", pkl, true);
+
+		assertEquals(411, response.status);
+	}
+
+	@Test
+	public void rejectSaturated() throws Exception {
+		byte[] pkl = loadPkl("DecisionTreeIrisNA");
+
+		int capacity = this.server.getThreads() + this.server.getQueueCapacity();
+
+		List<HttpURLConnection> connections = new ArrayList<>();
+		List<OutputStream> outputStreams = new ArrayList<>();
+
+		// Occupy all worker threads and queue slots with requests, whose bodies are not complete yet
+		for(int i = 0; i < capacity; i++){
+			HttpURLConnection connection = openPost("/convert", false);
+			connection.setFixedLengthStreamingMode(pkl.length);
+
+			OutputStream os = connection.getOutputStream();
+			os.write(pkl, 0, 1);
+			os.flush();
+
+			connections.add(connection);
+			outputStreams.add(os);
+		}
+
+		awaitInflight(capacity);
+
+		Response response = post("/convert", pkl, false);
+
+		assertEquals(503, response.status);
+		assertEquals("Too many conversion requests", response.body);
+
+		for(int i = 0; i < capacity; i++){
+			OutputStream os = outputStreams.get(i);
+
+			os.write(pkl, 1, pkl.length - 1);
+			os.close();
+
+			response = Response.read(connections.get(i));
+
+			assertEquals(200, response.status);
+		}
+
+		response = get("/stats");
+
+		assertEquals(200, response.status);
+		assertTrue(response.body.startsWith("accepted=" + capacity + " rejected=1 failed=0"));
+	}
+
+	private void awaitInflight(int count) throws Exception {
+		long deadline = System.currentTimeMillis() + 10 * 1000;
+
+		while(true){
+			Response response = get("/stats");
+
+			if(response.body.contains(" inflight=" + count + "\n")){
+				break;
+			} // End if
+
+			if(System.currentTimeMillis() > deadline){
+				fail("Expected " + count + " in-flight conversion request(s), got " + response.body);
+			}
+
+			Thread.sleep(10);
+		}
+	}
+
+	private Response get(String path) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection)createURL(path).openConnection();
+
+		return Response.read(connection);
+	}
+
+	private Response post(String path, byte[] body, boolean chunked) throws IOException {
+		HttpURLConnection connection = openPost(path, chunked);
+
+		if(!chunked){
+			connection.setFixedLengthStreamingMode(body.length);
+		}
+
+		try(OutputStream os = connection.getOutputStream()){
+			os.write(body);
+		} catch(IOException ioe){
+			// The server may close the connection before having read the complete request body
+		}
+
+		return Response.read(connection);
+	}
+
+	private HttpURLConnection openPost(String path, boolean chunked) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection)createURL(path).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+
+		if(chunked){
+			connection.setChunkedStreamingMode(4 * 1024);
+		}
+
+		return connection;
+	}
+
+	private URL createURL(String path) throws IOException {
+		InetSocketAddress address = this.server.getAddress();
+
+		return new URL("http", address.getHostString(), address.getPort(), path);
+	}
+
+	static
+	private String encodePMML(byte[] pkl, Map<String, ?> options, boolean merge) throws Exception {
+		Object object;
+
+		try(Storage storage = StorageUtil.createStorage(new ByteArrayInputStream(pkl))){
+			object = PickleUtil.unpickle(storage);
+		}
+
+		Encodable encodable = EncodableUtil.toEncodable(object);
+
+		if(merge){
+			BatchMain.mergePMMLOptions(encodable, options);
+		} else
+
+		{
+			((HasPMMLOptions<?>)encodable).setPMMLOptions(new LinkedHashMap<>(options));
+		}
+
+		PMML pmml = encodable.encodePMML();
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		StreamingUtil.marshalPMML(pmml, os);
+
+		return stripTimestamp(os.toString(StandardCharsets.UTF_8.name()));
+	}
+
+	static
+	private String stripTimestamp(String pmml){
+		return pmml.replaceAll("(?s)<Timestamp>.*?</Timestamp>", "");
+	}
+
+	static
+	private byte[] loadPkl(String name) throws IOException {
+
+		try(InputStream is = ServerMainTest.class.getResourceAsStream("/pkl/" + name + ".pkl")){
+			return ByteStreams.toByteArray(is);
+		}
+	}
+
+	static
+	private class Response {
+
+		private int status = 0;
+
+		private String body = null;
+
+
+		private Response(int status, String body){
+			this.status = status;
+			this.body = body;
+		}
+
+		static
+		private Response read(HttpURLConnection connection) throws IOException {
+			int status = connection.getResponseCode();
+
+			try(InputStream is = (status < 400 ? connection.getInputStream() : connection.getErrorStream())){
+				String body = (is != null ? new String(ByteStreams.toByteArray(is), StandardCharsets.UTF_8) : "");
+
+				return new Response(status, body);
+			} finally {
+				connection.disconnect();
+			}
+		}
+	}
+}
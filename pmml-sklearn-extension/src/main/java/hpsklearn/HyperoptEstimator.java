@@ -104,6 +104,9 @@ public class HyperoptEstimator extends Composite implements Encodable {
 		Estimator estimator = getFinalEstimator();
 
 		initLabel(null, encoder);
+
+		encoder.configure(estimator);
+
 		initFeatures(null, encoder);
 
 		Schema schema = encoder.createSchema();
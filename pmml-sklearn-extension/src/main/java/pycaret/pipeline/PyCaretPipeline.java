@@ -91,6 +91,8 @@ public class PyCaretPipeline extends SkLearnPipeline {
 		List<? extends TransformerWrapper> transformers = getTransformers();
 		Estimator estimator = getFinalEstimator();
 
+		encoder.configure(estimator);
+
 		TransformerWrapper transformer = transformers.get(0);
 
 		String targetName = transformer.getTargetName();
@@ -18,13 +18,19 @@
  */
 package lightgbm.sklearn;
 
-import java.io.IOException;
-import java.io.StringReader;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import com.google.common.io.CharStreams;
 import org.jpmml.lightgbm.GBDT;
 import org.jpmml.lightgbm.LightGBMUtil;
+import org.jpmml.lightgbm.Section;
 import org.jpmml.python.PythonObject;
 
 public class Booster extends PythonObject {
@@ -45,16 +51,14 @@ public class Booster extends PythonObject {
 		return this.gbdt;
 	}
 
+	void setGBDT(GBDT gbdt){
+		this.gbdt = gbdt;
+	}
+
 	private GBDT loadGBDT(){
 		String handle = getHandle();
 
-		try(StringReader reader = new StringReader(handle)){
-			List<String> lines = CharStreams.readLines(reader);
-
-			return LightGBMUtil.loadGBDT(lines.iterator());
-		} catch(IOException ioe){
-			throw new RuntimeException(ioe);
-		}
+		return loadGBDT(handle, handle.length() >= Booster.PARALLEL_THRESHOLD);
 	}
 
 	public String getHandle(){
@@ -67,4 +71,188 @@ public class Booster extends PythonObject {
 		// LightGBM 4.0.0+
 		return getString("_handle");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * <p>
+	 * Loads a GBDT from its text dump.
+	 * </p>
+	 *
+	 * <p>
+	 * The text dump is split into lines lazily, without materializing them all at once.
+	 * In parallel mode, the text dump is first split into sections (ie. header, trees, feature importances)
+	 * along empty lines, and the sections are then streamed into the loader.
+	 * Upcoming sections are parsed concurrently, but only a bounded number of them is held in memory at any time.
+	 * </p>
+	 */
+	static
+	public GBDT loadGBDT(String handle, boolean parallel){
+
+		if(!parallel){
+			return LightGBMUtil.loadGBDT(new LineIterator(handle));
+		}
+
+		List<int[]> ranges = splitSections(handle);
+
+		int threads = Math.max(Math.min(Runtime.getRuntime().availableProcessors(), ranges.size()), 1);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Section> sections = new SectionList(handle, ranges, executorService, 2 * threads);
+
+			GBDT gbdt = new GBDT();
+			gbdt.load(sections);
+
+			return gbdt;
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return The character ranges of sections.
+	 *
+	 * @see LineIterator
+	 */
+	static
+	private List<int[]> splitSections(String handle){
+		List<int[]> result = new ArrayList<>();
+
+		int sectionBegin = 0;
+
+		int lineBegin = 0;
+
+		for(int i = 0, length = handle.length(); i < length; i++){
+			char c = handle.charAt(i);
+
+			if(c != '\n' && c != '\r'){
+				continue;
+			}
+
+			int lineEnd = i;
+
+			if(c == '\r' && (i + 1) < length && handle.charAt(i + 1) == '\n'){
+				i++;
+			}
+
+			// An empty line terminates the current section
+			if(lineBegin == lineEnd){
+
+				if(sectionBegin < lineBegin){
+					result.add(new int[]{sectionBegin, lineBegin});
+				}
+
+				sectionBegin = (i + 1);
+			}
+
+			lineBegin = (i + 1);
+		}
+
+		if(sectionBegin < handle.length()){
+			result.add(new int[]{sectionBegin, handle.length()});
+		}
+
+		return result;
+	}
+
+	static
+	private Section parseSection(String handle, int begin, int end){
+		Section result = new Section();
+
+		LineIterator lines = new LineIterator(handle, begin, end);
+
+		while(lines.hasNext()){
+			String line = lines.next();
+
+			result.put(line);
+		}
+
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * A read-only list of sections, which parses sections on demand.
+	 * </p>
+	 *
+	 * <p>
+	 * Accessing a section schedules the parsing of a window of sections that follow it,
+	 * and discards all sections that precede it.
+	 * A discarded section is parsed again if it is accessed again.
+	 * </p>
+	 */
+	static
+	private class SectionList extends AbstractList<Section> {
+
+		private String handle = null;
+
+		private List<int[]> ranges = null;
+
+		private ExecutorService executorService = null;
+
+		private int window = 0;
+
+		private NavigableMap<Integer, Future<Section>> futures = new TreeMap<>();
+
+
+		private SectionList(String handle, List<int[]> ranges, ExecutorService executorService, int window){
+			this.handle = handle;
+			this.ranges = ranges;
+			this.executorService = executorService;
+			this.window = window;
+		}
+
+		@Override
+		public int size(){
+			return this.ranges.size();
+		}
+
+		@Override
+		public Section get(int index){
+			int size = size();
+
+			if(index < 0 || index >= size){
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+
+			(this.futures.headMap(index, false)).clear();
+
+			for(int i = index, max = Math.min(index + this.window, size); i < max; i++){
+				this.futures.computeIfAbsent(i, this::parseSection);
+			}
+
+			Future<Section> future = this.futures.get(index);
+
+			try {
+				return future.get();
+			} catch(InterruptedException ie){
+				Thread.currentThread().interrupt();
+
+				throw new IllegalStateException(ie);
+			} catch(ExecutionException ee){
+				Throwable cause = ee.getCause();
+
+				if(cause instanceof RuntimeException){
+					throw (RuntimeException)cause;
+				} else
+
+				if(cause instanceof Error){
+					throw (Error)cause;
+				}
+
+				throw new IllegalStateException(cause);
+			}
+		}
+
+		private Future<Section> parseSection(int index){
+			int[] range = this.ranges.get(index);
+
+			return this.executorService.submit(() -> Booster.parseSection(this.handle, range[0], range[1]));
+		}
+	}
+
+	/**
+	 * The minimum length of a text dump (in characters) for parsing it in parallel mode.
+	 */
+	public static final int PARALLEL_THRESHOLD = 16 * 1024 * 1024;
+}
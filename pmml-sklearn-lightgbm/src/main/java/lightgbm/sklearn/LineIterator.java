@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package lightgbm.sklearn;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A lazy line iterator over a region of a character sequence.
+ * </p>
+ *
+ * <p>
+ * Lines are terminated by <code>\n</code>, <code>\r\n</code> or <code>\r</code>.
+ * The terminator is not included in the line.
+ * A trailing terminator does not start a new (empty) line.
+ * </p>
+ *
+ * @see com.google.common.io.CharStreams#readLines(Readable)
+ */
+public class LineIterator implements Iterator<String> {
+
+	private CharSequence chars = null;
+
+	private int position = 0;
+
+	private int end = 0;
+
+
+	public LineIterator(CharSequence chars){
+		this(chars, 0, chars.length());
+	}
+
+	public LineIterator(CharSequence chars, int begin, int end){
+		this.chars = chars;
+		this.position = begin;
+		this.end = end;
+	}
+
+	@Override
+	public boolean hasNext(){
+		return (this.position < this.end);
+	}
+
+	@Override
+	public String next(){
+
+		if(!hasNext()){
+			throw new NoSuchElementException();
+		}
+
+		CharSequence chars = this.chars;
+
+		int begin = this.position;
+
+		for(int i = begin; i < this.end; i++){
+			char c = chars.charAt(i);
+
+			if(c == '\n'){
+				this.position = (i + 1);
+
+				return toString(begin, i);
+			} else
+
+			if(c == '\r'){
+				this.position = (i + 1);
+
+				if(this.position < this.end && chars.charAt(this.position) == '\n'){
+					this.position++;
+				}
+
+				return toString(begin, i);
+			}
+		}
+
+		this.position = this.end;
+
+		return toString(begin, this.end);
+	}
+
+	private String toString(int begin, int end){
+		CharSequence chars = this.chars;
+
+		return (chars.subSequence(begin, end)).toString();
+	}
+}
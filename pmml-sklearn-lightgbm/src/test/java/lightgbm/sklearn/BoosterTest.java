@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package lightgbm.sklearn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import org.dmg.pmml.Extension;
+import org.dmg.pmml.Header;
+import org.dmg.pmml.MiningSchema;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.Visitor;
+import org.dmg.pmml.VisitorAction;
+import org.jpmml.model.visitors.AbstractVisitor;
+import org.jpmml.python.PickleUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.jpmml.sklearn.SkLearnUtil;
+import org.jpmml.sklearn.StreamingUtil;
+import org.junit.Test;
+import sklearn2pmml.pipeline.PMMLPipeline;
+
+import static org.junit.Assert.assertEquals;
+
+public class BoosterTest {
+
+	@Test
+	public void iterateLines(){
+		assertEquals(Collections.emptyList(), readLines(""));
+		assertEquals(Arrays.asList(""), readLines("\n"));
+		assertEquals(Arrays.asList("a", "", "b"), readLines("a\n\nb"));
+		assertEquals(Arrays.asList("a", "", "b"), readLines("a\r\n\r\nb\r\n"));
+		assertEquals(Arrays.asList("a", "b", ""), readLines("a\rb\r\r"));
+	}
+
+	@Test
+	public void loadGBDT() throws Exception {
+		String[] names = {"LGBMAudit", "LGBMAuditCat", "LGBMAuto", "LGBMIris"};
+
+		for(String name : names){
+			String expectedPmml = encodePMML(name, false);
+			String pmml = encodePMML(name, true);
+
+			assertEquals(name, expectedPmml, pmml);
+		}
+	}
+
+	static
+	private List<String> readLines(String string){
+		return Lists.newArrayList(new LineIterator(string));
+	}
+
+	static
+	private PMMLPipeline unpickle(String name) throws Exception {
+
+		try(InputStream is = BoosterTest.class.getResourceAsStream("/pkl/" + name + ".pkl"); Storage storage = StorageUtil.createStorage(is)){
+			return (PMMLPipeline)PickleUtil.unpickle(storage);
+		}
+	}
+
+	static
+	private String encodePMML(String name, boolean parallel) throws Exception {
+		PMMLPipeline pipeline = unpickle(name);
+
+		HasBooster hasBooster = (HasBooster)pipeline.getFinalEstimator();
+
+		Booster booster = hasBooster.getBooster();
+		booster.setGBDT(Booster.loadGBDT(booster.getHandle(), parallel));
+
+		PMML pmml = pipeline.encodePMML();
+
+		Header header = pmml.getHeader();
+		header.setTimestamp(null);
+
+		// The ordering of feature importances is not stable between conversions
+		Visitor visitor = new AbstractVisitor(){
+
+			@Override
+			public VisitorAction visit(MiningSchema miningSchema){
+
+				if(miningSchema.hasExtensions()){
+					List<Extension> extensions = miningSchema.getExtensions();
+
+					extensions.removeIf(extension -> ("X-FeatureImportances").equals(extension.getName()));
+				}
+
+				return super.visit(miningSchema);
+			}
+		};
+		visitor.applyTo(pmml);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		StreamingUtil.marshalPMML(pmml, os);
+
+		return os.toString(StandardCharsets.UTF_8.name());
+	}
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>
+ * A read-only byte buffer, which is backed by a sequence of {@link ByteBuffer} chunks.
+ * </p>
+ *
+ * <p>
+ * All chunks except the last one are exactly <code>2^chunkShift</code> bytes in size.
+ * The total size is not limited to {@link Integer#MAX_VALUE} bytes.
+ * Multi-byte values that span a chunk boundary are assembled byte by byte.
+ * </p>
+ *
+ * @see MappedStorage#map(long, long)
+ */
+public class ChunkedByteBuffer {
+
+	private ByteBuffer[] chunks = null;
+
+	private int chunkShift = 0;
+
+	private long chunkMask = 0L;
+
+	private long size = 0L;
+
+	private ByteOrder byteOrder = null;
+
+
+	public ChunkedByteBuffer(ByteBuffer[] chunks, int chunkShift, long size){
+		this(chunks, chunkShift, size, ByteOrder.BIG_ENDIAN);
+	}
+
+	private ChunkedByteBuffer(ByteBuffer[] chunks, int chunkShift, long size, ByteOrder byteOrder){
+
+		if(chunkShift < 0 || chunkShift > 31){
+			throw new IllegalArgumentException("Expected a chunk shift in range [0, 31], got " + chunkShift);
+		}
+
+		chunks = chunks.clone();
+
+		long chunkSize = (1L << chunkShift);
+
+		long totalSize = 0L;
+
+		for(int i = 0; i < chunks.length; i++){
+			ByteBuffer chunk = chunks[i];
+
+			int capacity = chunk.capacity();
+
+			if((i < chunks.length - 1) ? (capacity != chunkSize) : (capacity > chunkSize)){
+				throw new IllegalArgumentException("Expected a chunk of " + chunkSize + " bytes, got " + capacity + " bytes");
+			}
+
+			chunks[i] = chunk.duplicate().order(byteOrder);
+
+			totalSize += capacity;
+		}
+
+		if(totalSize != size){
+			throw new IllegalArgumentException("Expected " + size + " bytes, got " + totalSize + " bytes");
+		}
+
+		this.chunks = chunks;
+		this.chunkShift = chunkShift;
+		this.chunkMask = (chunkSize - 1L);
+		this.size = size;
+		this.byteOrder = byteOrder;
+	}
+
+	public long size(){
+		return this.size;
+	}
+
+	public ByteOrder order(){
+		return this.byteOrder;
+	}
+
+	/**
+	 * @return A view of this buffer, which decodes multi-byte values in the specified byte order.
+	 */
+	public ChunkedByteBuffer order(ByteOrder byteOrder){
+
+		if(this.byteOrder == byteOrder){
+			return this;
+		}
+
+		return new ChunkedByteBuffer(this.chunks, this.chunkShift, this.size, byteOrder);
+	}
+
+	public byte get(long position){
+		ByteBuffer chunk = getChunk(position);
+
+		return chunk.get(getChunkOffset(position));
+	}
+
+	/**
+	 * <p>
+	 * Copies a range of bytes into a byte array.
+	 * </p>
+	 */
+	public void get(long position, byte[] dst, int offset, int length){
+
+		while(length > 0){
+			ByteBuffer chunk = (getChunk(position)).duplicate();
+
+			int chunkOffset = getChunkOffset(position);
+
+			int count = Math.min(length, chunk.capacity() - chunkOffset);
+
+			// The covariant ByteBuffer#position(int) method is not available on Java 8
+			((Buffer)chunk).position(chunkOffset);
+
+			chunk.get(dst, offset, count);
+
+			position += count;
+			offset += count;
+			length -= count;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Creates a sequential view of this buffer.
+	 * The bytes are read straight from the chunks, without copying the buffer as a whole.
+	 * </p>
+	 */
+	public InputStream getInputStream(){
+		return new ChunkedInputStream(this);
+	}
+
+	public short getShort(long position){
+		ByteBuffer chunk = getChunk(position);
+
+		int chunkOffset = getChunkOffset(position);
+		if(chunkOffset + 2 <= chunk.capacity()){
+			return chunk.getShort(chunkOffset);
+		}
+
+		return (short)getBytes(position, 2);
+	}
+
+	public int getInt(long position){
+		ByteBuffer chunk = getChunk(position);
+
+		int chunkOffset = getChunkOffset(position);
+		if(chunkOffset + 4 <= chunk.capacity()){
+			return chunk.getInt(chunkOffset);
+		}
+
+		return (int)getBytes(position, 4);
+	}
+
+	public long getLong(long position){
+		ByteBuffer chunk = getChunk(position);
+
+		int chunkOffset = getChunkOffset(position);
+		if(chunkOffset + 8 <= chunk.capacity()){
+			return chunk.getLong(chunkOffset);
+		}
+
+		return getBytes(position, 8);
+	}
+
+	public float getFloat(long position){
+		return Float.intBitsToFloat(getInt(position));
+	}
+
+	public double getDouble(long position){
+		return Double.longBitsToDouble(getLong(position));
+	}
+
+	private long getBytes(long position, int length){
+		long result = 0L;
+
+		if(this.byteOrder == ByteOrder.BIG_ENDIAN){
+
+			for(int i = 0; i < length; i++){
+				result = (result << 8) | (get(position + i) & 0xFFL);
+			}
+		} else
+
+		{
+			for(int i = length - 1; i >= 0; i--){
+				result = (result << 8) | (get(position + i) & 0xFFL);
+			}
+		}
+
+		return result;
+	}
+
+	private ByteBuffer getChunk(long position){
+
+		if(position < 0L || position >= this.size){
+			throw new IndexOutOfBoundsException("Expected a position in range [0, " + this.size + "), got " + position);
+		}
+
+		return this.chunks[(int)(position >>> this.chunkShift)];
+	}
+
+	private int getChunkOffset(long position){
+		return (int)(position & this.chunkMask);
+	}
+
+	static
+	public ChunkedByteBuffer wrap(byte[] data){
+		return new ChunkedByteBuffer(new ByteBuffer[]{ByteBuffer.wrap(data)}, 31, data.length);
+	}
+
+	static
+	private class ChunkedInputStream extends InputStream {
+
+		private ChunkedByteBuffer buffer = null;
+
+		private long position = 0L;
+
+		private long mark = 0L;
+
+
+		private ChunkedInputStream(ChunkedByteBuffer buffer){
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read(){
+			ChunkedByteBuffer buffer = this.buffer;
+
+			if(this.position >= buffer.size()){
+				return -1;
+			}
+
+			byte result = buffer.get(this.position);
+
+			this.position++;
+
+			return (result & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int offset, int length){
+			ChunkedByteBuffer buffer = this.buffer;
+
+			if(offset < 0 || length < 0 || length > (b.length - offset)){
+				throw new IndexOutOfBoundsException();
+			} // End if
+
+			if(length == 0){
+				return 0;
+			}
+
+			long remaining = buffer.size() - this.position;
+			if(remaining <= 0L){
+				return -1;
+			}
+
+			int count = (int)Math.min(length, remaining);
+
+			buffer.get(this.position, b, offset, count);
+
+			this.position += count;
+
+			return count;
+		}
+
+		@Override
+		public long skip(long n){
+
+			if(n <= 0L){
+				return 0L;
+			}
+
+			long count = Math.min(n, this.buffer.size() - this.position);
+
+			this.position += count;
+
+			return count;
+		}
+
+		@Override
+		public int available(){
+			return (int)Math.min(this.buffer.size() - this.position, Integer.MAX_VALUE);
+		}
+
+		@Override
+		public boolean markSupported(){
+			return true;
+		}
+
+		@Override
+		public void mark(int readLimit){
+			this.mark = this.position;
+		}
+
+		@Override
+		public void reset(){
+			this.position = this.mark;
+		}
+	}
+}
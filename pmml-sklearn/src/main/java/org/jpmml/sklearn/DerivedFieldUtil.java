@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.collect.ListMultimap;
+import org.dmg.pmml.Apply;
+import org.dmg.pmml.Constant;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.DerivedField;
+import org.dmg.pmml.Expression;
+import org.dmg.pmml.InvalidValueTreatmentMethod;
+import org.dmg.pmml.MiningField;
+import org.dmg.pmml.MiningSchema;
+import org.dmg.pmml.Model;
+import org.dmg.pmml.PMMLFunctions;
+import org.dmg.pmml.Predicate;
+import org.dmg.pmml.UnivariateStats;
+import org.dmg.pmml.VisitorAction;
+import org.jpmml.converter.Decorator;
+import org.jpmml.converter.DerivedOutputField;
+import org.jpmml.converter.ExpressionUtil;
+import org.jpmml.converter.Feature;
+import org.jpmml.model.ReflectionUtil;
+import org.jpmml.model.visitors.AbstractVisitor;
+import org.jpmml.model.visitors.FieldRenamer;
+
+public class DerivedFieldUtil {
+
+	private DerivedFieldUtil(){
+	}
+
+	/**
+	 * <p>
+	 * Simplifies the derived fields of an encoder.
+	 * </p>
+	 *
+	 * <p>
+	 * Constant-only arithmetic sub-expressions are folded into constants.
+	 * Derived fields that are structurally identical to an earlier derived field are removed,
+	 * and all references to them (in other derived fields, in the model, in transformer models and in the model predicate) are redirected to the earlier derived field.
+	 * Derived fields that carry model-level content (eg. decorators, feature importances) keep their identity.
+	 * </p>
+	 *
+	 * @return A mapping from removed derived field names to surviving derived field names.
+	 *
+	 * @see SkLearnEncoder#isOptimizeTransformations()
+	 */
+	static
+	public Map<String, String> optimize(SkLearnEncoder encoder, Model model){
+		Set<String> pinnedNames = getPinnedNames(encoder);
+
+		Map<String, DerivedField> derivedFields = encoder.getDerivedFields();
+
+		Map<String, String> mappings = new LinkedHashMap<>();
+
+		FieldRenamer fieldRenamer = new FieldRenamer(mappings);
+
+		Map<DerivedFieldKey, String> canonicalNames = new HashMap<>();
+
+		// Derived fields are stored in declaration order, which means that dependencies come before dependents
+		List<DerivedField> orderedDerivedFields = new ArrayList<>(derivedFields.values());
+		for(DerivedField derivedField : orderedDerivedFields){
+			String name = derivedField.requireName();
+
+			// Placeholders for model output fields
+			if(derivedField instanceof DerivedOutputField){
+				continue;
+			} // End if
+
+			if(!mappings.isEmpty()){
+				fieldRenamer.applyTo(derivedField.requireExpression());
+			}
+
+			derivedField.setExpression(foldConstants(derivedField.requireExpression()));
+
+			if(!isMergeable(derivedField)){
+				continue;
+			}
+
+			DerivedFieldKey key = new DerivedFieldKey(derivedField);
+
+			String canonicalName = canonicalNames.get(key);
+			if(canonicalName == null){
+				canonicalNames.put(key, name);
+
+				continue;
+			} // End if
+
+			if(pinnedNames.contains(name)){
+				continue;
+			}
+
+			mappings.put(name, canonicalName);
+
+			encoder.removeDerivedField(name);
+		}
+
+		if(!mappings.isEmpty()){
+			Predicate predicate = encoder.getPredicate();
+
+			if(predicate != null){
+				fieldRenamer.applyTo(predicate);
+			}
+
+			List<Model> models = new ArrayList<>(encoder.getTransformers());
+
+			if(model != null){
+				models.add(model);
+			}
+
+			MiningSchemaDeduplicator miningSchemaDeduplicator = new MiningSchemaDeduplicator();
+
+			for(Model targetModel : models){
+				fieldRenamer.applyTo(targetModel);
+
+				miningSchemaDeduplicator.applyTo(targetModel);
+			}
+		}
+
+		return mappings;
+	}
+
+	/**
+	 * <p>
+	 * Folds constant-only arithmetic sub-expressions into constants.
+	 * </p>
+	 *
+	 * <p>
+	 * Only binary arithmetic functions (<code>+</code>, <code>-</code>, <code>*</code> and <code>/</code>)
+	 * over non-missing integer or double constants are folded.
+	 * The computation follows PMML type promotion rules:
+	 * integer operands stay integer (except for division), all other operands are promoted to double.
+	 * Float operands, integer overflows, divisions by zero and non-finite results are left unchanged.
+	 * </p>
+	 */
+	static
+	public Expression foldConstants(Expression expression){
+
+		if(expression instanceof Apply){
+			Apply apply = (Apply)expression;
+
+			List<Expression> expressions = apply.getExpressions();
+
+			for(ListIterator<Expression> it = expressions.listIterator(); it.hasNext(); ){
+				Expression argument = it.next();
+
+				Expression foldedArgument = foldConstants(argument);
+				if(foldedArgument != argument){
+					it.set(foldedArgument);
+				}
+			}
+
+			Constant constant = foldApply(apply);
+			if(constant != null){
+				return constant;
+			}
+		}
+
+		return expression;
+	}
+
+	static
+	private Constant foldApply(Apply apply){
+		String function = apply.requireFunction();
+
+		switch(function){
+			case PMMLFunctions.ADD:
+			case PMMLFunctions.SUBTRACT:
+			case PMMLFunctions.MULTIPLY:
+			case PMMLFunctions.DIVIDE:
+				break;
+			default:
+				return null;
+		}
+
+		if(apply.getMapMissingTo() != null || apply.getDefaultValue() != null || apply.getInvalidValueTreatment() != InvalidValueTreatmentMethod.RETURN_INVALID){
+			return null;
+		}
+
+		List<Expression> expressions = apply.getExpressions();
+		if(expressions.size() != 2){
+			return null;
+		}
+
+		Number left = getNumericValue(expressions.get(0));
+		Number right = getNumericValue(expressions.get(1));
+
+		if(left == null || right == null){
+			return null;
+		} // End if
+
+		if((left instanceof Integer) && (right instanceof Integer) && !(PMMLFunctions.DIVIDE).equals(function)){
+			int leftValue = left.intValue();
+			int rightValue = right.intValue();
+
+			try {
+				switch(function){
+					case PMMLFunctions.ADD:
+						return ExpressionUtil.createConstant(DataType.INTEGER, Math.addExact(leftValue, rightValue));
+					case PMMLFunctions.SUBTRACT:
+						return ExpressionUtil.createConstant(DataType.INTEGER, Math.subtractExact(leftValue, rightValue));
+					case PMMLFunctions.MULTIPLY:
+						return ExpressionUtil.createConstant(DataType.INTEGER, Math.multiplyExact(leftValue, rightValue));
+					default:
+						throw new IllegalArgumentException(function);
+				}
+			} catch(ArithmeticException ae){
+				return null;
+			}
+		}
+
+		double leftValue = left.doubleValue();
+		double rightValue = right.doubleValue();
+
+		double result;
+
+		switch(function){
+			case PMMLFunctions.ADD:
+				result = (leftValue + rightValue);
+				break;
+			case PMMLFunctions.SUBTRACT:
+				result = (leftValue - rightValue);
+				break;
+			case PMMLFunctions.MULTIPLY:
+				result = (leftValue * rightValue);
+				break;
+			case PMMLFunctions.DIVIDE:
+				{
+					if(rightValue == 0d){
+						return null;
+					}
+
+					result = (leftValue / rightValue);
+				}
+				break;
+			default:
+				throw new IllegalArgumentException(function);
+		}
+
+		if(Double.isNaN(result) || Double.isInfinite(result)){
+			return null;
+		}
+
+		return ExpressionUtil.createConstant(DataType.DOUBLE, result);
+	}
+
+	/**
+	 * @return An {@link Integer} or {@link Double} value, or <code>null</code>.
+	 */
+	static
+	private Number getNumericValue(Expression expression){
+
+		if(!(expression instanceof Constant)){
+			return null;
+		}
+
+		Constant constant = (Constant)expression;
+
+		if(constant.isMissing()){
+			return null;
+		}
+
+		Object value = constant.getValue();
+		DataType dataType = constant.getDataType();
+
+		if(value instanceof Integer){
+
+			if(dataType == null || dataType == DataType.INTEGER){
+				return (Integer)value;
+			} else
+
+			if(dataType == DataType.DOUBLE){
+				return ((Integer)value).doubleValue();
+			}
+		} else
+
+		if(value instanceof Double){
+
+			if(dataType == null || dataType == DataType.DOUBLE){
+				return (Double)value;
+			}
+		}
+
+		return null;
+	}
+
+	static
+	private boolean isMergeable(DerivedField derivedField){
+		return !derivedField.hasValues() && !derivedField.hasIntervals() && !derivedField.hasExtensions();
+	}
+
+	static
+	private Set<String> getPinnedNames(SkLearnEncoder encoder){
+		Set<String> result = new HashSet<>();
+
+		Map<Model, ListMultimap<String, Decorator>> decorators = encoder.getDecorators();
+		for(ListMultimap<String, Decorator> modelDecorators : decorators.values()){
+			result.addAll(modelDecorators.keySet());
+		}
+
+		Map<Model, ListMultimap<Feature, Number>> featureImportances = encoder.getFeatureImportances();
+		for(ListMultimap<Feature, Number> modelFeatureImportances : featureImportances.values()){
+
+			for(Feature feature : modelFeatureImportances.keySet()){
+				result.add(feature.getName());
+			}
+		}
+
+		Map<Model, List<UnivariateStats>> univariateStats = encoder.getUnivariateStats();
+		for(List<UnivariateStats> modelUnivariateStats : univariateStats.values()){
+
+			for(UnivariateStats fieldUnivariateStats : modelUnivariateStats){
+				result.add(fieldUnivariateStats.getField());
+			}
+		}
+
+		return result;
+	}
+
+	static
+	private class DerivedFieldKey {
+
+		private DerivedField derivedField = null;
+
+		private int hashCode = 0;
+
+
+		private DerivedFieldKey(DerivedField derivedField){
+			this.derivedField = derivedField;
+
+			this.hashCode = Objects.hash(derivedField.getOpType(), derivedField.getDataType(), derivedField.getDisplayName(), ReflectionUtil.hashCode(derivedField.requireExpression()));
+		}
+
+		@Override
+		public int hashCode(){
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object object){
+
+			if(object instanceof DerivedFieldKey){
+				DerivedFieldKey that = (DerivedFieldKey)object;
+
+				DerivedField left = this.derivedField;
+				DerivedField right = that.derivedField;
+
+				return (this.hashCode == that.hashCode) && (left.getOpType() == right.getOpType()) && (left.getDataType() == right.getDataType()) && Objects.equals(left.getDisplayName(), right.getDisplayName()) && ReflectionUtil.equals(left.requireExpression(), right.requireExpression());
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Removes repeated mining fields, which appear when two merged derived fields were both active in the same model.
+	 * </p>
+	 */
+	static
+	private class MiningSchemaDeduplicator extends AbstractVisitor {
+
+		@Override
+		public VisitorAction visit(MiningSchema miningSchema){
+
+			if(miningSchema.hasMiningFields()){
+				List<MiningField> miningFields = miningSchema.getMiningFields();
+
+				Set<String> names = new HashSet<>();
+
+				miningFields.removeIf(miningField -> !names.add(miningField.requireName()));
+			}
+
+			return super.visit(miningSchema);
+		}
+	}
+}
@@ -20,9 +20,51 @@ package org.jpmml.sklearn;
 
 import org.jpmml.converter.HasOptions;
 import sklearn.Estimator;
+import sklearn2pmml.pipeline.VerificationUtil;
 
 /**
  * @see Estimator#getOption(String, Object)
  */
 public interface HasSkLearnOptions extends HasOptions {
+
+	/**
+	 * <p>
+	 * Disabled by default.
+	 * Trades PMML evaluation speed for fewer arithmetic operations, which only pays off with PMML consumers that compile expressions.
+	 * </p>
+	 *
+	 * @see SkLearnEncoder#isFactorizedPolynomials()
+	 */
+	String OPTION_FACTORIZED_POLYNOMIALS = "factorized_polynomials";
+
+	/**
+	 * @see SkLearnEncoder#isLazyFeatures()
+	 */
+	String OPTION_LAZY_FEATURES = "lazy_features";
+
+	/**
+	 * @see SkLearnEncoder#isOptimizeTransformations()
+	 */
+	String OPTION_OPTIMIZE_TRANSFORMATIONS = "optimize_transformations";
+
+	/**
+	 * @see SkLearnEncoder#isPiecewiseSplines()
+	 */
+	String OPTION_PIECEWISE_SPLINES = "piecewise_splines";
+
+	/**
+	 * @see SkLearnEncoder#isReleaseContent()
+	 */
+	String OPTION_RELEASE_CONTENT = "release_content";
+
+	/**
+	 * @see VerificationUtil#selectRows(int, int)
+	 */
+	String OPTION_VERIFICATION_MAX_RECORDS = "verification_max_records";
+
+	/**
+	 * @see VerificationUtil#SAMPLING_STRATIFIED
+	 * @see VerificationUtil#SAMPLING_SYSTEMATIC
+	 */
+	String OPTION_VERIFICATION_SAMPLING = "verification_sampling";
 }
\ No newline at end of file
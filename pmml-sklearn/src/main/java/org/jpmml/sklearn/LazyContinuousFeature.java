@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.util.function.Supplier;
+
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.DerivedField;
+import org.dmg.pmml.Expression;
+import org.dmg.pmml.FieldRef;
+import org.dmg.pmml.OpType;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.PMMLEncoder;
+
+/**
+ * <p>
+ * A continuous feature, whose derived field is created on first use.
+ * </p>
+ *
+ * <p>
+ * The derived field is created when the feature is first referenced by another derived field (see {@link #ref()}),
+ * or when the encoder finds the name of the feature in the final model.
+ * Querying the name or the field of the feature does not have any side effects.
+ * A feature that is dropped before that (eg. by a feature selector) does not leave any trace in the encoder.
+ * </p>
+ *
+ * @see SkLearnEncoder#isLazyFeatures()
+ */
+public class LazyContinuousFeature extends ContinuousFeature {
+
+	private Supplier<? extends Expression> expressionSupplier = null;
+
+	private DerivedField derivedField = null;
+
+
+	public LazyContinuousFeature(PMMLEncoder encoder, String name, DataType dataType, Supplier<? extends Expression> expressionSupplier){
+		super(encoder, name, dataType);
+
+		setExpressionSupplier(expressionSupplier);
+	}
+
+	@Override
+	public FieldRef ref(){
+		materialize();
+
+		return super.ref();
+	}
+
+	/**
+	 * <p>
+	 * Creates the derived field, unless it exists already.
+	 * </p>
+	 */
+	public DerivedField materialize(){
+		PMMLEncoder encoder = getEncoder();
+
+		String name = getName();
+
+		DerivedField derivedField = encoder.getDerivedField(name);
+		if(derivedField == null){
+			derivedField = getDerivedField();
+
+			encoder.addDerivedField(derivedField);
+		}
+
+		return derivedField;
+	}
+
+	/**
+	 * <p>
+	 * Gets the derived field, without adding it to the encoder.
+	 * </p>
+	 *
+	 * <p>
+	 * The same derived field object is added to the encoder upon materialization,
+	 * so that changes made to it before that are retained.
+	 * </p>
+	 */
+	public DerivedField getDerivedField(){
+
+		if(this.derivedField == null){
+			Supplier<? extends Expression> expressionSupplier = getExpressionSupplier();
+
+			this.derivedField = new DerivedField(getName(), OpType.CONTINUOUS, getDataType(), expressionSupplier.get());
+		}
+
+		return this.derivedField;
+	}
+
+	public Supplier<? extends Expression> getExpressionSupplier(){
+		return this.expressionSupplier;
+	}
+
+	private void setExpressionSupplier(Supplier<? extends Expression> expressionSupplier){
+		this.expressionSupplier = expressionSupplier;
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import numpy.core.NDArray;
+import numpy.core.NDArrayUtil;
+
+/**
+ * <p>
+ * A Numpy array, whose data buffer is a memory-mapped region of a pickle file.
+ * </p>
+ *
+ * <p>
+ * The data buffer is never copied to the heap as a whole.
+ * Primitive-valued content should be accessed using typed accessors (see {@link #getRecordArray()}), which decode elements directly from the mapping.
+ * Boxed content (see {@link #getContent()}) is decoded by streaming over the mapping.
+ * Clearing the array content releases both representations.
+ * </p>
+ *
+ * @see RecordArray
+ */
+public class MappedNDArray extends NDArray {
+
+	private ChunkedByteBuffer buffer = null;
+
+	private RecordArray recordArray = null;
+
+	private Object content = null;
+
+
+	public MappedNDArray(Object[] shape, Object descr, Boolean fortranOrder, ChunkedByteBuffer buffer){
+		__setstate__(new Object[]{1, shape, descr, fortranOrder, null});
+
+		this.buffer = buffer;
+	}
+
+	@Override
+	public Object getContent(){
+
+		if(this.content == null){
+
+			try(InputStream is = getInputStream()){
+				this.content = NDArrayUtil.parseData(is, getDescr(), getShape());
+			} catch(IOException ioe){
+				throw new UncheckedIOException(ioe);
+			}
+		}
+
+		return this.content;
+	}
+
+	@Override
+	public void clearContent(){
+		super.clearContent();
+
+		this.recordArray = null;
+		this.content = null;
+	}
+
+	/**
+	 * @return A read-only view of the data buffer.
+	 */
+	public ChunkedByteBuffer getBuffer(){
+		return this.buffer;
+	}
+
+	/**
+	 * @return A sequential view of the data buffer.
+	 */
+	public InputStream getInputStream(){
+		ChunkedByteBuffer buffer = getBuffer();
+
+		return buffer.getInputStream();
+	}
+
+	/**
+	 * @return A primitive-valued view of the data buffer, or <code>null</code> if the array layout is not supported.
+	 *
+	 * @see RecordArray#create(Object)
+	 */
+	public RecordArray getRecordArray(){
+
+		if(this.recordArray == null){
+			this.recordArray = RecordArray.create(this);
+		}
+
+		return this.recordArray;
+	}
+}
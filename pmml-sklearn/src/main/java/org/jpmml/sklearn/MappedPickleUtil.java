@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import joblib.NDArrayWrapperConstructor;
+import joblib.NumpyArrayWrapper;
+import net.razorvine.pickle.Opcodes;
+import net.razorvine.pickle.PickleUtils;
+import net.razorvine.pickle.Unpickler;
+import numpy.DType;
+import numpy.core.NDArray;
+import numpy.core.TypeDescriptor;
+import org.jpmml.converter.ValueUtil;
+import org.jpmml.python.CustomUnpickler;
+import org.jpmml.python.PickleUtil;
+import org.jpmml.python.Storage;
+
+public class MappedPickleUtil {
+
+	private MappedPickleUtil(){
+	}
+
+	/**
+	 * <p>
+	 * Unpickles a Joblib dump.
+	 * </p>
+	 *
+	 * <p>
+	 * Unlike {@link PickleUtil#unpickle(Storage)}, this method is safe for concurrent use,
+	 * because storage-bound object constructors are resolved per unpickler instance,
+	 * rather than via the global {@link Unpickler#registerConstructor(String, String, net.razorvine.pickle.IObjectConstructor)} table.
+	 * </p>
+	 */
+	static
+	public Object unpickle(Storage storage) throws IOException {
+
+		if(storage instanceof MappedStorage){
+			return unpickle((MappedStorage)storage);
+		}
+
+		try(InputStream is = storage.getObject()){
+			Unpickler unpickler = new StorageUnpickler(storage){
+
+				@Override
+				public NDArray toArray(NumpyArrayWrapper arrayWrapper) throws IOException {
+					return arrayWrapper.toArray(is);
+				}
+			};
+
+			return unpickler.load(is);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Unpickles an uncompressed Joblib dump.
+	 * </p>
+	 *
+	 * <p>
+	 * Unlike {@link PickleUtil#unpickle(Storage)}, array payloads are not parsed during unpickling.
+	 * Instead, they are exposed as memory-mapped regions of the dump file,
+	 * which are decoded lazily when the array content is first requested.
+	 * Arrays with non-numeric data types (eg. object, string), or non-numeric fields, are parsed as usual.
+	 * </p>
+	 *
+	 * @see MappedNDArray
+	 */
+	static
+	public Object unpickle(MappedStorage storage) throws IOException {
+
+		try(MappedStorage.PositionInputStream is = storage.getObject()){
+			Unpickler unpickler = new StorageUnpickler(storage){
+
+				@Override
+				public NDArray toArray(NumpyArrayWrapper arrayWrapper) throws IOException {
+					return MappedPickleUtil.toArray(arrayWrapper, storage, is);
+				}
+			};
+
+			return unpickler.load(is);
+		}
+	}
+
+	static
+	private NDArray toArray(NumpyArrayWrapper arrayWrapper, MappedStorage storage, MappedStorage.PositionInputStream is) throws IOException {
+		DType dtype = arrayWrapper.getDType();
+
+		int itemSize = getItemSize(dtype);
+		if(itemSize < 0){
+			return arrayWrapper.toArray(is);
+		}
+
+		Object[] shape = arrayWrapper.getShape();
+
+		long size = itemSize;
+
+		for(Object dim : shape){
+			size *= ValueUtil.asInt((Number)dim);
+		}
+
+		Integer alignmentBytes = arrayWrapper.getNumpyArrayAlignmentBytes();
+		if(alignmentBytes != null){
+			int padding = is.read();
+			if(padding < 0){
+				throw new IOException("Unexpected end of stream");
+			}
+
+			is.skipFully(padding);
+		}
+
+		ChunkedByteBuffer buffer = storage.map(is.getPosition(), size);
+
+		is.skipFully(size);
+
+		Boolean fortranOrder = ("F").equals(arrayWrapper.getOrder());
+
+		return new MappedNDArray(shape, dtype, fortranOrder, buffer);
+	}
+
+	/**
+	 * @return The size of array elements in bytes, or <code>-1</code> if the data type is not supported.
+	 */
+	static
+	private int getItemSize(DType dtype){
+		Map<String, Object[]> values = dtype.getValues();
+
+		if(values == null){
+			Object descr = dtype.toDescr();
+
+			if(descr instanceof String){
+				return getItemSize((String)descr);
+			}
+
+			return -1;
+		}
+
+		Integer wSize = dtype.getWSize();
+		if(wSize == null || wSize <= 0){
+			return -1;
+		}
+
+		Collection<Object[]> fieldValues = values.values();
+		for(Object[] fieldValue : fieldValues){
+			DType fieldDType = (DType)fieldValue[0];
+
+			if(fieldDType.getValues() != null){
+				return -1;
+			}
+
+			int fieldItemSize = getItemSize(fieldDType);
+			if(fieldItemSize < 0){
+				return -1;
+			}
+		}
+
+		return wSize;
+	}
+
+	static
+	private int getItemSize(String descr){
+		TypeDescriptor typeDescriptor = new TypeDescriptor(descr);
+
+		TypeDescriptor.Kind kind = typeDescriptor.getKind();
+		switch(kind){
+			case BOOLEAN:
+			case INTEGER:
+			case UNSIGNED_INTEGER:
+			case FLOAT:
+				return typeDescriptor.getSize();
+			default:
+				return -1;
+		}
+	}
+
+	/**
+	 * <p>
+	 * An unpickler that binds Joblib array constructors to its own storage.
+	 * </p>
+	 */
+	static
+	abstract
+	private class StorageUnpickler extends CustomUnpickler {
+
+		private Storage storage = null;
+
+
+		private StorageUnpickler(Storage storage){
+			this.storage = storage;
+		}
+
+		abstract
+		public NDArray toArray(NumpyArrayWrapper arrayWrapper) throws IOException;
+
+		@Override
+		protected Object dispatch(short key) throws IOException {
+			String module = null;
+			String name = null;
+
+			// Rewrite GLOBAL (arguments in the stream) as STACK_GLOBAL (arguments on the stack), so that both opcodes can be handled alike
+			if(key == Opcodes.GLOBAL){
+				module = PickleUtils.readline(super.input);
+				name = PickleUtils.readline(super.input);
+
+				super.stack.add(module);
+				super.stack.add(name);
+
+				key = Opcodes.STACK_GLOBAL;
+			} else
+
+			if(key == Opcodes.STACK_GLOBAL){
+				name = (String)super.stack.pop();
+				module = (String)super.stack.peek();
+
+				super.stack.add(name);
+			}
+
+			Object result = super.dispatch(key);
+
+			if(key == Opcodes.STACK_GLOBAL){
+
+				// Replace the constructor (if any) from the global constructor table with one that is bound to the storage of this unpickler
+				if(("NDArrayWrapper").equals(name) && NDARRAYWRAPPER_MODULES.contains(module)){
+					super.stack.pop();
+
+					super.stack.add(new NDArrayWrapperConstructor(module, name, this.storage));
+				}
+			} else
+
+			if(key == Opcodes.BUILD){
+				Object head = super.stack.peek();
+
+				// Modeled after the joblib.numpy_pickle.NumpyArrayWrapper#read(Unpickler) method
+				if(head instanceof NumpyArrayWrapper){
+					NumpyArrayWrapper arrayWrapper = (NumpyArrayWrapper)head;
+
+					super.stack.pop();
+
+					NDArray array = toArray(arrayWrapper);
+
+					super.stack.add(array);
+				}
+			}
+
+			return result;
+		}
+	}
+
+	private static final Set<String> NDARRAYWRAPPER_MODULES = new HashSet<>(Arrays.asList("joblib.numpy_pickle", "sklearn.externals.joblib.numpy_pickle"));
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.jpmml.python.Storage;
+
+/**
+ * <p>
+ * A storage for uncompressed pickle files, which exposes array payloads as memory-mapped regions of the file.
+ * </p>
+ *
+ * <p>
+ * Memory mappings remain valid after the storage has been closed.
+ * Array payloads are mapped in chunks of at most 1 GB, so that their size is not limited by the maximum size of a single memory mapping.
+ * </p>
+ *
+ * @see MappedPickleUtil#unpickle(MappedStorage)
+ */
+public class MappedStorage extends Storage {
+
+	private File file = null;
+
+	private FileChannel channel = null;
+
+	private int chunkShift = 0;
+
+
+	public MappedStorage(File file) throws IOException {
+		this(file, MappedStorage.CHUNK_SHIFT);
+	}
+
+	MappedStorage(File file, int chunkShift) throws IOException {
+		this.file = file;
+		this.chunkShift = chunkShift;
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+		ByteBuffer buffer = ByteBuffer.allocate(1);
+
+		int count = this.channel.read(buffer, 0);
+
+		// Pickle protocol 2+ data starts with the PROTO opcode
+		if(count < 1 || (buffer.get(0) & 0xFF) != 0x80){
+			this.channel.close();
+
+			throw new IOException("Expected an uncompressed pickle file, got " + file.getAbsolutePath());
+		}
+	}
+
+	@Override
+	public PositionInputStream getObject() throws IOException {
+		FileChannel channel = ensureOpen();
+
+		channel.position(0);
+
+		InputStream is = Channels.newInputStream(channel);
+
+		return new PositionInputStream(new BufferedInputStream(is, 64 * 1024));
+	}
+
+	@Override
+	public InputStream getArray(String path) throws IOException {
+		ensureOpen();
+
+		File file = new File(this.file.getParentFile(), path);
+
+		return new FileInputStream(file);
+	}
+
+	public ChunkedByteBuffer map(long position, long size) throws IOException {
+		FileChannel channel = ensureOpen();
+
+		int chunkShift = this.chunkShift;
+
+		long chunkSize = (1L << chunkShift);
+
+		ByteBuffer[] chunks = new ByteBuffer[Math.toIntExact((size + (chunkSize - 1L)) >>> chunkShift)];
+
+		for(int i = 0; i < chunks.length; i++){
+			long offset = ((long)i << chunkShift);
+
+			chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + offset, Math.min(chunkSize, size - offset));
+		}
+
+		return new ChunkedByteBuffer(chunks, chunkShift, size);
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		if(this.channel != null){
+			this.channel.close();
+
+			this.channel = null;
+		}
+	}
+
+	private FileChannel ensureOpen() throws IOException {
+
+		if(this.channel == null){
+			throw new IOException();
+		}
+
+		return this.channel;
+	}
+
+	static
+	public class PositionInputStream extends FilterInputStream {
+
+		private long position = 0L;
+
+
+		private PositionInputStream(InputStream is){
+			super(is);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int result = super.read();
+
+			if(result >= 0){
+				this.position++;
+			}
+
+			return result;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int result = super.read(buffer, offset, length);
+
+			if(result > 0){
+				this.position += result;
+			}
+
+			return result;
+		}
+
+		@Override
+		public long skip(long count) throws IOException {
+			long result = super.skip(count);
+
+			if(result > 0){
+				this.position += result;
+			}
+
+			return result;
+		}
+
+		public void skipFully(long count) throws IOException {
+
+			while(count > 0){
+				long skipped = skip(count);
+
+				if(skipped <= 0){
+
+					if(read() < 0){
+						throw new IOException("Unexpected end of stream");
+					}
+
+					skipped = 1;
+				}
+
+				count -= skipped;
+			}
+		}
+
+		@Override
+		public boolean markSupported(){
+			return false;
+		}
+
+		public long getPosition(){
+			return this.position;
+		}
+	}
+
+	/**
+	 * The binary logarithm of the memory mapping chunk size (ie. 1 GB).
+	 */
+	private static final int CHUNK_SHIFT = 30;
+}
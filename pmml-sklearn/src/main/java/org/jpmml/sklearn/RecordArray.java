@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import joblib.NDArrayWrapper;
+import numpy.DType;
+import numpy.core.NDArray;
+import numpy.core.TypeDescriptor;
+import org.jpmml.converter.ValueUtil;
+
+/**
+ * <p>
+ * A primitive-valued view of a Numpy array.
+ * </p>
+ *
+ * <p>
+ * Array elements are decoded directly from the raw data buffer (either a heap array, or a memory mapping) into <code>int[]</code> and <code>double[]</code> arrays,
+ * bypassing the boxed representation of {@link NDArray#getContent()}.
+ * Decoded arrays are cached.
+ * </p>
+ *
+ * <p>
+ * Structured arrays expose one column per dtype field.
+ * Plain (ie. non-structured) arrays expose a single anonymous column, which represents all elements in C order.
+ * </p>
+ */
+public class RecordArray {
+
+	private ChunkedByteBuffer buffer = null;
+
+	private int size = 0;
+
+	private int itemSize = 0;
+
+	private Map<String, Column> columns = null;
+
+	private Map<String, Object> intArrays = new ConcurrentHashMap<>();
+
+	private Map<String, Object> doubleArrays = new ConcurrentHashMap<>();
+
+
+	private RecordArray(ChunkedByteBuffer buffer, int size, int itemSize, Map<String, Column> columns){
+		this.buffer = buffer;
+		this.size = size;
+		this.itemSize = itemSize;
+		this.columns = columns;
+
+		if(((long)size * (long)itemSize) > buffer.size()){
+			throw new IllegalArgumentException("Expected at least " + ((long)size * (long)itemSize) + " bytes, got " + buffer.size() + " bytes");
+		}
+	}
+
+	public int size(){
+		return this.size;
+	}
+
+	public boolean hasColumn(String name){
+		Map<String, Column> columns = getColumns();
+
+		return columns.containsKey(name);
+	}
+
+	/**
+	 * @return The elements of a plain array.
+	 */
+	public int[] getIntArray(){
+		return getIntArray(RecordArray.ELEMENT);
+	}
+
+	/**
+	 * @return The elements of a structured array column, or <code>null</code> if there is no such column.
+	 */
+	public int[] getIntArray(String name){
+		Object result = this.intArrays.computeIfAbsent(name, key -> {
+			Column column = getColumn(key);
+			if(column == null){
+				return RecordArray.MISSING;
+			}
+
+			return decodeIntArray(column);
+		});
+
+		if(result == RecordArray.MISSING){
+			return null;
+		}
+
+		return (int[])result;
+	}
+
+	/**
+	 * <p>
+	 * Decodes a plain array of 32-bit words, preserving their bit patterns.
+	 * Unlike {@link #getIntArray()}, unsigned words with the highest bit set are not range-checked, but are wrapped around to negative <code>int</code> values.
+	 * </p>
+	 *
+	 * <p>
+	 * Bitsets are not cached.
+	 * </p>
+	 *
+	 * @return The words of a plain array.
+	 */
+	public int[] getBitsetArray(){
+		Column column = getColumn(RecordArray.ELEMENT);
+		if(column == null){
+			throw new IllegalArgumentException("Expected a plain array, got a structured array");
+		}
+
+		TypeDescriptor.Kind kind = column.getKind();
+		int columnSize = column.getSize();
+
+		if((kind != TypeDescriptor.Kind.INTEGER && kind != TypeDescriptor.Kind.UNSIGNED_INTEGER) || columnSize != 4){
+			throw new IllegalArgumentException("Expected 32-bit integer data type, got " + column.getDescr());
+		}
+
+		ChunkedByteBuffer buffer = getBuffer(column);
+
+		int size = size();
+		int itemSize = getItemSize();
+		long offset = column.getOffset();
+
+		int[] result = new int[size];
+
+		long position = offset;
+
+		for(int i = 0; i < size; i++, position += itemSize){
+			result[i] = buffer.getInt(position);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return The elements of a plain array.
+	 */
+	public double[] getDoubleArray(){
+		return getDoubleArray(RecordArray.ELEMENT);
+	}
+
+	/**
+	 * @return The elements of a structured array column, or <code>null</code> if there is no such column.
+	 */
+	public double[] getDoubleArray(String name){
+		Object result = this.doubleArrays.computeIfAbsent(name, key -> {
+			Column column = getColumn(key);
+			if(column == null){
+				return RecordArray.MISSING;
+			}
+
+			return decodeDoubleArray(column);
+		});
+
+		if(result == RecordArray.MISSING){
+			return null;
+		}
+
+		return (double[])result;
+	}
+
+	/**
+	 * <p>
+	 * Decodes a strided slice of a plain array, without decoding the whole array.
+	 * For example, the j-th column of a C-order matrix with <code>n</code> columns is the slice <code>(j, n)</code>.
+	 * </p>
+	 *
+	 * <p>
+	 * Slices are not cached.
+	 * </p>
+	 *
+	 * @param start The index of the first element.
+	 * @param step The distance between consecutive elements.
+	 */
+	public double[] getDoubleArray(int start, int step){
+		Column column = getColumn(RecordArray.ELEMENT);
+		if(column == null){
+			throw new IllegalArgumentException("Expected a plain array, got a structured array");
+		} // End if
+
+		if(start < 0 || step < 1){
+			throw new IllegalArgumentException("Expected non-negative start and positive step, got " + start + " and " + step);
+		}
+
+		int size = size();
+
+		int count = (start < size ? ((size - start - 1) / step + 1) : 0);
+
+		return decodeDoubleArray(column, start, step, count);
+	}
+
+	/**
+	 * <p>
+	 * Counts the occurrences of integer values in a plain array, without decoding it into an <code>int[]</code> array.
+	 * </p>
+	 *
+	 * @param bound The exclusive upper bound of values.
+	 *
+	 * @return The number of occurrences of each value in the range <code>[0, bound)</code>.
+	 */
+	public int[] countIntValues(int bound){
+		Column column = getColumn(RecordArray.ELEMENT);
+		if(column == null){
+			throw new IllegalArgumentException("Expected a plain array, got a structured array");
+		}
+
+		ChunkedByteBuffer buffer = getBuffer(column);
+
+		int size = size();
+		int itemSize = getItemSize();
+		long offset = column.getOffset();
+
+		int[] result = new int[bound];
+
+		long position = offset;
+
+		for(int i = 0; i < size; i++, position += itemSize){
+			int value = readInt(buffer, position, column);
+
+			if(value < 0 || value >= bound){
+				throw new IllegalArgumentException("Expected a value in range [0, " + bound + "), got " + value);
+			}
+
+			result[value]++;
+		}
+
+		return result;
+	}
+
+	private int[] decodeIntArray(Column column){
+		ChunkedByteBuffer buffer = getBuffer(column);
+
+		int size = size();
+		int itemSize = getItemSize();
+		long offset = column.getOffset();
+
+		int[] result = new int[size];
+
+		long position = offset;
+
+		for(int i = 0; i < size; i++, position += itemSize){
+			result[i] = readInt(buffer, position, column);
+		}
+
+		return result;
+	}
+
+	private double[] decodeDoubleArray(Column column){
+		return decodeDoubleArray(column, 0, 1, size());
+	}
+
+	private double[] decodeDoubleArray(Column column, int start, int step, int count){
+		ChunkedByteBuffer buffer = getBuffer(column);
+
+		int itemSize = getItemSize();
+		long offset = column.getOffset();
+
+		long stride = ((long)step * itemSize);
+
+		TypeDescriptor.Kind kind = column.getKind();
+		int columnSize = column.getSize();
+
+		if(kind != TypeDescriptor.Kind.FLOAT){
+			double[] result = new double[count];
+
+			long position = offset + ((long)start * itemSize);
+
+			for(int i = 0; i < count; i++, position += stride){
+				result[i] = readLong(buffer, position, column);
+			}
+
+			return result;
+		}
+
+		double[] result = new double[count];
+
+		long position = offset + ((long)start * itemSize);
+
+		for(int i = 0; i < count; i++, position += stride){
+
+			switch(columnSize){
+				case 4:
+					result[i] = buffer.getFloat(position);
+					break;
+				case 8:
+					result[i] = buffer.getDouble(position);
+					break;
+				default:
+					throw new IllegalArgumentException();
+			}
+		}
+
+		return result;
+	}
+
+	private ChunkedByteBuffer getBuffer(Column column){
+		ChunkedByteBuffer result = getBuffer();
+
+		ByteOrder byteOrder = column.getByteOrder();
+		if(byteOrder != null){
+			result = result.order(byteOrder);
+		}
+
+		return result;
+	}
+
+	private Column getColumn(String name){
+		Map<String, Column> columns = getColumns();
+
+		return columns.get(name);
+	}
+
+	ChunkedByteBuffer getBuffer(){
+		return this.buffer;
+	}
+
+	int getItemSize(){
+		return this.itemSize;
+	}
+
+	Map<String, Column> getColumns(){
+		return this.columns;
+	}
+
+	/**
+	 * @throws ArithmeticException If the value does not fit into the <code>int</code> data type.
+	 */
+	static
+	private int readInt(ChunkedByteBuffer buffer, long position, Column column){
+		return Math.toIntExact(readLong(buffer, position, column));
+	}
+
+	/**
+	 * @throws ArithmeticException If the value does not fit into the <code>long</code> data type.
+	 */
+	static
+	private long readLong(ChunkedByteBuffer buffer, long position, Column column){
+		TypeDescriptor.Kind kind = column.getKind();
+		int columnSize = column.getSize();
+
+		switch(kind){
+			case BOOLEAN:
+			case INTEGER:
+				switch(columnSize){
+					case 1:
+						return buffer.get(position);
+					case 2:
+						return buffer.getShort(position);
+					case 4:
+						return buffer.getInt(position);
+					case 8:
+						return buffer.getLong(position);
+					default:
+						throw new IllegalArgumentException();
+				}
+			case UNSIGNED_INTEGER:
+				switch(columnSize){
+					case 1:
+						return Byte.toUnsignedLong(buffer.get(position));
+					case 2:
+						return Short.toUnsignedLong(buffer.getShort(position));
+					case 4:
+						return Integer.toUnsignedLong(buffer.getInt(position));
+					case 8:
+						return toUnsignedLongExact(buffer.getLong(position));
+					default:
+						throw new IllegalArgumentException();
+				}
+			default:
+				throw new IllegalArgumentException("Expected integer data type, got " + column.getDescr());
+		}
+	}
+
+	static
+	private long toUnsignedLongExact(long value){
+
+		// Values above Long#MAX_VALUE wrap around to negative values
+		if(value < 0L){
+			throw new ArithmeticException("long overflow");
+		}
+
+		return value;
+	}
+
+	/**
+	 * @return A view of the array, or <code>null</code> if the raw data buffer is not available.
+	 */
+	static
+	public RecordArray create(Object object){
+
+		if(object instanceof NDArrayWrapper){
+			NDArrayWrapper arrayWrapper = (NDArrayWrapper)object;
+
+			object = arrayWrapper.getContent();
+		} // End if
+
+		if(!(object instanceof NDArray)){
+			return null;
+		}
+
+		NDArray array = (NDArray)object;
+
+		ChunkedByteBuffer buffer;
+
+		// Decode memory-mapped arrays in place
+		if(array instanceof MappedNDArray){
+			MappedNDArray mappedArray = (MappedNDArray)array;
+
+			buffer = mappedArray.getBuffer();
+		} else
+
+		{
+			Object data = array.getData();
+			if(!(data instanceof byte[])){
+				return null;
+			}
+
+			buffer = ChunkedByteBuffer.wrap((byte[])data);
+		}
+
+		Object[] shape = array.getShape();
+
+		Boolean fortranOrder = array.getFortranOrder();
+		if((Boolean.TRUE).equals(fortranOrder) && shape.length > 1){
+			return null;
+		}
+
+		int size = getNumberOfElements(shape);
+
+		Object descr = array.getDescr();
+
+		if(descr instanceof DType){
+			DType dtype = (DType)descr;
+
+			Map<String, Object[]> values = dtype.getValues();
+			if(values == null){
+				descr = dtype.toDescr();
+			} else
+
+			{
+				Map<String, Column> columns = new LinkedHashMap<>();
+
+				int itemSize = 0;
+
+				Collection<Map.Entry<String, Object[]>> entries = values.entrySet();
+				for(Map.Entry<String, Object[]> entry : entries){
+					Object[] value = entry.getValue();
+
+					DType fieldDType = (DType)value[0];
+					int offset = ValueUtil.asInt((Number)value[1]);
+
+					Object fieldDescr = fieldDType.toDescr();
+					if(!(fieldDescr instanceof String)){
+						return null;
+					}
+
+					Column column = new Column((String)fieldDescr, offset);
+
+					columns.put(entry.getKey(), column);
+
+					itemSize = Math.max(itemSize, offset + column.getSize());
+				}
+
+				Integer wSize = dtype.getWSize();
+				if(wSize != null){
+					itemSize = wSize;
+				}
+
+				return new RecordArray(buffer, size, itemSize, columns);
+			}
+		} // End if
+
+		if(descr instanceof String){
+			Column column = new Column((String)descr, 0);
+
+			Map<String, Column> columns = new LinkedHashMap<>();
+			columns.put(RecordArray.ELEMENT, column);
+
+			return new RecordArray(buffer, size, column.getSize(), columns);
+		} else
+
+		if(descr instanceof List){
+			List<?> fieldDescrs = (List<?>)descr;
+
+			Map<String, Column> columns = new LinkedHashMap<>();
+
+			int offset = 0;
+
+			for(Object fieldDescr : fieldDescrs){
+				Object[] tuple = (fieldDescr instanceof List) ? ((List<?>)fieldDescr).toArray() : (Object[])fieldDescr;
+
+				if(tuple.length != 2 || !(tuple[1] instanceof String)){
+					return null;
+				}
+
+				String name = (String)tuple[0];
+
+				Column column = new Column((String)tuple[1], offset);
+
+				// Padding fields have empty names
+				if(!name.isEmpty()){
+					columns.put(name, column);
+				}
+
+				offset += column.getSize();
+			}
+
+			return new RecordArray(buffer, size, offset, columns);
+		}
+
+		return null;
+	}
+
+	static
+	private int getNumberOfElements(Object[] shape){
+		long result = 1L;
+
+		for(Object dim : shape){
+			result = Math.multiplyExact(result, ((Number)dim).longValue());
+		}
+
+		if(result > Integer.MAX_VALUE){
+			throw new IllegalArgumentException("Expected at most " + Integer.MAX_VALUE + " element(s), got " + result + " element(s)");
+		}
+
+		return (int)result;
+	}
+
+	static
+	class Column {
+
+		private TypeDescriptor typeDescriptor = null;
+
+		private int offset = 0;
+
+
+		Column(String descr, int offset){
+			this.typeDescriptor = new TypeDescriptor(descr);
+			this.offset = offset;
+		}
+
+		public String getDescr(){
+			return this.typeDescriptor.getDescr();
+		}
+
+		public TypeDescriptor.Kind getKind(){
+			return this.typeDescriptor.getKind();
+		}
+
+		public ByteOrder getByteOrder(){
+			return this.typeDescriptor.getByteOrder();
+		}
+
+		public int getSize(){
+			return this.typeDescriptor.getSize();
+		}
+
+		public int getOffset(){
+			return this.offset;
+		}
+	}
+
+	private static final String ELEMENT = "";
+
+	private static final Object MISSING = new Object();
+}
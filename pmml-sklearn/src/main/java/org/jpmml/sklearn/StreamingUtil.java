@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.PMMLObject;
+import org.dmg.pmml.Visitor;
+import org.dmg.pmml.VisitorAction;
+import org.dmg.pmml.tree.Node;
+import org.dmg.pmml.tree.TreeModel;
+import org.jpmml.model.JAXBUtil;
+import org.jpmml.model.visitors.AbstractVisitor;
+import sklearn.tree.DetachedNode;
+import sklearn.tree.HasTreeOptions;
+
+public class StreamingUtil {
+
+	private StreamingUtil(){
+	}
+
+	/**
+	 * <p>
+	 * Marshals a PMML class model, which contains detached node graphs.
+	 * </p>
+	 *
+	 * <p>
+	 * The PMML class model is marshalled using the public JAXB API, directly into the output stream.
+	 * Detached node graphs are attached just before their tree model element is written out,
+	 * and detached again right after it has been written out.
+	 * Therefore, there is at most one attached node graph in memory at any time.
+	 * </p>
+	 *
+	 * <p>
+	 * This marshalling path is meant for PMML class models that have been encoded in streaming mode.
+	 * All other PMML class models should be marshalled the regular way.
+	 * </p>
+	 *
+	 * @see HasTreeOptions#OPTION_STREAMING
+	 * @see #hasDetachedNodes(PMMLObject)
+	 * @see DetachedNode
+	 */
+	static
+	public void marshalPMML(PMML pmml, OutputStream os) throws JAXBException {
+		JAXBContext context = JAXBUtil.getContext();
+
+		Marshaller marshaller = context.createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+		marshaller.setListener(new Marshaller.Listener(){
+
+			private Map<TreeModel, DetachedNode> detachedNodes = new IdentityHashMap<>();
+
+
+			@Override
+			public void beforeMarshal(Object source){
+
+				if(source instanceof TreeModel){
+					TreeModel treeModel = (TreeModel)source;
+
+					Node node = treeModel.getNode();
+					if(node instanceof DetachedNode){
+						DetachedNode detachedNode = (DetachedNode)node;
+
+						treeModel.setNode(detachedNode.attach());
+
+						this.detachedNodes.put(treeModel, detachedNode);
+					}
+				}
+			}
+
+			@Override
+			public void afterMarshal(Object source){
+
+				if(source instanceof TreeModel){
+					TreeModel treeModel = (TreeModel)source;
+
+					DetachedNode detachedNode = this.detachedNodes.remove(treeModel);
+					if(detachedNode != null){
+						treeModel.setNode(detachedNode);
+					}
+				}
+			}
+		});
+
+		marshaller.marshal(pmml, os);
+	}
+
+	/**
+	 * <p>
+	 * Checks if a PMML class model contains detached node graphs.
+	 * </p>
+	 */
+	static
+	public boolean hasDetachedNodes(PMMLObject object){
+		List<DetachedNode> detachedNodes = new ArrayList<>();
+
+		Visitor visitor = new AbstractVisitor(){
+
+			@Override
+			public VisitorAction visit(TreeModel treeModel){
+				Node node = treeModel.getNode();
+
+				if(node instanceof DetachedNode){
+					detachedNodes.add((DetachedNode)node);
+
+					return VisitorAction.TERMINATE;
+				}
+
+				return VisitorAction.SKIP;
+			}
+		};
+
+		visitor.applyTo(object);
+
+		return !detachedNodes.isEmpty();
+	}
+
+	/**
+	 * <p>
+	 * Attaches all detached node graphs permanently.
+	 * </p>
+	 *
+	 * @see DetachedNode#attach()
+	 */
+	static
+	public void attachNodes(PMMLObject object){
+		Visitor visitor = new AbstractVisitor(){
+
+			@Override
+			public VisitorAction visit(TreeModel treeModel){
+				Node node = treeModel.getNode();
+
+				if(node instanceof DetachedNode){
+					DetachedNode detachedNode = (DetachedNode)node;
+
+					treeModel.setNode(detachedNode.attach());
+				}
+
+				return super.visit(treeModel);
+			}
+		};
+
+		visitor.applyTo(object);
+	}
+}
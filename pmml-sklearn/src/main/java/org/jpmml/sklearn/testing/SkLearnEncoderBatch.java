@@ -18,17 +18,23 @@
  */
 package org.jpmml.sklearn.testing;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.function.Predicate;
 
 import com.google.common.base.Equivalence;
 import org.dmg.pmml.PMML;
 import org.jpmml.evaluator.ResultField;
+import org.jpmml.model.PMMLUtil;
 import org.jpmml.python.testing.PythonEncoderBatch;
 import org.jpmml.sklearn.Encodable;
 import org.jpmml.sklearn.EncodableUtil;
 import org.jpmml.sklearn.SkLearnUtil;
+import org.jpmml.sklearn.StreamingUtil;
 import sklearn.Step;
+import sklearn.tree.HasTreeOptions;
 import sklearn2pmml.HasPMMLOptions;
 
 abstract
@@ -61,6 +67,11 @@ public class SkLearnEncoderBatch extends PythonEncoderBatch {
 
 			PMML pmml = encodable.encodePMML();
 
+			// Detached node graphs are attached only during marshalling
+			if(options != null && (Boolean.TRUE).equals(options.get(HasTreeOptions.OPTION_STREAMING))){
+				pmml = streamPMML(pmml);
+			}
+
 			validatePMML(pmml);
 
 			return pmml;
@@ -69,6 +80,16 @@ public class SkLearnEncoderBatch extends PythonEncoderBatch {
 		}
 	}
 
+	protected PMML streamPMML(PMML pmml) throws Exception {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		StreamingUtil.marshalPMML(pmml, os);
+
+		try(InputStream is = new ByteArrayInputStream(os.toByteArray())){
+			return PMMLUtil.unmarshal(is);
+		}
+	}
+
 	protected void activate(Object object) throws Exception {
 	}
 
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package scipy.sparse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jpmml.converter.ValueUtil;
+import org.jpmml.python.HasArray;
+import org.jpmml.python.PythonObject;
+
+/**
+ * <p>
+ * A compressed sparse column (CSC) matrix.
+ * </p>
+ *
+ * @see CSRMatrix
+ */
+public class CSCMatrix extends PythonObject implements HasArray {
+
+	// Never modified after creation, and published together with its content by the volatile write
+	private volatile RowLayout rowLayout = null;
+
+
+	public CSCMatrix(String module, String name){
+		super(module, name);
+	}
+
+	/**
+	 * @return The content of the matrix in row-major order.
+	 */
+	@Override
+	public List<?> getArrayContent(){
+		int[] shape = getArrayShape();
+
+		int rows = shape[0];
+		int columns = shape[1];
+
+		List<?> data = getData();
+		List<Integer> indices = getIndices();
+		List<Integer> indPtr = getIndPtr();
+
+		List<Object> result = new ArrayList<>(Collections.nCopies(rows * columns, 0));
+
+		for(int column = 0; column < columns; column++){
+
+			for(int i = indPtr.get(column), max = indPtr.get(column + 1); i < max; i++){
+				int row = indices.get(i);
+
+				result.set(row * columns + column, data.get(i));
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public int[] getArrayShape(){
+		Object[] shape = getShape();
+
+		if(shape.length != 2){
+			throw new IllegalArgumentException("Expected 2-dimensional matrix, got " + shape.length + "-dimensional matrix");
+		}
+
+		return new int[]{ValueUtil.asInt((Number)shape[0]), ValueUtil.asInt((Number)shape[1])};
+	}
+
+	@Override
+	public Object getArrayType(){
+		HasArray data = get("data", HasArray.class);
+
+		return data.getArrayType();
+	}
+
+	/**
+	 * <p>
+	 * Gets the row pointers of the row-major (ie. CSR) layout of the matrix.
+	 * The stored entries of row <code>i</code> are at positions <code>[rowIndPtr[i], rowIndPtr[i + 1])</code>.
+	 * </p>
+	 *
+	 * <p>
+	 * The row-major layout is computed once, in time proportional to the number of stored entries.
+	 * It does not copy data values, but refers to them by their position in the data array.
+	 * The computed layout is safely published, so that this method (and its siblings) can be called from multiple threads.
+	 * </p>
+	 *
+	 * @see #getRowIndices()
+	 * @see #getRowDataIndices()
+	 */
+	public int[] getRowIndPtr(){
+		RowLayout rowLayout = ensureRowLayout();
+
+		return rowLayout.indPtr;
+	}
+
+	/**
+	 * @return The column indices of stored entries, in the row-major layout.
+	 */
+	public int[] getRowIndices(){
+		RowLayout rowLayout = ensureRowLayout();
+
+		return rowLayout.indices;
+	}
+
+	/**
+	 * @return The positions of stored entries in the data array, in the row-major layout.
+	 */
+	public int[] getRowDataIndices(){
+		RowLayout rowLayout = ensureRowLayout();
+
+		return rowLayout.dataIndices;
+	}
+
+	private RowLayout ensureRowLayout(){
+		RowLayout rowLayout = this.rowLayout;
+
+		if(rowLayout == null){
+
+			synchronized(this){
+				rowLayout = this.rowLayout;
+
+				if(rowLayout == null){
+					rowLayout = createRowLayout();
+
+					this.rowLayout = rowLayout;
+				}
+			}
+		}
+
+		return rowLayout;
+	}
+
+	private RowLayout createRowLayout(){
+
+		int[] shape = getArrayShape();
+
+		int rows = shape[0];
+		int columns = shape[1];
+
+		List<Integer> indices = getIndices();
+		List<Integer> indPtr = getIndPtr();
+
+		int size = indPtr.get(columns);
+
+		int[] rowIndPtr = new int[rows + 1];
+
+		for(int i = 0; i < size; i++){
+			int row = indices.get(i);
+
+			if(row < 0 || row >= rows){
+				throw new IllegalArgumentException("Expected a row index in range [0, " + rows + "), got " + row);
+			}
+
+			rowIndPtr[row + 1]++;
+		}
+
+		for(int row = 0; row < rows; row++){
+			rowIndPtr[row + 1] += rowIndPtr[row];
+		}
+
+		int[] rowIndices = new int[size];
+		int[] rowDataIndices = new int[size];
+
+		int[] positions = Arrays.copyOf(rowIndPtr, rows);
+
+		// Columns are visited in increasing order, so column indices are sorted within every row
+		for(int column = 0; column < columns; column++){
+
+			for(int i = indPtr.get(column), max = indPtr.get(column + 1); i < max; i++){
+				int position = positions[indices.get(i)]++;
+
+				rowIndices[position] = column;
+				rowDataIndices[position] = i;
+			}
+		}
+
+		return new RowLayout(rowIndPtr, rowIndices, rowDataIndices);
+	}
+
+	public List<?> getData(){
+		return getArray("data");
+	}
+
+	public List<Integer> getIndices(){
+		return getIntegerArray("indices");
+	}
+
+	public List<Integer> getIndPtr(){
+		return getIntegerArray("indptr");
+	}
+
+	public Object[] getShape(){
+		return getTuple("_shape");
+	}
+
+	static
+	private class RowLayout {
+
+		private int[] indPtr = null;
+
+		private int[] indices = null;
+
+		private int[] dataIndices = null;
+
+
+		private RowLayout(int[] indPtr, int[] indices, int[] dataIndices){
+			this.indPtr = indPtr;
+			this.indices = indices;
+			this.dataIndices = dataIndices;
+		}
+	}
+}
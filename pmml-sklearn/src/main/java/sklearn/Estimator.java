@@ -140,6 +140,8 @@ public class Estimator extends Step implements HasNumberOfOutputs, HasPMMLOption
 
 		addFeatureImportances(model, schema);
 
+		StepUtil.releaseContent(this, schema.getEncoder());
+
 		return model;
 	}
 
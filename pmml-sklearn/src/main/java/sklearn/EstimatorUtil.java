@@ -187,6 +187,8 @@ public class EstimatorUtil {
 	public <E extends Estimator & HasFeatureNamesIn & HasSkLearnOptions> PMML encodePMML(E estimator){
 		SkLearnEncoder encoder = new SkLearnEncoder();
 
+		encoder.configure(estimator);
+
 		if(estimator.isSupervised()){
 			List<String> targetFields = EncodableUtil.generateOutputNames(estimator);
 
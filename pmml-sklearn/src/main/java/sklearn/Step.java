@@ -21,6 +21,7 @@ package sklearn;
 import java.util.List;
 
 import org.jpmml.python.PythonObject;
+import org.jpmml.sklearn.SkLearnEncoder;
 import sklearn2pmml.SkLearn2PMMLFields;
 
 abstract
@@ -45,6 +46,29 @@ public class Step extends PythonObject implements HasNumberOfFeatures, HasType {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Releases the state that has been consumed by encoding.
+	 * The default implementation does nothing.
+	 * </p>
+	 *
+	 * <p>
+	 * Subclasses that hold large Numpy arrays should override this method, and remove the corresponding attributes.
+	 * A released step cannot be encoded again.
+	 * </p>
+	 *
+	 * @see SkLearnEncoder#isReleaseContent()
+	 */
+	public void releaseContent(){
+	}
+
+	protected void release(String... names){
+
+		for(String name : names){
+			remove(name);
+		}
+	}
+
 	public List<String> getFeatureNamesIn(){
 
 		if(containsKey(SkLearnFields.FEATURE_NAMES_IN)){
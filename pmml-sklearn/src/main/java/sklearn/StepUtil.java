@@ -21,7 +21,9 @@ package sklearn;
 import java.util.List;
 
 import org.jpmml.converter.Feature;
+import org.jpmml.converter.PMMLEncoder;
 import org.jpmml.python.ClassDictUtil;
+import org.jpmml.sklearn.SkLearnEncoder;
 
 public class StepUtil {
 
@@ -49,6 +51,33 @@ public class StepUtil {
 		}
 	}
 
+	static
+	public void releaseContent(Step step, PMMLEncoder encoder){
+
+		if(encoder instanceof SkLearnEncoder){
+			SkLearnEncoder skLearnEncoder = (SkLearnEncoder)encoder;
+
+			if(skLearnEncoder.isReleaseContent()){
+				step.releaseContent();
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Releases the content of ensemble members.
+	 * Ensemble members are not encoded via the {@link Estimator#encode(org.jpmml.converter.Schema)} method,
+	 * so they must be released together with the ensemble.
+	 * </p>
+	 */
+	static
+	public void releaseContent(List<? extends Step> steps){
+
+		for(Step step : steps){
+			step.releaseContent();
+		}
+	}
+
 	static
 	public int getNumberOfFeatures(List<? extends Step> steps){
 
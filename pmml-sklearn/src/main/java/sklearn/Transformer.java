@@ -73,7 +73,11 @@ public class Transformer extends Step implements HasPMMLName<Transformer> {
 
 		features = updateFeatures(features, encoder);
 
-		return encodeFeatures(features, encoder);
+		List<Feature> result = encodeFeatures(features, encoder);
+
+		StepUtil.releaseContent(this, encoder);
+
+		return result;
 	}
 
 	public void checkFeatures(List<? extends Feature> features){
@@ -21,8 +21,6 @@ package sklearn.cluster;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.google.common.collect.HashMultiset;
-import com.google.common.collect.Multiset;
 import org.dmg.pmml.CompareFunction;
 import org.dmg.pmml.ComparisonMeasure;
 import org.dmg.pmml.DataType;
@@ -35,9 +33,10 @@ import org.jpmml.converter.ModelUtil;
 import org.jpmml.converter.PMMLUtil;
 import org.jpmml.converter.Schema;
 import org.jpmml.converter.clustering.ClusteringModelUtil;
+import org.jpmml.sklearn.RecordArray;
 import sklearn.SkLearnClusterer;
 
-public class KMeans extends SkLearnClusterer {
+public class KMeans extends SkLearnClusterer implements HasKMeansOptions {
 
 	public KMeans(String module, String name){
 		super(module, name);
@@ -58,20 +57,14 @@ public class KMeans extends SkLearnClusterer {
 		int numberOfFeatures = shape[1];
 
 		List<? extends Number> clusterCenters = getClusterCenters();
-		List<Integer> labels = getLabels();
-
-		Multiset<Integer> labelCounts = HashMultiset.create();
-
-		if(labels != null){
-			labelCounts.addAll(labels);
-		}
+		int[] clusterSizes = getClusterSizes(numberOfClusters);
 
 		List<Cluster> clusters = new ArrayList<>();
 
 		for(int i = 0; i < numberOfClusters; i++){
 			Cluster cluster = new Cluster(PMMLUtil.createRealArray(CMatrixUtil.getRow(clusterCenters, numberOfClusters, numberOfFeatures, i)))
 				.setId(String.valueOf(i))
-				.setSize((labelCounts.size () > 0 ? labelCounts.count(i) : null));
+				.setSize(clusterSizes != null ? clusterSizes[i] : null);
 
 			clusters.add(cluster);
 		}
@@ -85,6 +78,72 @@ public class KMeans extends SkLearnClusterer {
 		return clusteringModel;
 	}
 
+	/**
+	 * <p>
+	 * Computes cluster sizes by counting training sample labels.
+	 * </p>
+	 *
+	 * <p>
+	 * If the option {@link HasKMeansOptions#OPTION_COUNT_LABELS} is set to <code>false</code>,
+	 * then the labels array is not loaded, and cluster sizes are not available.
+	 * </p>
+	 *
+	 * @return Cluster sizes, or <code>null</code>.
+	 */
+	public int[] getClusterSizes(int numberOfClusters){
+		Boolean countLabels = (Boolean)getOption(HasKMeansOptions.OPTION_COUNT_LABELS, Boolean.TRUE);
+
+		if(!countLabels){
+			return null;
+		}
+
+		return countLabels(numberOfClusters);
+	}
+
+	/**
+	 * <p>
+	 * Counts training sample labels into a primitive histogram.
+	 * </p>
+	 *
+	 * <p>
+	 * If the raw data buffer of the labels array is available (eg. a plain pickle or a memory-mapped Joblib dump),
+	 * then labels are counted directly over it.
+	 * Otherwise, labels are counted over their boxed representation.
+	 * </p>
+	 *
+	 * @return Label counts, or <code>null</code> if there are no labels.
+	 */
+	protected int[] countLabels(int numberOfClusters){
+		RecordArray labelArray = RecordArray.create(get("labels_"));
+
+		if(labelArray != null){
+
+			if(labelArray.size() == 0){
+				return null;
+			}
+
+			return labelArray.countIntValues(numberOfClusters);
+		}
+
+		List<Integer> labels = getLabels();
+		if(labels == null || labels.isEmpty()){
+			return null;
+		}
+
+		int[] result = new int[numberOfClusters];
+
+		for(Integer label : labels){
+
+			if(label < 0 || label >= numberOfClusters){
+				throw new IllegalArgumentException("Expected a label in range [0, " + numberOfClusters + "), got " + label);
+			}
+
+			result[label]++;
+		}
+
+		return result;
+	}
+
 	public List<? extends Number> getClusterCenters(){
 		return getNumberArray("cluster_centers_");
 	}
@@ -20,12 +20,56 @@ package sklearn.cluster;
 
 import java.util.List;
 
+import org.jpmml.python.ClassDictUtil;
+
 public class MiniBatchKMeans extends KMeans {
 
 	public MiniBatchKMeans(String module, String name){
 		super(module, name);
 	}
 
+	/**
+	 * <p>
+	 * If the option {@link HasKMeansOptions#OPTION_COUNT_LABELS} is set to <code>false</code>,
+	 * then cluster sizes are taken from the per-center sample counts of the training algorithm.
+	 * These counts are accumulated over all mini-batches, and are not equal to the number of training samples in each cluster.
+	 * </p>
+	 *
+	 * @throws ArithmeticException If a count does not fit into the <code>int</code> data type.
+	 */
+	@Override
+	public int[] getClusterSizes(int numberOfClusters){
+		Boolean countLabels = (Boolean)getOption(HasKMeansOptions.OPTION_COUNT_LABELS, Boolean.TRUE);
+
+		if(countLabels){
+			return super.getClusterSizes(numberOfClusters);
+		}
+
+		List<? extends Number> counts = getCounts();
+		if(counts == null){
+			return null;
+		}
+
+		ClassDictUtil.checkSize(numberOfClusters, counts);
+
+		int[] result = new int[numberOfClusters];
+
+		for(int i = 0; i < numberOfClusters; i++){
+			result[i] = Math.toIntExact(Math.round((counts.get(i)).doubleValue()));
+		}
+
+		return result;
+	}
+
+	public List<? extends Number> getCounts(){
+
+		if(!containsKey("_counts")){
+			return null;
+		}
+
+		return getNumberArray("_counts");
+	}
+
 	@Override
 	public List<Integer> getLabels(){
 
@@ -20,9 +20,9 @@ package sklearn.decomposition;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.dmg.pmml.Apply;
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.Expression;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.CMatrixUtil;
@@ -65,47 +65,50 @@ public class PCA extends BasePCA {
 		for(int i = 0; i < numberOfComponents; i++){
 			List<? extends Number> component = CMatrixUtil.getRow(components, numberOfComponents, numberOfFeatures, i);
 
-			Apply apply = ExpressionUtil.createApply(PMMLFunctions.SUM);
+			Number explainedVarianceValue = (whiten ? explainedVariance.get(i) : null);
 
-			for(int j = 0; j < numberOfFeatures; j++){
-				Feature feature = features.get(j);
+			Supplier<Expression> expressionSupplier = () -> {
+				Apply apply = ExpressionUtil.createApply(PMMLFunctions.SUM);
 
-				Number meanValue = mean.get(j);
-				Number componentValue = component.get(j);
+				for(int j = 0; j < numberOfFeatures; j++){
+					Feature feature = features.get(j);
 
-				if(ValueUtil.isZero(meanValue) && ValueUtil.isOne(componentValue)){
-					apply.addExpressions(feature.ref());
+					Number meanValue = mean.get(j);
+					Number componentValue = component.get(j);
 
-					continue;
-				}
+					if(ValueUtil.isZero(meanValue) && ValueUtil.isOne(componentValue)){
+						apply.addExpressions(feature.ref());
 
-				ContinuousFeature continuousFeature = feature.toContinuousFeature();
+						continue;
+					}
 
-				// "($name[i] - mean[i]) * component[i]"
-				Expression expression = continuousFeature.ref();
+					ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
-				if(!ValueUtil.isZero(meanValue)){
-					expression = ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, expression, ExpressionUtil.createConstant(meanValue));
-				} // End if
+					// "($name[i] - mean[i]) * component[i]"
+					Expression expression = continuousFeature.ref();
 
-				if(!ValueUtil.isOne(componentValue)){
-					expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, expression, ExpressionUtil.createConstant(componentValue));
-				}
+					if(!ValueUtil.isZero(meanValue)){
+						expression = ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, expression, ExpressionUtil.createConstant(meanValue));
+					} // End if
 
-				apply.addExpressions(expression);
-			}
+					if(!ValueUtil.isOne(componentValue)){
+						expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, expression, ExpressionUtil.createConstant(componentValue));
+					}
+
+					apply.addExpressions(expression);
+				}
 
-			if(whiten){
-				Number explainedVarianceValue = explainedVariance.get(i);
+				if(whiten){
 
-				if(!ValueUtil.isOne(explainedVarianceValue)){
-					apply = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, apply, ExpressionUtil.createConstant(Math.sqrt(ValueUtil.asDouble(explainedVarianceValue))));
+					if(!ValueUtil.isOne(explainedVarianceValue)){
+						apply = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, apply, ExpressionUtil.createConstant(Math.sqrt(ValueUtil.asDouble(explainedVarianceValue))));
+					}
 				}
-			}
 
-			DerivedField derivedField = encoder.createDerivedField(FieldNameUtil.select(name, i), apply);
+				return apply;
+			};
 
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(FieldNameUtil.select(name, i), expressionSupplier));
 		}
 
 		return result;
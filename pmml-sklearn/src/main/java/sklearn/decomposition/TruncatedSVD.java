@@ -20,9 +20,9 @@ package sklearn.decomposition;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.dmg.pmml.Apply;
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.Expression;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.CMatrixUtil;
@@ -58,30 +58,32 @@ public class TruncatedSVD extends BasePCA {
 		for(int i = 0; i < numberOfComponents; i++){
 			List<? extends Number> component = CMatrixUtil.getRow(components, numberOfComponents, numberOfFeatures, i);
 
-			Apply apply = ExpressionUtil.createApply(PMMLFunctions.SUM);
+			Supplier<Expression> expressionSupplier = () -> {
+				Apply apply = ExpressionUtil.createApply(PMMLFunctions.SUM);
 
-			for(int j = 0; j < numberOfFeatures; j++){
-				Feature feature = features.get(j);
+				for(int j = 0; j < numberOfFeatures; j++){
+					Feature feature = features.get(j);
 
-				Number componentValue = component.get(j);
+					Number componentValue = component.get(j);
 
-				if(ValueUtil.isOne(componentValue)){
-					apply.addExpressions(feature.ref());
+					if(ValueUtil.isOne(componentValue)){
+						apply.addExpressions(feature.ref());
 
-					continue;
-				}
+						continue;
+					}
 
-				ContinuousFeature continuousFeature = feature.toContinuousFeature();
+					ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
-				// "$name[i] * component[i]"
-				Expression expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, continuousFeature.ref(), ExpressionUtil.createConstant(componentValue));
+					// "$name[i] * component[i]"
+					Expression expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, continuousFeature.ref(), ExpressionUtil.createConstant(componentValue));
 
-				apply.addExpressions(expression);
-			}
+					apply.addExpressions(expression);
+				}
 
-			DerivedField derivedField = encoder.createDerivedField(FieldNameUtil.select(name, i), apply);
+				return apply;
+			};
 
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(FieldNameUtil.select(name, i), expressionSupplier));
 		}
 
 		return result;
@@ -31,6 +31,7 @@ import org.jpmml.converter.Schema;
 import sklearn.HasEstimatorEnsemble;
 import sklearn.HasMultiApplyField;
 import sklearn.SkLearnClassifier;
+import sklearn.StepUtil;
 import sklearn.tree.HasTreeOptions;
 import sklearn.tree.TreeClassifier;
 
@@ -66,6 +67,11 @@ public class ForestClassifier extends SkLearnClassifier implements HasEstimatorE
 		return miningModel;
 	}
 
+	@Override
+	public void releaseContent(){
+		StepUtil.releaseContent(getEstimators());
+	}
+
 	@Override
 	public List<? extends TreeClassifier> getEstimators(){
 		return getList("estimators_", TreeClassifier.class);
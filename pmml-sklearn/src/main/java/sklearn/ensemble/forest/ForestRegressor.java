@@ -30,6 +30,7 @@ import org.jpmml.converter.Schema;
 import sklearn.HasEstimatorEnsemble;
 import sklearn.HasMultiApplyField;
 import sklearn.SkLearnRegressor;
+import sklearn.StepUtil;
 import sklearn.tree.HasTreeOptions;
 import sklearn.tree.TreeRegressor;
 
@@ -59,6 +60,11 @@ public class ForestRegressor extends SkLearnRegressor implements HasEstimatorEns
 		return ForestUtil.encodeBaseForest(this, Segmentation.MultipleModelMethod.AVERAGE, MiningFunction.REGRESSION, schema);
 	}
 
+	@Override
+	public void releaseContent(){
+		StepUtil.releaseContent(getEstimators());
+	}
+
 	@Override
 	public List<? extends TreeRegressor> getEstimators(){
 		return getList("estimators_", TreeRegressor.class);
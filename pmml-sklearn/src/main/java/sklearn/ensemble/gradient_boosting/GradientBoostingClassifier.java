@@ -40,6 +40,7 @@ import sklearn.HasEstimatorEnsemble;
 import sklearn.HasMultiDecisionFunctionField;
 import sklearn.HasPriorProbability;
 import sklearn.SkLearnClassifier;
+import sklearn.StepUtil;
 import sklearn.VersionUtil;
 import sklearn.loss.BaseLoss;
 import sklearn.loss.HalfLogitLink;
@@ -186,6 +187,11 @@ public class GradientBoostingClassifier extends SkLearnClassifier implements Has
 		return miningModel;
 	}
 
+	@Override
+	public void releaseContent(){
+		StepUtil.releaseContent(getEstimators());
+	}
+
 	@Override
 	public List<? extends TreeRegressor> getEstimators(){
 		return getArray("estimators_", TreeRegressor.class);
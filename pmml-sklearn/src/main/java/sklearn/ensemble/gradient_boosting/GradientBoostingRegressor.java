@@ -26,6 +26,7 @@ import org.jpmml.converter.Schema;
 import sklearn.HasDefaultValue;
 import sklearn.HasEstimatorEnsemble;
 import sklearn.SkLearnRegressor;
+import sklearn.StepUtil;
 import sklearn.tree.HasTreeOptions;
 import sklearn.tree.TreeRegressor;
 
@@ -60,6 +61,11 @@ public class GradientBoostingRegressor extends SkLearnRegressor implements HasEs
 		return GradientBoostingUtil.encodeGradientBoosting(this, init.getDefaultValue(), learningRate, schema);
 	}
 
+	@Override
+	public void releaseContent(){
+		StepUtil.releaseContent(getEstimators());
+	}
+
 	@Override
 	public List<? extends TreeRegressor> getEstimators(){
 		return getArray("estimators_", TreeRegressor.class);
@@ -38,6 +38,7 @@ import sklearn.SkLearnClassifier;
 import sklearn.compose.ColumnTransformer;
 import sklearn.loss.HalfBinomialLoss;
 import sklearn.loss.HalfMultinomialLoss;
+import sklearn.tree.HasTreeOptions;
 
 public class HistGradientBoostingClassifier extends SkLearnClassifier implements HasMultiDecisionFunctionField {
 
@@ -54,6 +55,8 @@ public class HistGradientBoostingClassifier extends SkLearnClassifier implements
 		List<List<TreePredictor>> predictors = getPredictors();
 		ColumnTransformer preprocessor = getPreprocessor();
 
+		Boolean streaming = (Boolean)getOption(HasTreeOptions.OPTION_STREAMING, Boolean.FALSE);
+
 		if(!predictors.isEmpty()){
 			ClassDictUtil.checkSize(numberOfTreesPerIteration, predictors.get(0), baselinePredictions);
 		} // End if
@@ -75,7 +78,7 @@ public class HistGradientBoostingClassifier extends SkLearnClassifier implements
 				throw new IllegalArgumentException();
 			}
 
-			Model model = HistGradientBoostingUtil.encodeHistGradientBoosting(predictors, binMapper, baselinePredictions, 0, segmentSchema)
+			Model model = HistGradientBoostingUtil.encodeHistGradientBoosting(predictors, binMapper, baselinePredictions, 0, streaming, segmentSchema)
 				.setOutput(ModelUtil.createPredictedOutput(getMultiDecisionFunctionField(categoricalLabel.getValue(1)), OpType.CONTINUOUS, DataType.DOUBLE));
 
 			miningModel = MiningModelUtil.createBinaryLogisticClassification(model, 1d, 0d, RegressionModel.NormalizationMethod.LOGIT, false, schema);
@@ -91,7 +94,7 @@ public class HistGradientBoostingClassifier extends SkLearnClassifier implements
 			List<Model> models = new ArrayList<>();
 
 			for(int i = 0, columns = categoricalLabel.size(); i < columns; i++){
-				Model model = HistGradientBoostingUtil.encodeHistGradientBoosting(predictors, binMapper, baselinePredictions, i, segmentSchema)
+				Model model = HistGradientBoostingUtil.encodeHistGradientBoosting(predictors, binMapper, baselinePredictions, i, streaming, segmentSchema)
 					.setOutput(ModelUtil.createPredictedOutput(getMultiDecisionFunctionField(categoricalLabel.getValue(i)), OpType.CONTINUOUS, DataType.DOUBLE));
 
 				models.add(model);
@@ -109,6 +112,11 @@ public class HistGradientBoostingClassifier extends SkLearnClassifier implements
 		return miningModel;
 	}
 
+	@Override
+	public void releaseContent(){
+		release("_predictors");
+	}
+
 	public List<? extends Number> getBaselinePrediction(){
 		return getNumberArray("_baseline_prediction");
 	}
@@ -25,6 +25,7 @@ import org.dmg.pmml.mining.MiningModel;
 import org.jpmml.converter.Schema;
 import sklearn.SkLearnRegressor;
 import sklearn.compose.ColumnTransformer;
+import sklearn.tree.HasTreeOptions;
 
 public class HistGradientBoostingRegressor extends SkLearnRegressor {
 
@@ -39,11 +40,18 @@ public class HistGradientBoostingRegressor extends SkLearnRegressor {
 		List<List<TreePredictor>> predictors = getPredictors();
 		ColumnTransformer preprocessor = getPreprocessor();
 
+		Boolean streaming = (Boolean)getOption(HasTreeOptions.OPTION_STREAMING, Boolean.FALSE);
+
 		if(preprocessor != null){
 			schema = HistGradientBoostingUtil.preprocess(preprocessor, schema);
 		}
 
-		return HistGradientBoostingUtil.encodeHistGradientBoosting(predictors, binMapper, Collections.singletonList(baselinePrediction), 0, schema);
+		return HistGradientBoostingUtil.encodeHistGradientBoosting(predictors, binMapper, Collections.singletonList(baselinePrediction), 0, streaming, schema);
+	}
+
+	@Override
+	public void releaseContent(){
+		release("_predictors");
 	}
 
 	public Number getBaselinePrediction(){
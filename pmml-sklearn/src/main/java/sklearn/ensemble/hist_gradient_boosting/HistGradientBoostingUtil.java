@@ -42,6 +42,8 @@ import org.jpmml.sklearn.SkLearnEncoder;
 import sklearn.Transformer;
 import sklearn.compose.ColumnTransformer;
 import sklearn.preprocessing.OrdinalEncoder;
+import sklearn.tree.DetachedNode;
+import sklearn.tree.HasTreeOptions;
 
 public class HistGradientBoostingUtil {
 
@@ -153,17 +155,30 @@ public class HistGradientBoostingUtil {
 
 	static
 	public MiningModel encodeHistGradientBoosting(List<List<TreePredictor>> predictors, BinMapper binMapper, List<? extends Number> baselinePredictions, int column, Schema schema){
+		return encodeHistGradientBoosting(predictors, binMapper, baselinePredictions, column, Boolean.FALSE, schema);
+	}
+
+	static
+	public MiningModel encodeHistGradientBoosting(List<List<TreePredictor>> predictors, BinMapper binMapper, List<? extends Number> baselinePredictions, int column, Boolean streaming, Schema schema){
 		List<TreePredictor> treePredictors = predictors.stream()
 			.map(predictor -> predictor.get(column))
 			.collect(Collectors.toList());
 
 		Number baselinePrediction = baselinePredictions.get(column);
 
-		return encodeHistGradientBoosting(treePredictors, binMapper, baselinePrediction, schema);
+		return encodeHistGradientBoosting(treePredictors, binMapper, baselinePrediction, streaming, schema);
 	}
 
 	static
 	public MiningModel encodeHistGradientBoosting(List<TreePredictor> treePredictors, BinMapper binMapper, Number baselinePrediction, Schema schema){
+		return encodeHistGradientBoosting(treePredictors, binMapper, baselinePrediction, Boolean.FALSE, schema);
+	}
+
+	/**
+	 * @see HasTreeOptions#OPTION_STREAMING
+	 */
+	static
+	public MiningModel encodeHistGradientBoosting(List<TreePredictor> treePredictors, BinMapper binMapper, Number baselinePrediction, Boolean streaming, Schema schema){
 		ContinuousLabel continuousLabel = (ContinuousLabel)schema.getLabel();
 
 		PredicateManager predicateManager = new PredicateManager();
@@ -175,6 +190,10 @@ public class HistGradientBoostingUtil {
 		for(TreePredictor treePredictor : treePredictors){
 			TreeModel treeModel = TreePredictorUtil.encodeTreeModel(treePredictor, binMapper, predicateManager, segmentSchema);
 
+			if(streaming){
+				treeModel.setNode(DetachedNode.detach(treeModel.requireNode()));
+			}
+
 			treeModels.add(treeModel);
 		}
 
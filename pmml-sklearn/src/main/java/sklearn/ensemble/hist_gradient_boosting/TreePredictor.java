@@ -23,9 +23,14 @@ import java.util.List;
 
 import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Ints;
+import org.jpmml.python.HasContent;
 import org.jpmml.python.PythonObject;
+import org.jpmml.sklearn.RecordArray;
+
+public class TreePredictor extends PythonObject implements HasContent<RecordArray> {
+
+	private RecordArray nodes = null;
 
-public class TreePredictor extends PythonObject {
 
 	public TreePredictor(String module, String name){
 		super(module, name);
@@ -38,55 +43,61 @@ public class TreePredictor extends PythonObject {
 			return null;
 		}
 
+		RecordArray rawLeftCatBitsets = RecordArray.create(get("raw_left_cat_bitsets"));
+
+		if(rawLeftCatBitsets != null){
+			return rawLeftCatBitsets.getBitsetArray();
+		}
+
 		return Ints.toArray(getIntegerArray("raw_left_cat_bitsets"));
 	}
 
 	public double[] getValues(){
-		return Doubles.toArray(getNodeAttribute("value"));
+		return getDoubleNodeAttribute("value");
 	}
 
 	public int[] getCount(){
-		return Ints.toArray(getNodeAttribute("count"));
+		return getIntNodeAttribute("count");
 	}
 
 	public int[] getFeatureIdx(){
-		return Ints.toArray(getNodeAttribute("feature_idx"));
+		return getIntNodeAttribute("feature_idx");
 	}
 
 	public double[] getThreshold(){
-		List<? extends Number> threshold = getNodeAttribute("threshold");
+		double[] threshold = getDoubleNodeAttribute("threshold");
 
 		// SkLearn 0.23
 		if(threshold != null){
-			return Doubles.toArray(threshold);
+			return threshold;
 		}
 
 		// SkLearn 0.24+
-		return Doubles.toArray(getNodeAttribute("num_threshold"));
+		return getDoubleNodeAttribute("num_threshold");
 	}
 
 	public int[] getMissingGoToLeft(){
-		return Ints.toArray(getNodeAttribute("missing_go_to_left"));
+		return getIntNodeAttribute("missing_go_to_left");
 	}
 
 	public int[] getLeft(){
-		return Ints.toArray(getNodeAttribute("left"));
+		return getIntNodeAttribute("left");
 	}
 
 	public int[] getRight(){
-		return Ints.toArray(getNodeAttribute("right"));
+		return getIntNodeAttribute("right");
 	}
 
 	public int[] isLeaf(){
-		return Ints.toArray(getNodeAttribute("is_leaf"));
+		return getIntNodeAttribute("is_leaf");
 	}
 
 	public int[] getBinThreshhold(){
-		return Ints.toArray(getNodeAttribute("bin_threshold"));
+		return getIntNodeAttribute("bin_threshold");
 	}
 
 	public int[] isCategorical(){
-		List<? extends Number> isCategorical = getNodeAttribute("is_categorical");
+		int[] isCategorical = getIntNodeAttribute("is_categorical");
 
 		// SkLearn 0.23
 		if(isCategorical == null){
@@ -94,11 +105,11 @@ public class TreePredictor extends PythonObject {
 		}
 
 		// SkLearn 0.24+
-		return Ints.toArray(isCategorical);
+		return isCategorical;
 	}
 
 	public int[] getBitsetIdx(){
-		List<? extends Number> bitsetIdx = getNodeAttribute("bitset_idx");
+		int[] bitsetIdx = getIntNodeAttribute("bitset_idx");
 
 		// SkLearn 0.23
 		if(bitsetIdx == null){
@@ -106,7 +117,52 @@ public class TreePredictor extends PythonObject {
 		}
 
 		// SkLearn 0.24+
-		return Ints.toArray(bitsetIdx);
+		return bitsetIdx;
+	}
+
+	@Override
+	public RecordArray getContent(){
+
+		if(this.nodes == null){
+			this.nodes = RecordArray.create(get("nodes"));
+		}
+
+		return this.nodes;
+	}
+
+	@Override
+	public void clearContent(){
+		this.nodes = null;
+	}
+
+	private int[] getIntNodeAttribute(String key){
+		RecordArray nodes = getContent();
+
+		if(nodes != null){
+			return nodes.getIntArray(key);
+		}
+
+		List<? extends Number> values = getNodeAttribute(key);
+		if(values == null){
+			return null;
+		}
+
+		return Ints.toArray(values);
+	}
+
+	private double[] getDoubleNodeAttribute(String key){
+		RecordArray nodes = getContent();
+
+		if(nodes != null){
+			return nodes.getDoubleArray(key);
+		}
+
+		List<? extends Number> values = getNodeAttribute(key);
+		if(values == null){
+			return null;
+		}
+
+		return Doubles.toArray(values);
 	}
 
 	private List<? extends Number> getNodeAttribute(String key){
@@ -18,7 +18,9 @@
  */
 package sklearn.ensemble.hist_gradient_boosting;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 import org.dmg.pmml.DataType;
@@ -40,6 +42,7 @@ import org.jpmml.converter.MissingValueFeature;
 import org.jpmml.converter.ModelUtil;
 import org.jpmml.converter.PredicateManager;
 import org.jpmml.converter.Schema;
+import org.jpmml.python.ClassDictUtil;
 
 public class TreePredictorUtil {
 
@@ -66,17 +69,57 @@ public class TreePredictorUtil {
 		double[] values = treePredictor.getValues();
 		int[] rawLeftCatBitsets = treePredictor.getRawLeftCatBitsets();
 
-		Node root = encodeNode(0, True.INSTANCE, leaf, leftChildren, rightChildren, featureIdx, isCategorical, thresholds, bitsetIdx, missingGoToLeft, values, binMapper, rawLeftCatBitsets, new CategoryManager(), predicateManager, schema);
+		TreePredictorContext context = new TreePredictorContext(leaf, leftChildren, rightChildren, featureIdx, isCategorical, thresholds, bitsetIdx, missingGoToLeft, values, binMapper, rawLeftCatBitsets, predicateManager, schema);
+
+		Node root = encodeNodes(context);
 
 		TreeModel treeModel = new TreeModel(MiningFunction.REGRESSION, ModelUtil.createMiningSchema(schema.getLabel()), root)
 			.setSplitCharacteristic(TreeModel.SplitCharacteristic.BINARY_SPLIT)
 			.setMissingValueStrategy(TreeModel.MissingValueStrategy.DEFAULT_CHILD);
 
+		ClassDictUtil.clearContent(treePredictor);
+
 		return treeModel;
 	}
 
 	static
-	private Node encodeNode(int index, Predicate predicate, int[] leaf, int[] leftChildren, int[] rightChildren, int[] featureIdx, int[] isCategorical, double[] thresholds, int[] bitsetIdx, int[] missingGoToLeft, double[] values, BinMapper binMapper, int[] rawLeftCatBitsets, CategoryManager categoryManager, PredicateManager predicateManager, Schema schema){
+	private Node encodeNodes(TreePredictorContext context){
+		Node root = null;
+
+		Deque<PendingNode> pendingNodes = new ArrayDeque<>();
+		pendingNodes.push(new PendingNode(0, True.INSTANCE, new CategoryManager(), null));
+
+		while(!pendingNodes.isEmpty()){
+			PendingNode pendingNode = pendingNodes.pop();
+
+			Node node = encodeNode(pendingNode.getIndex(), pendingNode.getPredicate(), pendingNode.getCategoryManager(), context, pendingNodes);
+
+			Node parent = pendingNode.getParent();
+			if(parent != null){
+				parent.addNodes(node);
+			} else
+
+			{
+				root = node;
+			}
+		}
+
+		return root;
+	}
+
+	static
+	private Node encodeNode(int index, Predicate predicate, CategoryManager categoryManager, TreePredictorContext context, Deque<PendingNode> pendingNodes){
+		int[] leaf = context.getLeaf();
+		int[] featureIdx = context.getFeatureIdx();
+		int[] isCategorical = context.getIsCategorical();
+		double[] thresholds = context.getThresholds();
+		int[] bitsetIdx = context.getBitsetIdx();
+		int[] missingGoToLeft = context.getMissingGoToLeft();
+		double[] values = context.getValues();
+		int[] rawLeftCatBitsets = context.getRawLeftCatBitsets();
+		PredicateManager predicateManager = context.getPredicateManager();
+		Schema schema = context.getSchema();
+
 		Integer id = Integer.valueOf(index);
 
 		if(leaf[index] == 0){
@@ -197,13 +240,16 @@ public class TreePredictorUtil {
 				}
 			}
 
-			Node leftChild = encodeNode(leftChildren[index], leftPredicate, leaf, leftChildren, rightChildren, featureIdx, isCategorical, thresholds, bitsetIdx, missingGoToLeft, values, binMapper, rawLeftCatBitsets, leftCategoryManager, predicateManager, schema);
-			Node rightChild = encodeNode(rightChildren[index], rightPredicate, leaf, leftChildren, rightChildren, featureIdx, isCategorical, thresholds, bitsetIdx, missingGoToLeft, values, binMapper, rawLeftCatBitsets, rightCategoryManager, predicateManager, schema);
+			int leftIndex = context.getLeftChildren()[index];
+			int rightIndex = context.getRightChildren()[index];
 
 			Node result = new BranchNode(null, predicate)
 				.setId(id)
-				.setDefaultChild(defaultLeft ? leftChild.getId() : rightChild.getId())
-				.addNodes(leftChild, rightChild);
+				.setDefaultChild(defaultLeft ? Integer.valueOf(leftIndex) : Integer.valueOf(rightIndex));
+
+			// The left child must be popped (and appended to the result node) first
+			pendingNodes.push(new PendingNode(rightIndex, rightPredicate, rightCategoryManager, result));
+			pendingNodes.push(new PendingNode(leftIndex, leftPredicate, leftCategoryManager, result));
 
 			return result;
 		} else
@@ -219,4 +265,139 @@ public class TreePredictorUtil {
 			throw new IllegalArgumentException();
 		}
 	}
+
+	static
+	private class TreePredictorContext {
+
+		private int[] leaf = null;
+
+		private int[] leftChildren = null;
+
+		private int[] rightChildren = null;
+
+		private int[] featureIdx = null;
+
+		private int[] isCategorical = null;
+
+		private double[] thresholds = null;
+
+		private int[] bitsetIdx = null;
+
+		private int[] missingGoToLeft = null;
+
+		private double[] values = null;
+
+		private BinMapper binMapper = null;
+
+		private int[] rawLeftCatBitsets = null;
+
+		private PredicateManager predicateManager = null;
+
+		private Schema schema = null;
+
+
+		private TreePredictorContext(int[] leaf, int[] leftChildren, int[] rightChildren, int[] featureIdx, int[] isCategorical, double[] thresholds, int[] bitsetIdx, int[] missingGoToLeft, double[] values, BinMapper binMapper, int[] rawLeftCatBitsets, PredicateManager predicateManager, Schema schema){
+			this.leaf = leaf;
+			this.leftChildren = leftChildren;
+			this.rightChildren = rightChildren;
+			this.featureIdx = featureIdx;
+			this.isCategorical = isCategorical;
+			this.thresholds = thresholds;
+			this.bitsetIdx = bitsetIdx;
+			this.missingGoToLeft = missingGoToLeft;
+			this.values = values;
+			this.binMapper = binMapper;
+			this.rawLeftCatBitsets = rawLeftCatBitsets;
+			this.predicateManager = predicateManager;
+			this.schema = schema;
+		}
+
+		public int[] getLeaf(){
+			return this.leaf;
+		}
+
+		public int[] getLeftChildren(){
+			return this.leftChildren;
+		}
+
+		public int[] getRightChildren(){
+			return this.rightChildren;
+		}
+
+		public int[] getFeatureIdx(){
+			return this.featureIdx;
+		}
+
+		public int[] getIsCategorical(){
+			return this.isCategorical;
+		}
+
+		public double[] getThresholds(){
+			return this.thresholds;
+		}
+
+		public int[] getBitsetIdx(){
+			return this.bitsetIdx;
+		}
+
+		public int[] getMissingGoToLeft(){
+			return this.missingGoToLeft;
+		}
+
+		public double[] getValues(){
+			return this.values;
+		}
+
+		public BinMapper getBinMapper(){
+			return this.binMapper;
+		}
+
+		public int[] getRawLeftCatBitsets(){
+			return this.rawLeftCatBitsets;
+		}
+
+		public PredicateManager getPredicateManager(){
+			return this.predicateManager;
+		}
+
+		public Schema getSchema(){
+			return this.schema;
+		}
+	}
+
+	static
+	private class PendingNode {
+
+		private int index = -1;
+
+		private Predicate predicate = null;
+
+		private CategoryManager categoryManager = null;
+
+		private Node parent = null;
+
+
+		private PendingNode(int index, Predicate predicate, CategoryManager categoryManager, Node parent){
+			this.index = index;
+			this.predicate = predicate;
+			this.categoryManager = categoryManager;
+			this.parent = parent;
+		}
+
+		public int getIndex(){
+			return this.index;
+		}
+
+		public Predicate getPredicate(){
+			return this.predicate;
+		}
+
+		public CategoryManager getCategoryManager(){
+			return this.categoryManager;
+		}
+
+		public Node getParent(){
+			return this.parent;
+		}
+	}
 }
\ No newline at end of file
@@ -52,6 +52,7 @@ import org.jpmml.sklearn.SkLearnEncoder;
 import sklearn.OutlierDetector;
 import sklearn.OutlierDetectorUtil;
 import sklearn.Regressor;
+import sklearn.StepUtil;
 import sklearn.VersionUtil;
 import sklearn.ensemble.EnsembleRegressor;
 import sklearn.ensemble.EnsembleUtil;
@@ -227,6 +228,11 @@ public class IsolationForest extends EnsembleRegressor implements HasTreeOptions
 		return threshold;
 	}
 
+	@Override
+	public void releaseContent(){
+		StepUtil.releaseContent(getEstimators());
+	}
+
 	public List<List<Integer>> getEstimatorsFeatures(){
 		return EnsembleUtil.transformEstimatorsFeatures(getList("estimators_features_", HasArray.class));
 	}
@@ -22,16 +22,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.common.io.CharStreams;
 import numpy.core.ScalarUtil;
 import org.dmg.pmml.Apply;
@@ -90,14 +90,7 @@ public class CountVectorizer extends SkLearnTransformer implements HasSparseOutp
 
 		Feature feature = features.get(0);
 
-		BiMap<String, Integer> termIndexMap = HashBiMap.create(vocabulary.size());
-
-		Collection<? extends Map.Entry<String, ?>> entries = vocabulary.entrySet();
-		for(Map.Entry<String, ?> entry : entries){
-			termIndexMap.put(entry.getKey(), ValueUtil.asInteger((Number)ScalarUtil.decode(entry.getValue())));
-		}
-
-		BiMap<Integer, String> indexTermMap = termIndexMap.inverse();
+		String[] terms = toTermArray(vocabulary);
 
 		TypeInfo dtype = getDType();
 
@@ -111,27 +104,36 @@ public class CountVectorizer extends SkLearnTransformer implements HasSparseOutp
 			feature = new StringFeature(encoder, derivedField);
 		}
 
-		DefineFunction defineFunction = encodeDefineFunction(feature, encoder);
+		Feature documentFeature = feature;
 
-		encoder.addDefineFunction(defineFunction);
+		DefineFunction defineFunction = encodeDefineFunction(documentFeature, encoder);
 
-		List<Feature> result = new ArrayList<>();
+		// The define function is not registered until the first term feature is actually used by the final estimator
+		Supplier<DefineFunction> defineFunctionSupplier = () -> {
 
-		for(int i = 0, max = indexTermMap.size(); i < max; i++){
-			String term = indexTermMap.get(i);
+			if(encoder.getDefineFunction(defineFunction.getName()) == null){
+				encoder.addDefineFunction(defineFunction);
+			}
 
-			Apply apply = encodeApply(defineFunction, feature, i, term);
+			return defineFunction;
+		};
 
-			Feature termFeature = new ObjectFeature(encoder, FieldNameUtil.create(functionName(), feature, term), dataType){
+		String functionName = functionName();
 
-				@Override
-				public ContinuousFeature toContinuousFeature(){
-					return toContinuousFeature(getName(), getDataType(), () -> apply);
-				}
-			};
+		// The term features are not created until they are actually used by the final estimator
+		List<Feature> result = new AbstractTermFeatureList(terms){
 
-			result.add(termFeature);
-		}
+			@Override
+			public Feature createFeature(int index, String term){
+				return new ObjectFeature(encoder, FieldNameUtil.create(functionName, documentFeature, term), dataType){
+
+					@Override
+					public ContinuousFeature toContinuousFeature(){
+						return toContinuousFeature(getName(), getDataType(), () -> encodeApply(defineFunctionSupplier.get(), documentFeature, index, term));
+					}
+				};
+			}
+		};
 
 		return result;
 	}
@@ -271,6 +273,32 @@ public class CountVectorizer extends SkLearnTransformer implements HasSparseOutp
 		return getDict("vocabulary_");
 	}
 
+	/**
+	 * @return An array of terms, indexed by their column index.
+	 */
+	static
+	private String[] toTermArray(Map<String, ?> vocabulary){
+		String[] result = new String[vocabulary.size()];
+
+		Collection<? extends Map.Entry<String, ?>> entries = vocabulary.entrySet();
+		for(Map.Entry<String, ?> entry : entries){
+			String term = entry.getKey();
+			Integer index = ValueUtil.asInteger((Number)ScalarUtil.decode(entry.getValue()));
+
+			if(index < 0 || index >= result.length){
+				throw new IllegalArgumentException("Term \'" + term + "\' has an invalid index " + index);
+			} // End if
+
+			if(result[index] != null){
+				throw new IllegalArgumentException("Terms \'" + result[index] + "\' and \'" + term + "\' have the same index " + index);
+			}
+
+			result[index] = term;
+		}
+
+		return result;
+	}
+
 	static
 	private List<String> loadStopWords(String stopWords){
 		InputStream is = (CountVectorizer.class).getResourceAsStream("/stop_words/" + stopWords + ".txt");
@@ -286,5 +314,52 @@ public class CountVectorizer extends SkLearnTransformer implements HasSparseOutp
 		}
 	}
 
+	/**
+	 * <p>
+	 * A list of term features, where the features are created on first access.
+	 * </p>
+	 *
+	 * <p>
+	 * A downstream estimator that skips unused terms (eg. zero-coefficient terms of a linear model) does not pay for their creation,
+	 * and the term frequency expressions of unused terms are not included in the PMML document.
+	 * </p>
+	 */
+	static
+	abstract
+	private class AbstractTermFeatureList extends AbstractList<Feature> implements RandomAccess {
+
+		private String[] terms = null;
+
+		private Feature[] features = null;
+
+
+		private AbstractTermFeatureList(String[] terms){
+			this.terms = terms;
+
+			this.features = new Feature[terms.length];
+		}
+
+		abstract
+		public Feature createFeature(int index, String term);
+
+		@Override
+		public int size(){
+			return this.terms.length;
+		}
+
+		@Override
+		public Feature get(int index){
+			Feature feature = this.features[index];
+
+			if(feature == null){
+				feature = createFeature(index, this.terms[index]);
+
+				this.features[index] = feature;
+			}
+
+			return feature;
+		}
+	}
+
 	public static final String TOKEN_PATTERN = "(?u)\\b\\w\\w+\\b";
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.feature_extraction.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.base.Joiner;
+
+public class TokenizerUtil {
+
+	private TokenizerUtil(){
+	}
+
+	/**
+	 * <p>
+	 * Formats a list of words as a regex alternation.
+	 * </p>
+	 *
+	 * <p>
+	 * If all words consist of ASCII word characters (ie. <code>[A-Za-z0-9_]</code>),
+	 * then the alternation is factored by common prefixes into the shape of a trie.
+	 * For example, the list <code>["a", "and", "are", "is", "it"]</code> is formatted as <code>a(?:nd|re)?|i[st]</code>.
+	 * The regex engine can then reject a non-matching position in one pass over the characters of the document,
+	 * instead of re-trying every word of the list.
+	 * </p>
+	 *
+	 * <p>
+	 * Two distinct words of word characters cannot both be followed by a word boundary at the same position.
+	 * Therefore, when wrapped in word boundary assertions (eg. <code>\b(...)\b</code>),
+	 * the factored alternation matches exactly the same substrings as the plain alternation.
+	 * Other lists are formatted as a plain alternation, in the original order of words.
+	 * </p>
+	 */
+	static
+	public String formatWordsRE(List<String> words){
+
+		if(!isFactorable(words)){
+			Joiner joiner = Joiner.on("|");
+
+			return joiner.join(words);
+		}
+
+		Node root = new Node();
+
+		for(String word : words){
+			Node node = root;
+
+			for(int i = 0; i < word.length(); i++){
+				node = node.children.computeIfAbsent(word.charAt(i), key -> new Node());
+			}
+
+			node.terminal = true;
+		}
+
+		Joiner joiner = Joiner.on("|");
+
+		return joiner.join(formatBranches(root));
+	}
+
+	static
+	private boolean isFactorable(List<String> words){
+
+		if(words.isEmpty()){
+			return false;
+		}
+
+		for(String word : words){
+
+			if(word.isEmpty()){
+				return false;
+			}
+
+			for(int i = 0; i < word.length(); i++){
+				char c = word.charAt(i);
+
+				if(!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c == '_'))){
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return One regex per child node, in the order of characters.
+	 */
+	static
+	private List<String> formatBranches(Node node){
+		List<String> result = new ArrayList<>();
+
+		for(Map.Entry<Character, Node> entry : (node.children).entrySet()){
+			Character c = entry.getKey();
+			Node child = entry.getValue();
+
+			result.add(c + formatSuffix(child));
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return A regex that matches the continuations of a node.
+	 * The regex is an atom (ie. a single character, a character class or a group), unless it is a plain character sequence.
+	 */
+	static
+	private String formatSuffix(Node node){
+
+		if((node.children).isEmpty()){
+			return "";
+		}
+
+		List<String> branches = formatBranches(node);
+
+		String regex;
+
+		if(branches.size() == 1){
+			regex = branches.get(0);
+
+			if(!node.terminal){
+				return regex;
+			} // End if
+
+			if(regex.length() > 1){
+				regex = "(?:" + regex + ")";
+			}
+		} else
+
+		{
+			boolean singleChars = branches.stream()
+				.allMatch(branch -> branch.length() == 1);
+
+			if(singleChars){
+				regex = "[" + String.join("", branches) + "]";
+			} else
+
+			{
+				Joiner joiner = Joiner.on("|");
+
+				regex = "(?:" + joiner.join(branches) + ")";
+			}
+		}
+
+		return node.terminal ? (regex + "?") : regex;
+	}
+
+	static
+	private class Node {
+
+		private Map<Character, Node> children = new TreeMap<>();
+
+		private boolean terminal = false;
+	}
+}
@@ -19,6 +19,7 @@
 package sklearn.impute;
 
 import java.util.Collections;
+import java.util.function.Supplier;
 
 import org.dmg.pmml.DataField;
 import org.dmg.pmml.DataType;
@@ -36,6 +37,7 @@ import org.jpmml.converter.FeatureUtil;
 import org.jpmml.converter.FieldUtil;
 import org.jpmml.converter.MissingValueDecorator;
 import org.jpmml.model.UnsupportedElementException;
+import org.jpmml.sklearn.LazyContinuousFeature;
 import org.jpmml.sklearn.SkLearnEncoder;
 import sklearn.Transformer;
 
@@ -46,6 +48,13 @@ public class ImputerUtil {
 
 	static
 	public Feature encodeFeature(Transformer transformer, Feature feature, Boolean addIndicator, Object missingValue, Object replacementValue, MissingValueTreatmentMethod missingValueTreatmentMethod, SkLearnEncoder encoder){
+		Supplier<Expression> expressionSupplier = () -> encodeImputation(feature, missingValue, replacementValue);
+
+		// Avoid materializing the derived field of the input feature before the imputed feature is used
+		if(feature instanceof LazyContinuousFeature){
+			return encoder.createDerivedFeature(transformer.createFieldName("imputer", feature), feature.getDataType(), expressionSupplier);
+		}
+
 		Field<?> field = feature.getField();
 
 		if(field instanceof DataField && !addIndicator){
@@ -61,23 +70,16 @@ public class ImputerUtil {
 		} // End if
 
 		if((field instanceof DataField) || (field instanceof DerivedField)){
-			Expression expression = feature.ref();
+			OpType opType = field.requireOpType();
+			DataType dataType = field.requireDataType();
 
-			if(missingValue != null){
-				expression = ExpressionUtil.createApply(PMMLFunctions.EQUAL, expression, ExpressionUtil.createConstant(feature.getDataType(), missingValue));
-			} else
+			String name = transformer.createFieldName("imputer", feature);
 
-			{
-				expression = ExpressionUtil.createApply(PMMLFunctions.ISMISSING, expression);
+			if(opType == OpType.CONTINUOUS){
+				return encoder.createDerivedFeature(name, dataType, expressionSupplier);
 			}
 
-			expression = ExpressionUtil.createApply(PMMLFunctions.IF,
-				expression,
-				ExpressionUtil.createConstant(feature.getDataType(), replacementValue),
-				feature.ref()
-			);
-
-			DerivedField derivedField = encoder.createDerivedField(transformer.createFieldName("imputer", feature), field.requireOpType(), field.requireDataType(), expression);
+			DerivedField derivedField = encoder.createDerivedField(name, opType, dataType, expressionSupplier.get());
 
 			return FeatureUtil.createFeature(derivedField, encoder);
 		} else
@@ -103,4 +105,23 @@ public class ImputerUtil {
 
 		return new BooleanFeature(encoder, derivedField);
 	}
+
+	static
+	private Expression encodeImputation(Feature feature, Object missingValue, Object replacementValue){
+		Expression expression = feature.ref();
+
+		if(missingValue != null){
+			expression = ExpressionUtil.createApply(PMMLFunctions.EQUAL, expression, ExpressionUtil.createConstant(feature.getDataType(), missingValue));
+		} else
+
+		{
+			expression = ExpressionUtil.createApply(PMMLFunctions.ISMISSING, expression);
+		}
+
+		return ExpressionUtil.createApply(PMMLFunctions.IF,
+			expression,
+			ExpressionUtil.createConstant(feature.getDataType(), replacementValue),
+			feature.ref()
+		);
+	}
 }
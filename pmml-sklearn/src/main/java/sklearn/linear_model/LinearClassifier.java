@@ -26,14 +26,13 @@ import org.dmg.pmml.Model;
 import org.dmg.pmml.OpType;
 import org.dmg.pmml.mining.MiningModel;
 import org.dmg.pmml.regression.RegressionModel;
-import org.jpmml.converter.CMatrixUtil;
 import org.jpmml.converter.CategoricalLabel;
 import org.jpmml.converter.Feature;
 import org.jpmml.converter.ModelUtil;
 import org.jpmml.converter.Schema;
 import org.jpmml.converter.SchemaUtil;
 import org.jpmml.converter.mining.MiningModelUtil;
-import org.jpmml.converter.regression.RegressionModelUtil;
+import org.jpmml.python.HasArray;
 import sklearn.HasMultiDecisionFunctionField;
 import sklearn.SkLearnClassifier;
 
@@ -59,7 +58,7 @@ public class LinearClassifier extends SkLearnClassifier implements HasMultiDecis
 
 		boolean hasProbabilityDistribution = hasProbabilityDistribution();
 
-		List<? extends Number> coef = getCoef();
+		HasArray coef = getCoefArray();
 		List<? extends Number> intercept = getIntercept();
 
 		CategoricalLabel categoricalLabel = (CategoricalLabel)schema.getLabel();
@@ -68,7 +67,7 @@ public class LinearClassifier extends SkLearnClassifier implements HasMultiDecis
 		if(numberOfClasses == 1){
 			SchemaUtil.checkSize(2, categoricalLabel);
 
-			RegressionModel regressionModel = RegressionModelUtil.createBinaryLogisticClassification(features, CMatrixUtil.getRow(coef, numberOfClasses, numberOfFeatures, 0), intercept.get(0), RegressionModel.NormalizationMethod.LOGIT, false, schema);
+			RegressionModel regressionModel = LinearModelUtil.createBinaryLogisticClassification(features, LinearModelUtil.getRow(coef, numberOfClasses, numberOfFeatures, 0), intercept.get(0), RegressionModel.NormalizationMethod.LOGIT, false, schema);
 
 			if(hasProbabilityDistribution){
 				encodePredictProbaOutput(regressionModel, DataType.DOUBLE, categoricalLabel);
@@ -85,7 +84,7 @@ public class LinearClassifier extends SkLearnClassifier implements HasMultiDecis
 			List<Model> models = new ArrayList<>();
 
 			for(int i = 0, rows = categoricalLabel.size(); i < rows; i++){
-				Model model = RegressionModelUtil.createRegression(features, CMatrixUtil.getRow(coef, numberOfClasses, numberOfFeatures, i), intercept.get(i), RegressionModel.NormalizationMethod.LOGIT, segmentSchema)
+				Model model = LinearModelUtil.createRegression(features, LinearModelUtil.getRow(coef, numberOfClasses, numberOfFeatures, i), intercept.get(i), RegressionModel.NormalizationMethod.LOGIT, segmentSchema)
 					.setOutput(ModelUtil.createPredictedOutput(getMultiDecisionFunctionField(categoricalLabel.getValue(i)), OpType.CONTINUOUS, DataType.DOUBLE));
 
 				models.add(model);
@@ -109,6 +108,13 @@ public class LinearClassifier extends SkLearnClassifier implements HasMultiDecis
 		return getNumberArray("coef_");
 	}
 
+	/**
+	 * @return A dense matrix, or a sparse matrix if the <code>sparsify()</code> method has been called.
+	 */
+	public HasArray getCoefArray(){
+		return get("coef_", HasArray.class);
+	}
+
 	public int[] getCoefShape(){
 		return getArrayShape("coef_", 2);
 	}
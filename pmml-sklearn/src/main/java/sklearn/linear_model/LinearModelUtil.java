@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.linear_model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+import com.google.common.primitives.Ints;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.regression.RegressionTable;
+import org.jpmml.converter.CMatrixUtil;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.Schema;
+import org.jpmml.converter.ValueUtil;
+import org.jpmml.converter.regression.RegressionModelUtil;
+import org.jpmml.python.ClassDictUtil;
+import org.jpmml.python.HasArray;
+import org.jpmml.sklearn.SkLearnEncoder;
+import scipy.sparse.CSCMatrix;
+import scipy.sparse.CSRMatrix;
+import sklearn.preprocessing.PolynomialFeatureList;
+
+/**
+ * <p>
+ * Counterparts of {@link RegressionModelUtil} methods, which drop zero-coefficient features before they are accessed.
+ * If the coefficients are a sparse row (see {@link #getRow(HasArray, int, int, int)}), then only the stored entries are visited.
+ * </p>
+ *
+ * <p>
+ * If the features are polynomial features, and the factorized polynomials mode is enabled,
+ * then the linear combination is encoded as a single polynomial feature instead.
+ * </p>
+ *
+ * @see SkLearnEncoder#isFactorizedPolynomials()
+ */
+public class LinearModelUtil {
+
+	private LinearModelUtil(){
+	}
+
+	static
+	public RegressionModel createRegression(List<? extends Feature> features, List<? extends Number> coefficients, Number intercept, RegressionModel.NormalizationMethod normalizationMethod, Schema schema){
+		return encode(features, coefficients, (encodedFeatures, encodedCoefficients) -> RegressionModelUtil.createRegression(encodedFeatures, encodedCoefficients, intercept, normalizationMethod, schema));
+	}
+
+	static
+	public RegressionModel createBinaryLogisticClassification(List<? extends Feature> features, List<? extends Number> coefficients, Number intercept, RegressionModel.NormalizationMethod normalizationMethod, boolean hasProbabilityDistribution, Schema schema){
+		return encode(features, coefficients, (encodedFeatures, encodedCoefficients) -> RegressionModelUtil.createBinaryLogisticClassification(encodedFeatures, encodedCoefficients, intercept, normalizationMethod, hasProbabilityDistribution, schema));
+	}
+
+	static
+	public RegressionTable createRegressionTable(List<? extends Feature> features, List<? extends Number> coefficients, Number intercept){
+		return encode(features, coefficients, (encodedFeatures, encodedCoefficients) -> RegressionModelUtil.createRegressionTable(encodedFeatures, encodedCoefficients, intercept));
+	}
+
+	static
+	private <E> E encode(List<? extends Feature> features, List<? extends Number> coefficients, BiFunction<List<? extends Feature>, List<? extends Number>, E> function){
+		ClassDictUtil.checkSize(features, coefficients);
+
+		if(features instanceof PolynomialFeatureList){
+			PolynomialFeatureList polynomialFeatures = (PolynomialFeatureList)features;
+
+			SkLearnEncoder encoder = polynomialFeatures.getEncoder();
+
+			if(encoder.isFactorizedPolynomials()){
+				Feature feature = polynomialFeatures.encodePolynomial(coefficients);
+
+				return function.apply(Collections.singletonList(feature), Collections.singletonList(1d));
+			}
+		}
+
+		List<Feature> nonZeroFeatures = new ArrayList<>();
+		List<Number> nonZeroCoefficients = new ArrayList<>();
+
+		if(coefficients instanceof SparseRow){
+			SparseRow sparseRow = (SparseRow)coefficients;
+
+			int[] indices = sparseRow.getIndices();
+			List<Number> values = sparseRow.getValues();
+
+			for(int i = 0; i < indices.length; i++){
+				Number coefficient = values.get(i);
+
+				if(ValueUtil.isZeroLike(coefficient)){
+					continue;
+				}
+
+				nonZeroFeatures.add(features.get(indices[i]));
+				nonZeroCoefficients.add(coefficient);
+			}
+		} else
+
+		{
+			for(int i = 0; i < coefficients.size(); i++){
+				Number coefficient = coefficients.get(i);
+
+				if(ValueUtil.isZeroLike(coefficient)){
+					continue;
+				}
+
+				nonZeroFeatures.add(features.get(i));
+				nonZeroCoefficients.add(coefficient);
+			}
+		}
+
+		return function.apply(nonZeroFeatures, nonZeroCoefficients);
+	}
+
+	/**
+	 * <p>
+	 * Extracts a row of a coefficient matrix.
+	 * </p>
+	 *
+	 * <p>
+	 * Sparse matrices (eg. the <code>coef_</code> attribute of a linear model after calling its <code>sparsify()</code> method) are never densified.
+	 * The row is returned as a list that stores only the explicitly stored entries of the matrix,
+	 * so that the cost of encoding it is proportional to the number of non-zero coefficients.
+	 * </p>
+	 *
+	 * @param coef A dense matrix, a CSR matrix or a CSC matrix.
+	 * A dense matrix is allowed to be one-dimensional if it has a single row.
+	 */
+	static
+	public List<? extends Number> getRow(HasArray coef, int rows, int columns, int row){
+
+		if(coef instanceof CSRMatrix){
+			CSRMatrix csrMatrix = (CSRMatrix)coef;
+
+			checkShape(rows, columns, csrMatrix.getArrayShape());
+
+			List<?> data = csrMatrix.getData();
+			List<Integer> indices = csrMatrix.getIndices();
+			List<Integer> indPtr = csrMatrix.getIndPtr();
+
+			int begin = indPtr.get(row);
+			int end = indPtr.get(row + 1);
+
+			int[] rowIndices = new int[end - begin];
+			List<Number> rowValues = new ArrayList<>(end - begin);
+
+			for(int i = begin; i < end; i++){
+				rowIndices[i - begin] = indices.get(i);
+				rowValues.add((Number)data.get(i));
+			}
+
+			return new SparseRow(columns, rowIndices, rowValues);
+		} else
+
+		if(coef instanceof CSCMatrix){
+			CSCMatrix cscMatrix = (CSCMatrix)coef;
+
+			checkShape(rows, columns, cscMatrix.getArrayShape());
+
+			List<?> data = cscMatrix.getData();
+
+			// Transposed to the row-major layout once per matrix
+			int[] rowIndPtr = cscMatrix.getRowIndPtr();
+			int[] rowIndices = cscMatrix.getRowIndices();
+			int[] rowDataIndices = cscMatrix.getRowDataIndices();
+
+			int begin = rowIndPtr[row];
+			int end = rowIndPtr[row + 1];
+
+			List<Number> rowValues = new ArrayList<>(end - begin);
+
+			for(int i = begin; i < end; i++){
+				rowValues.add((Number)data.get(rowDataIndices[i]));
+			}
+
+			return new SparseRow(columns, Arrays.copyOfRange(rowIndices, begin, end), rowValues);
+		}
+
+		List<? extends Number> content = (List)coef.getArrayContent();
+
+		ClassDictUtil.checkSize(rows * columns, content);
+
+		return CMatrixUtil.getRow(content, rows, columns, row);
+	}
+
+	static
+	private void checkShape(int rows, int columns, int[] shape){
+
+		if(shape[0] != rows || shape[1] != columns){
+			throw new IllegalArgumentException("Expected " + rows + "x" + columns + " matrix, got " + shape[0] + "x" + shape[1] + " matrix");
+		}
+	}
+
+	/**
+	 * <p>
+	 * A sparse list of coefficients, where all the other elements are zeroes.
+	 * </p>
+	 */
+	static
+	private class SparseRow extends AbstractList<Number> implements RandomAccess {
+
+		private int size = 0;
+
+		private int[] indices = null;
+
+		private List<Number> values = null;
+
+
+		private SparseRow(int size, int[] indices, List<Number> values){
+			this.size = size;
+
+			// Sort by index, and sum duplicate entries
+			if(!isStrictlyIncreasing(indices)){
+				Map<Integer, Number> entries = new TreeMap<>();
+
+				for(int i = 0; i < indices.length; i++){
+					entries.merge(indices[i], values.get(i), (left, right) -> left.doubleValue() + right.doubleValue());
+				}
+
+				indices = Ints.toArray(entries.keySet());
+				values = new ArrayList<>(entries.values());
+			}
+
+			for(int index : indices){
+
+				if(index < 0 || index >= size){
+					throw new IllegalArgumentException("Expected an index in range [0, " + size + "), got " + index);
+				}
+			}
+
+			this.indices = indices;
+			this.values = values;
+		}
+
+		@Override
+		public int size(){
+			return this.size;
+		}
+
+		@Override
+		public Number get(int index){
+
+			if(index < 0 || index >= this.size){
+				throw new IndexOutOfBoundsException();
+			}
+
+			int position = Arrays.binarySearch(this.indices, index);
+			if(position < 0){
+				return 0d;
+			}
+
+			return this.values.get(position);
+		}
+
+		public int[] getIndices(){
+			return this.indices;
+		}
+
+		public List<Number> getValues(){
+			return this.values;
+		}
+
+		static
+		private boolean isStrictlyIncreasing(int[] indices){
+
+			for(int i = 1; i < indices.length; i++){
+
+				if(indices[i - 1] >= indices[i]){
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+}
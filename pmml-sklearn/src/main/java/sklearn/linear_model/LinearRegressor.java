@@ -25,15 +25,14 @@ import com.google.common.collect.Iterables;
 import org.dmg.pmml.Model;
 import org.dmg.pmml.mining.Segmentation;
 import org.dmg.pmml.regression.RegressionModel;
-import org.jpmml.converter.CMatrixUtil;
 import org.jpmml.converter.Feature;
 import org.jpmml.converter.Label;
 import org.jpmml.converter.ScalarLabel;
 import org.jpmml.converter.ScalarLabelUtil;
 import org.jpmml.converter.Schema;
 import org.jpmml.converter.mining.MiningModelUtil;
-import org.jpmml.converter.regression.RegressionModelUtil;
 import org.jpmml.python.ClassDictUtil;
+import org.jpmml.python.HasArray;
 import sklearn.SkLearnRegressor;
 
 public class LinearRegressor extends SkLearnRegressor {
@@ -66,7 +65,7 @@ public class LinearRegressor extends SkLearnRegressor {
 
 	@Override
 	public Model encodeModel(Schema schema){
-		List<? extends Number> coef = getCoef();
+		HasArray coef = getCoefArray();
 		List<? extends Number> intercept = getIntercept();
 
 		Label label = schema.getLabel();
@@ -74,7 +73,7 @@ public class LinearRegressor extends SkLearnRegressor {
 
 		int numberOfOutputs = getNumberOfOutputs();
 		if(numberOfOutputs == 1){
-			return createRegression(coef, Iterables.getOnlyElement(intercept), schema);
+			return createRegression(LinearModelUtil.getRow(coef, 1, features.size(), 0), Iterables.getOnlyElement(intercept), schema);
 		} else
 
 		if(numberOfOutputs >= 2){
@@ -87,7 +86,7 @@ public class LinearRegressor extends SkLearnRegressor {
 			for(int i = 0, max = numberOfOutputs; i < max; i++){
 				Schema segmentSchema = schema.toRelabeledSchema(scalarLabels.get(i));
 
-				Model model = createRegression(CMatrixUtil.getRow(coef, numberOfOutputs, features.size(), i), intercept.get(i), segmentSchema);
+				Model model = createRegression(LinearModelUtil.getRow(coef, numberOfOutputs, features.size(), i), intercept.get(i), segmentSchema);
 
 				models.add(model);
 			}
@@ -101,13 +100,20 @@ public class LinearRegressor extends SkLearnRegressor {
 	}
 
 	protected RegressionModel createRegression(List<? extends Number> coef, Number intercept, Schema schema){
-		return RegressionModelUtil.createRegression(schema.getFeatures(), coef, intercept, null, schema);
+		return LinearModelUtil.createRegression(schema.getFeatures(), coef, intercept, null, schema);
 	}
 
 	public List<? extends Number> getCoef(){
 		return getNumberArray("coef_");
 	}
 
+	/**
+	 * @return A dense matrix, or a sparse matrix if the <code>sparsify()</code> method has been called.
+	 */
+	public HasArray getCoefArray(){
+		return get("coef_", HasArray.class);
+	}
+
 	public int[] getCoefShape(){
 		return getArrayShape("coef_");
 	}
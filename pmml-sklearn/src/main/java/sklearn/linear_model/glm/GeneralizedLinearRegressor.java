@@ -22,7 +22,7 @@ import java.util.List;
 
 import org.dmg.pmml.regression.RegressionModel;
 import org.jpmml.converter.Schema;
-import org.jpmml.converter.regression.RegressionModelUtil;
+import sklearn.linear_model.LinearModelUtil;
 import sklearn.linear_model.LinearRegressor;
 
 public class GeneralizedLinearRegressor extends LinearRegressor {
@@ -33,6 +33,6 @@ public class GeneralizedLinearRegressor extends LinearRegressor {
 
 	@Override
 	protected RegressionModel createRegression(List<? extends Number> coef, Number intercept, Schema schema){
-		return RegressionModelUtil.createRegression(schema.getFeatures(), coef, intercept, RegressionModel.NormalizationMethod.EXP, schema);
+		return LinearModelUtil.createRegression(schema.getFeatures(), coef, intercept, RegressionModel.NormalizationMethod.EXP, schema);
 	}
 }
\ No newline at end of file
@@ -31,7 +31,6 @@ import org.dmg.pmml.mining.MiningModel;
 import org.dmg.pmml.mining.Segmentation;
 import org.dmg.pmml.regression.RegressionModel;
 import org.dmg.pmml.regression.RegressionTable;
-import org.jpmml.converter.CMatrixUtil;
 import org.jpmml.converter.CategoricalLabel;
 import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.Feature;
@@ -42,9 +41,11 @@ import org.jpmml.converter.SchemaUtil;
 import org.jpmml.converter.mining.MiningModelUtil;
 import org.jpmml.converter.regression.RegressionModelUtil;
 import org.jpmml.python.ClassDictUtil;
+import org.jpmml.python.HasArray;
 import sklearn.Estimator;
 import sklearn.VersionUtil;
 import sklearn.linear_model.LinearClassifier;
+import sklearn.linear_model.LinearModelUtil;
 
 public class LogisticRegression extends LinearClassifier {
 
@@ -91,7 +92,7 @@ public class LogisticRegression extends LinearClassifier {
 		int numberOfClasses = shape[0];
 		int numberOfFeatures = shape[1];
 
-		List<? extends Number> coef = getCoef();
+		HasArray coef = getCoefArray();
 		List<? extends Number> intercept = getIntercept();
 
 		PMMLEncoder encoder = schema.getEncoder();
@@ -110,7 +111,7 @@ public class LogisticRegression extends LinearClassifier {
 
 			Schema segmentSchema = schema.toRelabeledSchema(null);
 
-			Model firstModel = RegressionModelUtil.createRegression(features, CMatrixUtil.getRow(coef, 1, numberOfFeatures, 0), intercept.get(0), null, segmentSchema)
+			Model firstModel = LinearModelUtil.createRegression(features, LinearModelUtil.getRow(coef, 1, numberOfFeatures, 0), intercept.get(0), null, segmentSchema)
 				.setOutput(ModelUtil.createPredictedOutput(Estimator.FIELD_DECISION_FUNCTION, OpType.CONTINUOUS, DataType.DOUBLE));
 
 			Feature feature = new ContinuousFeature(encoder, Estimator.FIELD_DECISION_FUNCTION, DataType.DOUBLE);
@@ -141,7 +142,7 @@ public class LogisticRegression extends LinearClassifier {
 			List<RegressionTable> regressionTables = new ArrayList<>();
 
 			for(int i = 0; i < categoricalLabel.size(); i++){
-				RegressionTable regressionTable = RegressionModelUtil.createRegressionTable(features, CMatrixUtil.getRow(coef, numberOfClasses, numberOfFeatures, i), intercept.get(i))
+				RegressionTable regressionTable = LinearModelUtil.createRegressionTable(features, LinearModelUtil.getRow(coef, numberOfClasses, numberOfFeatures, i), intercept.get(i))
 					.setTargetCategory(categoricalLabel.getValue(i));
 
 				regressionTables.add(regressionTable);
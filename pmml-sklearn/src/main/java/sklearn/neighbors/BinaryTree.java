@@ -22,10 +22,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import org.jpmml.python.ClassDictUtil;
 import org.jpmml.python.CustomPythonObject;
+import org.jpmml.python.HasContent;
+import org.jpmml.sklearn.RecordArray;
 
-public class BinaryTree extends CustomPythonObject {
+public class BinaryTree extends CustomPythonObject implements HasContent<RecordArray> {
+
+	private RecordArray nodeData = null;
 
 	public BinaryTree(String module, String name){
 		super(module, name);
@@ -50,6 +56,85 @@ public class BinaryTree extends CustomPythonObject {
 		}
 	}
 
+	public int[] getIdxArray(){
+		RecordArray idxArray = RecordArray.create(get("idx_array_arr"));
+
+		if(idxArray != null){
+			return idxArray.getIntArray();
+		}
+
+		return Ints.toArray(getIntegerArray("idx_array_arr"));
+	}
+
+	public int[] getIdxStart(){
+		return getIntNodeDataAttribute("idx_start");
+	}
+
+	public int[] getIdxEnd(){
+		return getIntNodeDataAttribute("idx_end");
+	}
+
+	public int[] isLeaf(){
+		return getIntNodeDataAttribute("is_leaf");
+	}
+
+	public double[] getRadius(){
+		return getDoubleNodeDataAttribute("radius");
+	}
+
+	public double[] getNodeBounds(){
+		RecordArray nodeBounds = RecordArray.create(get("node_bounds_arr"));
+
+		if(nodeBounds != null){
+			return nodeBounds.getDoubleArray();
+		}
+
+		return Doubles.toArray(getNumberArray("node_bounds_arr"));
+	}
+
+	public int[] getNodeBoundsShape(){
+		return getArrayShape("node_bounds_arr");
+	}
+
+	@Override
+	public RecordArray getContent(){
+
+		if(this.nodeData == null){
+			this.nodeData = RecordArray.create(get("node_data_arr"));
+		}
+
+		return this.nodeData;
+	}
+
+	@Override
+	public void clearContent(){
+		this.nodeData = null;
+	}
+
+	private int[] getIntNodeDataAttribute(String key){
+		RecordArray nodeData = getContent();
+
+		if(nodeData != null){
+			return nodeData.getIntArray(key);
+		}
+
+		return Ints.toArray(getNodeDataAttribute(key));
+	}
+
+	private double[] getDoubleNodeDataAttribute(String key){
+		RecordArray nodeData = getContent();
+
+		if(nodeData != null){
+			return nodeData.getDoubleArray(key);
+		}
+
+		return Doubles.toArray(getNodeDataAttribute(key));
+	}
+
+	private List<? extends Number> getNodeDataAttribute(String key){
+		return (List)getArray("node_data_arr", key);
+	}
+
 	private static final String[] INIT_ATTRIBUTES = {
 		"data"
 	};
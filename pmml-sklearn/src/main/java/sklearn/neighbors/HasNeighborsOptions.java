@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.neighbors;
+
+import java.util.Map;
+
+import org.jpmml.sklearn.HasSkLearnOptions;
+
+public interface HasNeighborsOptions extends HasSkLearnOptions {
+
+	/**
+	 * <p>
+	 * Non-standard, non-portable encoding. Disabled by default.
+	 * </p>
+	 *
+	 * <p>
+	 * Training instances are stored in a <code>TableLocator</code> element (instead of an <code>InlineTable</code> element),
+	 * whose <code>Extension</code> child elements hold Base64-encoded little-endian <code>float64</code> columns.
+	 * No PMML consumer (JPMML-Evaluator included) understands this layout, so the resulting model cannot be scored.
+	 * </p>
+	 *
+	 * @see KNeighborsUtil#encodeTableLocator(Map)
+	 */
+	String OPTION_BINARY_DATA = "binary_data";
+
+	/**
+	 * <p>
+	 * Non-standard encoding. Disabled by default.
+	 * </p>
+	 *
+	 * <p>
+	 * The fitted search tree is stored in a <code>TrainingInstances</code> extension.
+	 * The resulting model remains scorable, because PMML consumers ignore unknown extensions.
+	 * </p>
+	 *
+	 * @see KNeighborsUtil#encodeTree(BinaryTree, int, int)
+	 */
+	String OPTION_TREE_INDEX = "tree_index";
+}
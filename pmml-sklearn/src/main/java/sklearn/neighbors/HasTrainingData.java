@@ -20,10 +20,17 @@ package sklearn.neighbors;
 
 import java.util.List;
 
+import org.jpmml.sklearn.RecordArray;
+
 public interface HasTrainingData {
 
 	List<? extends Number> getFitX();
 
+	/**
+	 * @return A primitive-valued view of the training data matrix, or <code>null</code> if the raw data buffer is not available.
+	 */
+	RecordArray getFitXArray();
+
 	int[] getFitXShape();
 
 	List<?> getId();
@@ -31,4 +38,9 @@ public interface HasTrainingData {
 	List<? extends Number> getY();
 
 	int[] getYShape();
+
+	/**
+	 * @return The fitted neighbor search index, or <code>null</code> if neighbors are searched by brute force.
+	 */
+	BinaryTree getTree();
 }
\ No newline at end of file
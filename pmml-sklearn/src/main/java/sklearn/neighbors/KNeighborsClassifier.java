@@ -24,9 +24,10 @@ import org.dmg.pmml.DataType;
 import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.nearest_neighbor.NearestNeighborModel;
 import org.jpmml.converter.Schema;
+import org.jpmml.sklearn.RecordArray;
 import sklearn.SkLearnClassifier;
 
-public class KNeighborsClassifier extends SkLearnClassifier implements HasMetric, HasNumberOfNeighbors, HasTrainingData {
+public class KNeighborsClassifier extends SkLearnClassifier implements HasMetric, HasNeighborsOptions, HasNumberOfNeighbors, HasTrainingData {
 
 	public KNeighborsClassifier(String module, String name){
 		super(module, name);
@@ -82,6 +83,11 @@ public class KNeighborsClassifier extends SkLearnClassifier implements HasMetric
 		return nearestNeighborModel;
 	}
 
+	@Override
+	public void releaseContent(){
+		release("_fit_X", "_y", "_tree");
+	}
+
 	@Override
 	public String getMetric(){
 		return getString("metric");
@@ -102,6 +108,11 @@ public class KNeighborsClassifier extends SkLearnClassifier implements HasMetric
 		return getNumberArray("_fit_X");
 	}
 
+	@Override
+	public RecordArray getFitXArray(){
+		return RecordArray.create(get("_fit_X"));
+	}
+
 	@Override
 	public int[] getFitXShape(){
 		return getArrayShape("_fit_X", 2);
@@ -127,6 +138,11 @@ public class KNeighborsClassifier extends SkLearnClassifier implements HasMetric
 		return getArrayShape("_y");
 	}
 
+	@Override
+	public BinaryTree getTree(){
+		return getOptional("_tree", BinaryTree.class);
+	}
+
 	public String getWeights(){
 		return getString("weights");
 	}
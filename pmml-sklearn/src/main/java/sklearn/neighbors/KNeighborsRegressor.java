@@ -24,9 +24,10 @@ import org.dmg.pmml.DataType;
 import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.nearest_neighbor.NearestNeighborModel;
 import org.jpmml.converter.Schema;
+import org.jpmml.sklearn.RecordArray;
 import sklearn.SkLearnRegressor;
 
-public class KNeighborsRegressor extends SkLearnRegressor implements HasMetric, HasNumberOfNeighbors, HasTrainingData {
+public class KNeighborsRegressor extends SkLearnRegressor implements HasMetric, HasNeighborsOptions, HasNumberOfNeighbors, HasTrainingData {
 
 	public KNeighborsRegressor(String module, String name){
 		super(module, name);
@@ -77,6 +78,11 @@ public class KNeighborsRegressor extends SkLearnRegressor implements HasMetric,
 		return nearestNeighborModel;
 	}
 
+	@Override
+	public void releaseContent(){
+		release("_fit_X", "_y", "_tree");
+	}
+
 	@Override
 	public String getMetric(){
 		return getString("metric");
@@ -97,6 +103,11 @@ public class KNeighborsRegressor extends SkLearnRegressor implements HasMetric,
 		return getNumberArray("_fit_X");
 	}
 
+	@Override
+	public RecordArray getFitXArray(){
+		return RecordArray.create(get("_fit_X"));
+	}
+
 	@Override
 	public int[] getFitXShape(){
 		return getArrayShape("_fit_X", 2);
@@ -122,6 +133,11 @@ public class KNeighborsRegressor extends SkLearnRegressor implements HasMetric,
 		return getArrayShape("_y");
 	}
 
+	@Override
+	public BinaryTree getTree(){
+		return getOptional("_tree", BinaryTree.class);
+	}
+
 	public String getWeights(){
 		return getString("weights");
 	}
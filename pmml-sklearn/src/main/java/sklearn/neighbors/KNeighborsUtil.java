@@ -18,6 +18,11 @@
  */
 package sklearn.neighbors;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -25,16 +30,20 @@ import java.util.Map;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import org.dmg.pmml.CityBlock;
 import org.dmg.pmml.CompareFunction;
 import org.dmg.pmml.ComparisonMeasure;
 import org.dmg.pmml.DataType;
 import org.dmg.pmml.Euclidean;
+import org.dmg.pmml.Extension;
 import org.dmg.pmml.Measure;
 import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.Minkowski;
 import org.dmg.pmml.Output;
 import org.dmg.pmml.OutputField;
+import org.dmg.pmml.TableLocator;
 import org.dmg.pmml.nearest_neighbor.InstanceField;
 import org.dmg.pmml.nearest_neighbor.InstanceFields;
 import org.dmg.pmml.nearest_neighbor.KNNInput;
@@ -54,6 +63,9 @@ import org.jpmml.converter.ScalarLabelUtil;
 import org.jpmml.converter.Schema;
 import org.jpmml.converter.ValueUtil;
 import org.jpmml.python.ClassDictUtil;
+import org.jpmml.sklearn.RecordArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import sklearn.Estimator;
 
 public class KNeighborsUtil {
@@ -85,7 +97,6 @@ public class KNeighborsUtil {
 		int numberOfNeighbors = estimator.getNumberOfNeighbors();
 		int numberOfOutputs = estimator.getNumberOfOutputs();
 
-		List<? extends Number> fitX = estimator.getFitX();
 		List<?> id = estimator.getId();
 		List<? extends Number> y = estimator.getY();
 
@@ -94,12 +105,17 @@ public class KNeighborsUtil {
 		} // End if
 
 		if(y != null){
-			ClassDictUtil.checkSize(numberOfInstances * numberOfOutputs, y);
+			ClassDictUtil.checkSize(getNumberOfElements(numberOfInstances, numberOfOutputs), y);
 		}
 
 		Label label = schema.getLabel();
 		List<? extends Feature> features = schema.getFeatures();
 
+		Boolean binaryData = (Boolean)estimator.getOption(HasNeighborsOptions.OPTION_BINARY_DATA, Boolean.FALSE);
+		if(binaryData){
+			logger.warn("Option \'" + HasNeighborsOptions.OPTION_BINARY_DATA + "\' is set. The training instances are stored in a non-standard binary layout, which makes the model unscorable by PMML consumers");
+		}
+
 		Map<String, List<?>> data = new LinkedHashMap<>();
 
 		InstanceFields instanceFields = new InstanceFields();
@@ -156,6 +172,32 @@ public class KNeighborsUtil {
 
 		DataType dataType = estimator.getDataType();
 
+		RecordArray fitXArray = null;
+		List<? extends Number> fitX = null;
+
+		if(binaryData){
+			fitXArray = estimator.getFitXArray();
+		} // End if
+
+		int numberOfElements = getNumberOfElements(numberOfInstances, numberOfFeatures);
+
+		if(fitXArray != null){
+			int size = fitXArray.size();
+
+			if(size != numberOfElements){
+				throw new IllegalArgumentException("Expected " + numberOfElements + " element(s), got " + size + " element(s)");
+			}
+		} else
+
+		{
+			fitX = estimator.getFitX();
+
+			ClassDictUtil.checkSize(numberOfElements, fitX);
+		}
+
+		// Binary columns are appended to data columns
+		TableLocator tableLocator = (binaryData ? encodeTableLocator(data) : null);
+
 		KNNInputs knnInputs = new KNNInputs();
 
 		for(int i = 0; i < features.size(); i++){
@@ -174,12 +216,38 @@ public class KNeighborsUtil {
 
 			knnInputs.addKNNInputs(knnInput);
 
-			data.put(instanceField.getColumn(), CMatrixUtil.getColumn(fitX, numberOfInstances, numberOfFeatures, i));
+			if(binaryData){
+				// Decode one column at a time, without materializing the training data matrix
+				double[] values = (fitXArray != null ? fitXArray.getDoubleArray(i, numberOfFeatures) : Doubles.toArray(CMatrixUtil.getColumn(fitX, numberOfInstances, numberOfFeatures, i)));
+
+				tableLocator.addExtensions(encodeBinaryColumn(instanceField.getColumn(), values));
+			} else
+
+			{
+				data.put(instanceField.getColumn(), CMatrixUtil.getColumn(fitX, numberOfInstances, numberOfFeatures, i));
+			}
 		}
 
-		TrainingInstances trainingInstances = new TrainingInstances(instanceFields, PMMLUtil.createInlineTable(data))
+		TrainingInstances trainingInstances = new TrainingInstances()
+			.setInstanceFields(instanceFields)
 			.setTransformed(true);
 
+		if(binaryData){
+			trainingInstances.setTableLocator(tableLocator);
+		} else
+
+		{
+			trainingInstances.setInlineTable(PMMLUtil.createInlineTable(data));
+		}
+
+		Boolean treeIndex = (Boolean)estimator.getOption(HasNeighborsOptions.OPTION_TREE_INDEX, Boolean.FALSE);
+		if(treeIndex){
+			BinaryTree tree = estimator.getTree();
+			if(tree != null){
+				trainingInstances.addExtensions(encodeTree(tree, numberOfInstances, numberOfFeatures));
+			}
+		}
+
 		ComparisonMeasure comparisonMeasure = encodeComparisonMeasure(estimator);
 
 		Output output;
@@ -207,6 +275,168 @@ public class KNeighborsUtil {
 		return nearestNeighborModel;
 	}
 
+	/**
+	 * <p>
+	 * Encodes training instances as a column-oriented table, which is much more compact (and faster to parse) than an inline table.
+	 * </p>
+	 *
+	 * <p>
+	 * The PMML specification does not define the content of a <code>TableLocator</code> element.
+	 * The resulting model is suitable for storage and inspection, but not for scoring.
+	 * </p>
+	 *
+	 * <p>
+	 * Every column is represented by a <code>TableLocator</code> extension, whose name is the column name.
+	 * Training data columns are little-endian <code>float64</code> values in Base64 encoding (the extension value is <code>&lt;f8</code>).
+	 * All other columns are PMML arrays of strings.
+	 * </p>
+	 *
+	 * <p>
+	 * Training data columns are appended later, one column at a time.
+	 * </p>
+	 *
+	 * @see #encodeBinaryColumn(String, double[])
+	 */
+	static
+	private TableLocator encodeTableLocator(Map<String, List<?>> data){
+		TableLocator tableLocator = new TableLocator();
+
+		Collection<Map.Entry<String, List<?>>> dataEntries = data.entrySet();
+		for(Map.Entry<String, List<?>> dataEntry : dataEntries){
+			Extension extension = PMMLUtil.createExtension(dataEntry.getKey(), PMMLUtil.createStringArray(dataEntry.getValue()));
+
+			tableLocator.addExtensions(extension);
+		}
+
+		return tableLocator;
+	}
+
+	static
+	private Extension encodeBinaryColumn(String name, double[] values){
+		ByteBuffer buffer = ByteBuffer.allocate(values.length * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(double value : values){
+			buffer.putDouble(value);
+		}
+
+		Base64.Encoder encoder = Base64.getEncoder();
+
+		Extension extension = new Extension()
+			.setName(name)
+			.setValue("<f8")
+			.addContent(encoder.encodeToString(buffer.array()));
+
+		return extension;
+	}
+
+	/**
+	 * <p>
+	 * Encodes the fitted ball tree or KD-tree as a <code>TrainingInstances</code> extension,
+	 * so that PMML scorers could perform sub-linear neighbor search instead of brute force search.
+	 * </p>
+	 *
+	 * <p>
+	 * The extension is informational.
+	 * PMML consumers that do not recognize it ignore it, and fall back to brute force search over the training instances table.
+	 * </p>
+	 *
+	 * <p>
+	 * The extension value is the name of the search algorithm (either <code>ball_tree</code> or <code>kd_tree</code>).
+	 * The <code>idx_array</code> child extension holds the permutation of training instances,
+	 * as zero-based row indices into the training instances table (either an <code>InlineTable</code> or a <code>TableLocator</code> element, depending on the {@link HasNeighborsOptions#OPTION_BINARY_DATA} option).
+	 * The <code>nodes</code> child extension holds an inline table with one row per tree node.
+	 * Nodes are laid out in the breadth-first order, so that the children of the i-th node are the (2 * i + 1)-th and (2 * i + 2)-th nodes.
+	 * The data columns are <code>data:idx_start</code>, <code>data:idx_end</code>, <code>data:is_leaf</code> and <code>data:radius</code>,
+	 * followed by node bounds in the space of transformed training instances.
+	 * The bounds of ball tree nodes are centroids (<code>data:centroid1</code>, ..).
+	 * The bounds of KD-tree nodes are axis-aligned boxes (<code>data:lower1</code>, .., <code>data:upper1</code>, ..).
+	 * </p>
+	 */
+	static
+	private Extension encodeTree(BinaryTree tree, int numberOfInstances, int numberOfFeatures){
+		int[] idxArray = tree.getIdxArray();
+
+		int[] idxStart = tree.getIdxStart();
+		int[] idxEnd = tree.getIdxEnd();
+		int[] isLeaf = tree.isLeaf();
+		double[] radius = tree.getRadius();
+
+		double[] nodeBounds = tree.getNodeBounds();
+		int[] nodeBoundsShape = tree.getNodeBoundsShape();
+
+		if(idxArray.length != numberOfInstances){
+			throw new IllegalArgumentException("Expected " + numberOfInstances + " instance indices, got " + idxArray.length);
+		}
+
+		int numberOfNodes = idxStart.length;
+
+		String algorithm;
+		String[] boundNames;
+
+		// (n_bounds, n_nodes, n_features)
+		if(nodeBoundsShape.length != 3 || nodeBoundsShape[1] != numberOfNodes || nodeBoundsShape[2] != numberOfFeatures){
+			throw new IllegalArgumentException("Expected (n_bounds, " + numberOfNodes + ", " + numberOfFeatures + ") shape, got " + Arrays.toString(nodeBoundsShape) + " shape");
+		}
+
+		switch(nodeBoundsShape[0]){
+			case 1:
+				algorithm = "ball_tree";
+				boundNames = new String[]{"centroid"};
+				break;
+			case 2:
+				algorithm = "kd_tree";
+				boundNames = new String[]{"lower", "upper"};
+				break;
+			default:
+				throw new IllegalArgumentException();
+		}
+
+		Map<String, List<?>> data = new LinkedHashMap<>();
+		data.put("data:idx_start", Ints.asList(idxStart));
+		data.put("data:idx_end", Ints.asList(idxEnd));
+		data.put("data:is_leaf", Ints.asList(isLeaf));
+		data.put("data:radius", Doubles.asList(radius));
+
+		for(int i = 0; i < boundNames.length; i++){
+			String boundName = boundNames[i];
+
+			for(int j = 0; j < numberOfFeatures; j++){
+				double[] values = new double[numberOfNodes];
+
+				for(int k = 0; k < numberOfNodes; k++){
+					values[k] = nodeBounds[((i * numberOfNodes) + k) * numberOfFeatures + j];
+				}
+
+				data.put("data:" + boundName + String.valueOf(j + 1), Doubles.asList(values));
+			}
+		}
+
+		Extension extension = new Extension()
+			.setName(KNeighborsUtil.EXTENSION_TREE)
+			.setValue(algorithm)
+			.addContent(PMMLUtil.createExtension("idx_array", PMMLUtil.createIntArray(Ints.asList(idxArray))))
+			.addContent(PMMLUtil.createExtension("nodes", PMMLUtil.createInlineTable(data)));
+
+		return extension;
+	}
+
+	/**
+	 * @return The number of elements in a <code>rows x columns</code> matrix.
+	 *
+	 * @throws IllegalArgumentException If the number of elements exceeds the maximum size of Java arrays and lists.
+	 */
+	static
+	private int getNumberOfElements(int rows, int columns){
+		long result = (long)rows * (long)columns;
+
+		if(result > Integer.MAX_VALUE){
+			throw new IllegalArgumentException("Expected at most " + Integer.MAX_VALUE + " element(s), got " + rows + " x " + columns + " = " + result + " element(s)");
+		}
+
+		return (int)result;
+	}
+
 	static
 	private <E extends Estimator & HasMetric> ComparisonMeasure encodeComparisonMeasure(E estimator){
 		Measure measure = encodeMeasure(estimator);
@@ -292,4 +522,8 @@ public class KNeighborsUtil {
 	}
 
 	private static final String VARIABLE_ID = "id";
+
+	public static final String EXTENSION_TREE = "tree";
+
+	private static final Logger logger = LoggerFactory.getLogger(KNeighborsUtil.class);
 }
@@ -26,9 +26,10 @@ import org.dmg.pmml.Model;
 import org.dmg.pmml.nearest_neighbor.NearestNeighborModel;
 import org.jpmml.converter.Schema;
 import org.jpmml.python.SliceUtil;
+import org.jpmml.sklearn.RecordArray;
 import sklearn.SkLearnClassifier;
 
-public class NearestCentroid extends SkLearnClassifier implements HasMetric, HasNumberOfNeighbors, HasTrainingData {
+public class NearestCentroid extends SkLearnClassifier implements HasMetric, HasNeighborsOptions, HasNumberOfNeighbors, HasTrainingData {
 
 	public NearestCentroid(String module, String name){
 		super(module, name);
@@ -103,6 +104,11 @@ public class NearestCentroid extends SkLearnClassifier implements HasMetric, Has
 		return getCentroids();
 	}
 
+	@Override
+	public RecordArray getFitXArray(){
+		return RecordArray.create(get("centroids_"));
+	}
+
 	@Override
 	public int[] getFitXShape(){
 		return getCentroidsShape();
@@ -126,4 +132,9 @@ public class NearestCentroid extends SkLearnClassifier implements HasMetric, Has
 
 		return new int[]{classes.size()};
 	}
-}
\ No newline at end of file
+
+	@Override
+	public BinaryTree getTree(){
+		return null;
+	}
+}
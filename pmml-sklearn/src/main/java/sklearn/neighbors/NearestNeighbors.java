@@ -25,9 +25,10 @@ import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.nearest_neighbor.NearestNeighborModel;
 import org.jpmml.converter.Schema;
 import org.jpmml.python.SliceUtil;
+import org.jpmml.sklearn.RecordArray;
 import sklearn.SkLearnClusterer;
 
-public class NearestNeighbors extends SkLearnClusterer implements HasMetric, HasNumberOfNeighbors, HasTrainingData {
+public class NearestNeighbors extends SkLearnClusterer implements HasMetric, HasNeighborsOptions, HasNumberOfNeighbors, HasTrainingData {
 
 	public NearestNeighbors(String module, String name){
 		super(module, name);
@@ -60,6 +61,11 @@ public class NearestNeighbors extends SkLearnClusterer implements HasMetric, Has
 		return KNeighborsUtil.encodeNeighbors(this, MiningFunction.CLUSTERING, numberOfInstances, numberOfFeatures, schema);
 	}
 
+	@Override
+	public void releaseContent(){
+		release("_fit_X", "_tree");
+	}
+
 	@Override
 	public String getMetric(){
 		return getString("metric");
@@ -80,6 +86,11 @@ public class NearestNeighbors extends SkLearnClusterer implements HasMetric, Has
 		return getNumberArray("_fit_X");
 	}
 
+	@Override
+	public RecordArray getFitXArray(){
+		return RecordArray.create(get("_fit_X"));
+	}
+
 	@Override
 	public int[] getFitXShape(){
 		return getArrayShape("_fit_X", 2);
@@ -107,4 +118,9 @@ public class NearestNeighbors extends SkLearnClusterer implements HasMetric, Has
 	public int[] getYShape(){
 		throw new UnsupportedOperationException();
 	}
+
+	@Override
+	public BinaryTree getTree(){
+		return getOptional("_tree", BinaryTree.class);
+	}
 }
\ No newline at end of file
@@ -62,6 +62,11 @@ public class MLPClassifier extends SkLearnClassifier {
 		return neuralNetwork;
 	}
 
+	@Override
+	public void releaseContent(){
+		release("coefs_", "intercepts_");
+	}
+
 	public String getActivation(){
 		return getString("activation");
 	}
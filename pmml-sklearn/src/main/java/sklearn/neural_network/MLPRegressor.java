@@ -51,6 +51,11 @@ public class MLPRegressor extends SkLearnRegressor {
 		return neuralNetwork;
 	}
 
+	@Override
+	public void releaseContent(){
+		release("coefs_", "intercepts_");
+	}
+
 	public String getActivation(){
 		return getString("activation");
 	}
@@ -222,6 +222,8 @@ public class SkLearnPipeline extends Composite implements Encodable {
 			estimator = getFinalEstimator();
 
 			initLabel(null, encoder);
+
+			encoder.configure(estimator);
 		}
 
 		initFeatures(null, encoder);
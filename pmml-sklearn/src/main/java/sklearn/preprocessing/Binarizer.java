@@ -20,9 +20,9 @@ package sklearn.preprocessing;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.dmg.pmml.Apply;
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.ExpressionUtil;
@@ -48,11 +48,9 @@ public class Binarizer extends SkLearnTransformer {
 			ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
 			// "($name <= threshold) ? 0 : 1"
-			Apply apply = ExpressionUtil.createApply(PMMLFunctions.THRESHOLD, continuousFeature.ref(), ExpressionUtil.createConstant(threshold));
+			Supplier<Apply> applySupplier = () -> ExpressionUtil.createApply(PMMLFunctions.THRESHOLD, continuousFeature.ref(), ExpressionUtil.createConstant(threshold));
 
-			DerivedField derivedField = encoder.createDerivedField(createFieldName("binarizer", continuousFeature), apply);
-
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(createFieldName("binarizer", continuousFeature), applySupplier));
 		}
 
 		return result;
@@ -21,13 +21,12 @@ package sklearn.preprocessing;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import functools.Partial;
 import net.razorvine.pickle.objects.ClassDictConstructor;
 import org.dmg.pmml.DataType;
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.Expression;
-import org.dmg.pmml.OpType;
 import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.Feature;
 import org.jpmml.python.ClassDictConstructorUtil;
@@ -57,11 +56,9 @@ public class FunctionTransformer extends SkLearnTransformer {
 
 			ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
-			Expression expression = FunctionUtil.encodeFunction(func, Collections.singletonList(continuousFeature.ref()));
+			Supplier<Expression> expressionSupplier = () -> FunctionUtil.encodeFunction(func, Collections.singletonList(continuousFeature.ref()));
 
-			DerivedField derivedField = encoder.createDerivedField(createFieldName(func.getName(), continuousFeature), OpType.CONTINUOUS, DataType.DOUBLE, expression);
-
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(createFieldName(func.getName(), continuousFeature), DataType.DOUBLE, expressionSupplier));
 		}
 
 		return result;
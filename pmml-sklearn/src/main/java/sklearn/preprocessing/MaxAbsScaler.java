@@ -20,9 +20,9 @@ package sklearn.preprocessing;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.dmg.pmml.Apply;
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.ExpressionUtil;
@@ -65,11 +65,9 @@ public class MaxAbsScaler extends Scaler {
 			ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
 			// "$name / scale"
-			Apply apply = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, continuousFeature.ref(), ExpressionUtil.createConstant(value));
+			Supplier<Apply> applySupplier = () -> ExpressionUtil.createApply(PMMLFunctions.DIVIDE, continuousFeature.ref(), ExpressionUtil.createConstant(value));
 
-			DerivedField derivedField = encoder.createDerivedField(createFieldName("maxAbsScaler", continuousFeature), apply);
-
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(createFieldName("maxAbsScaler", continuousFeature), applySupplier));
 		}
 
 		return result;
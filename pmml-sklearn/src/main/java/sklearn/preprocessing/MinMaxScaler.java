@@ -20,8 +20,8 @@ package sklearn.preprocessing;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.Expression;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.ContinuousFeature;
@@ -68,19 +68,21 @@ public class MinMaxScaler extends Scaler {
 			ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
 			// "($name * scale) + min"
-			Expression expression = continuousFeature.ref();
+			Supplier<Expression> expressionSupplier = () -> {
+				Expression expression = continuousFeature.ref();
 
-			if(!ValueUtil.isOne(scaleValue)){
-				expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, expression, ExpressionUtil.createConstant(scaleValue));
-			} // End if
+				if(!ValueUtil.isOne(scaleValue)){
+					expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, expression, ExpressionUtil.createConstant(scaleValue));
+				} // End if
 
-			if(!ValueUtil.isZero(minValue)){
-				expression = ExpressionUtil.createApply(PMMLFunctions.ADD, expression, ExpressionUtil.createConstant(minValue));
-			}
+				if(!ValueUtil.isZero(minValue)){
+					expression = ExpressionUtil.createApply(PMMLFunctions.ADD, expression, ExpressionUtil.createConstant(minValue));
+				}
 
-			DerivedField derivedField = encoder.createDerivedField(createFieldName("minMaxScaler", continuousFeature), expression);
+				return expression;
+			};
 
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(createFieldName("minMaxScaler", continuousFeature), expressionSupplier));
 		}
 
 		return result;
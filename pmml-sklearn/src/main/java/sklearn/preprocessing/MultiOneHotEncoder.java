@@ -19,6 +19,7 @@
 package sklearn.preprocessing;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -173,7 +174,7 @@ public class MultiOneHotEncoder extends BaseEncoder {
 
 				List<Object> featureInfrequentCategories = selectValues(featureCategories, featureInfrequentIndices);
 
-				featureCategories.removeAll(featureInfrequentCategories);
+				featureCategories = removeValues(featureCategories, featureInfrequentIndices);
 
 				feature = EncoderUtil.encodeRegroupFeature(this, feature, featureInfrequentCategories, infrequentCategory, encoder);
 			} // End if
@@ -286,4 +287,39 @@ public class MultiOneHotEncoder extends BaseEncoder {
 
 		return result;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * <p>
+	 * Removes values by index in a single pass.
+	 * </p>
+	 *
+	 * <p>
+	 * Unlike {@link List#removeAll(Collection)}, which scans the collection of removed values for every element,
+	 * this operation runs in linear time.
+	 * </p>
+	 */
+	static
+	private <E> List<E> removeValues(List<E> values, Collection<Integer> indices){
+
+		if(indices == null || indices.isEmpty()){
+			return values;
+		}
+
+		BitSet removedIndices = new BitSet(values.size());
+
+		for(Integer index : indices){
+			removedIndices.set(index);
+		}
+
+		List<E> result = new ArrayList<>(values.size() - removedIndices.cardinality());
+
+		for(int i = 0; i < values.size(); i++){
+
+			if(!removedIndices.get(i)){
+				result.add(values.get(i));
+			}
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.preprocessing;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.DerivedField;
+import org.dmg.pmml.Expression;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.PMMLFunctions;
+import org.jpmml.converter.BinaryFeature;
+import org.jpmml.converter.ConstantFeature;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.ExpressionUtil;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.FeatureUtil;
+import org.jpmml.converter.FieldNameUtil;
+import org.jpmml.converter.InteractionFeature;
+import org.jpmml.converter.PowerFeature;
+import org.jpmml.converter.ValueUtil;
+import org.jpmml.python.ClassDictUtil;
+import org.jpmml.sklearn.SkLearnEncoder;
+
+/**
+ * <p>
+ * A list of polynomial features, where the features are created on first access.
+ * </p>
+ *
+ * <p>
+ * Every monomial is represented by the indices of its input features in non-decreasing order.
+ * For example, the monomial <code>x0^2 * x3</code> is represented as <code>[0, 0, 3]</code>,
+ * and the bias term is represented as an empty array.
+ * A downstream linear model that skips zero-coefficient monomials does not pay for their creation.
+ * </p>
+ *
+ * @see PolynomialFeatures
+ */
+public class PolynomialFeatureList extends AbstractList<Feature> implements RandomAccess {
+
+	private SkLearnEncoder encoder = null;
+
+	private List<Feature> inputFeatures = null;
+
+	private ContinuousFeature[] continuousInputFeatures = null;
+
+	private List<int[]> monomials = null;
+
+	private Feature[] features = null;
+
+	private Map<List<Integer>, Feature> powerFeatures = new HashMap<>();
+
+
+	public PolynomialFeatureList(SkLearnEncoder encoder, List<Feature> inputFeatures, List<int[]> monomials){
+		this.encoder = encoder;
+		this.inputFeatures = inputFeatures;
+		this.monomials = monomials;
+
+		this.continuousInputFeatures = new ContinuousFeature[inputFeatures.size()];
+		this.features = new Feature[monomials.size()];
+	}
+
+	@Override
+	public int size(){
+		return this.monomials.size();
+	}
+
+	@Override
+	public Feature get(int index){
+		Feature feature = this.features[index];
+
+		if(feature == null){
+			feature = createFeature(this.monomials.get(index));
+
+			this.features[index] = feature;
+		}
+
+		return feature;
+	}
+
+	/**
+	 * <p>
+	 * Encodes a linear combination of monomials as a single derived field.
+	 * </p>
+	 *
+	 * <p>
+	 * The monomials with non-zero coefficients are arranged into a prefix tree by their input feature indices.
+	 * The polynomial is then evaluated in multivariate Horner form,
+	 * where every tree node corresponds to exactly one multiplication.
+	 * For example, the polynomial <code>c0 + c1 * x0 + c2 * x0^2 + c3 * x0 * x1</code> is encoded as <code>c0 + x0 * (c1 + x0 * c2 + x1 * c3)</code>.
+	 * </p>
+	 *
+	 * <p>
+	 * Zero-coefficient monomials are never materialized as features.
+	 * </p>
+	 *
+	 * @param coefficients The coefficient of each monomial.
+	 */
+	public ContinuousFeature encodePolynomial(List<? extends Number> coefficients){
+		SkLearnEncoder encoder = getEncoder();
+
+		ClassDictUtil.checkSize(this, coefficients);
+
+		Node root = new Node();
+
+		for(int i = 0; i < coefficients.size(); i++){
+			Number coefficient = coefficients.get(i);
+
+			if(ValueUtil.isZeroLike(coefficient)){
+				continue;
+			}
+
+			Node node = root;
+
+			for(int index : this.monomials.get(i)){
+				node = node.children.computeIfAbsent(index, key -> new Node());
+			}
+
+			node.coefficient = coefficient;
+		}
+
+		Expression expression = encodeNode(root);
+		if(expression == null){
+			expression = ExpressionUtil.createConstant(0d);
+		}
+
+		String name;
+
+		for(int i = 0; ; i++){
+			name = FieldNameUtil.create("polynomial", i);
+
+			if(encoder.getDerivedField(name) == null){
+				break;
+			}
+		}
+
+		DerivedField derivedField = encoder.createDerivedField(name, OpType.CONTINUOUS, DataType.DOUBLE, expression);
+
+		return new ContinuousFeature(encoder, derivedField);
+	}
+
+	/**
+	 * @return An expression, or <code>null</code> if the subtree does not contain any non-zero coefficients.
+	 */
+	private Expression encodeNode(Node node){
+		Expression result = null;
+
+		if(node.coefficient != null){
+			result = ExpressionUtil.createConstant(node.coefficient);
+		}
+
+		for(Map.Entry<Integer, Node> entry : (node.children).entrySet()){
+			ContinuousFeature continuousFeature = getContinuousInputFeature(entry.getKey());
+
+			Expression expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, continuousFeature.ref(), encodeNode(entry.getValue()));
+
+			if(result != null){
+				result = ExpressionUtil.createApply(PMMLFunctions.ADD, result, expression);
+			} else
+
+			{
+				result = expression;
+			}
+		}
+
+		return result;
+	}
+
+	private Feature createFeature(int[] monomial){
+		SkLearnEncoder encoder = getEncoder();
+
+		List<Feature> powerFeatures = new ArrayList<>();
+
+		for(int i = 0; i < monomial.length; ){
+			int index = monomial[i];
+
+			int power = 1;
+
+			for(i++; i < monomial.length && monomial[i] == index; i++){
+				power++;
+			}
+
+			powerFeatures.add(getPowerFeature(index, power));
+		}
+
+		if(powerFeatures.size() == 0){
+			return new ConstantFeature(encoder, 1.0d);
+		} else
+
+		if(powerFeatures.size() == 1){
+			return powerFeatures.get(0);
+		} else
+
+		{
+			StringBuilder sb = new StringBuilder();
+
+			String sep = "";
+
+			for(Feature powerFeature : powerFeatures){
+				String name = FeatureUtil.getName(powerFeature);
+
+				sb.append(sep);
+
+				sep = ":";
+
+				sb.append(name);
+			}
+
+			return new InteractionFeature(encoder, sb.toString(), DataType.DOUBLE, powerFeatures);
+		}
+	}
+
+	private Feature getPowerFeature(int index, int power){
+		Feature inputFeature = this.inputFeatures.get(index);
+
+		if((inputFeature instanceof BinaryFeature) || (power == 1)){
+			return inputFeature;
+		}
+
+		return this.powerFeatures.computeIfAbsent(Arrays.asList(index, power), key -> new PowerFeature(getEncoder(), getContinuousInputFeature(index), power));
+	}
+
+	/**
+	 * <p>
+	 * Converts an input feature to a continuous feature on first use.
+	 * Input features that do not appear in any materialized term are never converted.
+	 * </p>
+	 */
+	private ContinuousFeature getContinuousInputFeature(int index){
+		ContinuousFeature continuousFeature = this.continuousInputFeatures[index];
+
+		if(continuousFeature == null){
+			Feature inputFeature = this.inputFeatures.get(index);
+
+			continuousFeature = inputFeature.toContinuousFeature();
+
+			this.continuousInputFeatures[index] = continuousFeature;
+		}
+
+		return continuousFeature;
+	}
+
+	public SkLearnEncoder getEncoder(){
+		return this.encoder;
+	}
+
+	public List<Feature> getInputFeatures(){
+		return this.inputFeatures;
+	}
+
+	/**
+	 * @return The input feature indices of the monomial in non-decreasing order.
+	 */
+	public int[] getMonomial(int index){
+		return this.monomials.get(index);
+	}
+
+	static
+	private class Node {
+
+		private Number coefficient = null;
+
+		private Map<Integer, Node> children = new TreeMap<>();
+	}
+}
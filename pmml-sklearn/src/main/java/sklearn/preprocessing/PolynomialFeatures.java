@@ -19,20 +19,9 @@
 package sklearn.preprocessing;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
-import org.dmg.pmml.DataType;
-import org.jpmml.converter.BinaryFeature;
-import org.jpmml.converter.ConstantFeature;
-import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.Feature;
-import org.jpmml.converter.FeatureUtil;
-import org.jpmml.converter.InteractionFeature;
-import org.jpmml.converter.PowerFeature;
 import org.jpmml.python.ClassDictUtil;
 import org.jpmml.sklearn.SkLearnEncoder;
 import sklearn.HasSparseOutput;
@@ -62,96 +51,25 @@ public class PolynomialFeatures extends SkLearnTransformer implements HasSparseO
 		boolean includeBias = getIncludeBias();
 		boolean interactionOnly = getInteractionOnly();
 
-		List<int[]> powers = new ArrayList<>();
+		List<int[]> monomials = new ArrayList<>();
 
 		for(int i = (includeBias ? 0 : 1); i <= degree; i++){
-			List<int[]> degreePowers;
+			List<int[]> degreeMonomials;
 
 			if(interactionOnly){
-				degreePowers = combinations(numberOfInputFeatures, i);
+				degreeMonomials = combinations(numberOfInputFeatures, i);
 			} else
 
 			{
-				degreePowers = combinations_with_replacement(numberOfInputFeatures, i);
+				degreeMonomials = combinations_with_replacement(numberOfInputFeatures, i);
 			}
 
-			powers.addAll(degreePowers);
+			monomials.addAll(degreeMonomials);
 		}
 
-		ClassDictUtil.checkSize(numberOfOutputFeatures, powers);
+		ClassDictUtil.checkSize(numberOfOutputFeatures, monomials);
 
-		Feature unitFeature = new ConstantFeature(encoder, 1.0d);
-
-		Function<Feature, Feature[]> function = new Function<Feature, Feature[]>(){
-
-			@Override
-			public Feature[] apply(Feature feature){
-				Feature[] features = new Feature[degree];
-
-				if(feature instanceof BinaryFeature){
-					BinaryFeature binaryFeature = (BinaryFeature)feature;
-
-					Arrays.fill(features, binaryFeature);
-				} else
-
-				{
-					features[0] = feature;
-
-					ContinuousFeature continuousFeature = feature.toContinuousFeature();
-
-					for(int i = 2; i <= degree; i++){
-						features[i - 1] = new PowerFeature(encoder, continuousFeature, i);
-					}
-				}
-
-				return features;
-			}
-		};
-
-		List<Feature[]> transformedFeatures = new ArrayList<>(Lists.transform(features, function));
-
-		List<Feature> result = new ArrayList<>();
-
-		for(int[] power : powers){
-			List<Feature> powerFeatures = new ArrayList<>();
-
-			for(int i = 0; i < power.length; i++){
-
-				if(power[i] >= 1){
-					Feature transformedFeature = transformedFeatures.get(i)[power[i] - 1];
-
-					powerFeatures.add(transformedFeature);
-				}
-			}
-
-			if(powerFeatures.size() == 0){
-				result.add(unitFeature);
-			} else
-
-			if(powerFeatures.size() == 1){
-				result.add(Iterables.getOnlyElement(powerFeatures));
-			} else
-
-			{
-				StringBuilder sb = new StringBuilder();
-
-				String sep = "";
-
-				for(Feature powerFeature : powerFeatures){
-					String name = FeatureUtil.getName(powerFeature);
-
-					sb.append(sep);
-
-					sep = ":";
-
-					sb.append(name);
-				}
-
-				result.add(new InteractionFeature(encoder, sb.toString(), DataType.DOUBLE, powerFeatures));
-			}
-		}
-
-		return result;
+		return new PolynomialFeatureList(encoder, features, monomials);
 	}
 
 	public int getDegree(){
@@ -199,7 +117,7 @@ public class PolynomialFeatures extends SkLearnTransformer implements HasSparseO
 			indices[i] = i;
 		}
 
-		result.add(power(n, indices));
+		result.add(indices.clone());
 
 		while(true){
 			int i = (r - 1);
@@ -221,7 +139,7 @@ public class PolynomialFeatures extends SkLearnTransformer implements HasSparseO
 				indices[j] = (indices[j - 1] + 1);
 			}
 
-			result.add(power(n, indices));
+			result.add(indices.clone());
 		}
 
 		return result;
@@ -236,7 +154,7 @@ public class PolynomialFeatures extends SkLearnTransformer implements HasSparseO
 
 		int[] indices = new int[r];
 
-		result.add(power(n, indices));
+		result.add(indices.clone());
 
 		while(true){
 			int i = (r - 1);
@@ -258,18 +176,7 @@ public class PolynomialFeatures extends SkLearnTransformer implements HasSparseO
 				indices[j] = value;
 			}
 
-			result.add(power(n, indices));
-		}
-
-		return result;
-	}
-
-	static
-	private int[] power(int n, int[] indices){
-		int[] result = new int[n];
-
-		for(int index : indices){
-			result[index] += 1;
+			result.add(indices.clone());
 		}
 
 		return result;
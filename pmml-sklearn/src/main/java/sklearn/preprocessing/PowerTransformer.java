@@ -20,11 +20,10 @@ package sklearn.preprocessing;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.dmg.pmml.Apply;
 import org.dmg.pmml.DataType;
-import org.dmg.pmml.DerivedField;
-import org.dmg.pmml.OpType;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.ExpressionUtil;
@@ -63,20 +62,19 @@ public class PowerTransformer extends SkLearnTransformer {
 
 			ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
-			Apply apply;
+			Supplier<Apply> applySupplier = () -> {
 
-			if(!ValueUtil.isZero(lambda)){
-				// "($name ^ lambda - 1) / lambda"
-				apply = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, ExpressionUtil.createApply(PMMLFunctions.POW, continuousFeature.ref(), ExpressionUtil.createConstant(lambda)), ExpressionUtil.createConstant(1d)), ExpressionUtil.createConstant(lambda));
-			} else
+				if(!ValueUtil.isZero(lambda)){
+					// "($name ^ lambda - 1) / lambda"
+					return ExpressionUtil.createApply(PMMLFunctions.DIVIDE, ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, ExpressionUtil.createApply(PMMLFunctions.POW, continuousFeature.ref(), ExpressionUtil.createConstant(lambda)), ExpressionUtil.createConstant(1d)), ExpressionUtil.createConstant(lambda));
+				} else
 
-			{
-				apply = ExpressionUtil.createApply(PMMLFunctions.LN, continuousFeature.ref());
-			}
+				{
+					return ExpressionUtil.createApply(PMMLFunctions.LN, continuousFeature.ref());
+				}
+			};
 
-			DerivedField derivedField = encoder.createDerivedField(createFieldName("boxCox", continuousFeature.getName()), OpType.CONTINUOUS, DataType.DOUBLE, apply);
-
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(createFieldName("boxCox", continuousFeature.getName()), DataType.DOUBLE, applySupplier));
 		}
 
 		if(standardize){
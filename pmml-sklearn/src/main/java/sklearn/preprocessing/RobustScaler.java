@@ -20,8 +20,8 @@ package sklearn.preprocessing;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.Expression;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.ContinuousFeature;
@@ -90,19 +90,21 @@ public class RobustScaler extends Scaler {
 			ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
 			// "($name - center) / scale"
-			Expression expression = continuousFeature.ref();
+			Supplier<Expression> expressionSupplier = () -> {
+				Expression expression = continuousFeature.ref();
 
-			if(!ValueUtil.isZero(centerValue)){
-				expression = ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, expression, ExpressionUtil.createConstant(centerValue));
-			} // End if
+				if(!ValueUtil.isZero(centerValue)){
+					expression = ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, expression, ExpressionUtil.createConstant(centerValue));
+				} // End if
 
-			if(!ValueUtil.isOne(scaleValue)){
-				expression = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, expression, ExpressionUtil.createConstant(scaleValue));
-			}
+				if(!ValueUtil.isOne(scaleValue)){
+					expression = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, expression, ExpressionUtil.createConstant(scaleValue));
+				}
 
-			DerivedField derivedField = encoder.createDerivedField(createFieldName("robustScaler", continuousFeature), expression);
+				return expression;
+			};
 
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(createFieldName("robustScaler", continuousFeature), expressionSupplier));
 		}
 
 		return result;
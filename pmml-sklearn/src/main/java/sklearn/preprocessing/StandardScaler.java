@@ -20,8 +20,8 @@ package sklearn.preprocessing;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
-import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.Expression;
 import org.dmg.pmml.PMMLFunctions;
 import org.jpmml.converter.ContinuousFeature;
@@ -90,19 +90,21 @@ public class StandardScaler extends Scaler {
 			ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
 			// "($name - mean) / std"
-			Expression expression = continuousFeature.ref();
+			Supplier<Expression> expressionSupplier = () -> {
+				Expression expression = continuousFeature.ref();
 
-			if(!ValueUtil.isZero(meanValue)){
-				expression = ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, expression, ExpressionUtil.createConstant(meanValue));
-			} // End if
+				if(!ValueUtil.isZero(meanValue)){
+					expression = ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, expression, ExpressionUtil.createConstant(meanValue));
+				} // End if
 
-			if(!ValueUtil.isOne(stdValue)){
-				expression = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, expression, ExpressionUtil.createConstant(stdValue));
-			}
+				if(!ValueUtil.isOne(stdValue)){
+					expression = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, expression, ExpressionUtil.createConstant(stdValue));
+				}
 
-			DerivedField derivedField = encoder.createDerivedField(createFieldName("standardScaler", continuousFeature), expression);
+				return expression;
+			};
 
-			result.add(new ContinuousFeature(encoder, derivedField));
+			result.add(encoder.createDerivedFeature(createFieldName("standardScaler", continuousFeature), expressionSupplier));
 		}
 
 		return result;
@@ -77,6 +77,11 @@ public class LibSVMClassifier extends SkLearnClassifier {
 		return supportVectorMachineModel;
 	}
 
+	@Override
+	public void releaseContent(){
+		release("support_vectors_", "_dual_coef_", "support_");
+	}
+
 	public String getKernel(){
 		return getString("kernel");
 	}
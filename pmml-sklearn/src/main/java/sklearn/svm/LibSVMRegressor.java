@@ -58,6 +58,11 @@ public class LibSVMRegressor extends SkLearnRegressor {
 		return LibSVMUtil.createRegression(kernel, new CMatrix<>(supportVectors, numberOfVectors, numberOfFeatures), SupportVectorMachineUtil.formatIds(support), Iterables.getOnlyElement(intercept), dualCoef, schema);
 	}
 
+	@Override
+	public void releaseContent(){
+		release("support_vectors_", "_dual_coef_", "support_");
+	}
+
 	public String getKernel(){
 		return getString("kernel");
 	}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.tree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.dmg.pmml.FieldRef;
+import org.dmg.pmml.PMMLObject;
+import org.dmg.pmml.Predicate;
+import org.dmg.pmml.tree.LeafNode;
+import org.dmg.pmml.tree.Node;
+import org.jpmml.converter.visitors.AttributeCleaner;
+import org.jpmml.model.visitors.ActiveFieldFinder;
+import org.jpmml.sklearn.StreamingUtil;
+
+/**
+ * <p>
+ * A placeholder for a node graph, which has been moved out of the PMML class model into a compressed binary form.
+ * The compressed binary form is kept in a temporary file, so that the heap holds at most one complete node graph per encoding thread.
+ * The temporary file is deleted after the placeholder node has become unreachable.
+ * </p>
+ *
+ * <p>
+ * The placeholder node references the same set of fields as the original node graph,
+ * so that PMML cleaner visitors arrive at the same results (eg. about the contents of mining schemas) as before.
+ * Its predicate is a {@link DetachedPredicate}, which cannot be evaluated.
+ * The original node graph is restored only for the duration of marshalling.
+ * </p>
+ *
+ * <p>
+ * Application code that works with the PMML class model directly (eg. evaluates or customizes it)
+ * must first restore all node graphs using {@link StreamingUtil#attachNodes(PMMLObject)}.
+ * </p>
+ *
+ * @see StreamingUtil#marshalPMML(org.dmg.pmml.PMML, OutputStream)
+ */
+public class DetachedNode extends LeafNode {
+
+	private File file = null;
+
+
+	private DetachedNode(Predicate predicate, File file){
+		super(null, predicate);
+
+		this.file = file;
+	}
+
+	/**
+	 * <p>
+	 * Restores the original node graph.
+	 * </p>
+	 *
+	 * <p>
+	 * Nodes are read in depth-first order, and linked to their parent nodes using an explicit stack.
+	 * </p>
+	 */
+	public Node attach(){
+		File file = getFile();
+
+		try(InputStream is = new InflaterInputStream(new BufferedInputStream(new FileInputStream(file)))){
+			ObjectInputStream ois = new ObjectInputStream(is);
+
+			Node root = null;
+
+			Deque<PendingParent> pendingParents = new ArrayDeque<>();
+
+			do {
+				int count = ois.readInt();
+				Node node = (Node)ois.readObject();
+
+				if(root == null){
+					root = node;
+				} else
+
+				{
+					PendingParent pendingParent = pendingParents.peek();
+
+					pendingParent.addChild(node);
+
+					if(pendingParent.isComplete()){
+						pendingParents.pop();
+					}
+				} // End if
+
+				if(count > 0){
+					pendingParents.push(new PendingParent(node, count));
+				}
+			} while(!pendingParents.isEmpty());
+
+			return root;
+		} catch(IOException | ClassNotFoundException e){
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public File getFile(){
+		return this.file;
+	}
+
+	/**
+	 * <p>
+	 * Moves a node graph into a compressed binary form.
+	 * </p>
+	 *
+	 * <p>
+	 * Nodes are written in depth-first order, one node at a time, with their child nodes temporarily removed.
+	 * Java serialization therefore does not recurse into the node graph,
+	 * and the maximum depth of the tree is not constrained by the size of the thread stack.
+	 * </p>
+	 */
+	static
+	public DetachedNode detach(Node node){
+		deleteUnreachableFiles();
+
+		AttributeCleaner attributeCleaner = new AttributeCleaner();
+
+		Set<String> names = new TreeSet<>();
+
+		File file;
+
+		try {
+			file = File.createTempFile("node", ".bin");
+		} catch(IOException ioe){
+			throw new IllegalStateException(ioe);
+		}
+
+		try(OutputStream os = new DeflaterOutputStream(new BufferedOutputStream(new FileOutputStream(file)))){
+			ObjectOutputStream oos = new ObjectOutputStream(os);
+
+			Deque<Node> pendingNodes = new ArrayDeque<>();
+			pendingNodes.push(node);
+
+			while(!pendingNodes.isEmpty()){
+				Node pendingNode = pendingNodes.pop();
+
+				List<Node> children = Collections.emptyList();
+
+				if(pendingNode.hasNodes()){
+					children = new ArrayList<>(pendingNode.getNodes());
+
+					(pendingNode.getNodes()).clear();
+				}
+
+				try {
+					// Clean the node beforehand, because PMML cleaner visitors will not be seeing it
+					attributeCleaner.applyTo(pendingNode);
+
+					names.addAll(ActiveFieldFinder.getFieldNames(pendingNode));
+
+					oos.writeInt(children.size());
+					oos.writeObject(pendingNode);
+				} finally {
+
+					if(!children.isEmpty()){
+						(pendingNode.getNodes()).addAll(children);
+					}
+				}
+
+				for(ListIterator<Node> childIt = children.listIterator(children.size()); childIt.hasPrevious(); ){
+					pendingNodes.push(childIt.previous());
+				}
+			}
+
+			oos.flush();
+		} catch(IOException ioe){
+			file.delete();
+
+			throw new IllegalStateException(ioe);
+		}
+
+		DetachedPredicate predicate = new DetachedPredicate();
+
+		for(String name : names){
+			predicate.addFieldRefs(new FieldRef(name));
+		}
+
+		DetachedNode result = new DetachedNode(predicate, file);
+
+		DetachedNode.fileReferences.add(new FileReference(result, file));
+
+		return result;
+	}
+
+	static
+	private void deleteUnreachableFiles(){
+		Reference<? extends DetachedNode> reference;
+
+		while((reference = DetachedNode.referenceQueue.poll()) != null){
+			FileReference fileReference = (FileReference)reference;
+
+			DetachedNode.fileReferences.remove(fileReference);
+
+			fileReference.delete();
+		}
+	}
+
+	static
+	private class FileReference extends PhantomReference<DetachedNode> {
+
+		private File file = null;
+
+
+		private FileReference(DetachedNode detachedNode, File file){
+			super(detachedNode, DetachedNode.referenceQueue);
+
+			this.file = file;
+		}
+
+		public void delete(){
+			this.file.delete();
+		}
+	}
+
+	static
+	private class PendingParent {
+
+		private Node node = null;
+
+		private int count = 0;
+
+
+		private PendingParent(Node node, int count){
+			this.node = node;
+			this.count = count;
+		}
+
+		public void addChild(Node child){
+			this.node.addNodes(child);
+
+			this.count--;
+		}
+
+		public boolean isComplete(){
+			return (this.count == 0);
+		}
+	}
+
+	private static final ReferenceQueue<DetachedNode> referenceQueue = new ReferenceQueue<>();
+
+	private static final Set<FileReference> fileReferences = ConcurrentHashMap.newKeySet();
+
+	static {
+		Thread cleaner = new Thread(){
+
+			@Override
+			public void run(){
+
+				for(FileReference fileReference : DetachedNode.fileReferences){
+					fileReference.delete();
+				}
+			}
+		};
+
+		Runtime.getRuntime().addShutdownHook(cleaner);
+	}
+}
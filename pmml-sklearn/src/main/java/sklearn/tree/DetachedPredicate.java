@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.dmg.pmml.FieldRef;
+import org.dmg.pmml.PMMLObject;
+import org.dmg.pmml.Predicate;
+import org.dmg.pmml.Visitor;
+import org.dmg.pmml.VisitorAction;
+
+/**
+ * <p>
+ * The predicate of a {@link DetachedNode}.
+ * </p>
+ *
+ * <p>
+ * This predicate has no evaluation semantics, and is not part of the PMML schema.
+ * It merely lists the fields that are referenced by the detached node graph,
+ * so that PMML cleaner visitors keep them.
+ * Evaluators and marshallers will reject it.
+ * </p>
+ */
+@XmlRootElement(name = "DetachedPredicate")
+public class DetachedPredicate extends Predicate {
+
+	private List<FieldRef> fieldRefs = null;
+
+
+	public DetachedPredicate(){
+	}
+
+	public boolean hasFieldRefs(){
+		return (this.fieldRefs != null) && !this.fieldRefs.isEmpty();
+	}
+
+	public List<FieldRef> getFieldRefs(){
+
+		if(this.fieldRefs == null){
+			this.fieldRefs = new ArrayList<>();
+		}
+
+		return this.fieldRefs;
+	}
+
+	public DetachedPredicate addFieldRefs(FieldRef... fieldRefs){
+		List<FieldRef> list = getFieldRefs();
+
+		for(FieldRef fieldRef : fieldRefs){
+			list.add(fieldRef);
+		}
+
+		return this;
+	}
+
+	@Override
+	public VisitorAction accept(Visitor visitor){
+		VisitorAction status = visitor.visit(this);
+
+		if(status == VisitorAction.CONTINUE){
+			visitor.pushParent(this);
+
+			if(status == VisitorAction.CONTINUE && hasFieldRefs()){
+				status = PMMLObject.traverse(visitor, getFieldRefs());
+			}
+
+			visitor.popParent();
+		} // End if
+
+		if(status == VisitorAction.TERMINATE){
+			return VisitorAction.TERMINATE;
+		}
+
+		return VisitorAction.CONTINUE;
+	}
+}
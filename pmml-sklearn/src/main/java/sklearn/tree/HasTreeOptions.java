@@ -21,12 +21,15 @@ package sklearn.tree;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.OutputField;
 import org.dmg.pmml.SimplePredicate;
 import org.dmg.pmml.SimpleSetPredicate;
 import org.dmg.pmml.tree.Node;
 import org.jpmml.converter.HasNativeConfiguration;
+import org.jpmml.converter.Schema;
 import org.jpmml.sklearn.HasSkLearnOptions;
+import sklearn.Estimator;
 import sklearn.tree.visitors.TreeModelCompactor;
 import sklearn.tree.visitors.TreeModelFlattener;
 import sklearn.tree.visitors.TreeModelPruner;
@@ -70,11 +73,23 @@ public interface HasTreeOptions extends HasSkLearnOptions, HasNativeConfiguratio
 	 */
 	String OPTION_NUMERIC = "numeric";
 
+	/**
+	 * @see TreeUtil#encodeTreeModelEnsemble(Estimator, MiningFunction, Schema)
+	 */
+	String OPTION_PARALLEL = "parallel";
+
 	/**
 	 * @see TreeModelPruner
 	 */
 	String OPTION_PRUNE = "prune";
 
+	/**
+	 * @see TreeUtil#encodeTreeModelEnsemble(Estimator, MiningFunction, Schema)
+	 * @see DetachedNode
+	 * @see org.jpmml.sklearn.StreamingUtil#marshalPMML(org.dmg.pmml.PMML, java.io.OutputStream)
+	 */
+	String OPTION_STREAMING = "streaming";
+
 	/**
 	 * @see OutputField
 	 */
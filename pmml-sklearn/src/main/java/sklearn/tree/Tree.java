@@ -25,8 +25,13 @@ import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Ints;
 import org.jpmml.python.ClassDictUtil;
 import org.jpmml.python.CustomPythonObject;
+import org.jpmml.python.HasContent;
+import org.jpmml.sklearn.RecordArray;
+
+public class Tree extends CustomPythonObject implements HasContent<RecordArray> {
+
+	private RecordArray nodes = null;
 
-public class Tree extends CustomPythonObject {
 
 	public Tree(String module, String name){
 		super(module, name);
@@ -38,31 +43,72 @@ public class Tree extends CustomPythonObject {
 	}
 
 	public double[] getValues(){
+		RecordArray values = RecordArray.create(get("values"));
+
+		if(values != null){
+			return values.getDoubleArray();
+		}
+
 		return Doubles.toArray(getNumberArray("values"));
 	}
 
 	public int[] getChildrenLeft(){
-		return Ints.toArray(getNodeAttribute("left_child"));
+		return getIntNodeAttribute("left_child");
 	}
 
 	public int[] getChildrenRight(){
-		return Ints.toArray(getNodeAttribute("right_child"));
+		return getIntNodeAttribute("right_child");
 	}
 
 	public int[] getFeature(){
-		return Ints.toArray(getNodeAttribute("feature"));
+		return getIntNodeAttribute("feature");
 	}
 
 	public double[] getThreshold(){
-		return Doubles.toArray(getNodeAttribute("threshold"));
+		return getDoubleNodeAttribute("threshold");
 	}
 
 	public int[] getNodeSamples(){
-		return Ints.toArray(getNodeAttribute("n_node_samples"));
+		return getIntNodeAttribute("n_node_samples");
 	}
 
 	public int[] getMissingToToLeft(){
-		return Ints.toArray(getNodeAttribute("missing_go_to_left"));
+		return getIntNodeAttribute("missing_go_to_left");
+	}
+
+	@Override
+	public RecordArray getContent(){
+
+		if(this.nodes == null){
+			this.nodes = RecordArray.create(get("nodes"));
+		}
+
+		return this.nodes;
+	}
+
+	@Override
+	public void clearContent(){
+		this.nodes = null;
+	}
+
+	private int[] getIntNodeAttribute(String key){
+		RecordArray nodes = getContent();
+
+		if(nodes != null){
+			return nodes.getIntArray(key);
+		}
+
+		return Ints.toArray(getNodeAttribute(key));
+	}
+
+	private double[] getDoubleNodeAttribute(String key){
+		RecordArray nodes = getContent();
+
+		if(nodes != null){
+			return nodes.getDoubleArray(key);
+		}
+
+		return Doubles.toArray(getNodeAttribute(key));
 	}
 
 	private List<? extends Number> getNodeAttribute(String key){
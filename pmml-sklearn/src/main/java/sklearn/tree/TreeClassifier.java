@@ -54,6 +54,11 @@ public class TreeClassifier extends SkLearnClassifier implements HasApplyField,
 		return TreeUtil.transform(this, treeModel);
 	}
 
+	@Override
+	public void releaseContent(){
+		release("tree_");
+	}
+
 	@Override
 	public Tree getTree(){
 		return get("tree_", Tree.class);
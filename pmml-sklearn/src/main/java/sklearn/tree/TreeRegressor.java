@@ -49,6 +49,11 @@ public class TreeRegressor extends SkLearnRegressor implements HasApplyField, Ha
 		return TreeUtil.transform(this, treeModel);
 	}
 
+	@Override
+	public void releaseContent(){
+		release("tree_");
+	}
+
 	@Override
 	public Tree getTree(){
 		return get("tree_", Tree.class);
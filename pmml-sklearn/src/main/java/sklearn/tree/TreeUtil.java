@@ -18,12 +18,19 @@
  */
 package sklearn.tree;
 
+import java.io.OutputStream;
 import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -33,6 +40,7 @@ import org.dmg.pmml.DataType;
 import org.dmg.pmml.HasExtensions;
 import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.Model;
+import org.dmg.pmml.PMML;
 import org.dmg.pmml.Predicate;
 import org.dmg.pmml.ScoreDistribution;
 import org.dmg.pmml.SimplePredicate;
@@ -54,6 +62,7 @@ import org.jpmml.converter.CategoricalLabel;
 import org.jpmml.converter.CategoryManager;
 import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.Feature;
+import org.jpmml.converter.Label;
 import org.jpmml.converter.ModelUtil;
 import org.jpmml.converter.PredicateManager;
 import org.jpmml.converter.Schema;
@@ -65,9 +74,11 @@ import org.jpmml.converter.visitors.AbstractExtender;
 import org.jpmml.model.UnsupportedElementException;
 import org.jpmml.model.visitors.AbstractVisitor;
 import org.jpmml.python.ClassDictUtil;
+import org.jpmml.sklearn.StreamingUtil;
 import sklearn.Estimator;
 import sklearn.HasEstimatorEnsemble;
 import sklearn.VersionUtil;
+import sklearn.tree.visitors.NodeTraversalUtil;
 import sklearn.tree.visitors.TreeModelCompactor;
 import sklearn.tree.visitors.TreeModelFlattener;
 import sklearn.tree.visitors.TreeModelPruner;
@@ -79,6 +90,78 @@ public class TreeUtil {
 
 	static
 	public <E extends Estimator & HasTreeOptions, M extends Model> M transform(E estimator, M model){
+		Boolean winnerId = (Boolean)estimator.getOption(HasTreeOptions.OPTION_WINNER_ID, Boolean.FALSE);
+
+		if((Boolean.TRUE).equals(winnerId)){
+			encodeNodeId(estimator, model);
+		}
+
+		List<Visitor> visitors = createTransformers(estimator);
+
+		// Detached tree models have already been transformed
+		if(model instanceof MiningModel){
+			MiningModel miningModel = (MiningModel)model;
+
+			Segmentation segmentation = miningModel.requireSegmentation();
+
+			List<Segment> segments = segmentation.requireSegments();
+			for(Segment segment : segments){
+				Model segmentModel = segment.requireModel();
+
+				if(isDetached(segmentModel)){
+					continue;
+				}
+
+				for(Visitor visitor : visitors){
+					visitor.applyTo(segmentModel);
+				}
+			}
+
+			return model;
+		}
+
+		for(Visitor visitor : visitors){
+			visitor.applyTo(model);
+		}
+
+		return model;
+	}
+
+	/**
+	 * <p>
+	 * Transforms a member decision tree of a decision tree ensemble, and moves its node graph out of the PMML class model.
+	 * </p>
+	 *
+	 * @see HasTreeOptions#OPTION_STREAMING
+	 * @see DetachedNode
+	 */
+	static
+	public TreeModel transformAndDetach(Estimator estimator, TreeModel treeModel){
+		List<Visitor> visitors = createTransformers(estimator);
+
+		for(Visitor visitor : visitors){
+			visitor.applyTo(treeModel);
+		}
+
+		treeModel.setNode(DetachedNode.detach(treeModel.requireNode()));
+
+		return treeModel;
+	}
+
+	static
+	public boolean isDetached(Model model){
+
+		if(model instanceof TreeModel){
+			TreeModel treeModel = (TreeModel)model;
+
+			return (treeModel.getNode() instanceof DetachedNode);
+		}
+
+		return false;
+	}
+
+	static
+	private List<Visitor> createTransformers(Estimator estimator){
 		Boolean allowMissing = (Boolean)estimator.getOption(HasTreeOptions.OPTION_ALLOW_MISSING, Boolean.FALSE);
 		Boolean winnerId = (Boolean)estimator.getOption(HasTreeOptions.OPTION_WINNER_ID, Boolean.FALSE);
 
@@ -104,14 +187,10 @@ public class TreeUtil {
 			nodeScore = (winnerId ? Boolean.TRUE : null);
 		} // End if
 
-		if((Boolean.TRUE).equals(winnerId)){
-			encodeNodeId(estimator, model);
-		}
-
 		List<Visitor> visitors = new ArrayList<>();
 
 		if((Boolean.FALSE).equals(allowMissing)){
-			Visitor defaultChildCleaner = new AbstractVisitor(){
+			Visitor defaultChildCleaner = new AbstractNodeVisitor(){
 
 				@Override
 				public VisitorAction visit(TreeModel treeModel){
@@ -164,7 +243,9 @@ public class TreeUtil {
 					public VisitorAction visit(TreeModel treeModel){
 						treeModel.setNode(ensureExtensibility(treeModel.getNode()));
 
-						return super.visit(treeModel);
+						NodeTraversalUtil.traverse(this, treeModel);
+
+						return VisitorAction.SKIP;
 					}
 
 					@Override
@@ -214,7 +295,7 @@ public class TreeUtil {
 		} // End if
 
 		if((Boolean.FALSE).equals(nodeId)){
-			Visitor nodeIdCleaner = new AbstractVisitor(){
+			Visitor nodeIdCleaner = new AbstractNodeVisitor(){
 
 				@Override
 				public VisitorAction visit(Node node){
@@ -228,7 +309,7 @@ public class TreeUtil {
 		} // End if
 
 		if((Boolean.FALSE).equals(nodeScore)){
-			Visitor nodeScoreCleaner = new AbstractVisitor(){
+			Visitor nodeScoreCleaner = new AbstractNodeVisitor(){
 
 				@Override
 				public VisitorAction visit(Node node){
@@ -250,51 +331,160 @@ public class TreeUtil {
 			visitors.add(nodeScoreCleaner);
 		}
 
-		for(Visitor visitor : visitors){
-			visitor.applyTo(model);
-		}
-
-		return model;
+		return visitors;
 	}
 
 	static
 	public <E extends Estimator & HasEstimatorEnsemble<T>, T extends Estimator & HasTree> List<TreeModel> encodeTreeModelEnsemble(E estimator, MiningFunction miningFunction, Schema schema){
 		Boolean numeric = (Boolean)estimator.getOption(HasTreeOptions.OPTION_NUMERIC, Boolean.TRUE);
+		Boolean parallel = (Boolean)estimator.getOption(HasTreeOptions.OPTION_PARALLEL, Boolean.FALSE);
+		Boolean streaming = (Boolean)estimator.getOption(HasTreeOptions.OPTION_STREAMING, Boolean.FALSE);
 
 		PredicateManager predicateManager = new PredicateManager();
 		ScoreDistributionManager scoreDistributionManager = new ScoreDistributionManager();
 
-		return encodeTreeModelEnsemble(estimator, miningFunction, numeric, predicateManager, scoreDistributionManager, schema);
+		return encodeTreeModelEnsemble(estimator, miningFunction, numeric, parallel, streaming, predicateManager, scoreDistributionManager, schema);
 	}
 
 	static
 	public <E extends Estimator & HasEstimatorEnsemble<T>, T extends Estimator & HasTree> List<TreeModel> encodeTreeModelEnsemble(E estimator, MiningFunction miningFunction, Boolean numeric, PredicateManager predicateManager, ScoreDistributionManager scoreDistributionManager, Schema schema){
+		return encodeTreeModelEnsemble(estimator, miningFunction, numeric, Boolean.FALSE, Boolean.FALSE, predicateManager, scoreDistributionManager, schema);
+	}
+
+	/**
+	 * <p>
+	 * Encodes the member decision trees of a decision tree ensemble.
+	 * </p>
+	 *
+	 * <p>
+	 * In parallel mode, the split features of all member decision trees are resolved sequentially beforehand,
+	 * in the same order as they would be resolved in sequential mode.
+	 * The member decision trees are then encoded on a dedicated thread pool.
+	 * The workers do not interact with the encoder, and do not touch any shared mutable state except for predicate and score distribution managers,
+	 * which intern their objects into concurrent caches.
+	 * Feature importances are added, and consumed estimator state is released, sequentially afterwards.
+	 * Therefore, the result is identical to that of sequential mode.
+	 * </p>
+	 *
+	 * <p>
+	 * In streaming mode, every member decision tree is transformed and detached as soon as it has been encoded.
+	 * The caller is expected to transform the ensemble model as usual (detached members are skipped),
+	 * and to marshal the resulting PMML class model using {@link StreamingUtil#marshalPMML(PMML, OutputStream)}.
+	 * </p>
+	 *
+	 * @see #transformAndDetach(Estimator, TreeModel)
+	 */
+	static
+	public <E extends Estimator & HasEstimatorEnsemble<T>, T extends Estimator & HasTree> List<TreeModel> encodeTreeModelEnsemble(E estimator, MiningFunction miningFunction, Boolean numeric, Boolean parallel, Boolean streaming, PredicateManager predicateManager, ScoreDistributionManager scoreDistributionManager, Schema schema){
 		List<? extends T> estimators = estimator.getEstimators();
 
 		Schema segmentSchema = schema.toAnonymousSchema();
 
-		Function<T, TreeModel> function = new Function<T, TreeModel>(){
+		Function<TreeModel, TreeModel> finalizer;
 
-			@Override
-			public TreeModel apply(T estimator){
-				Schema treeModelSchema = toTreeModelSchema(estimator.getDataType(), numeric, segmentSchema);
+		if(streaming){
+			finalizer = (treeModel -> transformAndDetach(estimator, treeModel));
+		} else
 
-				TreeModel treeModel = TreeUtil.encodeTreeModel(estimator, miningFunction, numeric, predicateManager, scoreDistributionManager, treeModelSchema);
+		{
+			finalizer = Function.identity();
+		}
 
-				// XXX
-				if(estimator.hasFeatureImportances()){
-					Schema featureImportanceSchema = toTreeModelFeatureImportanceSchema(numeric, treeModelSchema);
+		if(!parallel){
+			Function<T, TreeModel> function = new Function<T, TreeModel>(){
+
+				@Override
+				public TreeModel apply(T estimator){
+					Schema treeModelSchema = toTreeModelSchema(estimator.getDataType(), numeric, segmentSchema);
+
+					TreeModel treeModel = TreeUtil.encodeTreeModel(estimator, miningFunction, numeric, predicateManager, scoreDistributionManager, treeModelSchema);
+
+					// XXX
+					if(estimator.hasFeatureImportances()){
+						Schema featureImportanceSchema = toTreeModelFeatureImportanceSchema(numeric, treeModelSchema);
 
-					estimator.addFeatureImportances(treeModel, featureImportanceSchema);
+						estimator.addFeatureImportances(treeModel, featureImportanceSchema);
+					}
+
+					return finalizer.apply(treeModel);
 				}
+			};
+
+			return estimators.stream()
+				.map(function)
+				.collect(Collectors.toList());
+		}
+
+		List<Feature[]> splitFeatures = new ArrayList<>();
+		List<Schema> featureImportanceSchemas = new ArrayList<>();
+
+		for(T treeEstimator : estimators){
+			Schema treeModelSchema = toTreeModelSchema(treeEstimator.getDataType(), numeric, segmentSchema);
 
-				return treeModel;
+			Schema featureImportanceSchema = null;
+
+			splitFeatures.add(resolveSplitFeatures(treeEstimator, numeric, treeModelSchema));
+
+			if(treeEstimator.hasFeatureImportances()){
+				featureImportanceSchema = toTreeModelFeatureImportanceSchema(numeric, treeModelSchema);
 			}
-		};
 
-		return estimators.stream()
-			.map(function)
-			.collect(Collectors.toList());
+			featureImportanceSchemas.add(featureImportanceSchema);
+		}
+
+		Label label = segmentSchema.getLabel();
+
+		List<TreeModel> result = new ArrayList<>();
+
+		int threads = Math.max(Math.min(Runtime.getRuntime().availableProcessors(), estimators.size()), 1);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+		try {
+			List<Future<TreeModel>> futures = new ArrayList<>();
+
+			for(int i = 0; i < estimators.size(); i++){
+				T treeEstimator = estimators.get(i);
+				Feature[] treeSplitFeatures = splitFeatures.get(i);
+
+				futures.add(executorService.submit(() -> finalizer.apply(encodeTreeModel(treeEstimator, miningFunction, numeric, treeSplitFeatures, predicateManager, scoreDistributionManager, label))));
+			}
+
+			for(Future<TreeModel> future : futures){
+				result.add(future.get());
+			}
+		} catch(InterruptedException ie){
+			Thread.currentThread().interrupt();
+
+			throw new IllegalStateException(ie);
+		} catch(ExecutionException ee){
+			Throwable cause = ee.getCause();
+
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException)cause;
+			} else
+
+			if(cause instanceof Error){
+				throw (Error)cause;
+			}
+
+			throw new IllegalStateException(cause);
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		for(int i = 0; i < estimators.size(); i++){
+			T treeEstimator = estimators.get(i);
+			TreeModel treeModel = result.get(i);
+			Schema featureImportanceSchema = featureImportanceSchemas.get(i);
+
+			// XXX
+			if(featureImportanceSchema != null){
+				treeEstimator.addFeatureImportances(treeModel, featureImportanceSchema);
+			}
+		}
+
+		return result;
 	}
 
 	static
@@ -309,6 +499,23 @@ public class TreeUtil {
 
 	static
 	public <E extends Estimator & HasTree> TreeModel encodeTreeModel(E estimator, MiningFunction miningFunction, Boolean numeric, PredicateManager predicateManager, ScoreDistributionManager scoreDistributionManager, Schema schema){
+		Feature[] splitFeatures = resolveSplitFeatures(estimator, numeric, schema);
+
+		return encodeTreeModel(estimator, miningFunction, numeric, splitFeatures, predicateManager, scoreDistributionManager, schema.getLabel());
+	}
+
+	/**
+	 * <p>
+	 * Encodes a decision tree against pre-resolved split features.
+	 * This method does not interact with the encoder, and is therefore safe to invoke concurrently for different decision trees.
+	 * </p>
+	 *
+	 * @param splitFeatures Split features, indexed by feature index.
+	 *
+	 * @see #resolveSplitFeatures(Estimator, boolean, Schema)
+	 */
+	static
+	private <E extends Estimator & HasTree> TreeModel encodeTreeModel(E estimator, MiningFunction miningFunction, boolean numeric, Feature[] splitFeatures, PredicateManager predicateManager, ScoreDistributionManager scoreDistributionManager, Label label){
 		Tree tree = estimator.getTree();
 
 		int[] leftChildren = tree.getChildrenLeft();
@@ -323,9 +530,11 @@ public class TreeUtil {
 			missingGoToLeft = tree.getMissingToToLeft();
 		}
 
-		Node root = encodeNode(0, True.INSTANCE, miningFunction, numeric, leftChildren, rightChildren, features, thresholds, values, missingGoToLeft, new CategoryManager(), predicateManager, scoreDistributionManager, schema);
+		TreeContext context = new TreeContext(miningFunction, numeric, leftChildren, rightChildren, features, thresholds, values, missingGoToLeft, splitFeatures, predicateManager, scoreDistributionManager, label);
 
-		TreeModel treeModel = new TreeModel(miningFunction, ModelUtil.createMiningSchema(schema.getLabel()), root)
+		Node root = encodeNodes(context);
+
+		TreeModel treeModel = new TreeModel(miningFunction, ModelUtil.createMiningSchema(label), root)
 			.setSplitCharacteristic(TreeModel.SplitCharacteristic.BINARY_SPLIT);
 
 		// SkLearn 1.3.0+
@@ -338,15 +547,65 @@ public class TreeUtil {
 		return treeModel;
 	}
 
+	/**
+	 * <p>
+	 * Encodes the tree in depth-first order, using an explicit stack of pending nodes.
+	 * The maximum depth of the tree is therefore not constrained by the size of the thread stack.
+	 * </p>
+	 */
 	static
-	private Node encodeNode(int index, Predicate predicate, MiningFunction miningFunction, boolean numeric, int[] leftChildren, int[] rightChildren, int[] features, double[] thresholds, double[] values, int[] missingGoToLeft, CategoryManager categoryManager, PredicateManager predicateManager, ScoreDistributionManager scoreDistributionManager, Schema schema){
+	private Node encodeNodes(TreeContext context){
+		Node root = null;
+
+		Deque<PendingNode> pendingNodes = new ArrayDeque<>();
+		pendingNodes.push(new PendingNode(0, True.INSTANCE, new CategoryManager(), null));
+
+		while(!pendingNodes.isEmpty()){
+			PendingNode pendingNode = pendingNodes.pop();
+
+			Node node = encodeNode(pendingNode.getIndex(), pendingNode.getPredicate(), pendingNode.getCategoryManager(), context, pendingNodes);
+
+			Node parent = pendingNode.getParent();
+			if(parent != null){
+				parent.addNodes(node);
+			} else
+
+			{
+				root = node;
+			}
+		}
+
+		return root;
+	}
+
+	/**
+	 * <p>
+	 * Encodes a single node.
+	 * The child nodes of a non-leaf node are not encoded right away, but are pushed onto the stack of pending nodes.
+	 * </p>
+	 */
+	static
+	private Node encodeNode(int index, Predicate predicate, CategoryManager categoryManager, TreeContext context, Deque<PendingNode> pendingNodes){
+		MiningFunction miningFunction = context.getMiningFunction();
+		boolean numeric = context.isNumeric();
+		int[] leftChildren = context.getLeftChildren();
+		int[] rightChildren = context.getRightChildren();
+		int[] features = context.getFeatures();
+		double[] thresholds = context.getThresholds();
+		double[] values = context.getValues();
+		int[] missingGoToLeft = context.getMissingGoToLeft();
+		Feature[] splitFeatures = context.getSplitFeatures();
+		PredicateManager predicateManager = context.getPredicateManager();
+		ScoreDistributionManager scoreDistributionManager = context.getScoreDistributionManager();
+		Label label = context.getLabel();
+
 		Integer id = Integer.valueOf(index);
 
 		int featureIndex = features[index];
 
 		// A non-leaf (binary split) node
 		if(featureIndex >= 0){
-			Feature feature = schema.getFeature(featureIndex);
+			Feature feature = splitFeatures[featureIndex];
 
 			double threshold = thresholds[index];
 
@@ -409,7 +668,7 @@ public class TreeUtil {
 			} else
 
 			{
-				ContinuousFeature continuousFeature = toContinuousFeature(feature);
+				ContinuousFeature continuousFeature = (ContinuousFeature)feature;
 
 				Object value;
 
@@ -429,9 +688,6 @@ public class TreeUtil {
 			int leftIndex = leftChildren[index];
 			int rightIndex = rightChildren[index];
 
-			Node leftChild = encodeNode(leftIndex, leftPredicate, miningFunction, numeric, leftChildren, rightChildren, features, thresholds, values, missingGoToLeft, leftCategoryManager, predicateManager, scoreDistributionManager, schema);
-			Node rightChild = encodeNode(rightIndex, rightPredicate, miningFunction, numeric, leftChildren, rightChildren, features, thresholds, values, missingGoToLeft, rightCategoryManager, predicateManager, scoreDistributionManager, schema);
-
 			Node result;
 
 			if(miningFunction == MiningFunction.CLASSIFICATION){
@@ -448,14 +704,16 @@ public class TreeUtil {
 				throw new IllegalArgumentException();
 			}
 
-			result
-				.setId(id)
-				.addNodes(leftChild, rightChild);
+			result.setId(id);
 
 			if(defaultLeft != null){
-				result.setDefaultChild(defaultLeft ? leftChild.getId() : rightChild.getId());
+				result.setDefaultChild(defaultLeft ? Integer.valueOf(leftIndex) : Integer.valueOf(rightIndex));
 			}
 
+			// The left child must be popped (and appended to the result node) first
+			pendingNodes.push(new PendingNode(rightIndex, rightPredicate, rightCategoryManager, result));
+			pendingNodes.push(new PendingNode(leftIndex, leftPredicate, leftCategoryManager, result));
+
 			return result;
 		} else
 
@@ -464,7 +722,7 @@ public class TreeUtil {
 			Node result;
 
 			if(miningFunction == MiningFunction.CLASSIFICATION){
-				CategoricalLabel categoricalLabel = (CategoricalLabel)schema.getLabel();
+				CategoricalLabel categoricalLabel = (CategoricalLabel)label;
 
 				double[] leafValues = getRow(values, leftChildren.length, categoricalLabel.size(), index);
 
@@ -516,6 +774,64 @@ public class TreeUtil {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Resolves the split features of a decision tree.
+	 * Continuous split features are cast to the desired data type in depth-first order, on first use,
+	 * so that the encoder is populated with derived fields in the same order as by a recursive node encoder.
+	 * </p>
+	 *
+	 * @return Split features, indexed by feature index.
+	 * The elements for features that do not appear in any split are <code>null</code>.
+	 */
+	static
+	private <E extends Estimator & HasTree> Feature[] resolveSplitFeatures(E estimator, boolean numeric, Schema schema){
+		Tree tree = estimator.getTree();
+
+		int[] leftChildren = tree.getChildrenLeft();
+		int[] rightChildren = tree.getChildrenRight();
+		int[] features = tree.getFeature();
+
+		List<? extends Feature> schemaFeatures = schema.getFeatures();
+
+		Feature[] result = new Feature[schemaFeatures.size()];
+
+		Deque<Integer> indices = new ArrayDeque<>();
+		indices.push(0);
+
+		while(!indices.isEmpty()){
+			int index = indices.pop();
+
+			int featureIndex = features[index];
+			if(featureIndex < 0){
+				continue;
+			} // End if
+
+			if(result[featureIndex] == null){
+				Feature feature = schemaFeatures.get(featureIndex);
+
+				if(feature instanceof BinaryFeature){
+					// Ignored
+				} else
+
+				if(feature instanceof ThresholdFeature && !numeric){
+					// Ignored
+				} else
+
+				{
+					feature = toContinuousFeature(feature);
+				}
+
+				result[featureIndex] = feature;
+			}
+
+			indices.push(rightChildren[index]);
+			indices.push(leftChildren[index]);
+		}
+
+		return result;
+	}
+
 	static
 	private void encodeNodeId(Estimator estimator, Model model){
 
@@ -638,4 +954,151 @@ public class TreeUtil {
 
 		return result;
 	}
+
+	static
+	private class TreeContext {
+
+		private MiningFunction miningFunction = null;
+
+		private boolean numeric = true;
+
+		private int[] leftChildren = null;
+
+		private int[] rightChildren = null;
+
+		private int[] features = null;
+
+		private double[] thresholds = null;
+
+		private double[] values = null;
+
+		private int[] missingGoToLeft = null;
+
+		private Feature[] splitFeatures = null;
+
+		private PredicateManager predicateManager = null;
+
+		private ScoreDistributionManager scoreDistributionManager = null;
+
+		private Label label = null;
+
+
+		private TreeContext(MiningFunction miningFunction, boolean numeric, int[] leftChildren, int[] rightChildren, int[] features, double[] thresholds, double[] values, int[] missingGoToLeft, Feature[] splitFeatures, PredicateManager predicateManager, ScoreDistributionManager scoreDistributionManager, Label label){
+			this.miningFunction = miningFunction;
+			this.numeric = numeric;
+			this.leftChildren = leftChildren;
+			this.rightChildren = rightChildren;
+			this.features = features;
+			this.thresholds = thresholds;
+			this.values = values;
+			this.missingGoToLeft = missingGoToLeft;
+			this.splitFeatures = splitFeatures;
+			this.predicateManager = predicateManager;
+			this.scoreDistributionManager = scoreDistributionManager;
+			this.label = label;
+		}
+
+		public MiningFunction getMiningFunction(){
+			return this.miningFunction;
+		}
+
+		public boolean isNumeric(){
+			return this.numeric;
+		}
+
+		public int[] getLeftChildren(){
+			return this.leftChildren;
+		}
+
+		public int[] getRightChildren(){
+			return this.rightChildren;
+		}
+
+		public int[] getFeatures(){
+			return this.features;
+		}
+
+		public double[] getThresholds(){
+			return this.thresholds;
+		}
+
+		public double[] getValues(){
+			return this.values;
+		}
+
+		public int[] getMissingGoToLeft(){
+			return this.missingGoToLeft;
+		}
+
+		public Feature[] getSplitFeatures(){
+			return this.splitFeatures;
+		}
+
+		public PredicateManager getPredicateManager(){
+			return this.predicateManager;
+		}
+
+		public ScoreDistributionManager getScoreDistributionManager(){
+			return this.scoreDistributionManager;
+		}
+
+		public Label getLabel(){
+			return this.label;
+		}
+	}
+
+	static
+	private class PendingNode {
+
+		private int index = -1;
+
+		private Predicate predicate = null;
+
+		private CategoryManager categoryManager = null;
+
+		private Node parent = null;
+
+
+		private PendingNode(int index, Predicate predicate, CategoryManager categoryManager, Node parent){
+			this.index = index;
+			this.predicate = predicate;
+			this.categoryManager = categoryManager;
+			this.parent = parent;
+		}
+
+		public int getIndex(){
+			return this.index;
+		}
+
+		public Predicate getPredicate(){
+			return this.predicate;
+		}
+
+		public CategoryManager getCategoryManager(){
+			return this.categoryManager;
+		}
+
+		public Node getParent(){
+			return this.parent;
+		}
+	}
+
+	/**
+	 * <p>
+	 * A visitor that traverses the node graph of a tree model without recursion.
+	 * </p>
+	 *
+	 * @see NodeTraversalUtil#traverse(Visitor, TreeModel)
+	 */
+	static
+	abstract
+	private class AbstractNodeVisitor extends AbstractVisitor {
+
+		@Override
+		public VisitorAction visit(TreeModel treeModel){
+			NodeTraversalUtil.traverse(this, treeModel);
+
+			return VisitorAction.SKIP;
+		}
+	}
 }
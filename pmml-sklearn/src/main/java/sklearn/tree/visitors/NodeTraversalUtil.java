@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.tree.visitors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+
+import org.dmg.pmml.Visitor;
+import org.dmg.pmml.VisitorAction;
+import org.dmg.pmml.tree.Node;
+import org.dmg.pmml.tree.TreeModel;
+
+public class NodeTraversalUtil {
+
+	private NodeTraversalUtil(){
+	}
+
+	/**
+	 * <p>
+	 * Traverses the node graph of a tree model, using an explicit stack of child node iterators.
+	 * The maximum depth of the tree is therefore not constrained by the size of the thread stack.
+	 * </p>
+	 *
+	 * <p>
+	 * Nodes are visited in the same order as by the {@link TreeModel#accept(Visitor)} method,
+	 * and the visitor sees the same sequence of {@link Visitor#pushParent(org.dmg.pmml.PMMLObject)} and {@link Visitor#popParent()} calls.
+	 * The children of a node are collected right after the node has been visited,
+	 * so the visitor may restructure the child nodes of the current node, and replace the current node in its parent node.
+	 * </p>
+	 *
+	 * <p>
+	 * Only nodes are traversed.
+	 * The other content of the tree model (eg. mining schema, node predicates) is not.
+	 * </p>
+	 */
+	static
+	public void traverse(Visitor visitor, TreeModel treeModel){
+		visitor.pushParent(treeModel);
+
+		Node root = treeModel.getNode();
+		if(root != null){
+			traverse(visitor, root);
+		}
+
+		visitor.popParent();
+	}
+
+	static
+	private void traverse(Visitor visitor, Node root){
+		Deque<Iterator<Node>> childIterators = new ArrayDeque<>();
+
+		if(enter(visitor, root)){
+			childIterators.push(getChildren(root));
+		}
+
+		while(!childIterators.isEmpty()){
+			Iterator<Node> childIt = childIterators.peek();
+
+			if(childIt.hasNext()){
+				Node child = childIt.next();
+
+				if(enter(visitor, child)){
+					childIterators.push(getChildren(child));
+				}
+			} else
+
+			{
+				childIterators.pop();
+
+				visitor.popParent();
+			}
+		}
+	}
+
+	static
+	private boolean enter(Visitor visitor, Node node){
+		VisitorAction status = visitor.visit(node);
+
+		if(status == VisitorAction.CONTINUE){
+			visitor.pushParent(node);
+
+			return true;
+		}
+
+		return false;
+	}
+
+	static
+	private Iterator<Node> getChildren(Node node){
+
+		if(node.hasNodes()){
+			return (new ArrayList<>(node.getNodes())).iterator();
+		}
+
+		return Collections.emptyIterator();
+	}
+}
@@ -28,11 +28,10 @@ import org.dmg.pmml.SimplePredicate;
 import org.dmg.pmml.True;
 import org.dmg.pmml.tree.Node;
 import org.dmg.pmml.tree.TreeModel;
-import org.jpmml.converter.visitors.AbstractTreeModelTransformer;
 import org.jpmml.model.UnsupportedAttributeException;
 import org.jpmml.model.UnsupportedElementException;
 
-public class TreeModelFlattener extends AbstractTreeModelTransformer {
+public class TreeModelFlattener extends AbstractIterativeTreeModelTransformer {
 
 	private MiningFunction miningFunction = null;
 
@@ -25,10 +25,9 @@ import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.VisitorAction;
 import org.dmg.pmml.tree.Node;
 import org.dmg.pmml.tree.TreeModel;
-import org.jpmml.converter.visitors.AbstractTreeModelTransformer;
 import org.jpmml.model.UnsupportedAttributeException;
 
-public class TreeModelPruner extends AbstractTreeModelTransformer {
+public class TreeModelPruner extends AbstractIterativeTreeModelTransformer {
 
 	private MiningFunction miningFunction = null;
 
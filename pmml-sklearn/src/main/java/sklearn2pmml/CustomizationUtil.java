@@ -25,9 +25,14 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -48,9 +53,14 @@ import jakarta.xml.bind.Binder;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import org.dmg.pmml.Extension;
 import org.dmg.pmml.Model;
 import org.dmg.pmml.PMMLObject;
+import org.dmg.pmml.StringValue;
 import org.dmg.pmml.Visitor;
 import org.dmg.pmml.VisitorAction;
 import org.jpmml.model.JAXBUtil;
@@ -65,26 +75,30 @@ public class CustomizationUtil {
 	private CustomizationUtil(){
 	}
 
+	/**
+	 * <p>
+	 * Applies customizations to a model.
+	 * </p>
+	 *
+	 * <p>
+	 * XPath expressions are resolved against the live PMML class model object graph,
+	 * which means that every customization sees the effect of all the preceding customizations.
+	 * The supported XPath subset consists of absolute and relative location paths,
+	 * whose steps are made up of a default namespace-prefixed name test (eg. <code>:Output</code>) or a wildcard name test (<code>*</code>),
+	 * and a sequence of positional (eg. <code>[1]</code>) or attribute value (eg. <code>[@name='probability(yes)']</code>) predicates.
+	 * </p>
+	 *
+	 * <p>
+	 * All other XPath expressions are evaluated against a W3C DOM representation of the model.
+	 * The model is marshalled into a DOM document only when such an XPath expression is encountered.
+	 * After that, every edit re-marshals the edited element in place (instead of the whole model).
+	 * Edits that add or replace child elements make the DOM document stale, and it is built anew when the next such XPath expression is encountered.
+	 * This way, both evaluation modes can be mixed in one list of customizations.
+	 * </p>
+	 */
 	static
 	public void customize(Model model, List<? extends Customization> customizations) throws Exception {
-		JAXBContext jaxbContext = JAXBUtil.getContext();
-
-		DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-		documentBuilderFactory.setNamespaceAware(true);
-
-		XPathFactory xPathFactory = XPathFactory.newInstance();
-
-		DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-
-		Document document = documentBuilder.newDocument();
-
-		NamespaceContext namespaceContext = new DocumentNamespaceContext(document);
-
-		Binder<Node> binder = jaxbContext.createBinder(Node.class);
-		binder.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
-		binder.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
-
-		binder.marshal(model, document);
+		DocumentContext documentContext = null;
 
 		for(Customization customization : customizations){
 			String command = customization.getCommand();
@@ -110,14 +124,24 @@ public class CustomizationUtil {
 							throw new IllegalArgumentException();
 						}
 
-						XPath xPath = xPathFactory.newXPath();
-						xPath.setNamespaceContext(namespaceContext);
+						PMMLObject object;
+
+						ObjectPath objectPath = ObjectPath.parse(xPathExpr);
 
-						XPathExpression xPathExpression = xPath.compile(xPathExpr);
+						List<PMMLObject> objects = (objectPath != null ? objectPath.evaluate(model) : null);
+						if(objects != null){
+							object = (!objects.isEmpty() ? objects.get(0) : null);
+						} else
 
-						Node node = (Node)xPathExpression.evaluate(document.getDocumentElement(), XPathConstants.NODE);
+						{
+							if(documentContext == null){
+								documentContext = new DocumentContext(model);
+							}
+
+							object = documentContext.evaluate(xPathExpr);
+						}
 
-						xPathExprObject = (PMMLObject)binder.getJAXBNode(node);
+						xPathExprObject = object;
 						if(xPathExprObject == null){
 							throw new IllegalArgumentException("XPath expression \'" + xPathExpr + "\' is not associated with a PMML object");
 						}
@@ -199,12 +223,13 @@ public class CustomizationUtil {
 					throw new IllegalArgumentException(command);
 			}
 
-			if(object != null){
-				Node node = binder.getXMLNode(object);
+			// The PMML class model object graph has been edited directly, which leaves the DOM representation out of sync.
+			// Re-marshal the edited subtree in place. If that is not possible, then build the DOM representation anew when the next DOM-evaluated XPath expression is encountered
+			if(object != null && documentContext != null){
+				boolean updated = documentContext.update(object);
 
-				// XXX: The node is always null!?
-				if(node != null){
-					binder.updateXML(object, node);
+				if(!updated){
+					documentContext = null;
 				}
 			}
 		}
@@ -383,6 +408,597 @@ public class CustomizationUtil {
 		}
 	}
 
+	/**
+	 * <p>
+	 * A W3C DOM snapshot of a model, plus the JAXB binding between them.
+	 * </p>
+	 */
+	static
+	private class DocumentContext {
+
+		private Document document = null;
+
+		private Binder<Node> binder = null;
+
+		private NamespaceContext namespaceContext = null;
+
+		private XPathFactory xPathFactory = null;
+
+
+		private DocumentContext(Model model) throws Exception {
+			JAXBContext jaxbContext = JAXBUtil.getContext();
+
+			DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+			documentBuilderFactory.setNamespaceAware(true);
+
+			DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+
+			Document document = documentBuilder.newDocument();
+
+			Binder<Node> binder = jaxbContext.createBinder(Node.class);
+			binder.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+			binder.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+
+			binder.marshal(model, document);
+
+			this.document = document;
+			this.binder = binder;
+			this.namespaceContext = new DocumentNamespaceContext(document);
+			this.xPathFactory = XPathFactory.newInstance();
+		}
+
+		public PMMLObject evaluate(String xPathExpr) throws Exception {
+			XPath xPath = this.xPathFactory.newXPath();
+			xPath.setNamespaceContext(this.namespaceContext);
+
+			XPathExpression xPathExpression = xPath.compile(xPathExpr);
+
+			Node node = (Node)xPathExpression.evaluate(this.document.getDocumentElement(), XPathConstants.NODE);
+
+			return (PMMLObject)this.binder.getJAXBNode(node);
+		}
+
+		/**
+		 * <p>
+		 * Brings the DOM representation of an edited PMML object up to date.
+		 * </p>
+		 *
+		 * @return <code>true</code> if the DOM representation was updated, <code>false</code> if it must be built anew.
+		 */
+		public boolean update(PMMLObject object) throws Exception {
+			Node node = this.binder.getXMLNode(object);
+
+			if(node == null){
+				return false;
+			}
+
+			this.binder.updateXML(object, node);
+
+			// Newly created child elements are not bound to PMML objects
+			return isBound(node);
+		}
+
+		private boolean isBound(Node node){
+
+			if(node.getNodeType() != Node.ELEMENT_NODE){
+				return true;
+			} // End if
+
+			if(this.binder.getJAXBNode(node) == null){
+				return false;
+			}
+
+			for(Node child = node.getFirstChild(); child != null; child = child.getNextSibling()){
+
+				if(!isBound(child)){
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * <p>
+	 * An XPath location path, which is evaluated directly against the PMML class model object graph.
+	 * </p>
+	 *
+	 * <p>
+	 * The evaluation follows W3C DOM semantics.
+	 * The model element is the document element, and the context node for relative location paths.
+	 * Each step is evaluated in a single depth-first traversal of the model,
+	 * which visits PMML elements in document order.
+	 * </p>
+	 */
+	static
+	private class ObjectPath {
+
+		private List<PathStep> steps = null;
+
+
+		private ObjectPath(List<PathStep> steps){
+			this.steps = steps;
+		}
+
+		/**
+		 * @return A singleton list of the first matching PMML object in document order, or an empty list if there is no match.
+		 * Returns <code>null</code> if the location path cannot be evaluated against the PMML class model object graph.
+		 */
+		public List<PMMLObject> evaluate(Model model){
+			List<PathStep> steps = this.steps;
+
+			Set<Object> contexts = Collections.newSetFromMap(new IdentityHashMap<>());
+			contexts.add(steps.get(0).isAbsolute() ? ObjectPath.DOCUMENT : model);
+
+			List<PMMLObject> objects = null;
+
+			for(int i = 0; i < steps.size(); i++){
+				PathStep step = steps.get(i);
+
+				objects = step.select(model, contexts, (i == steps.size() - 1));
+				if(objects == null){
+					return null;
+				} else
+
+				if(objects.isEmpty()){
+					return Collections.emptyList();
+				}
+
+				contexts = Collections.newSetFromMap(new IdentityHashMap<>());
+				contexts.addAll(objects);
+			}
+
+			return Collections.singletonList(objects.get(0));
+		}
+
+		/**
+		 * @return A location path, or <code>null</code> if the XPath expression falls outside of the supported XPath subset.
+		 */
+		static
+		public ObjectPath parse(String xPathExpr){
+			List<PathStep> steps = new ArrayList<>();
+
+			int pos = 0;
+
+			boolean absolute = false;
+			boolean descendant = false;
+
+			if(xPathExpr.startsWith("//")){
+				absolute = true;
+				descendant = true;
+
+				pos += 2;
+			} else
+
+			if(xPathExpr.startsWith("/")){
+				absolute = true;
+
+				pos += 1;
+			}
+
+			while(true){
+				String name;
+
+				if(xPathExpr.startsWith("*", pos)){
+					name = null;
+
+					pos += 1;
+				} else
+
+				// The XPath grammar does not permit a relative location path to begin with an empty prefix
+				if(xPathExpr.startsWith(":", pos) && (absolute || !steps.isEmpty())){
+					int end = scanName(xPathExpr, pos + 1);
+					if(end == (pos + 1)){
+						return null;
+					}
+
+					name = xPathExpr.substring(pos + 1, end);
+
+					pos = end;
+				} else
+
+				{
+					return null;
+				}
+
+				List<PathPredicate> predicates = new ArrayList<>();
+
+				while(xPathExpr.startsWith("[", pos)){
+					int end = xPathExpr.indexOf(']', pos);
+					if(end < 0){
+						return null;
+					}
+
+					PathPredicate predicate = PathPredicate.parse(xPathExpr.substring(pos + 1, end));
+					if(predicate == null){
+						return null;
+					}
+
+					predicates.add(predicate);
+
+					pos = end + 1;
+				}
+
+				steps.add(new PathStep(absolute && steps.isEmpty(), descendant, name, predicates));
+
+				if(pos == xPathExpr.length()){
+					break;
+				} // End if
+
+				if(xPathExpr.startsWith("//", pos)){
+					descendant = true;
+
+					pos += 2;
+				} else
+
+				if(xPathExpr.startsWith("/", pos)){
+					descendant = false;
+
+					pos += 1;
+				} else
+
+				{
+					return null;
+				}
+			}
+
+			return new ObjectPath(steps);
+		}
+
+		static
+		private int scanName(String string, int pos){
+
+			while(pos < string.length()){
+				char c = string.charAt(pos);
+
+				if(!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.'){
+					break;
+				}
+
+				pos++;
+			}
+
+			return pos;
+		}
+
+		static
+		private String getElementName(Class<?> clazz){
+
+			while(clazz != null){
+				XmlRootElement xmlRootElement = clazz.getAnnotation(XmlRootElement.class);
+
+				if(xmlRootElement != null){
+					return xmlRootElement.name();
+				}
+
+				clazz = clazz.getSuperclass();
+			}
+
+			return null;
+		}
+
+		private static final Object DOCUMENT = new Object();
+
+		private static final ClassValue<String> elementNames = new ClassValue<String>(){
+
+			@Override
+			public String computeValue(Class<?> clazz){
+				return getElementName(clazz);
+			}
+		};
+	}
+
+	static
+	private class PathStep {
+
+		private boolean absolute = false;
+
+		private boolean descendant = false;
+
+		private String name = null;
+
+		private List<PathPredicate> predicates = null;
+
+
+		private PathStep(boolean absolute, boolean descendant, String name, List<PathPredicate> predicates){
+			this.absolute = absolute;
+			this.descendant = descendant;
+			this.name = name;
+			this.predicates = predicates;
+		}
+
+		/**
+		 * @param first <code>true</code> if only the first matching PMML object is needed.
+		 *
+		 * @return The matching PMML objects, or <code>null</code> if the location step cannot be evaluated against the PMML class model object graph.
+		 */
+		public List<PMMLObject> select(Model model, Set<Object> contexts, boolean first){
+			boolean descendant = this.descendant;
+			String name = this.name;
+			List<PathPredicate> predicates = this.predicates;
+
+			List<PMMLObject> result = new ArrayList<>();
+
+			List<Map<Object, int[]>> positions = new ArrayList<>();
+			for(int i = 0; i < predicates.size(); i++){
+				positions.add(new IdentityHashMap<>());
+			}
+
+			boolean documentContext = contexts.contains(ObjectPath.DOCUMENT);
+
+			boolean[] unsupported = {false};
+
+			Visitor visitor = new AbstractVisitor(){
+
+				/**
+				 * The number of context objects on the parent stack.
+				 */
+				private int depth = 0;
+
+
+				@Override
+				public void pushParent(PMMLObject parent){
+					super.pushParent(parent);
+
+					if(contexts.contains(parent)){
+						this.depth++;
+					}
+				}
+
+				@Override
+				public PMMLObject popParent(){
+					PMMLObject parent = super.popParent();
+
+					if(contexts.contains(parent)){
+						this.depth--;
+					}
+
+					return parent;
+				}
+
+				@Override
+				public VisitorAction visit(PMMLObject object){
+					Deque<PMMLObject> parents = getParents();
+
+					PMMLObject parent = parents.peekFirst();
+
+					Object parentNode = (parent != null ? parent : ObjectPath.DOCUMENT);
+
+					boolean selectable;
+
+					if(descendant){
+						selectable = documentContext || (this.depth > 0);
+					} else
+
+					{
+						selectable = contexts.contains(parentNode);
+					} // End if
+
+					if(!selectable){
+						return super.visit(object);
+					} // End if
+
+					if(name == null && (parent instanceof Extension) && hasForeignContent((Extension)parent)){
+						unsupported[0] = true;
+
+						return VisitorAction.TERMINATE;
+					} // End if
+
+					if(name != null && !(name).equals(ObjectPath.elementNames.get(object.getClass()))){
+						return super.visit(object);
+					}
+
+					for(int i = 0; i < predicates.size(); i++){
+						PathPredicate predicate = predicates.get(i);
+
+						int[] position = (positions.get(i)).computeIfAbsent(parentNode, key -> new int[1]);
+
+						position[0]++;
+
+						Boolean matches = predicate.test(object, position[0]);
+						if(matches == null){
+							unsupported[0] = true;
+
+							return VisitorAction.TERMINATE;
+						} // End if
+
+						if(!matches){
+							return super.visit(object);
+						}
+					}
+
+					result.add(object);
+
+					if(first){
+						return VisitorAction.TERMINATE;
+					}
+
+					return super.visit(object);
+				}
+			};
+			visitor.applyTo(model);
+
+			if(unsupported[0]){
+				return null;
+			}
+
+			return result;
+		}
+
+		public boolean isAbsolute(){
+			return this.absolute;
+		}
+
+		/**
+		 * <p>
+		 * Extension elements may hold arbitrary XML content,
+		 * which is not part of the PMML class model object graph.
+		 * </p>
+		 */
+		static
+		private boolean hasForeignContent(Extension extension){
+
+			if(!extension.hasContent()){
+				return false;
+			}
+
+			List<?> content = extension.getContent();
+			for(Object object : content){
+
+				if((object instanceof PMMLObject) || (object instanceof String)){
+					continue;
+				}
+
+				return true;
+			}
+
+			return false;
+		}
+	}
+
+	static
+	private class PathPredicate {
+
+		private Integer position = null;
+
+		private String attributeName = null;
+
+		private String attributeValue = null;
+
+
+		private PathPredicate(Integer position, String attributeName, String attributeValue){
+			this.position = position;
+			this.attributeName = attributeName;
+			this.attributeValue = attributeValue;
+		}
+
+		/**
+		 * @return The test result, or <code>null</code> if it cannot be determined against the PMML class model object graph.
+		 */
+		public Boolean test(PMMLObject object, int position){
+
+			if(this.position != null){
+				return (this.position).intValue() == position;
+			}
+
+			Field field = getAttributeField(object.getClass(), this.attributeName);
+			if(field == null){
+				return Boolean.FALSE;
+			}
+
+			Object value = ReflectionUtil.getFieldValue(field, object);
+			if(value == null){
+				return Boolean.FALSE;
+			}
+
+			String string = formatValue(field, value);
+			if(string == null){
+				return null;
+			}
+
+			return (this.attributeValue).equals(string);
+		}
+
+		/**
+		 * @return A predicate, or <code>null</code> if the predicate expression falls outside of the supported XPath subset.
+		 */
+		static
+		public PathPredicate parse(String string){
+
+			if(string.startsWith("@")){
+				int end = ObjectPath.scanName(string, 1);
+				if(end == 1 || end + 3 > string.length() || string.charAt(end) != '='){
+					return null;
+				}
+
+				char quote = string.charAt(end + 1);
+				if((quote != '\'' && quote != '\"') || string.charAt(string.length() - 1) != quote){
+					return null;
+				}
+
+				String value = string.substring(end + 2, string.length() - 1);
+				if(value.indexOf(quote) > -1){
+					return null;
+				}
+
+				return new PathPredicate(null, string.substring(1, end), value);
+			} // End if
+
+			if(string.isEmpty() || string.length() > 9){
+				return null;
+			}
+
+			for(int i = 0; i < string.length(); i++){
+				char c = string.charAt(i);
+
+				if(c < '0' || c > '9'){
+					return null;
+				}
+			}
+
+			return new PathPredicate(Integer.valueOf(string), null, null);
+		}
+
+		static
+		private Field getAttributeField(Class<? extends PMMLObject> clazz, String name){
+			List<Field> fields = ReflectionUtil.getFields(clazz);
+
+			for(Field field : fields){
+				XmlAttribute xmlAttribute = field.getAnnotation(XmlAttribute.class);
+
+				if(xmlAttribute != null && (name).equals(xmlAttribute.name())){
+					return field;
+				}
+			}
+
+			return null;
+		}
+
+		/**
+		 * @return The XML representation of the value, or <code>null</code> if it cannot be determined without marshalling.
+		 */
+		static
+		private String formatValue(Field field, Object value){
+			XmlJavaTypeAdapter xmlJavaTypeAdapter = field.getAnnotation(XmlJavaTypeAdapter.class);
+
+			if(xmlJavaTypeAdapter != null){
+				XmlAdapter<Object, Object> xmlAdapter = (XmlAdapter<Object, Object>)PathPredicate.xmlAdapters.get(xmlJavaTypeAdapter.value());
+
+				try {
+					value = xmlAdapter.marshal(value);
+				} catch(Exception e){
+					return null;
+				}
+			} // End if
+
+			if((value instanceof String) || (value instanceof Boolean) || (value instanceof Integer)){
+				return value.toString();
+			} else
+
+			if(value instanceof StringValue){
+				StringValue<?> stringValue = (StringValue<?>)value;
+
+				return stringValue.value();
+			}
+
+			return null;
+		}
+
+		private static final ClassValue<XmlAdapter<?, ?>> xmlAdapters = new ClassValue<XmlAdapter<?, ?>>(){
+
+			@Override
+			public XmlAdapter<?, ?> computeValue(Class<?> clazz){
+
+				try {
+					return (XmlAdapter<?, ?>)clazz.getDeclaredConstructor().newInstance();
+				} catch(ReflectiveOperationException roe){
+					throw new RuntimeException(roe);
+				}
+			}
+		};
+	}
+
 	static
 	private class DocumentNamespaceContext implements NamespaceContext {
 
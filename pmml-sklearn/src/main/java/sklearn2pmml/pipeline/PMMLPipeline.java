@@ -27,8 +27,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Lists;
 import numpy.core.NDArrayUtil;
 import org.dmg.pmml.DataField;
 import org.dmg.pmml.DataType;
@@ -43,7 +41,6 @@ import org.dmg.pmml.OutputField;
 import org.dmg.pmml.PMML;
 import org.dmg.pmml.ResultFeature;
 import org.dmg.pmml.VerificationField;
-import org.jpmml.converter.CMatrixUtil;
 import org.jpmml.converter.CategoricalLabel;
 import org.jpmml.converter.DerivedOutputField;
 import org.jpmml.converter.Feature;
@@ -54,11 +51,12 @@ import org.jpmml.converter.PMMLUtil;
 import org.jpmml.converter.ScalarLabel;
 import org.jpmml.converter.ScalarLabelUtil;
 import org.jpmml.converter.Schema;
-import org.jpmml.converter.ValueUtil;
 import org.jpmml.converter.WildcardFeature;
 import org.jpmml.converter.mining.MiningModelUtil;
 import org.jpmml.python.ClassDictUtil;
+import org.jpmml.sklearn.HasSkLearnOptions;
 import org.jpmml.sklearn.SkLearnEncoder;
+import org.jpmml.sklearn.StreamingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sklearn.Classifier;
@@ -107,6 +105,8 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 			targetFields = initLabel(targetFields, encoder);
 
 			customizations = estimator.getPMMLCustomizations();
+
+			encoder.configure(estimator);
 		}
 
 		activeFields = initFeatures(activeFields, encoder);
@@ -198,23 +198,30 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 
 			Label label = schema.getLabel();
 
-			List<?> activeValues = verification.getActiveValues();
 			int[] activeValuesShape = verification.getActiveValuesShape();
 
 			ClassDictUtil.checkShapes(1, activeFields.size(), activeValuesShape);
 
 			int rows = activeValuesShape[0];
 
+			Integer maxRecords = (Integer)estimator.getOption(HasSkLearnOptions.OPTION_VERIFICATION_MAX_RECORDS, null);
+			String sampling = (String)estimator.getOption(HasSkLearnOptions.OPTION_VERIFICATION_SAMPLING, VerificationUtil.SAMPLING_SYSTEMATIC);
+
+			int[] rowIndices = null;
+
+			if(maxRecords != null){
+				rowIndices = selectVerificationRows(verification, label, targetFields, rows, maxRecords, sampling);
+			}
+
 			Map<VerificationField, List<?>> data = new LinkedHashMap<>();
 
 			if(activeFields != null){
+				List<List<?>> activeColumns = VerificationUtil.getColumns(verification.getActiveValuesArray(), rows, activeFields.size(), rowIndices);
 
 				for(int i = 0; i < activeFields.size(); i++){
 					VerificationField verificationField = ModelUtil.createVerificationField(activeFields.get(i));
 
-					Domain domain = encoder.getDomain(verificationField.requireField());
-
-					data.put(verificationField, CMatrixUtil.getColumn(cleanValues(domain, activeValues), rows, activeFields.size(), i));
+					data.put(verificationField, activeColumns.get(i));
 				}
 			}
 
@@ -232,7 +239,6 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 			} // End if
 
 			if(hasProbabilityValues){
-				List<? extends Number> probabilityValues = verification.getProbabilityValues();
 				int[] probabilityValuesShape = verification.getProbabilityValuesShape();
 
 				ClassDictUtil.checkShapes(0, activeValuesShape, probabilityValuesShape);
@@ -246,23 +252,26 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 
 				ClassDictUtil.checkShapes(1, probabilityFields.size(), probabilityValuesShape);
 
+				List<List<?>> probabilityColumns = VerificationUtil.getColumns(verification.getProbabilityValuesArray(), rows, probabilityFields.size(), rowIndices);
+
 				for(int i = 0; i < probabilityFields.size(); i++){
 					VerificationField verificationField = ModelUtil.createVerificationField(probabilityFields.get(i))
 						.setPrecision(precision)
 						.setZeroThreshold(zeroThreshold);
 
-					data.put(verificationField, CMatrixUtil.getColumn(cleanValues(null, probabilityValues), rows, probabilityFields.size(), i));
+					data.put(verificationField, probabilityColumns.get(i));
 				}
 			} else
 
 			{
-				List<?> targetValues = verification.getTargetValues();
 				int[] targetValuesShape = verification.getTargetValuesShape();
 
 				ClassDictUtil.checkShapes(0, activeValuesShape, targetValuesShape);
 
 				ClassDictUtil.checkSize(targetFields, scalarLabels);
 
+				List<List<?>> targetColumns = VerificationUtil.getColumns(verification.getTargetValuesArray(), rows, targetFields.size(), rowIndices);
+
 				for(int i = 0; i < targetFields.size(); i++){
 					VerificationField verificationField = ModelUtil.createVerificationField(targetFields.get(i));
 
@@ -280,9 +289,7 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 							break;
 					}
 
-					Domain domain = encoder.getDomain(verificationField.requireField());
-
-					data.put(verificationField, CMatrixUtil.getColumn(cleanValues(domain, targetValues), rows, targetFields.size(), i));
+					data.put(verificationField, targetColumns.get(i));
 				}
 			}
 
@@ -290,6 +297,8 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 		} // End if
 
 		if(customizations != null && !customizations.isEmpty()){
+			// Customizations must see complete node graphs
+			StreamingUtil.attachNodes(model);
 
 			try {
 				CustomizationUtil.customize(model, customizations);
@@ -351,6 +360,8 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 			outputEncoder.setModel(model);
 		}
 
+		outputEncoder.configure(encoder);
+
 		List<Feature> features = new ArrayList<>();
 
 		for(OutputField outputField : outputFields){
@@ -576,23 +587,40 @@ public class PMMLPipeline extends SkLearnPipeline implements HasPMMLOptions<PMML
 		return probabilityFields;
 	}
 
+	/**
+	 * @see HasSkLearnOptions#OPTION_VERIFICATION_MAX_RECORDS
+	 * @see HasSkLearnOptions#OPTION_VERIFICATION_SAMPLING
+	 */
 	static
-	private List<?> cleanValues(Domain domain, List<?> values){
-		Function<Object, Object> function = new Function<Object, Object>(){
+	private int[] selectVerificationRows(Verification verification, Label label, List<String> targetFields, int rows, int maxRecords, String sampling){
 
-			@Override
-			public Object apply(Object value){
-				Domain.checkValue(value);
+		switch(sampling){
+			case VerificationUtil.SAMPLING_SYSTEMATIC:
+				return VerificationUtil.selectRows(rows, maxRecords);
+			case VerificationUtil.SAMPLING_STRATIFIED:
+				{
+					List<ScalarLabel> scalarLabels = ScalarLabelUtil.toScalarLabels(label);
 
-				if(ValueUtil.isNaN(value)){
-					return null;
-				}
+					for(ScalarLabel scalarLabel : scalarLabels){
 
-				return value;
-			}
-		};
+						if(!(scalarLabel instanceof CategoricalLabel)){
+							throw new IllegalArgumentException("Verification sampling method \'" + sampling + "\' requires categorical target field(s)");
+						}
+					}
+
+					ClassDictUtil.checkSize(targetFields, scalarLabels);
 
-		return Lists.transform(values, function);
+					int[] targetValuesShape = verification.getTargetValuesShape();
+
+					ClassDictUtil.checkShapes(0, new int[]{rows}, targetValuesShape);
+
+					List<?> strata = VerificationUtil.getRows(verification.getTargetValuesArray(), rows, targetFields.size());
+
+					return VerificationUtil.selectRows(strata, maxRecords);
+				}
+			default:
+				throw new IllegalArgumentException("Verification sampling method \'" + sampling + "\' is not supported");
+		}
 	}
 
 	private static final Logger logger = LoggerFactory.getLogger(PMMLPipeline.class);
@@ -20,6 +20,7 @@ package sklearn2pmml.pipeline;
 
 import java.util.List;
 
+import org.jpmml.python.HasArray;
 import org.jpmml.python.PythonObject;
 
 public class Verification extends PythonObject {
@@ -36,6 +37,10 @@ public class Verification extends PythonObject {
 		return getArray("active_values");
 	}
 
+	public HasArray getActiveValuesArray(){
+		return get("active_values", HasArray.class);
+	}
+
 	public int[] getActiveValuesShape(){
 		int[] shape = getArrayShape("active_values");
 
@@ -50,6 +55,10 @@ public class Verification extends PythonObject {
 		return getNumberArray("probability_values");
 	}
 
+	public HasArray getProbabilityValuesArray(){
+		return get("probability_values", HasArray.class);
+	}
+
 	public int[] getProbabilityValuesShape(){
 		return getArrayShape("probability_values", 2);
 	}
@@ -58,6 +67,10 @@ public class Verification extends PythonObject {
 		return getArray("target_values");
 	}
 
+	public HasArray getTargetValuesArray(){
+		return get("target_values", HasArray.class);
+	}
+
 	public int[] getTargetValuesShape(){
 		return getArrayShape("target_values");
 	}
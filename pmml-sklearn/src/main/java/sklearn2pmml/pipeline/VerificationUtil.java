@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn2pmml.pipeline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import numpy.DType;
+import numpy.core.NDArray;
+import numpy.core.TypeDescriptor;
+import org.jpmml.converter.ValueUtil;
+import org.jpmml.python.HasArray;
+import org.jpmml.sklearn.ChunkedByteBuffer;
+import org.jpmml.sklearn.MappedNDArray;
+import sklearn2pmml.decoration.Domain;
+
+public class VerificationUtil {
+
+	private VerificationUtil(){
+	}
+
+	/**
+	 * <p>
+	 * Selects evenly spaced rows.
+	 * </p>
+	 *
+	 * @return The indices of selected rows in ascending order.
+	 */
+	static
+	public int[] selectRows(int rows, int maxRecords){
+		checkMaxRecords(maxRecords);
+
+		if(rows <= maxRecords){
+			return range(rows);
+		}
+
+		int[] result = new int[maxRecords];
+
+		for(int i = 0; i < maxRecords; i++){
+			result[i] = (int)(((long)i * rows) / maxRecords);
+		}
+
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * Selects evenly spaced rows within each stratum.
+	 * </p>
+	 *
+	 * <p>
+	 * The sample is allocated between strata in proportion to their sizes, using the largest remainder method.
+	 * If there are no more strata than records, then every stratum is guaranteed at least one record.
+	 * </p>
+	 *
+	 * @param strata The stratum of each row.
+	 *
+	 * @return The indices of selected rows in ascending order.
+	 */
+	static
+	public int[] selectRows(List<?> strata, int maxRecords){
+		checkMaxRecords(maxRecords);
+
+		int rows = strata.size();
+
+		if(rows <= maxRecords){
+			return range(rows);
+		}
+
+		Map<Object, List<Integer>> strataRows = new LinkedHashMap<>();
+
+		for(int row = 0; row < rows; row++){
+			List<Integer> stratumRows = strataRows.computeIfAbsent(strata.get(row), key -> new ArrayList<>());
+
+			stratumRows.add(row);
+		}
+
+		List<List<Integer>> stratumRowsList = new ArrayList<>(strataRows.values());
+
+		int[] quotas = allocate(stratumRowsList, maxRecords);
+
+		int[] result = new int[maxRecords];
+
+		int index = 0;
+
+		for(int i = 0; i < stratumRowsList.size(); i++){
+			List<Integer> stratumRows = stratumRowsList.get(i);
+
+			int quota = quotas[i];
+
+			for(int j = 0; j < quota; j++){
+				result[index++] = stratumRows.get((int)(((long)j * stratumRows.size()) / quota));
+			}
+		}
+
+		Arrays.sort(result);
+
+		return result;
+	}
+
+	/**
+	 * @param array A row-major matrix.
+	 *
+	 * @return The rows of the matrix.
+	 * A row is represented by its sole value if the matrix has a single column, and by a list of values otherwise.
+	 */
+	static
+	public List<?> getRows(HasArray array, int rows, int columns){
+		List<List<?>> valueColumns = getColumns(array, rows, columns, null);
+
+		if(columns == 1){
+			return valueColumns.get(0);
+		}
+
+		List<List<?>> result = new ArrayList<>(rows);
+
+		for(int row = 0; row < rows; row++){
+			List<Object> values = new ArrayList<>(columns);
+
+			for(int column = 0; column < columns; column++){
+				values.add((valueColumns.get(column)).get(row));
+			}
+
+			result.add(values);
+		}
+
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * Extracts the selected rows of a matrix, one column at a time.
+	 * </p>
+	 *
+	 * <p>
+	 * The matrix is traversed once, in row-major order.
+	 * Numeric Numpy arrays are decoded directly from their binary data,
+	 * which means that the values of unselected rows are never decoded (or boxed).
+	 * Missing values (ie. <code>NaN</code> values) are replaced with <code>null</code> values.
+	 * </p>
+	 *
+	 * @param array A row-major matrix.
+	 * @param rowIndices The indices of selected rows, or <code>null</code> to select all rows.
+	 */
+	static
+	public List<List<?>> getColumns(HasArray array, int rows, int columns, int[] rowIndices){
+		int records = (rowIndices != null ? rowIndices.length : rows);
+
+		List<List<Object>> valueColumns = new ArrayList<>(columns);
+
+		for(int column = 0; column < columns; column++){
+			valueColumns.add(new ArrayList<>(records));
+		}
+
+		CellReader cellReader = null;
+
+		if(array instanceof NDArray){
+			cellReader = createCellReader((NDArray)array, rows, columns);
+		}
+
+		List<?> content = null;
+
+		if(cellReader == null){
+			content = array.getArrayContent();
+
+			if(content.size() != (rows * columns)){
+				throw new IllegalArgumentException("Expected " + (rows * columns) + " elements, got " + content.size() + " elements");
+			}
+		}
+
+		for(int i = 0; i < records; i++){
+			int row = (rowIndices != null ? rowIndices[i] : i);
+
+			for(int column = 0; column < columns; column++){
+				Object value;
+
+				if(cellReader != null){
+					value = cellReader.read(row, column);
+				} else
+
+				{
+					value = content.get(row * columns + column);
+				}
+
+				(valueColumns.get(column)).add(cleanValue(value));
+			}
+		}
+
+		return (List)valueColumns;
+	}
+
+	static
+	private Object cleanValue(Object value){
+		Domain.checkValue(value);
+
+		if(ValueUtil.isNaN(value)){
+			return null;
+		}
+
+		return value;
+	}
+
+	static
+	private int[] allocate(List<List<Integer>> stratumRowsList, int maxRecords){
+		int[] result = new int[stratumRowsList.size()];
+
+		int[] sizes = new int[stratumRowsList.size()];
+
+		for(int i = 0; i < stratumRowsList.size(); i++){
+			sizes[i] = (stratumRowsList.get(i)).size();
+		}
+
+		int remaining = maxRecords;
+
+		// Reserve one record for every stratum
+		if(stratumRowsList.size() <= maxRecords){
+
+			for(int i = 0; i < sizes.length; i++){
+				result[i] = 1;
+
+				sizes[i] -= 1;
+			}
+
+			remaining -= stratumRowsList.size();
+		}
+
+		long total = 0;
+
+		for(int size : sizes){
+			total += size;
+		}
+
+		if(remaining == 0 || total == 0){
+			return result;
+		}
+
+		long[] remainders = new long[sizes.length];
+
+		int allocated = 0;
+
+		for(int i = 0; i < sizes.length; i++){
+			long product = (long)sizes[i] * remaining;
+
+			result[i] += (int)(product / total);
+			remainders[i] = (product % total);
+
+			allocated += (int)(product / total);
+		}
+
+		for(; allocated < remaining; allocated++){
+			int index = -1;
+
+			for(int i = 0; i < remainders.length; i++){
+
+				if(index < 0 || remainders[i] > remainders[index]){
+					index = i;
+				}
+			}
+
+			result[index] += 1;
+			remainders[index] = -1;
+		}
+
+		return result;
+	}
+
+	static
+	private int[] range(int rows){
+		int[] result = new int[rows];
+
+		for(int i = 0; i < rows; i++){
+			result[i] = i;
+		}
+
+		return result;
+	}
+
+	static
+	private void checkMaxRecords(int maxRecords){
+
+		if(maxRecords < 1){
+			throw new IllegalArgumentException("Expected a positive number of records, got " + maxRecords);
+		}
+	}
+
+	/**
+	 * @return A cell reader, or <code>null</code> if the binary data of the array is not available, or its data type is not supported.
+	 */
+	static
+	private CellReader createCellReader(NDArray array, int rows, int columns){
+		Object descr = array.getDescr();
+
+		if(descr instanceof DType){
+			DType dtype = (DType)descr;
+
+			descr = dtype.toDescr();
+		} // End if
+
+		if(!(descr instanceof String)){
+			return null;
+		}
+
+		TypeDescriptor typeDescriptor = new TypeDescriptor((String)descr);
+
+		TypeDescriptor.Kind kind = typeDescriptor.getKind();
+		switch(kind){
+			case BOOLEAN:
+			case INTEGER:
+			case UNSIGNED_INTEGER:
+			case FLOAT:
+				break;
+			default:
+				return null;
+		}
+
+		ChunkedByteBuffer buffer;
+
+		if(array instanceof MappedNDArray){
+			MappedNDArray mappedArray = (MappedNDArray)array;
+
+			buffer = mappedArray.getBuffer();
+		} else
+
+		{
+			Object data = array.getData();
+
+			if(!(data instanceof byte[])){
+				return null;
+			}
+
+			buffer = ChunkedByteBuffer.wrap((byte[])data);
+		}
+
+		int itemSize = typeDescriptor.getSize();
+
+		if(buffer.size() != ((long)rows * columns * itemSize)){
+			return null;
+		}
+
+		Boolean fortranOrder = array.getFortranOrder();
+
+		return new CellReader(typeDescriptor, buffer, rows, columns, (fortranOrder != null && fortranOrder));
+	}
+
+	static
+	private class CellReader {
+
+		private TypeDescriptor typeDescriptor = null;
+
+		private ChunkedByteBuffer buffer = null;
+
+		private long position = 0L;
+
+		private int itemSize = 0;
+
+		private int rows = 0;
+
+		private int columns = 0;
+
+		private boolean fortranOrder = false;
+
+		private InputStream is = null;
+
+
+		private CellReader(TypeDescriptor typeDescriptor, ChunkedByteBuffer buffer, int rows, int columns, boolean fortranOrder){
+			this.typeDescriptor = typeDescriptor;
+			this.buffer = buffer;
+			this.itemSize = typeDescriptor.getSize();
+			this.rows = rows;
+			this.columns = columns;
+			this.fortranOrder = fortranOrder;
+
+			// Absolute reads only, because the buffer may be shared
+			this.is = new InputStream(){
+
+				@Override
+				public int read(){
+
+					if(CellReader.this.position >= buffer.size()){
+						return -1;
+					}
+
+					return (buffer.get(CellReader.this.position++) & 0xFF);
+				}
+			};
+		}
+
+		public Object read(int row, int column){
+			long index = (this.fortranOrder ? ((long)column * this.rows + row) : ((long)row * this.columns + column));
+
+			this.position = (index * this.itemSize);
+
+			try {
+				return this.typeDescriptor.read(this.is);
+			} catch(IOException ioe){
+				throw new UncheckedIOException(ioe);
+			}
+		}
+	}
+
+	public static final String SAMPLING_STRATIFIED = "stratified";
+	public static final String SAMPLING_SYSTEMATIC = "systematic";
+}
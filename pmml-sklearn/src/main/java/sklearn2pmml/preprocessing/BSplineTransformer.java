@@ -35,6 +35,7 @@ import org.dmg.pmml.ParameterField;
 import org.jpmml.converter.ContinuousFeature;
 import org.jpmml.converter.ExpressionUtil;
 import org.jpmml.converter.Feature;
+import org.jpmml.converter.FieldNameUtil;
 import org.jpmml.python.ClassDictUtil;
 import org.jpmml.sklearn.SkLearnEncoder;
 import scipy.interpolate.BSpline;
@@ -56,11 +57,19 @@ public class BSplineTransformer extends Transformer {
 
 		ContinuousFeature continuousFeature = feature.toContinuousFeature();
 
-		DefineFunction defineFunction = createBSplineFunction(bspline, encoder);
+		Expression expression;
+
+		if(encoder.isPiecewiseSplines()){
+			expression = createPiecewiseExpression(bspline, continuousFeature, encoder);
+		} else
 
-		Apply apply = ExpressionUtil.createApply(defineFunction, continuousFeature.ref());
+		{
+			DefineFunction defineFunction = createBSplineFunction(bspline, encoder);
+
+			expression = ExpressionUtil.createApply(defineFunction, continuousFeature.ref());
+		}
 
-		DerivedField derivedField = encoder.createDerivedField(createFieldName("bspline", continuousFeature), apply);
+		DerivedField derivedField = encoder.createDerivedField(createFieldName("bspline", continuousFeature), expression);
 
 		return Collections.singletonList(new ContinuousFeature(encoder, derivedField));
 	}
@@ -180,6 +189,195 @@ public class BSplineTransformer extends Transformer {
 		return defineFunction;
 	}
 
+	/**
+	 * <p>
+	 * Encodes a B-spline as a piecewise polynomial.
+	 * </p>
+	 *
+	 * <p>
+	 * The knot interval is located using a balanced tree of <code>if</code> expressions.
+	 * The polynomial of each knot interval is expanded around the left knot, and evaluated in Horner form.
+	 * Similar to SciPy, values outside of the base interval <code>[t[k], t[n]]</code> are extrapolated from the first or last polynomial,
+	 * or mapped to missing values if extrapolation is disabled.
+	 * </p>
+	 */
+	static
+	private Expression createPiecewiseExpression(BSpline bspline, ContinuousFeature feature, SkLearnEncoder encoder){
+		Boolean extrapolate = bspline.getExtrapolate();
+		int k = bspline.getK();
+
+		List<Number> c = bspline.getC();
+		List<Number> t = bspline.getT();
+
+		int n = (t.size() - k - 1);
+
+		if(n <= k){
+			throw new IllegalArgumentException("Expected more than " + k + " coefficients, got " + n + " coefficients");
+		}
+
+		List<Integer> intervals = new ArrayList<>();
+
+		for(int l = k; l < n; l++){
+
+			if((t.get(l)).doubleValue() < (t.get(l + 1)).doubleValue()){
+				intervals.add(l);
+			}
+		}
+
+		if(intervals.isEmpty()){
+			throw new IllegalArgumentException("Expected a non-empty base interval");
+		}
+
+		Expression expression = createIntervalExpression(t, c, k, intervals, 0, intervals.size() - 1, feature, encoder);
+
+		if(extrapolate != null && !extrapolate){
+			expression = ExpressionUtil.createApply(PMMLFunctions.IF,
+				ExpressionUtil.createApply(PMMLFunctions.AND,
+					ExpressionUtil.createApply(PMMLFunctions.GREATEROREQUAL, feature.ref(), ExpressionUtil.createConstant(t.get(k))),
+					ExpressionUtil.createApply(PMMLFunctions.LESSOREQUAL, feature.ref(), ExpressionUtil.createConstant(t.get(n)))
+				),
+				expression
+			);
+		}
+
+		return expression;
+	}
+
+	static
+	private Expression createIntervalExpression(List<Number> t, List<Number> c, int k, List<Integer> intervals, int begin, int end, ContinuousFeature feature, SkLearnEncoder encoder){
+
+		if(begin == end){
+			int l = intervals.get(begin);
+
+			return createHornerExpression(t.get(l), computeCoefficients(t, c, k, l), feature, encoder);
+		}
+
+		int middle = (begin + end + 1) / 2;
+
+		return ExpressionUtil.createApply(PMMLFunctions.IF,
+			ExpressionUtil.createApply(PMMLFunctions.LESSTHAN, feature.ref(), ExpressionUtil.createConstant(t.get(intervals.get(middle)))),
+			createIntervalExpression(t, c, k, intervals, begin, middle - 1, feature, encoder),
+			createIntervalExpression(t, c, k, intervals, middle, end, feature, encoder)
+		);
+	}
+
+	/**
+	 * <p>
+	 * Encodes the polynomial <code>a[0] + a[1] * u + .. + a[k] * u^k</code>, where <code>u = x - origin</code>.
+	 * </p>
+	 *
+	 * <p>
+	 * The value of <code>u</code> is computed once, in a separate derived field, which all Horner steps refer to.
+	 * </p>
+	 */
+	static
+	private Expression createHornerExpression(Number origin, double[] a, ContinuousFeature feature, SkLearnEncoder encoder){
+		int degree = a.length - 1;
+
+		while(degree > 0 && a[degree] == 0d){
+			degree--;
+		}
+
+		Expression result = ExpressionUtil.createConstant(a[degree]);
+
+		if(degree == 0){
+			return result;
+		}
+
+		Feature valueFeature = feature;
+
+		if(origin.doubleValue() != 0d){
+			DerivedField derivedField = encoder.ensureDerivedField(FieldNameUtil.create("offset", feature, origin), OpType.CONTINUOUS, DataType.DOUBLE, () -> ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, feature.ref(), ExpressionUtil.createConstant(origin)));
+
+			valueFeature = new ContinuousFeature(encoder, derivedField);
+		}
+
+		for(int i = degree - 1; i >= 0; i--){
+			result = ExpressionUtil.createApply(PMMLFunctions.ADD, ExpressionUtil.createConstant(a[i]), ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, valueFeature.ref(), result));
+		}
+
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * Computes the polynomial of the <code>l</code>-th knot interval, in powers of <code>u = x - t[l]</code>.
+	 * </p>
+	 *
+	 * <p>
+	 * The Cox-de Boor recursion is carried out over polynomial coefficients.
+	 * Only the <code>k + 1</code> basis functions that are non-zero on the knot interval are considered.
+	 * </p>
+	 *
+	 * @return The coefficients of the polynomial, in the order of increasing powers.
+	 */
+	static
+	private double[] computeCoefficients(List<Number> t, List<Number> c, int k, int l){
+		double origin = (t.get(l)).doubleValue();
+
+		// The basis function B(l - j + m, j) is stored at index m
+		double[][] bases = new double[1][];
+		bases[0] = new double[]{1d};
+
+		for(int j = 1; j <= k; j++){
+			double[][] nextBases = new double[j + 1][];
+
+			for(int m = 0; m <= j; m++){
+				int i = (l - j + m);
+
+				double[] basis = new double[j + 1];
+
+				// (x - t[i]) / (t[i + j] - t[i]) * B(i, j - 1)
+				if(m > 0){
+					double[] prevBasis = bases[m - 1];
+
+					double denominator = (t.get(i + j)).doubleValue() - (t.get(i)).doubleValue();
+					if(denominator != 0d){
+						double offset = (origin - (t.get(i)).doubleValue());
+
+						for(int p = 0; p < prevBasis.length; p++){
+							basis[p] += (offset * prevBasis[p]) / denominator;
+							basis[p + 1] += prevBasis[p] / denominator;
+						}
+					}
+				} // End if
+
+				// (t[i + j + 1] - x) / (t[i + j + 1] - t[i + 1]) * B(i + 1, j - 1)
+				if(m < j){
+					double[] prevBasis = bases[m];
+
+					double denominator = (t.get(i + j + 1)).doubleValue() - (t.get(i + 1)).doubleValue();
+					if(denominator != 0d){
+						double offset = ((t.get(i + j + 1)).doubleValue() - origin);
+
+						for(int p = 0; p < prevBasis.length; p++){
+							basis[p] += (offset * prevBasis[p]) / denominator;
+							basis[p + 1] -= prevBasis[p] / denominator;
+						}
+					}
+				}
+
+				nextBases[m] = basis;
+			}
+
+			bases = nextBases;
+		}
+
+		double[] result = new double[k + 1];
+
+		for(int m = 0; m <= k; m++){
+			double coefficient = (c.get(l - k + m)).doubleValue();
+
+			double[] basis = bases[m];
+
+			for(int p = 0; p <= k; p++){
+				result[p] += coefficient * basis[p];
+			}
+		}
+
+		return result;
+	}
+
 	static
 	private String formatBSplineFunction(int k){
 		return "scipy.interpolate.BSpline(" + k + ")";
@@ -20,10 +20,18 @@ package sklearn2pmml.util;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.FieldRef;
+import org.jpmml.python.AbstractTranslator;
 import org.jpmml.python.ExpressionTranslator;
+import org.jpmml.python.FunctionDef;
+import org.jpmml.python.FunctionDefParser;
+import org.jpmml.python.ParseException;
 import org.jpmml.python.PredicateTranslator;
 import org.jpmml.python.Scope;
 
@@ -60,9 +68,7 @@ public class EvaluatableUtil {
 	public org.dmg.pmml.Expression translateExpression(String expr, List<String> functionDefs, Scope scope){
 		ExpressionTranslator expressionTranslator = new ExpressionTranslator(scope);
 
-		for(String functionDef : functionDefs){
-			expressionTranslator.addFunctionDef(functionDef);
-		}
+		addFunctionDefs(expressionTranslator, functionDefs);
 
 		if(expr.indexOf('\n') > -1){
 			DerivedField derivedField = expressionTranslator.translateDef(expr);
@@ -89,10 +95,75 @@ public class EvaluatableUtil {
 	public org.dmg.pmml.Predicate translatePredicate(String expr, List<String> functionDefs, Scope scope){
 		PredicateTranslator predicateTranslator = new PredicateTranslator(scope);
 
+		addFunctionDefs(predicateTranslator, functionDefs);
+
+		return predicateTranslator.translatePredicate(expr);
+	}
+
+	/**
+	 * <p>
+	 * Parses a Python function definition.
+	 * </p>
+	 *
+	 * <p>
+	 * Parsed function definitions are cached, and shared between all translators in the JVM.
+	 * The cache is bounded, and evicts the least recently used entries first.
+	 * </p>
+	 *
+	 * <p>
+	 * Function definitions are mutable.
+	 * Every call returns a fresh copy of the cached function definition, so that changes made by the caller do not leak into the cache.
+	 * </p>
+	 *
+	 * @see #getFunctionDefCacheStats()
+	 */
+	static
+	public FunctionDef parseFunctionDef(String string){
+		FunctionDef result = EvaluatableUtil.functionDefCache.getIfPresent(string);
+
+		if(result == null){
+			FunctionDefParser functionDefParser = new FunctionDefParser();
+
+			try {
+				result = functionDefParser.parseFunctionDef(string);
+			} catch(ParseException pe){
+				throw new IllegalArgumentException("Python function definition \'" + AbstractTranslator.toSingleLine(string) + "\' is either invalid or not supported", pe);
+			}
+
+			EvaluatableUtil.functionDefCache.put(string, result);
+		}
+
+		return copy(result);
+	}
+
+	static
+	public CacheStats getFunctionDefCacheStats(){
+		return EvaluatableUtil.functionDefCache.stats();
+	}
+
+	static
+	private void addFunctionDefs(AbstractTranslator translator, List<String> functionDefs){
+		Map<String, FunctionDef> translatorFunctionDefs = translator.getFunctionDefs();
+
 		for(String functionDef : functionDefs){
-			predicateTranslator.addFunctionDef(functionDef);
+			FunctionDef parsedFunctionDef = parseFunctionDef(functionDef);
+
+			translatorFunctionDefs.put(parsedFunctionDef.getName(), parsedFunctionDef);
 		}
+	}
 
-		return predicateTranslator.translatePredicate(expr);
+	static
+	private FunctionDef copy(FunctionDef functionDef){
+		FunctionDef result = new FunctionDef(functionDef.getString());
+		result.setName(functionDef.getName());
+
+		(result.getParameters()).addAll(functionDef.getParameters());
+
+		return result;
 	}
-}
\ No newline at end of file
+
+	private static final Cache<String, FunctionDef> functionDefCache = CacheBuilder.newBuilder()
+		.maximumSize(1024)
+		.recordStats()
+		.build();
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ChunkedByteBufferTest {
+
+	@Test
+	public void get(){
+		byte[] data = new byte[29];
+
+		for(int i = 0; i < data.length; i++){
+			data[i] = (byte)(0x81 + 7 * i);
+		}
+
+		// Three 8-byte chunks, plus a 5-byte chunk
+		ChunkedByteBuffer buffer = split(data, 3);
+
+		assertEquals(data.length, buffer.size());
+
+		for(ByteOrder byteOrder : Arrays.asList(ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN)){
+			ByteBuffer expectedBuffer = ByteBuffer.wrap(data)
+				.order(byteOrder);
+
+			ChunkedByteBuffer orderedBuffer = buffer.order(byteOrder);
+
+			assertEquals(byteOrder, orderedBuffer.order());
+
+			for(int i = 0; i < data.length; i++){
+				assertEquals(expectedBuffer.get(i), orderedBuffer.get(i));
+
+				if(i + 2 <= data.length){
+					assertEquals(expectedBuffer.getShort(i), orderedBuffer.getShort(i));
+				} // End if
+
+				if(i + 4 <= data.length){
+					assertEquals(expectedBuffer.getInt(i), orderedBuffer.getInt(i));
+					assertEquals(Float.floatToRawIntBits(expectedBuffer.getFloat(i)), Float.floatToRawIntBits(orderedBuffer.getFloat(i)));
+				} // End if
+
+				if(i + 8 <= data.length){
+					assertEquals(expectedBuffer.getLong(i), orderedBuffer.getLong(i));
+					assertEquals(Double.doubleToRawLongBits(expectedBuffer.getDouble(i)), Double.doubleToRawLongBits(orderedBuffer.getDouble(i)));
+				}
+			}
+		}
+
+		// The original view is not affected by ordered views
+		assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+
+		byte[] range = new byte[20];
+
+		buffer.get(6L, range, 0, range.length);
+
+		assertArrayEquals(Arrays.copyOfRange(data, 6, 6 + range.length), range);
+
+		try {
+			buffer.getLong(data.length - 4);
+
+			fail();
+		} catch(IndexOutOfBoundsException ioobe){
+			// Ignored
+		}
+
+		try {
+			buffer.get(data.length);
+
+			fail();
+		} catch(IndexOutOfBoundsException ioobe){
+			// Ignored
+		}
+	}
+
+	@Test
+	public void getInputStream() throws IOException {
+		byte[] data = new byte[29];
+
+		for(int i = 0; i < data.length; i++){
+			data[i] = (byte)(0x81 + 7 * i);
+		}
+
+		ChunkedByteBuffer buffer = split(data, 3);
+
+		try(InputStream is = buffer.getInputStream()){
+			assertEquals(data[0] & 0xFF, is.read());
+
+			// Spans three chunks
+			byte[] range = new byte[20];
+
+			assertEquals(range.length, is.read(range, 0, range.length));
+			assertArrayEquals(Arrays.copyOfRange(data, 1, 1 + range.length), range);
+
+			assertEquals(data.length - 1 - range.length, is.available());
+
+			assertEquals(data.length - 1 - range.length, is.read(range, 0, range.length));
+			assertArrayEquals(Arrays.copyOfRange(data, 1 + range.length, data.length), Arrays.copyOfRange(range, 0, data.length - 1 - range.length));
+
+			assertEquals(-1, is.read());
+			assertEquals(-1, is.read(range, 0, range.length));
+		}
+	}
+
+	@Test
+	public void create(){
+		ByteBuffer[] chunks = {ByteBuffer.allocate(4), ByteBuffer.allocate(2), ByteBuffer.allocate(4)};
+
+		try {
+			new ChunkedByteBuffer(chunks, 2, 10);
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+
+		chunks = new ByteBuffer[]{ByteBuffer.allocate(4), ByteBuffer.allocate(2)};
+
+		try {
+			new ChunkedByteBuffer(chunks, 2, 8);
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+
+		ChunkedByteBuffer buffer = new ChunkedByteBuffer(chunks, 2, 6);
+
+		assertEquals(6L, buffer.size());
+
+		buffer = new ChunkedByteBuffer(new ByteBuffer[0], 2, 0);
+
+		assertEquals(0L, buffer.size());
+	}
+
+	static
+	private ChunkedByteBuffer split(byte[] data, int chunkShift){
+		int chunkSize = (1 << chunkShift);
+
+		ByteBuffer[] chunks = new ByteBuffer[(data.length + (chunkSize - 1)) / chunkSize];
+
+		for(int i = 0; i < chunks.length; i++){
+			int offset = (i * chunkSize);
+
+			chunks[i] = ByteBuffer.wrap(Arrays.copyOfRange(data, offset, Math.min(offset + chunkSize, data.length)));
+		}
+
+		return new ChunkedByteBuffer(chunks, chunkShift, data.length);
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dmg.pmml.Apply;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.Expression;
+import org.dmg.pmml.FieldRef;
+import org.dmg.pmml.MiningField;
+import org.dmg.pmml.MiningFunction;
+import org.dmg.pmml.MiningSchema;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.PMMLFunctions;
+import org.dmg.pmml.regression.NumericPredictor;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.regression.RegressionTable;
+import org.jpmml.converter.ExpressionUtil;
+import org.jpmml.model.ReflectionUtil;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DerivedFieldUtilTest {
+
+	@Test
+	public void foldConstants(){
+		Expression expression = ExpressionUtil.createApply(PMMLFunctions.ADD, ExpressionUtil.createConstant(DataType.INTEGER, 2), ExpressionUtil.createConstant(DataType.INTEGER, 3));
+
+		assertTrue(ReflectionUtil.equals(ExpressionUtil.createConstant(DataType.INTEGER, 5), DerivedFieldUtil.foldConstants(expression)));
+
+		expression = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, ExpressionUtil.createConstant(DataType.INTEGER, 3), ExpressionUtil.createConstant(DataType.INTEGER, 2));
+
+		assertTrue(ReflectionUtil.equals(ExpressionUtil.createConstant(DataType.DOUBLE, 1.5d), DerivedFieldUtil.foldConstants(expression)));
+
+		expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, new FieldRef("x"), ExpressionUtil.createApply(PMMLFunctions.SUBTRACT, ExpressionUtil.createConstant(DataType.DOUBLE, 4d), ExpressionUtil.createConstant(DataType.INTEGER, 1)));
+
+		Expression foldedExpression = DerivedFieldUtil.foldConstants(expression);
+
+		assertSame(expression, foldedExpression);
+		assertTrue(ReflectionUtil.equals(ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, new FieldRef("x"), ExpressionUtil.createConstant(DataType.DOUBLE, 3d)), foldedExpression));
+
+		// Division by zero
+		expression = ExpressionUtil.createApply(PMMLFunctions.DIVIDE, ExpressionUtil.createConstant(DataType.DOUBLE, 1d), ExpressionUtil.createConstant(DataType.DOUBLE, 0d));
+
+		assertSame(expression, DerivedFieldUtil.foldConstants(expression));
+
+		// Float arithmetic
+		expression = ExpressionUtil.createApply(PMMLFunctions.ADD, ExpressionUtil.createConstant(DataType.FLOAT, 1f), ExpressionUtil.createConstant(DataType.FLOAT, 2f));
+
+		assertSame(expression, DerivedFieldUtil.foldConstants(expression));
+
+		// Integer overflow
+		expression = ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, ExpressionUtil.createConstant(DataType.INTEGER, Integer.MAX_VALUE), ExpressionUtil.createConstant(DataType.INTEGER, 2));
+
+		assertSame(expression, DerivedFieldUtil.foldConstants(expression));
+	}
+
+	@Test
+	public void optimize(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+		encoder.createDataField("x");
+
+		encoder.createDerivedField("a", OpType.CONTINUOUS, DataType.DOUBLE, createScale("x", ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, ExpressionUtil.createConstant(DataType.DOUBLE, 2d), ExpressionUtil.createConstant(DataType.DOUBLE, 3d))));
+		encoder.createDerivedField("b", OpType.CONTINUOUS, DataType.DOUBLE, createScale("x", ExpressionUtil.createConstant(DataType.DOUBLE, 6d)));
+		encoder.createDerivedField("c", OpType.CONTINUOUS, DataType.DOUBLE, createScale("b", ExpressionUtil.createConstant(DataType.DOUBLE, 0.5d)));
+		encoder.createDerivedField("d", OpType.CONTINUOUS, DataType.DOUBLE, createScale("a", ExpressionUtil.createConstant(DataType.DOUBLE, 0.5d)));
+		encoder.createDerivedField("e", OpType.CONTINUOUS, DataType.DOUBLE, createScale("a", ExpressionUtil.createConstant(DataType.DOUBLE, 0.25d)));
+
+		MiningSchema miningSchema = new MiningSchema()
+			.addMiningFields(new MiningField("c"), new MiningField("d"), new MiningField("e"));
+
+		RegressionTable regressionTable = new RegressionTable(0d)
+			.addNumericPredictors(new NumericPredictor("c", 1d), new NumericPredictor("d", 2d), new NumericPredictor("e", 3d));
+
+		RegressionModel regressionModel = new RegressionModel(MiningFunction.REGRESSION, miningSchema, null)
+			.addRegressionTables(regressionTable);
+
+		Map<String, String> mappings = DerivedFieldUtil.optimize(encoder, regressionModel);
+
+		Map<String, String> expectedMappings = new LinkedHashMap<>();
+		expectedMappings.put("b", "a");
+		expectedMappings.put("d", "c");
+
+		assertEquals(expectedMappings, mappings);
+
+		assertEquals(Arrays.asList("a", "c", "e"), new ArrayList<>((encoder.getDerivedFields()).keySet()));
+
+		assertTrue(ReflectionUtil.equals(createScale("x", ExpressionUtil.createConstant(DataType.DOUBLE, 6d)), (encoder.getDerivedField("a")).requireExpression()));
+		assertTrue(ReflectionUtil.equals(createScale("a", ExpressionUtil.createConstant(DataType.DOUBLE, 0.5d)), (encoder.getDerivedField("c")).requireExpression()));
+
+		List<String> miningFieldNames = new ArrayList<>();
+
+		for(MiningField miningField : miningSchema.getMiningFields()){
+			miningFieldNames.add(miningField.requireName());
+		}
+
+		assertEquals(Arrays.asList("c", "e"), miningFieldNames);
+
+		List<String> numericPredictorNames = new ArrayList<>();
+
+		for(NumericPredictor numericPredictor : regressionTable.getNumericPredictors()){
+			numericPredictorNames.add(numericPredictor.requireField());
+		}
+
+		assertEquals(Arrays.asList("c", "c", "e"), numericPredictorNames);
+	}
+
+	static
+	private Apply createScale(String name, Expression factor){
+		return ExpressionUtil.createApply(PMMLFunctions.MULTIPLY, new FieldRef(name), factor);
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.InflaterInputStream;
+
+import joblib.NDArrayWrapper;
+import org.dmg.pmml.PMML;
+import org.jpmml.model.metro.MetroJAXBUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedPickleUtilTest {
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+
+	@Test
+	public void unpickle() throws Exception {
+		String[] names = {"HistGradientBoostingHousing", "KNNHousing", "LogisticRegressionSentiment", "MLPIris", "RandomForestIris", "SVRHousing"};
+
+		for(String name : names){
+			File file = inflate(name);
+
+			String expectedPmml;
+
+			try(Storage storage = StorageUtil.createStorage(file)){
+				expectedPmml = encodePMML(MappedPickleUtil.unpickle(storage));
+			}
+
+			String pmml;
+
+			try(Storage storage = new MappedStorage(file)){
+				pmml = encodePMML(MappedPickleUtil.unpickle(storage));
+			}
+
+			assertEquals(name, expectedPmml, pmml);
+
+			// Map array payloads in 4 kB chunks, so that larger arrays span several chunks, and structured array records span chunk boundaries
+			try(Storage storage = new MappedStorage(file, 12)){
+				pmml = encodePMML(MappedPickleUtil.unpickle(storage));
+			}
+
+			assertEquals(name, expectedPmml, pmml);
+		}
+	}
+
+	@Test
+	public void unpickleConcurrently() throws Exception {
+		List<Integer> ids = IntStream.range(0, 256).boxed()
+			.collect(Collectors.toList());
+
+		List<Integer> result = ids.parallelStream()
+			.map(id -> {
+				try(Storage storage = new ArrayStorage(id)){
+					NDArrayWrapper arrayWrapper = (NDArrayWrapper)MappedPickleUtil.unpickle(storage);
+
+					try(InputStream is = arrayWrapper.getInputStream()){
+						return is.read();
+					}
+				} catch(IOException ioe){
+					throw new UncheckedIOException(ioe);
+				}
+			})
+			.collect(Collectors.toList());
+
+		assertEquals(ids, result);
+	}
+
+	private File inflate(String name) throws Exception {
+		File file = this.tmpFolder.newFile(name + ".pkl");
+
+		// Joblib dumps are zlib-compressed
+		try(InputStream is = new InflaterInputStream(MappedPickleUtilTest.class.getResourceAsStream("/pkl/" + name + ".pkl")); OutputStream os = new FileOutputStream(file)){
+			byte[] buffer = new byte[16 * 1024];
+
+			while(true){
+				int count = is.read(buffer);
+				if(count < 0){
+					break;
+				}
+
+				os.write(buffer, 0, count);
+			}
+		}
+
+		return file;
+	}
+
+	static
+	private String encodePMML(Object object) throws Exception {
+		Encodable encodable = EncodableUtil.toEncodable(object);
+
+		PMML pmml = encodable.encodePMML();
+
+		// Ignore the timestamp
+		pmml.getHeader().setTimestamp(null);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		MetroJAXBUtil.marshalPMML(pmml, os);
+
+		return os.toString(StandardCharsets.UTF_8.name());
+	}
+
+	/**
+	 * <p>
+	 * A storage, whose object is a legacy Joblib array wrapper that refers to a single-byte array file.
+	 * </p>
+	 */
+	static
+	private class ArrayStorage extends Storage {
+
+		private int id = 0;
+
+
+		private ArrayStorage(int id){
+			this.id = id;
+		}
+
+		@Override
+		public InputStream getObject(){
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+			// PROTO 2
+			os.write(new byte[]{(byte)0x80, 2}, 0, 2);
+
+			writeAscii(os, "cjoblib.numpy_pickle\nNDArrayWrapper\n");
+
+			// EMPTY_TUPLE, NEWOBJ, EMPTY_DICT
+			writeAscii(os, ")\u0081}");
+
+			writeUnicode(os, "filename");
+			writeUnicode(os, "array_" + this.id + ".npy");
+
+			// SETITEM, BUILD, STOP
+			writeAscii(os, "sb.");
+
+			return new ByteArrayInputStream(os.toByteArray());
+		}
+
+		@Override
+		public InputStream getArray(String path){
+			assertEquals("array_" + this.id + ".npy", path);
+
+			return new ByteArrayInputStream(new byte[]{(byte)this.id});
+		}
+
+		@Override
+		public void close(){
+		}
+
+		static
+		private void writeAscii(ByteArrayOutputStream os, String string){
+			byte[] bytes = string.getBytes(StandardCharsets.ISO_8859_1);
+
+			os.write(bytes, 0, bytes.length);
+		}
+
+		static
+		private void writeUnicode(ByteArrayOutputStream os, String string){
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+			// BINUNICODE
+			os.write('X');
+
+			for(int i = 0; i < 4; i++){
+				os.write((bytes.length >>> (8 * i)) & 0xFF);
+			}
+
+			os.write(bytes, 0, bytes.length);
+		}
+	}
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+}
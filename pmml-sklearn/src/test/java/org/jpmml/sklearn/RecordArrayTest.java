@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import numpy.core.NDArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class RecordArrayTest {
+
+	@Test
+	public void signedInteger(){
+		ByteBuffer buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3);
+		buffer.put((byte)-1).put((byte)0).put((byte)127);
+
+		checkIntArray(new int[]{-1, 0, 127}, "|i1", buffer);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3 * 2);
+		buffer.putShort((short)-1).putShort((short)0).putShort(Short.MAX_VALUE);
+
+		checkIntArray(new int[]{-1, 0, Short.MAX_VALUE}, "<i2", buffer);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3 * 4);
+		buffer.putInt(-1).putInt(0).putInt(Integer.MAX_VALUE);
+
+		checkIntArray(new int[]{-1, 0, Integer.MAX_VALUE}, "<i4", buffer);
+
+		buffer = createBuffer(ByteOrder.BIG_ENDIAN, 3 * 4);
+		buffer.putInt(-1).putInt(0).putInt(Integer.MIN_VALUE);
+
+		checkIntArray(new int[]{-1, 0, Integer.MIN_VALUE}, ">i4", buffer);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3 * 8);
+		buffer.putLong(-1L).putLong(0L).putLong(Integer.MAX_VALUE);
+
+		checkIntArray(new int[]{-1, 0, Integer.MAX_VALUE}, "<i8", buffer);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3 * 8);
+		buffer.putLong(-1L).putLong(0L).putLong(Integer.MAX_VALUE + 1L);
+
+		RecordArray recordArray = createRecordArray("<i8", 3, buffer);
+
+		checkOverflow(recordArray);
+
+		assertArrayEquals(new double[]{-1d, 0d, Integer.MAX_VALUE + 1d}, recordArray.getDoubleArray(), 0d);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 1 * 8);
+		buffer.putLong(Integer.MIN_VALUE - 1L);
+
+		checkOverflow(createRecordArray("<i8", 1, buffer));
+	}
+
+	@Test
+	public void unsignedInteger(){
+		ByteBuffer buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3);
+		buffer.put((byte)0).put((byte)127).put((byte)-1);
+
+		checkIntArray(new int[]{0, 127, 255}, "|u1", buffer);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3 * 2);
+		buffer.putShort((short)0).putShort(Short.MAX_VALUE).putShort((short)-1);
+
+		checkIntArray(new int[]{0, Short.MAX_VALUE, 65535}, "<u2", buffer);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 2 * 4);
+		buffer.putInt(0).putInt(Integer.MAX_VALUE);
+
+		checkIntArray(new int[]{0, Integer.MAX_VALUE}, "<u4", buffer);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 2 * 4);
+		buffer.putInt(0).putInt(-1);
+
+		RecordArray recordArray = createRecordArray("<u4", 2, buffer);
+
+		checkOverflow(recordArray);
+
+		assertArrayEquals(new double[]{0d, 4294967295d}, recordArray.getDoubleArray(), 0d);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 2 * 8);
+		buffer.putLong(0L).putLong(Integer.MAX_VALUE);
+
+		checkIntArray(new int[]{0, Integer.MAX_VALUE}, "<u8", buffer);
+
+		// 2^64 - 1
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 2 * 8);
+		buffer.putLong(0L).putLong(-1L);
+
+		recordArray = createRecordArray("<u8", 2, buffer);
+
+		checkOverflow(recordArray);
+
+		try {
+			recordArray.getDoubleArray();
+
+			fail();
+		} catch(ArithmeticException ae){
+			// Ignored
+		}
+	}
+
+	@Test
+	public void bitset(){
+		ByteBuffer buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 3 * 4);
+		buffer.putInt(0).putInt(0x80000001).putInt(-1);
+
+		RecordArray recordArray = createRecordArray("<u4", 3, buffer);
+
+		assertArrayEquals(new int[]{0, 0x80000001, -1}, recordArray.getBitsetArray());
+
+		checkOverflow(recordArray);
+
+		buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 1 * 8);
+		buffer.putLong(1L);
+
+		recordArray = createRecordArray("<u8", 1, buffer);
+
+		try {
+			recordArray.getBitsetArray();
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+	}
+
+	@Test
+	public void slice(){
+		ByteBuffer buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 7 * 8);
+
+		for(int i = 0; i < 7; i++){
+			buffer.putDouble(i);
+		}
+
+		RecordArray recordArray = createRecordArray("<f8", 7, buffer);
+
+		assertArrayEquals(new double[]{0d, 3d, 6d}, recordArray.getDoubleArray(0, 3), 0d);
+		assertArrayEquals(new double[]{2d, 5d}, recordArray.getDoubleArray(2, 3), 0d);
+		assertArrayEquals(new double[]{6d}, recordArray.getDoubleArray(6, 1), 0d);
+		assertArrayEquals(new double[0], recordArray.getDoubleArray(7, 1), 0d);
+
+		try {
+			recordArray.getDoubleArray(0, 0);
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+	}
+
+	@Test
+	public void structuredArray(){
+		ByteBuffer buffer = createBuffer(ByteOrder.LITTLE_ENDIAN, 2 * (1 + 8 + 4));
+		buffer.put((byte)1).putLong(Integer.MAX_VALUE + 1L).putInt(-1);
+		buffer.put((byte)0).putLong(1L).putInt(2);
+
+		Object descr = Arrays.asList(
+			new Object[]{"flag", "|b1"},
+			new Object[]{"", "|V8"},
+			new Object[]{"value", "<u4"}
+		);
+
+		RecordArray recordArray = createRecordArray(descr, 2, buffer);
+
+		assertEquals(2, recordArray.size());
+
+		assertArrayEquals(new int[]{1, 0}, recordArray.getIntArray("flag"));
+		assertArrayEquals(new double[]{4294967295d, 2d}, recordArray.getDoubleArray("value"), 0d);
+
+		try {
+			recordArray.getIntArray("value");
+
+			fail();
+		} catch(ArithmeticException ae){
+			// Ignored
+		}
+
+		assertEquals(null, recordArray.getIntArray(""));
+		assertEquals(null, recordArray.getDoubleArray("missing"));
+	}
+
+	@Test
+	public void largeShape(){
+		NDArray array = new NDArray();
+		array.__setstate__(new Object[]{1, new Object[]{65536, 65536}, "<f8", Boolean.FALSE, new byte[8]});
+
+		try {
+			RecordArray.create(array);
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+	}
+
+	static
+	private void checkIntArray(int[] expectedValues, String descr, ByteBuffer buffer){
+		RecordArray recordArray = createRecordArray(descr, expectedValues.length, buffer);
+
+		assertEquals(expectedValues.length, recordArray.size());
+
+		assertArrayEquals(expectedValues, recordArray.getIntArray());
+		assertArrayEquals(Arrays.stream(expectedValues).asDoubleStream().toArray(), recordArray.getDoubleArray(), 0d);
+	}
+
+	static
+	private void checkOverflow(RecordArray recordArray){
+
+		try {
+			recordArray.getIntArray();
+
+			fail();
+		} catch(ArithmeticException ae){
+			// Ignored
+		}
+	}
+
+	static
+	private ByteBuffer createBuffer(ByteOrder byteOrder, int capacity){
+		return ByteBuffer.allocate(capacity)
+			.order(byteOrder);
+	}
+
+	static
+	private RecordArray createRecordArray(Object descr, int size, ByteBuffer buffer){
+		NDArray array = new NDArray();
+		array.__setstate__(new Object[]{1, new Object[]{size}, descr, Boolean.FALSE, buffer.array()});
+
+		return RecordArray.create(array);
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dmg.pmml.PMML;
+import org.jpmml.model.metro.MetroJAXBUtil;
+import org.jpmml.python.PickleUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.junit.Test;
+import sklearn.Estimator;
+import sklearn.HasEstimatorEnsemble;
+import sklearn2pmml.pipeline.PMMLPipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReleaseContentTest {
+
+	@Test
+	public void encode() throws Exception {
+		String[] names = {"HistGradientBoostingHousing", "KNNHousing", "MLPHousing", "RandomForestIrisNA", "SVCAudit"};
+
+		for(String name : names){
+			PMMLPipeline expectedPipeline = unpickle(name);
+
+			String expectedPmml = encodePMML(expectedPipeline);
+
+			PMMLPipeline pipeline = unpickle(name);
+
+			Estimator estimator = pipeline.getFinalEstimator();
+
+			Map<String, Object> pmmlOptions = new LinkedHashMap<>();
+
+			Map<String, ?> prevPmmlOptions = estimator.getPMMLOptions();
+			if(prevPmmlOptions != null){
+				pmmlOptions.putAll(prevPmmlOptions);
+			}
+
+			pmmlOptions.put(HasSkLearnOptions.OPTION_RELEASE_CONTENT, Boolean.TRUE);
+
+			estimator.setPMMLOptions(pmmlOptions);
+
+			String pmml = encodePMML(pipeline);
+
+			assertEquals(name, expectedPmml, pmml);
+		}
+	}
+
+	@Test
+	public void encodeKNN() throws Exception {
+		PMMLPipeline pipeline = unpickle("KNNHousing");
+
+		Estimator estimator = pipeline.getFinalEstimator();
+
+		estimator.putOption(HasSkLearnOptions.OPTION_RELEASE_CONTENT, Boolean.TRUE);
+
+		encodePMML(pipeline);
+
+		assertFalse(estimator.containsKey("_fit_X"));
+		assertFalse(estimator.containsKey("_y"));
+
+		assertTrue(estimator.containsKey("n_neighbors"));
+	}
+
+	@Test
+	public void encodeTreeEnsemble() throws Exception {
+		String[] names = {"GradientBoostingAuto", "IsolationForestHousing", "RandomForestIrisNA"};
+
+		for(String name : names){
+			PMMLPipeline pipeline = unpickle(name);
+
+			Estimator estimator = pipeline.getFinalEstimator();
+
+			estimator.putOption(HasSkLearnOptions.OPTION_RELEASE_CONTENT, Boolean.TRUE);
+
+			HasEstimatorEnsemble<?> hasEstimatorEnsemble = (HasEstimatorEnsemble<?>)estimator;
+
+			List<? extends Estimator> estimators = hasEstimatorEnsemble.getEstimators();
+
+			encodePMML(pipeline);
+
+			for(Estimator treeEstimator : estimators){
+				assertFalse(name, treeEstimator.containsKey("tree_"));
+			}
+		}
+	}
+
+	static
+	private PMMLPipeline unpickle(String name) throws Exception {
+
+		try(InputStream is = ReleaseContentTest.class.getResourceAsStream("/pkl/" + name + ".pkl"); Storage storage = StorageUtil.createStorage(is)){
+			return (PMMLPipeline)PickleUtil.unpickle(storage);
+		}
+	}
+
+	static
+	private String encodePMML(PMMLPipeline pipeline) throws Exception {
+		PMML pmml = pipeline.encodePMML();
+
+		// Ignore the timestamp
+		pmml.getHeader().setTimestamp(null);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		MetroJAXBUtil.marshalPMML(pmml, os);
+
+		return os.toString(StandardCharsets.UTF_8.name());
+	}
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+}
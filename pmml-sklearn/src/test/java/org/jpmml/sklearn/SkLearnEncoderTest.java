@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.jpmml.sklearn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import numpy.core.NDArrayUtil;
+import org.dmg.pmml.DerivedField;
+import org.dmg.pmml.Field;
+import org.dmg.pmml.MiningFunction;
+import org.dmg.pmml.MiningSchema;
+import org.dmg.pmml.regression.RegressionModel;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.FieldNameUtil;
+import org.jpmml.converter.regression.RegressionModelUtil;
+import org.junit.Test;
+import sklearn.compose.ColumnTransformer;
+import sklearn.preprocessing.StandardScaler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SkLearnEncoderTest {
+
+	@Test
+	public void materializeFeatures(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+		encoder.setLazyFeatures(true);
+
+		List<Feature> features = new ArrayList<>();
+
+		for(int i = 0; i < 3; i++){
+			features.add(new ContinuousFeature(encoder, encoder.createDataField("x" + (i + 1))));
+		}
+
+		StandardScaler columnScaler = new StandardScaler("sklearn.preprocessing._data", "StandardScaler");
+		columnScaler.put("with_mean", Boolean.TRUE);
+		columnScaler.put("with_std", Boolean.FALSE);
+		columnScaler.put("mean_", NDArrayUtil.toArray(Arrays.asList(1d, 2d, 3d)));
+
+		ColumnTransformer columnTransformer = new ColumnTransformer("sklearn.compose._column_transformer", "ColumnTransformer");
+		columnTransformer.put("transformers_", Collections.singletonList(new Object[]{"scaler", columnScaler, Arrays.asList(0, 1, 2)}));
+
+		features = columnTransformer.encodeFeatures(features, encoder);
+
+		StandardScaler scaler = new StandardScaler("sklearn.preprocessing._data", "StandardScaler");
+		scaler.put("with_mean", Boolean.FALSE);
+		scaler.put("with_std", Boolean.TRUE);
+		scaler.put("scale_", NDArrayUtil.toArray(Arrays.asList(2d, 2d, 2d)));
+
+		features = scaler.encodeFeatures(features, encoder);
+
+		assertEquals(3, features.size());
+		assertTrue((encoder.getDerivedFields()).isEmpty());
+
+		Feature feature = features.get(1);
+
+		RegressionModel regressionModel = new RegressionModel(MiningFunction.REGRESSION, new MiningSchema(), null)
+			.addRegressionTables(RegressionModelUtil.createRegressionTable(Collections.singletonList(feature), Collections.singletonList(1.5d), null));
+
+		encoder.materializeFeatures(regressionModel);
+
+		assertEquals(Arrays.asList(FieldNameUtil.create("standardScaler", "x2"), feature.getName()), new ArrayList<>((encoder.getDerivedFields()).keySet()));
+
+		// Discarded
+		encoder.materializeFeatures(regressionModel);
+
+		assertEquals(2, (encoder.getDerivedFields()).size());
+	}
+
+	@Test
+	public void getField(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+		encoder.setLazyFeatures(true);
+
+		Feature feature = new ContinuousFeature(encoder, encoder.createDataField("x"));
+
+		StandardScaler scaler = new StandardScaler("sklearn.preprocessing._data", "StandardScaler");
+		scaler.put("with_mean", Boolean.FALSE);
+		scaler.put("with_std", Boolean.TRUE);
+		scaler.put("scale_", NDArrayUtil.toArray(Arrays.asList(2d)));
+
+		List<Feature> features = scaler.encodeFeatures(Collections.singletonList(feature), encoder);
+
+		feature = features.get(0);
+
+		Field<?> field = feature.getField();
+
+		assertTrue(field instanceof DerivedField);
+		assertSame(field, encoder.getField(feature.getName()));
+		assertTrue((encoder.getDerivedFields()).isEmpty());
+
+		feature.ref();
+
+		assertSame(field, encoder.getDerivedField(feature.getName()));
+	}
+}
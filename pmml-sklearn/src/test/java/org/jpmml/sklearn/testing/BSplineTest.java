@@ -18,13 +18,19 @@
  */
 package org.jpmml.sklearn.testing;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import com.google.common.base.Equivalence;
 import org.jpmml.converter.FieldNameUtil;
+import org.jpmml.converter.testing.OptionsUtil;
 import org.jpmml.evaluator.EvaluatorBuilder;
 import org.jpmml.evaluator.ModelEvaluatorBuilder;
+import org.jpmml.evaluator.OutputField;
 import org.jpmml.evaluator.ResultField;
+import org.jpmml.sklearn.HasSkLearnOptions;
 import org.junit.Test;
 import sklearn.Estimator;
 
@@ -32,6 +38,9 @@ public class BSplineTest extends SkLearnEncoderBatchTest {
 
 	@Override
 	public SkLearnEncoderBatch createBatch(String algorithm, String dataset, Predicate<ResultField> columnFilter, Equivalence<Object> equivalence){
+		// The piecewise polynomial encoding introduces intermediate (ie. non-final) output fields
+		columnFilter = columnFilter.and(resultField -> !(resultField instanceof OutputField) || ((OutputField)resultField).isFinalResult());
+
 		SkLearnEncoderBatch result = new SkLearnEncoderBatch(algorithm, dataset, columnFilter, equivalence){
 
 			@Override
@@ -39,6 +48,14 @@ public class BSplineTest extends SkLearnEncoderBatchTest {
 				return BSplineTest.this;
 			}
 
+			@Override
+			public List<Map<String, Object>> getOptionsMatrix(){
+				Map<String, Object> options = new LinkedHashMap<>();
+				options.put(HasSkLearnOptions.OPTION_PIECEWISE_SPLINES, new Boolean[]{false, true});
+
+				return OptionsUtil.generateOptionsMatrix(options);
+			}
+
 			@Override
 			public EvaluatorBuilder getEvaluatorBuilder() throws Exception {
 				ModelEvaluatorBuilder evaluatorBuilder = (ModelEvaluatorBuilder)super.getEvaluatorBuilder();
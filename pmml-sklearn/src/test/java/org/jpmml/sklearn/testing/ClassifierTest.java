@@ -52,6 +52,24 @@ public class ClassifierTest extends ValidatingSkLearnEncoderBatchTest implements
 				String algorithm = getAlgorithm();
 				String dataset = getDataset();
 
+				if((AUDIT).equals(dataset)){
+
+					if((EXTRA_TREES).equals(algorithm) || (RANDOM_FOREST).equals(algorithm)){
+						Map<String, Object> options = new LinkedHashMap<>();
+						options.put(HasTreeOptions.OPTION_PARALLEL, new Boolean[]{false, true});
+						options.put(HasTreeOptions.OPTION_STREAMING, new Boolean[]{false, true});
+
+						return OptionsUtil.generateOptionsMatrix(options);
+					} else
+
+					if((HIST_GRADIENT_BOOSTING).equals(algorithm)){
+						Map<String, Object> options = new LinkedHashMap<>();
+						options.put(HasTreeOptions.OPTION_STREAMING, new Boolean[]{false, true});
+
+						return OptionsUtil.generateOptionsMatrix(options);
+					}
+				} // End if
+
 				if((AUDIT_NA).equals(dataset) || (IRIS_NA).equals(dataset)){
 
 					if((RANDOM_FOREST).equals(algorithm)){
@@ -50,6 +50,16 @@ public class RegressorTest extends ValidatingSkLearnEncoderBatchTest implements
 				String algorithm = getAlgorithm();
 				String dataset = getDataset();
 
+				if((AUTO).equals(dataset)){
+
+					if((GRADIENT_BOOSTING).equals(algorithm) || (RANDOM_FOREST).equals(algorithm)){
+						Map<String, Object> options = new LinkedHashMap<>();
+						options.put(HasTreeOptions.OPTION_STREAMING, new Boolean[]{false, true});
+
+						return OptionsUtil.generateOptionsMatrix(options);
+					}
+				} // End if
+
 				if((AUTO_NA).equals(dataset)){
 
 					if((RANDOM_FOREST).equals(algorithm)){
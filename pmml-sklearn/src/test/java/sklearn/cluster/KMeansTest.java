@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.cluster;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import numpy.core.NDArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class KMeansTest {
+
+	@Test
+	public void getClusterSizes(){
+		KMeans kmeans = new KMeans("sklearn.cluster._kmeans", "KMeans");
+		kmeans.put("labels_", createArray(new Object[]{5}, "<i4", toBytes(0, 2, 2, 1, 2)));
+
+		assertArrayEquals(new int[]{1, 1, 3}, kmeans.getClusterSizes(3));
+
+		kmeans.put("labels_", createArray(new Object[]{5}, "<i8", toBytes(0L, 2L, 2L, 1L, 2L)));
+
+		assertArrayEquals(new int[]{1, 1, 3, 0}, kmeans.getClusterSizes(4));
+
+		try {
+			kmeans.getClusterSizes(2);
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+
+		// Labels in the boxed representation
+		kmeans.put("labels_", createArray(new Object[]{5}, "<i4", Arrays.asList(0, 2, 2, 1, 2)));
+
+		assertArrayEquals(new int[]{1, 1, 3}, kmeans.getClusterSizes(3));
+
+		kmeans.putOption(HasKMeansOptions.OPTION_COUNT_LABELS, Boolean.FALSE);
+
+		assertNull(kmeans.getClusterSizes(3));
+	}
+
+	@Test
+	public void getMiniBatchClusterSizes(){
+		MiniBatchKMeans kmeans = new MiniBatchKMeans("sklearn.cluster._kmeans", "MiniBatchKMeans");
+		kmeans.put("_counts", createArray(new Object[]{3}, "<f8", toBytes(10.2d, 5d, 0d)));
+
+		// The labels array is absent, which is the case when compute_labels=False
+		assertNull(kmeans.getClusterSizes(3));
+
+		kmeans.putOption(HasKMeansOptions.OPTION_COUNT_LABELS, Boolean.FALSE);
+
+		assertArrayEquals(new int[]{10, 5, 0}, kmeans.getClusterSizes(3));
+
+		kmeans.put("labels_", createArray(new Object[]{3}, "<i4", toBytes(0, 1, 1)));
+
+		// The labels array is ignored
+		assertArrayEquals(new int[]{10, 5, 0}, kmeans.getClusterSizes(3));
+
+		kmeans.put("_counts", createArray(new Object[]{3}, "<f8", toBytes(1d, (double)Integer.MAX_VALUE + 1d, 0d)));
+
+		try {
+			kmeans.getClusterSizes(3);
+
+			fail();
+		} catch(ArithmeticException ae){
+			// Ignored
+		}
+	}
+
+	static
+	private byte[] toBytes(int... values){
+		ByteBuffer result = ByteBuffer.allocate(values.length * 4)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(int value : values){
+			result.putInt(value);
+		}
+
+		return result.array();
+	}
+
+	static
+	private byte[] toBytes(long... values){
+		ByteBuffer result = ByteBuffer.allocate(values.length * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(long value : values){
+			result.putLong(value);
+		}
+
+		return result.array();
+	}
+
+	static
+	private byte[] toBytes(double... values){
+		ByteBuffer result = ByteBuffer.allocate(values.length * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(double value : values){
+			result.putDouble(value);
+		}
+
+		return result.array();
+	}
+
+	static
+	private NDArray createArray(Object[] shape, Object descr, Object data){
+		NDArray result = new NDArray();
+		result.__setstate__(new Object[]{1, shape, descr, Boolean.FALSE, data});
+
+		return result;
+	}
+}
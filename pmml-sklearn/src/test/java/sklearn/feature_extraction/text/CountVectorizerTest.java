@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.feature_extraction.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Iterables;
+import org.dmg.pmml.Apply;
+import org.dmg.pmml.Constant;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.DerivedField;
+import org.dmg.pmml.Model;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.TransformationDictionary;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.regression.RegressionTable;
+import org.jpmml.converter.ContinuousLabel;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.Schema;
+import org.jpmml.converter.StringFeature;
+import org.jpmml.python.TypeInfo;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.junit.Test;
+import sklearn.linear_model.LinearModelUtil;
+
+import static org.junit.Assert.assertEquals;
+
+public class CountVectorizerTest {
+
+	@Test
+	public void encodeSparse(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		Feature documentFeature = new StringFeature(encoder, encoder.createDataField("document", OpType.CATEGORICAL, DataType.STRING));
+
+		List<Feature> features = createCountVectorizer(1000).encodeFeatures(Collections.singletonList(documentFeature), encoder);
+
+		assertEquals(1000, features.size());
+
+		List<Double> coefficients = new ArrayList<>(Collections.nCopies(features.size(), 0d));
+		coefficients.set(1, 1d);
+		coefficients.set(500, -2d);
+		coefficients.set(999, 0.5d);
+
+		ContinuousLabel label = new ContinuousLabel(encoder.createDataField("y", OpType.CONTINUOUS, DataType.DOUBLE));
+
+		Schema schema = new Schema(encoder, label, features);
+
+		Model model = LinearModelUtil.createRegression(features, coefficients, 0d, null, schema);
+
+		RegressionTable regressionTable = Iterables.getOnlyElement(((RegressionModel)model).getRegressionTables());
+
+		assertEquals(3, (regressionTable.getNumericPredictors()).size());
+
+		PMML pmml = encoder.encodePMML(model);
+
+		TransformationDictionary transformationDictionary = pmml.getTransformationDictionary();
+
+		assertEquals(1, (transformationDictionary.getDefineFunctions()).size());
+
+		assertEquals(0, (transformationDictionary.getDerivedFields()).size());
+
+		model = Iterables.getOnlyElement(pmml.getModels());
+
+		// Single-use derived fields are moved to the local transformations of the model.
+		// The term frequency expressions of unused terms are pruned
+		List<Object> terms = ((model.getLocalTransformations()).getDerivedFields()).stream()
+			.map(DerivedField::getExpression)
+			.map(expression -> ((Constant)Iterables.getLast(((Apply)expression).getExpressions())).getValue())
+			.collect(Collectors.toList());
+
+		assertEquals(Arrays.asList("t1", "t500", "t999"), terms);
+	}
+
+	static
+	private CountVectorizer createCountVectorizer(int size){
+		Map<String, Integer> vocabulary = new LinkedHashMap<>();
+
+		for(int i = 0; i < size; i++){
+			vocabulary.put("t" + i, i);
+		}
+
+		CountVectorizer countVectorizer = new CountVectorizer("sklearn.feature_extraction.text", "CountVectorizer"){
+
+			@Override
+			public TypeInfo getDType(){
+				return null;
+			}
+		};
+		countVectorizer.put("analyzer", "word");
+		countVectorizer.put("binary", false);
+		countVectorizer.put("lowercase", false);
+		countVectorizer.put("ngram_range", new Object[]{1, 1});
+		countVectorizer.put("preprocessor", null);
+		countVectorizer.put("stop_words", null);
+		countVectorizer.put("strip_accents", null);
+		countVectorizer.put("tokenizer", null);
+		countVectorizer.put("token_pattern", CountVectorizer.TOKEN_PATTERN);
+		countVectorizer.put("vocabulary_", vocabulary);
+
+		return countVectorizer;
+	}
+}
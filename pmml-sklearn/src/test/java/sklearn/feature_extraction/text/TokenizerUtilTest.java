@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.feature_extraction.text;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TokenizerUtilTest {
+
+	@Test
+	public void formatWordsRE(){
+		assertEquals("a(?:nd|re)?|i[st]?|the(?:m|re)?", TokenizerUtil.formatWordsRE(Arrays.asList("the", "a", "and", "are", "i", "is", "it", "them", "there", "a")));
+		assertEquals("ab(?:c(?:de)?)?", TokenizerUtil.formatWordsRE(Arrays.asList("abcde", "abc", "ab")));
+
+		// Not factorable
+		assertEquals("a|c++|b", TokenizerUtil.formatWordsRE(Arrays.asList("a", "c++", "b")));
+		assertEquals("a||b", TokenizerUtil.formatWordsRE(Arrays.asList("a", "", "b")));
+	}
+
+	@Test
+	public void normalize(){
+		List<String> words = Arrays.asList("a", "an", "and", "any", "i", "in", "is", "it", "its", "the", "them", "then", "there");
+
+		Pattern plainPattern = Pattern.compile("\\b(" + String.join("|", words) + ")\\b");
+		Pattern factoredPattern = Pattern.compile("\\b(" + TokenizerUtil.formatWordsRE(words) + ")\\b");
+
+		String string = "then there is an ant and any antelope in the thermos, its ink is there at anthem's end";
+
+		assertEquals(plainPattern.matcher(string).replaceAll(" "), factoredPattern.matcher(string).replaceAll(" "));
+		assertEquals("        ant     antelope     thermos,   ink     at anthem's end", factoredPattern.matcher(string).replaceAll(" "));
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.linear_model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.google.common.collect.Iterables;
+import numpy.core.NDArrayUtil;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.regression.NumericPredictor;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.regression.RegressionTable;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.ContinuousLabel;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.Schema;
+import org.jpmml.python.HasArray;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.junit.Test;
+import scipy.sparse.CSCMatrix;
+import scipy.sparse.CSRMatrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LinearModelUtilTest {
+
+	@Test
+	public void getRow(){
+		HasArray dense = NDArrayUtil.toArray(Arrays.asList(0d, 1.5d, 0d, -2d, 3d, 0d, 0d, 0.5d));
+
+		// [[0, 1.5, 0, -2], [3, 0, 0, 0.5]]
+		HasArray csr = createCSRMatrix(2, 4, Arrays.asList(1.5d, -2d, 3d, 0.5d), Arrays.asList(1, 3, 0, 3), Arrays.asList(0, 2, 4));
+		HasArray csc = createCSCMatrix(2, 4, Arrays.asList(3d, 1.5d, -2d, 0.5d), Arrays.asList(1, 0, 0, 1), Arrays.asList(0, 1, 2, 2, 4));
+
+		for(HasArray coef : Arrays.asList(dense, csr, csc)){
+			assertEquals(Arrays.asList(0d, 1.5d, 0d, -2d), toDoubleList(LinearModelUtil.getRow(coef, 2, 4, 0)));
+			assertEquals(Arrays.asList(3d, 0d, 0d, 0.5d), toDoubleList(LinearModelUtil.getRow(coef, 2, 4, 1)));
+		}
+
+		assertEquals(toDoubleList(csr.getArrayContent()), toDoubleList(csc.getArrayContent()));
+
+		assertEquals((((CSCMatrix)csc).get("data", HasArray.class)).getArrayType(), csc.getArrayType());
+
+		// Unsorted row indices
+		csc = createCSCMatrix(2, 4, Arrays.asList(3d, 1.5d, 0.5d, -2d), Arrays.asList(1, 0, 1, 0), Arrays.asList(0, 1, 2, 2, 4));
+
+		assertEquals(Arrays.asList(0d, 1.5d, 0d, -2d), toDoubleList(LinearModelUtil.getRow(csc, 2, 4, 0)));
+		assertEquals(Arrays.asList(3d, 0d, 0d, 0.5d), toDoubleList(LinearModelUtil.getRow(csc, 2, 4, 1)));
+
+		// Unsorted indices, with duplicate entries
+		csr = createCSRMatrix(1, 4, Arrays.asList(-1d, 1.5d, -1d), Arrays.asList(3, 1, 3), Arrays.asList(0, 3));
+
+		assertEquals(Arrays.asList(0d, 1.5d, 0d, -2d), toDoubleList(LinearModelUtil.getRow(csr, 1, 4, 0)));
+
+		try {
+			LinearModelUtil.getRow(csr, 2, 2, 0);
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+	}
+
+	@Test
+	public void createRegression(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		List<Feature> features = new ArrayList<>();
+
+		for(int i = 0; i < 4; i++){
+			features.add(new ContinuousFeature(encoder, encoder.createDataField("x" + (i + 1), OpType.CONTINUOUS, DataType.DOUBLE)));
+		}
+
+		ContinuousLabel label = new ContinuousLabel(encoder.createDataField("y", OpType.CONTINUOUS, DataType.DOUBLE));
+
+		// Explicitly stored zero at index 2
+		HasArray coef = createCSRMatrix(1, 4, Arrays.asList(1.5d, 0d, -2d), Arrays.asList(1, 2, 3), Arrays.asList(0, 3));
+
+		TrackingList trackingFeatures = new TrackingList(features);
+
+		Schema schema = new Schema(encoder, label, trackingFeatures);
+
+		RegressionModel regressionModel = LinearModelUtil.createRegression(trackingFeatures, LinearModelUtil.getRow(coef, 1, 4, 0), 1d, null, schema);
+
+		assertEquals(new TreeSet<>(Arrays.asList(1, 3)), trackingFeatures.getAccessedIndices());
+
+		RegressionTable regressionTable = Iterables.getOnlyElement(regressionModel.getRegressionTables());
+
+		List<NumericPredictor> numericPredictors = regressionTable.getNumericPredictors();
+
+		assertEquals(2, numericPredictors.size());
+
+		assertEquals("x2", (numericPredictors.get(0)).requireField());
+		assertEquals(1.5d, (numericPredictors.get(0)).requireCoefficient());
+		assertEquals("x4", (numericPredictors.get(1)).requireField());
+		assertEquals(-2d, (numericPredictors.get(1)).requireCoefficient());
+	}
+
+	static
+	private CSRMatrix createCSRMatrix(int rows, int columns, List<?> data, List<Integer> indices, List<Integer> indPtr){
+		CSRMatrix result = new CSRMatrix("scipy.sparse._csr", "csr_matrix");
+		result.put("data", NDArrayUtil.toArray(data));
+		result.put("indices", NDArrayUtil.toArray(indices));
+		result.put("indptr", NDArrayUtil.toArray(indPtr));
+		result.put("_shape", new Object[]{rows, columns});
+
+		return result;
+	}
+
+	static
+	private CSCMatrix createCSCMatrix(int rows, int columns, List<?> data, List<Integer> indices, List<Integer> indPtr){
+		CSCMatrix result = new CSCMatrix("scipy.sparse._csc", "csc_matrix");
+		result.put("data", NDArrayUtil.toArray(data));
+		result.put("indices", NDArrayUtil.toArray(indices));
+		result.put("indptr", NDArrayUtil.toArray(indPtr));
+		result.put("_shape", new Object[]{rows, columns});
+
+		return result;
+	}
+
+	static
+	private List<Double> toDoubleList(List<?> values){
+		List<Double> result = new ArrayList<>();
+
+		for(Object value : values){
+			result.add(((Number)value).doubleValue());
+		}
+
+		return result;
+	}
+
+	static
+	private class TrackingList extends AbstractList<Feature> {
+
+		private List<Feature> features = null;
+
+		private Set<Integer> accessedIndices = new TreeSet<>();
+
+
+		private TrackingList(List<Feature> features){
+			this.features = features;
+		}
+
+		@Override
+		public int size(){
+			return this.features.size();
+		}
+
+		@Override
+		public Feature get(int index){
+			this.accessedIndices.add(index);
+
+			return this.features.get(index);
+		}
+
+		public Set<Integer> getAccessedIndices(){
+			return this.accessedIndices;
+		}
+	}
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.neighbors;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import numpy.core.NDArray;
+import org.dmg.pmml.Array;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.Extension;
+import org.dmg.pmml.InlineTable;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.TableLocator;
+import org.dmg.pmml.nearest_neighbor.NearestNeighborModel;
+import org.dmg.pmml.nearest_neighbor.TrainingInstances;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.ContinuousLabel;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.Schema;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KNeighborsUtilTest {
+
+	@Test
+	public void encodeBinaryData(){
+		Schema schema = createSchema();
+
+		KNeighborsRegressor regressor = createRegressor();
+
+		NearestNeighborModel nearestNeighborModel = regressor.encodeModel(schema);
+
+		TrainingInstances trainingInstances = nearestNeighborModel.requireTrainingInstances();
+
+		assertNotNull(trainingInstances.getInlineTable());
+		assertNull(trainingInstances.getTableLocator());
+
+		regressor.putOption(HasNeighborsOptions.OPTION_BINARY_DATA, Boolean.TRUE);
+
+		nearestNeighborModel = regressor.encodeModel(schema);
+
+		trainingInstances = nearestNeighborModel.requireTrainingInstances();
+
+		assertNull(trainingInstances.getInlineTable());
+
+		TableLocator tableLocator = trainingInstances.getTableLocator();
+
+		List<Extension> extensions = tableLocator.getExtensions();
+
+		assertEquals(3, extensions.size());
+
+		Extension yExtension = extensions.get(0);
+
+		assertEquals("data:y", yExtension.getName());
+		assertNull(yExtension.getValue());
+
+		Array yArray = (Array)(yExtension.getContent()).get(0);
+
+		assertEquals(Arrays.asList(0d, 1d, 4d, 5d), yArray.getValue());
+
+		Extension x2Extension = extensions.get(2);
+
+		assertEquals("data:x2", x2Extension.getName());
+		assertEquals("<f8", x2Extension.getValue());
+
+		byte[] x2Bytes = Base64.getDecoder().decode((String)(x2Extension.getContent()).get(0));
+
+		assertArrayEquals(toBytes(0d, 1d, 4d, 5d), x2Bytes);
+	}
+
+	@Test
+	public void encodeBinaryColumns(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		List<Feature> features = new ArrayList<>();
+
+		for(int i = 0; i < 3; i++){
+			features.add(new ContinuousFeature(encoder, encoder.createDataField("x" + (i + 1), OpType.CONTINUOUS, DataType.DOUBLE)));
+		}
+
+		Schema schema = new Schema(encoder, new ContinuousLabel(encoder.createDataField("y", OpType.CONTINUOUS, DataType.DOUBLE)), features);
+
+		ByteBuffer fitX = ByteBuffer.allocate(2 * 3 * 4)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		fitX.putInt(1).putInt(2).putInt(3);
+		fitX.putInt(4).putInt(5).putInt(6);
+
+		KNeighborsRegressor regressor = createRegressor();
+		regressor.put("_fit_X", createArray(new Object[]{2, 3}, "<i4", fitX.array()));
+		regressor.put("_y", createArray(new Object[]{2}, "<f8", toBytes(0d, 1d)));
+		regressor.putOption(HasNeighborsOptions.OPTION_BINARY_DATA, Boolean.TRUE);
+
+		NearestNeighborModel nearestNeighborModel = regressor.encodeModel(schema);
+
+		TrainingInstances trainingInstances = nearestNeighborModel.requireTrainingInstances();
+
+		TableLocator tableLocator = trainingInstances.getTableLocator();
+
+		List<Extension> extensions = tableLocator.getExtensions();
+
+		assertEquals(4, extensions.size());
+
+		assertEquals("data:y", (extensions.get(0)).getName());
+
+		for(int i = 0; i < 3; i++){
+			Extension xExtension = extensions.get(1 + i);
+
+			assertEquals("data:x" + (i + 1), xExtension.getName());
+
+			byte[] xBytes = Base64.getDecoder().decode((String)(xExtension.getContent()).get(0));
+
+			assertArrayEquals(toBytes(1d + i, 4d + i), xBytes);
+		}
+	}
+
+	@Test
+	public void encodeTree(){
+		Schema schema = createSchema();
+
+		KNeighborsRegressor regressor = createRegressor();
+
+		NearestNeighborModel nearestNeighborModel = regressor.encodeModel(schema);
+
+		TrainingInstances trainingInstances = nearestNeighborModel.requireTrainingInstances();
+
+		assertFalse(trainingInstances.hasExtensions());
+
+		regressor.putOption(HasNeighborsOptions.OPTION_TREE_INDEX, Boolean.TRUE);
+
+		nearestNeighborModel = regressor.encodeModel(schema);
+
+		trainingInstances = nearestNeighborModel.requireTrainingInstances();
+
+		assertTrue(trainingInstances.hasExtensions());
+
+		List<Extension> extensions = trainingInstances.getExtensions();
+
+		assertEquals(1, extensions.size());
+
+		Extension extension = extensions.get(0);
+
+		assertEquals(KNeighborsUtil.EXTENSION_TREE, extension.getName());
+		assertEquals("kd_tree", extension.getValue());
+
+		List<Object> content = extension.getContent();
+
+		assertEquals(2, content.size());
+
+		Extension idxArrayExtension = (Extension)content.get(0);
+
+		assertEquals("idx_array", idxArrayExtension.getName());
+
+		Array idxArray = (Array)(idxArrayExtension.getContent()).get(0);
+
+		assertEquals(Arrays.asList(1, 0, 3, 2), idxArray.getValue());
+
+		Extension nodesExtension = (Extension)content.get(1);
+
+		assertEquals("nodes", nodesExtension.getName());
+
+		InlineTable inlineTable = (InlineTable)(nodesExtension.getContent()).get(0);
+
+		assertEquals(3, (inlineTable.getRows()).size());
+	}
+
+	static
+	private Schema createSchema(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		List<Feature> features = Arrays.asList(
+			new ContinuousFeature(encoder, encoder.createDataField("x1", OpType.CONTINUOUS, DataType.DOUBLE)),
+			new ContinuousFeature(encoder, encoder.createDataField("x2", OpType.CONTINUOUS, DataType.DOUBLE))
+		);
+
+		return new Schema(encoder, new ContinuousLabel(encoder.createDataField("y", OpType.CONTINUOUS, DataType.DOUBLE)), features);
+	}
+
+	static
+	private KNeighborsRegressor createRegressor(){
+		KNeighborsRegressor regressor = new KNeighborsRegressor("sklearn.neighbors._regression", "KNeighborsRegressor");
+		regressor.put("n_neighbors", 1);
+		regressor.put("metric", "minkowski");
+		regressor.put("p", 2);
+		regressor.put("weights", "uniform");
+		regressor.put("_fit_X", createArray(new Object[]{4, 2}, "<f8", toBytes(0d, 0d, 1d, 1d, 4d, 4d, 5d, 5d)));
+		regressor.put("_y", createArray(new Object[]{4}, "<f8", toBytes(0d, 1d, 4d, 5d)));
+
+		// A three-node KD-tree, where the root node is split into two leaf nodes
+		List<Object[]> nodeDataDescr = Arrays.asList(
+			new Object[]{"idx_start", "<i8"},
+			new Object[]{"idx_end", "<i8"},
+			new Object[]{"is_leaf", "<i8"},
+			new Object[]{"radius", "<f8"}
+		);
+
+		ByteBuffer nodeData = ByteBuffer.allocate(3 * (3 * 8 + 8))
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		nodeData.putLong(0L).putLong(4L).putLong(0L).putDouble(7.07d);
+		nodeData.putLong(0L).putLong(2L).putLong(1L).putDouble(1.41d);
+		nodeData.putLong(2L).putLong(4L).putLong(1L).putDouble(1.41d);
+
+		BinaryTree tree = new BinaryTree("sklearn.neighbors._kd_tree", "KDTree");
+		tree.put("idx_array_arr", createArray(new Object[]{4}, "<i8", toBytes(1L, 0L, 3L, 2L)));
+		tree.put("node_data_arr", createArray(new Object[]{3}, nodeDataDescr, nodeData.array()));
+		tree.put("node_bounds_arr", createArray(new Object[]{2, 3, 2}, "<f8", toBytes(0d, 0d, 0d, 0d, 4d, 4d, 5d, 5d, 1d, 1d, 5d, 5d)));
+
+		regressor.put("_tree", tree);
+
+		return regressor;
+	}
+
+	static
+	private byte[] toBytes(double... values){
+		ByteBuffer result = ByteBuffer.allocate(values.length * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(double value : values){
+			result.putDouble(value);
+		}
+
+		return result.array();
+	}
+
+	static
+	private byte[] toBytes(long... values){
+		ByteBuffer result = ByteBuffer.allocate(values.length * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(long value : values){
+			result.putLong(value);
+		}
+
+		return result.array();
+	}
+
+	static
+	private NDArray createArray(Object[] shape, Object descr, byte[] data){
+		NDArray result = new NDArray();
+		result.__setstate__(new Object[]{1, shape, descr, Boolean.FALSE, data});
+
+		return result;
+	}
+}
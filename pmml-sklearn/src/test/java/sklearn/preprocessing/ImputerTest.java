@@ -151,6 +151,21 @@ public class ImputerTest {
 
 		assertTrue(feature instanceof ContinuousFeature);
 		assertEquals(imputedBinarizedName, feature.getName());
+
+		encoder = new SkLearnEncoder();
+		encoder.setLazyFeatures(true);
+
+		feature = encodeFeature(name, Arrays.asList(continuousDomain, binarizer, imputer), encoder);
+
+		assertNull(encoder.getDerivedField(binarizedName));
+		assertNull(encoder.getDerivedField(imputedBinarizedName));
+
+		assertEquals(imputedBinarizedName, feature.getName());
+
+		feature.ref();
+
+		assertNotNull(encoder.getDerivedField(binarizedName));
+		assertNotNull(encoder.getDerivedField(imputedBinarizedName));
 	}
 
 	static
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.preprocessing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import numpy.core.NDArrayUtil;
+import org.dmg.pmml.DataField;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.OpType;
+import org.jpmml.converter.BinaryFeature;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.FieldUtil;
+import org.jpmml.converter.WildcardFeature;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MultiOneHotEncoderTest {
+
+	@Test
+	public void encodeInfrequent(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		DataField dataField = encoder.createDataField("x", OpType.CATEGORICAL, DataType.STRING);
+
+		Feature inputFeature = new WildcardFeature(encoder, dataField);
+
+		MultiOneHotEncoder multiOneHotEncoder = new MultiOneHotEncoder("sklearn.preprocessing._encoders", "OneHotEncoder");
+		multiOneHotEncoder.put("categories_", Collections.singletonList(NDArrayUtil.toArray(Arrays.asList("a", "b", "c", "d", "e"))));
+		multiOneHotEncoder.put("drop", null);
+		multiOneHotEncoder.put("handle_unknown", "infrequent_if_exist");
+		multiOneHotEncoder.put("_infrequent_enabled", Boolean.TRUE);
+		multiOneHotEncoder.put("_infrequent_indices", Collections.singletonList(NDArrayUtil.toArray(Arrays.asList(3, 1))));
+
+		List<Feature> outputFeatures = multiOneHotEncoder.encode(Collections.singletonList(inputFeature), encoder);
+
+		List<Object> values = new ArrayList<>();
+
+		for(Feature outputFeature : outputFeatures){
+			BinaryFeature binaryFeature = (BinaryFeature)outputFeature;
+
+			values.add(binaryFeature.getValue());
+		}
+
+		assertEquals(Arrays.asList("a", "c", "e", "infrequent"), values);
+
+		assertEquals(Arrays.asList("a", "b", "c", "d", "e"), FieldUtil.getValues(dataField));
+	}
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.preprocessing;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Iterables;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.Model;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.regression.RegressionModel;
+import org.dmg.pmml.regression.RegressionTable;
+import org.jpmml.converter.BinaryFeature;
+import org.jpmml.converter.ConstantFeature;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.ContinuousLabel;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.InteractionFeature;
+import org.jpmml.converter.PowerFeature;
+import org.jpmml.converter.Schema;
+import org.jpmml.evaluator.Evaluator;
+import org.jpmml.evaluator.EvaluatorUtil;
+import org.jpmml.evaluator.ModelEvaluatorBuilder;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.junit.Test;
+import sklearn.linear_model.LinearModelUtil;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PolynomialFeaturesTest {
+
+	@Test
+	public void encode(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		List<Feature> features = encode(createPolynomialFeatures(3, true, false), encoder);
+
+		assertEquals(20, features.size());
+		assertTrue(features instanceof PolynomialFeatureList);
+
+		PolynomialFeatureList polynomialFeatures = (PolynomialFeatureList)features;
+
+		assertArrayEquals(new int[]{}, polynomialFeatures.getMonomial(0));
+		assertArrayEquals(new int[]{0, 0}, polynomialFeatures.getMonomial(4));
+		assertArrayEquals(new int[]{0, 1, 2}, polynomialFeatures.getMonomial(14));
+
+		assertTrue(features.get(0) instanceof ConstantFeature);
+		assertSame((polynomialFeatures.getInputFeatures()).get(1), features.get(2));
+
+		Feature feature = features.get(4);
+
+		assertTrue(feature instanceof PowerFeature);
+		assertEquals(2, ((PowerFeature)feature).getPower());
+
+		feature = features.get(14);
+
+		assertTrue(feature instanceof InteractionFeature);
+		assertEquals("x1:x2:x3", feature.getName());
+		assertSame(feature, features.get(14));
+
+		features = encode(createPolynomialFeatures(2, false, true), new SkLearnEncoder());
+
+		assertEquals(6, features.size());
+
+		polynomialFeatures = (PolynomialFeatureList)features;
+
+		assertArrayEquals(new int[]{0}, polynomialFeatures.getMonomial(0));
+		assertArrayEquals(new int[]{1, 2}, polynomialFeatures.getMonomial(5));
+	}
+
+	@Test
+	public void encodeLazily(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		Feature binaryFeature = new BinaryFeature(encoder, encoder.createDataField("c", OpType.CATEGORICAL, DataType.STRING, Arrays.asList("a", "b")), "a");
+
+		Feature continuousFeature = new ContinuousFeature(encoder, encoder.createDataField("x", OpType.CONTINUOUS, DataType.DOUBLE)){
+
+			@Override
+			public ContinuousFeature toContinuousFeature(){
+				throw new AssertionError();
+			}
+		};
+
+		// c^2, x, c*x
+		List<int[]> monomials = Arrays.asList(new int[]{0, 0}, new int[]{1}, new int[]{0, 1});
+
+		PolynomialFeatureList features = new PolynomialFeatureList(encoder, Arrays.asList(binaryFeature, continuousFeature), monomials);
+
+		// The powers of a binary feature are equal to the binary feature itself
+		assertSame(binaryFeature, features.get(0));
+		assertSame(continuousFeature, features.get(1));
+
+		Feature feature = features.get(2);
+
+		assertTrue(feature instanceof InteractionFeature);
+	}
+
+	@Test
+	public void encodePolynomial() throws Exception {
+		PolynomialFeatures polynomialFeatures = createPolynomialFeatures(3, true, false);
+
+		// 1, x1, x2, x3, x1^2, x1*x2, x1*x3, x2^2, x2*x3, x3^2, x1^3, x1^2*x2, x1^2*x3, x1*x2^2, x1*x2*x3, x1*x3^2, x2^3, x2^2*x3, x2*x3^2, x3^3
+		List<Double> coefficients = Arrays.asList(0.5d, 1d, 0d, -2d, 0d, 3d, 0d, 0d, 0.25d, 1.5d, -1d, 0d, 0d, 0d, 2d, 0d, 0d, 0d, 0d, 0.125d);
+
+		Evaluator evaluator = createEvaluator(polynomialFeatures, coefficients, 1.5d, false);
+		Evaluator factorizedEvaluator = createEvaluator(polynomialFeatures, coefficients, 1.5d, true);
+
+		double[][] values = {
+			{0d, 0d, 0d},
+			{1d, 2d, 3d},
+			{-1.5d, 0.5d, 4d},
+			{10d, -3d, 0.1d}
+		};
+
+		for(double[] value : values){
+			double x1 = value[0];
+			double x2 = value[1];
+			double x3 = value[2];
+
+			double expected = 1.5d + 0.5d + x1 - 2d * x3 + 3d * x1 * x2 + 0.25d * x2 * x3 + 1.5d * x3 * x3 - x1 * x1 * x1 + 2d * x1 * x2 * x3 + 0.125d * x3 * x3 * x3;
+
+			assertEquals(expected, evaluate(evaluator, value), 1e-10);
+			assertEquals(expected, evaluate(factorizedEvaluator, value), 1e-10);
+		}
+	}
+
+	@Test
+	public void encodeZeroPolynomial(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+		encoder.setFactorizedPolynomials(true);
+
+		List<Feature> features = encode(createPolynomialFeatures(2, false, false), encoder);
+
+		ContinuousFeature feature = ((PolynomialFeatureList)features).encodePolynomial(Arrays.asList(0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d));
+
+		assertEquals("polynomial(0)", feature.getName());
+
+		feature = ((PolynomialFeatureList)features).encodePolynomial(Arrays.asList(0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d, 0d));
+
+		assertEquals("polynomial(1)", feature.getName());
+	}
+
+	static
+	private Evaluator createEvaluator(PolynomialFeatures polynomialFeatures, List<? extends Number> coefficients, Number intercept, boolean factorizedPolynomials){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+		encoder.setFactorizedPolynomials(factorizedPolynomials);
+
+		List<Feature> features = encode(polynomialFeatures, encoder);
+
+		ContinuousLabel label = new ContinuousLabel(encoder.createDataField("y", OpType.CONTINUOUS, DataType.DOUBLE));
+
+		Schema schema = new Schema(encoder, label, features);
+
+		Model model = LinearModelUtil.createRegression(features, coefficients, intercept, null, schema);
+
+		RegressionTable regressionTable = Iterables.getOnlyElement(((RegressionModel)model).getRegressionTables());
+
+		if(factorizedPolynomials){
+			assertEquals(1, (regressionTable.getNumericPredictors()).size());
+			assertTrue((regressionTable.getPredictorTerms()).isEmpty());
+		} else
+
+		{
+			// x1, x3, x3^2, x1^3, x3^3
+			assertEquals(5, (regressionTable.getNumericPredictors()).size());
+			// x1*x2, x2*x3, x1*x2*x3
+			assertEquals(3, (regressionTable.getPredictorTerms()).size());
+		}
+
+		PMML pmml = encoder.encodePMML(model);
+
+		return new ModelEvaluatorBuilder(pmml)
+			.build();
+	}
+
+	static
+	private double evaluate(Evaluator evaluator, double[] values){
+		Map<String, Object> arguments = new LinkedHashMap<>();
+		arguments.put("x1", values[0]);
+		arguments.put("x2", values[1]);
+		arguments.put("x3", values[2]);
+
+		Map<String, ?> results = evaluator.evaluate(arguments);
+
+		return ((Number)EvaluatorUtil.decode(results.get("y"))).doubleValue();
+	}
+
+	static
+	private List<Feature> encode(PolynomialFeatures polynomialFeatures, SkLearnEncoder encoder){
+		List<Feature> features = Arrays.asList(
+			new ContinuousFeature(encoder, encoder.createDataField("x1", OpType.CONTINUOUS, DataType.DOUBLE)),
+			new ContinuousFeature(encoder, encoder.createDataField("x2", OpType.CONTINUOUS, DataType.DOUBLE)),
+			new ContinuousFeature(encoder, encoder.createDataField("x3", OpType.CONTINUOUS, DataType.DOUBLE))
+		);
+
+		return polynomialFeatures.encode(features, encoder);
+	}
+
+	static
+	private PolynomialFeatures createPolynomialFeatures(int degree, boolean includeBias, boolean interactionOnly){
+		int numberOfOutputFeatures = 0;
+
+		for(int i = (includeBias ? 0 : 1); i <= degree; i++){
+			numberOfOutputFeatures += (interactionOnly ? binomial(3, i) : binomial(3 + i - 1, i));
+		}
+
+		PolynomialFeatures polynomialFeatures = new PolynomialFeatures("sklearn.preprocessing._polynomial", "PolynomialFeatures");
+		polynomialFeatures.put("degree", degree);
+		polynomialFeatures.put("include_bias", includeBias);
+		polynomialFeatures.put("interaction_only", interactionOnly);
+		polynomialFeatures.put("n_features_in_", 3);
+		polynomialFeatures.put("n_output_features_", numberOfOutputFeatures);
+
+		return polynomialFeatures;
+	}
+
+	static
+	private int binomial(int n, int k){
+		int result = 1;
+
+		for(int i = 1; i <= k; i++){
+			result = result * (n - k + i) / i;
+		}
+
+		return result;
+	}
+}
@@ -18,9 +18,22 @@
  */
 package sklearn.preprocessing;
 
+import java.util.Arrays;
+import java.util.List;
+
+import numpy.core.NDArrayUtil;
+import org.dmg.pmml.DerivedField;
 import org.dmg.pmml.PMMLFunctions;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.FieldNameUtil;
+import org.jpmml.sklearn.SkLearnEncoder;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
 public class StandardScalerTest extends ScalerTest {
 
 	@Test
@@ -46,4 +59,54 @@ public class StandardScalerTest extends ScalerTest {
 
 		assertSameFeature(scaler);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void encodeLazy(){
+		StandardScaler scaler = new StandardScaler("sklearn.preprocessing.data", "StandardScaler");
+		scaler.put("with_mean", Boolean.TRUE);
+		scaler.put("with_std", Boolean.TRUE);
+		scaler.put("mean_", NDArrayUtil.toArray(Arrays.asList(6d, 3d)));
+		scaler.put("std_", NDArrayUtil.toArray(Arrays.asList(2d, 1d)));
+
+		SkLearnEncoder encoder = new SkLearnEncoder();
+		encoder.setLazyFeatures(true);
+
+		List<Feature> features = Arrays.asList(
+			new ContinuousFeature(encoder, encoder.createDataField("x1")),
+			new ContinuousFeature(encoder, encoder.createDataField("x2"))
+		);
+
+		features = scaler.encode(features, encoder);
+
+		assertEquals(2, features.size());
+		assertTrue((encoder.getDerivedFields()).isEmpty());
+
+		Feature feature = features.get(1);
+
+		assertEquals(FieldNameUtil.create("standardScaler", "x2"), feature.getName());
+
+		assertTrue((encoder.getDerivedFields()).isEmpty());
+
+		feature.ref();
+
+		assertEquals(1, (encoder.getDerivedFields()).size());
+
+		DerivedField derivedField = encoder.getDerivedField(feature.getName());
+
+		assertNotNull(derivedField);
+
+		feature.ref();
+
+		assertEquals(1, (encoder.getDerivedFields()).size());
+
+		feature = features.get(0);
+
+		assertNotNull(encoder.getField(feature.getName()));
+
+		assertEquals(1, (encoder.getDerivedFields()).size());
+
+		feature.ref();
+
+		assertEquals(2, (encoder.getDerivedFields()).size());
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.tree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.dmg.pmml.DataDictionary;
+import org.dmg.pmml.Header;
+import org.dmg.pmml.MiningFunction;
+import org.dmg.pmml.MiningSchema;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.Predicate;
+import org.dmg.pmml.SimplePredicate;
+import org.dmg.pmml.True;
+import org.dmg.pmml.Version;
+import org.dmg.pmml.tree.BranchNode;
+import org.dmg.pmml.tree.LeafNode;
+import org.dmg.pmml.tree.Node;
+import org.dmg.pmml.tree.TreeModel;
+import org.jpmml.model.PMMLUtil;
+import org.jpmml.model.ReflectionUtil;
+import org.jpmml.model.visitors.ActiveFieldFinder;
+import org.jpmml.sklearn.StreamingUtil;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DetachedNodeTest {
+
+	@Test
+	public void detach(){
+		Node node = new LeafNode(1d, True.INSTANCE);
+
+		assertEquals(Collections.emptySet(), getFieldNames(DetachedNode.detach(node)));
+
+		node = new BranchNode(null, True.INSTANCE)
+			.addNodes(new LeafNode(1d, new SimplePredicate("x", SimplePredicate.Operator.LESS_THAN, 0d)))
+			.addNodes(new LeafNode(2d, new SimplePredicate("x", SimplePredicate.Operator.GREATER_OR_EQUAL, 0d)));
+
+		assertEquals(Collections.singleton("x"), getFieldNames(DetachedNode.detach(node)));
+
+		node = new BranchNode(null, True.INSTANCE)
+			.addNodes(new LeafNode(1d, new SimplePredicate("x", SimplePredicate.Operator.LESS_THAN, 0d)))
+			.addNodes(new LeafNode(2d, new SimplePredicate("y", SimplePredicate.Operator.GREATER_OR_EQUAL, 0d)));
+
+		DetachedNode detachedNode = DetachedNode.detach(node);
+
+		assertTrue(detachedNode.requirePredicate() instanceof DetachedPredicate);
+		assertTrue((detachedNode.getFile()).exists());
+
+		assertEquals(new HashSet<>(Arrays.asList("x", "y")), getFieldNames(detachedNode));
+	}
+
+	@Test
+	public void attachNodes(){
+		Node node = new BranchNode(null, True.INSTANCE)
+			.addNodes(new LeafNode(1d, new SimplePredicate("x", SimplePredicate.Operator.LESS_THAN, 0d)))
+			.addNodes(new LeafNode(2d, new SimplePredicate("x", SimplePredicate.Operator.GREATER_OR_EQUAL, 0d)));
+
+		TreeModel treeModel = new TreeModel(MiningFunction.REGRESSION, new MiningSchema(), DetachedNode.detach(node));
+
+		assertFalse(ReflectionUtil.equals(node, treeModel.requireNode()));
+
+		StreamingUtil.attachNodes(treeModel);
+
+		assertFalse(treeModel.requireNode() instanceof DetachedNode);
+		assertTrue(ReflectionUtil.equals(node, treeModel.requireNode()));
+	}
+
+	@Test
+	public void marshalPMML() throws Exception {
+		Node node = new BranchNode(null, True.INSTANCE)
+			.addNodes(new LeafNode(1d, new SimplePredicate("x", SimplePredicate.Operator.LESS_THAN, 0d)))
+			.addNodes(new LeafNode(2d, new SimplePredicate("x", SimplePredicate.Operator.GREATER_OR_EQUAL, 0d)));
+
+		TreeModel treeModel = new TreeModel(MiningFunction.REGRESSION, new MiningSchema(), DetachedNode.detach(node));
+
+		PMML pmml = new PMML(Version.PMML_4_4.getVersion(), new Header(), new DataDictionary())
+			.addModels(treeModel);
+
+		assertTrue(StreamingUtil.hasDetachedNodes(pmml));
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		StreamingUtil.marshalPMML(pmml, os);
+
+		// The node graph is detached again after marshalling
+		assertTrue(treeModel.requireNode() instanceof DetachedNode);
+
+		PMML streamedPmml;
+
+		try(InputStream is = new ByteArrayInputStream(os.toByteArray())){
+			streamedPmml = PMMLUtil.unmarshal(is);
+		}
+
+		assertFalse(StreamingUtil.hasDetachedNodes(streamedPmml));
+
+		TreeModel streamedTreeModel = (TreeModel)(streamedPmml.getModels()).get(0);
+
+		Node streamedNode = streamedTreeModel.requireNode();
+
+		assertEquals(2, (streamedNode.getNodes()).size());
+
+		Predicate predicate = ((streamedNode.getNodes()).get(0)).requirePredicate();
+
+		assertEquals("x", ((SimplePredicate)predicate).requireField());
+	}
+
+	static
+	private Set<String> getFieldNames(DetachedNode detachedNode){
+		return ActiveFieldFinder.getFieldNames(detachedNode);
+	}
+}
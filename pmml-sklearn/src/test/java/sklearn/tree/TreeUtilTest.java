@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn.tree;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import numpy.core.NDArray;
+import org.dmg.pmml.DataField;
+import org.dmg.pmml.DataType;
+import org.dmg.pmml.MiningFunction;
+import org.dmg.pmml.OpType;
+import org.dmg.pmml.PMML;
+import org.dmg.pmml.tree.Node;
+import org.dmg.pmml.tree.TreeModel;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.ContinuousLabel;
+import org.jpmml.converter.Feature;
+import org.jpmml.converter.Schema;
+import org.jpmml.evaluator.Evaluator;
+import org.jpmml.evaluator.EvaluatorUtil;
+import org.jpmml.evaluator.ModelEvaluatorBuilder;
+import org.jpmml.model.PMMLException;
+import org.jpmml.model.PMMLUtil;
+import org.jpmml.model.visitors.ActiveFieldFinder;
+import org.jpmml.python.PickleUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.jpmml.sklearn.SkLearnUtil;
+import org.jpmml.sklearn.StreamingUtil;
+import org.junit.Test;
+import sklearn.CompositeClassifier;
+import sklearn.CompositeRegressor;
+import sklearn.Estimator;
+import sklearn2pmml.pipeline.PMMLPipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TreeUtilTest {
+
+	@Test
+	public void encodeDeepTree(){
+		TreeModel treeModel = TreeUtil.encodeTreeModel(createDeepRegressor(), MiningFunction.REGRESSION, createSchema());
+
+		checkDeepTree(treeModel.requireNode());
+	}
+
+	@Test
+	public void transformDeepTree(){
+		TreeRegressor regressor = createDeepRegressor();
+
+		TreeModel treeModel = TreeUtil.encodeTreeModel(regressor, MiningFunction.REGRESSION, createSchema());
+
+		// Default options, which activate the pruner, the compactor and node cleaners
+		treeModel = TreeUtil.transform(regressor, treeModel);
+
+		Node node = treeModel.requireNode();
+
+		// The compactor replaces every right child with its children
+		assertTrue(node.hasNodes());
+
+		List<Node> children = node.getNodes();
+
+		assertEquals(DEPTH, children.size());
+
+		for(Node child : children){
+			assertNull(child.getId());
+			assertFalse(child.hasNodes());
+		}
+	}
+
+	@Test
+	public void detachDeepTree(){
+		TreeModel treeModel = TreeUtil.encodeTreeModel(createDeepRegressor(), MiningFunction.REGRESSION, createSchema());
+
+		DetachedNode detachedNode = DetachedNode.detach(treeModel.requireNode());
+
+		assertTrue(detachedNode.requirePredicate() instanceof DetachedPredicate);
+
+		// Continuous split features are cast to float, and then back to double
+		assertEquals(Collections.singleton("double(float(x))"), ActiveFieldFinder.getFieldNames(detachedNode));
+
+		checkDeepTree(detachedNode.attach());
+	}
+
+	@Test
+	public void encodeParallel() throws Exception {
+		String[] names = {"RandomForestAuditNA", "RandomForestAutoNA", "RandomForestSentiment"};
+
+		for(String name : names){
+			String expectedPmml = marshalPMML(encodePMML(unpickle(name), HasTreeOptions.OPTION_PARALLEL, Boolean.FALSE));
+
+			assertEquals(name, expectedPmml, marshalPMML(encodePMML(unpickle(name), HasTreeOptions.OPTION_PARALLEL, Boolean.TRUE)));
+		}
+	}
+
+	@Test
+	public void encodeStreaming() throws Exception {
+		String[] names = {"RandomForestAuditNA", "RandomForestIris"};
+
+		for(String name : names){
+			String expectedPmml = marshalPMML(encodePMML(unpickle(name), HasTreeOptions.OPTION_STREAMING, Boolean.FALSE));
+
+			PMML pmml = encodePMML(unpickle(name), HasTreeOptions.OPTION_STREAMING, Boolean.TRUE);
+
+			assertTrue(StreamingUtil.hasDetachedNodes(pmml));
+
+			assertEquals(name, expectedPmml, marshalPMML(pmml));
+		}
+
+		PMML expectedPmml = encodePMML(unpickle("RandomForestIris"), HasTreeOptions.OPTION_STREAMING, Boolean.FALSE);
+
+		PMML pmml = encodePMML(unpickle("RandomForestIris"), HasTreeOptions.OPTION_STREAMING, Boolean.TRUE);
+
+		List<Map<String, Object>> arguments = loadArguments("Iris");
+
+		// Detached node graphs cannot be evaluated in place
+		try {
+			evaluate(pmml, arguments);
+
+			fail();
+		} catch(PMMLException pe){
+			// Ignored
+		}
+
+		pmml = unmarshalPMML(marshalPMML(pmml));
+
+		assertEquals(evaluate(expectedPmml, arguments), evaluate(pmml, arguments));
+	}
+
+	static
+	private void checkDeepTree(Node node){
+
+		for(int i = 0; i < DEPTH; i++){
+			assertEquals(i * 2, node.getId());
+			assertTrue(node.hasNodes());
+
+			List<Node> children = node.getNodes();
+
+			assertEquals(2, children.size());
+
+			Node leftChild = children.get(0);
+			Node rightChild = children.get(1);
+
+			assertEquals(i * 2 + 1, leftChild.getId());
+			assertFalse(leftChild.hasNodes());
+			assertEquals((double)(i * 2 + 1), leftChild.getScore());
+
+			node = rightChild;
+		}
+
+		assertEquals(2 * DEPTH, node.getId());
+		assertFalse(node.hasNodes());
+	}
+
+	static
+	private Schema createSchema(){
+		SkLearnEncoder encoder = new SkLearnEncoder();
+
+		DataField dataField = encoder.createDataField("x", OpType.CONTINUOUS, DataType.DOUBLE);
+
+		Feature feature = new ContinuousFeature(encoder, dataField);
+
+		return new Schema(encoder, new ContinuousLabel(DataType.DOUBLE), Collections.singletonList(feature));
+	}
+
+	/**
+	 * @return A degenerate tree, where every split node has a leaf node as its left child.
+	 */
+	static
+	private TreeRegressor createDeepRegressor(){
+		int size = (2 * DEPTH) + 1;
+
+		ByteBuffer nodes = ByteBuffer.allocate(size * (4 * 8 + 8))
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		ByteBuffer values = ByteBuffer.allocate(size * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(int i = 0; i < size; i++){
+			boolean leaf = (i % 2 == 1) || (i == size - 1);
+
+			nodes.putLong(leaf ? -1L : (i + 1));
+			nodes.putLong(leaf ? -1L : (i + 2));
+			nodes.putLong(leaf ? -2L : 0L);
+			nodes.putDouble(leaf ? -2d : (double)i);
+			nodes.putLong(1L);
+
+			values.putDouble((double)i);
+		}
+
+		List<Object[]> nodesDescr = Arrays.asList(
+			new Object[]{"left_child", "<i8"},
+			new Object[]{"right_child", "<i8"},
+			new Object[]{"feature", "<i8"},
+			new Object[]{"threshold", "<f8"},
+			new Object[]{"n_node_samples", "<i8"}
+		);
+
+		Tree tree = new Tree("sklearn.tree._tree", "Tree");
+		tree.put("nodes", createArray(new Object[]{size}, nodesDescr, nodes.array()));
+		tree.put("values", createArray(new Object[]{size, 1, 1}, "<f8", values.array()));
+
+		TreeRegressor regressor = new TreeRegressor("sklearn.tree._classes", "DecisionTreeRegressor");
+		regressor.put("tree_", tree);
+
+		return regressor;
+	}
+
+	static
+	private PMMLPipeline unpickle(String name) throws Exception {
+
+		try(InputStream is = TreeUtilTest.class.getResourceAsStream("/pkl/" + name + ".pkl"); Storage storage = StorageUtil.createStorage(is)){
+			return (PMMLPipeline)PickleUtil.unpickle(storage);
+		}
+	}
+
+	static
+	private PMML encodePMML(PMMLPipeline pipeline, String key, Object value){
+		Estimator estimator = pipeline.getFinalEstimator();
+
+		if(estimator instanceof CompositeClassifier){
+			CompositeClassifier compositeClassifier = (CompositeClassifier)estimator;
+
+			estimator = compositeClassifier.getFinalClassifier();
+		} else
+
+		if(estimator instanceof CompositeRegressor){
+			CompositeRegressor compositeRegressor = (CompositeRegressor)estimator;
+
+			estimator = compositeRegressor.getFinalRegressor();
+		}
+
+		estimator.putOption(key, value);
+
+		PMML pmml = pipeline.encodePMML();
+
+		// Ignore the timestamp
+		pmml.getHeader().setTimestamp(null);
+
+		return pmml;
+	}
+
+	static
+	private String marshalPMML(PMML pmml) throws Exception {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+		StreamingUtil.marshalPMML(pmml, os);
+
+		return os.toString(StandardCharsets.UTF_8.name());
+	}
+
+	static
+	private PMML unmarshalPMML(String string) throws Exception {
+
+		try(InputStream is = new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8))){
+			return PMMLUtil.unmarshal(is);
+		}
+	}
+
+	static
+	private List<Map<String, Object>> loadArguments(String dataset) throws Exception {
+		List<Map<String, Object>> result = new ArrayList<>();
+
+		try(InputStream is = TreeUtilTest.class.getResourceAsStream("/csv/" + dataset + ".csv")){
+			BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+
+			String[] names = (reader.readLine()).split(",");
+
+			for(String line = reader.readLine(); line != null; line = reader.readLine()){
+				String[] values = line.split(",");
+
+				Map<String, Object> arguments = new LinkedHashMap<>();
+
+				for(int i = 0; i < names.length; i++){
+					arguments.put(names[i], values[i]);
+				}
+
+				result.add(arguments);
+			}
+		}
+
+		return result;
+	}
+
+	static
+	private List<Map<String, ?>> evaluate(PMML pmml, List<Map<String, Object>> arguments){
+		Evaluator evaluator = new ModelEvaluatorBuilder(pmml)
+			.build();
+
+		return arguments.stream()
+			.map(evaluator::evaluate)
+			.map(EvaluatorUtil::decodeAll)
+			.collect(Collectors.toList());
+	}
+
+	static
+	private NDArray createArray(Object[] shape, Object descr, byte[] data){
+		NDArray result = new NDArray();
+		result.__setstate__(new Object[]{1, shape, descr, Boolean.FALSE, data});
+
+		return result;
+	}
+
+	private static final int DEPTH = 50000;
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+}
@@ -24,12 +24,15 @@ import java.util.stream.Collectors;
 
 import org.dmg.pmml.DataType;
 import org.dmg.pmml.Extension;
+import org.dmg.pmml.MiningField;
 import org.dmg.pmml.MiningFunction;
 import org.dmg.pmml.MiningSchema;
+import org.dmg.pmml.OpType;
 import org.dmg.pmml.Output;
 import org.dmg.pmml.OutputField;
 import org.dmg.pmml.PMMLObject;
 import org.dmg.pmml.Targets;
+import org.dmg.pmml.regression.NumericPredictor;
 import org.dmg.pmml.regression.RegressionModel;
 import org.dmg.pmml.regression.RegressionTable;
 import org.jpmml.converter.CategoricalLabel;
@@ -42,6 +45,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class CustomizationTest {
 
@@ -114,6 +118,102 @@ public class CustomizationTest {
 		assertNull(regressionModel.getTargets());
 	}
 
+	@Test
+	public void customizeXPath() throws Exception {
+		CategoricalLabel categoricalLabel = new CategoricalLabel(DataType.STRING, Arrays.asList("no", "yes"));
+
+		MiningSchema miningSchema = ModelUtil.createMiningSchema(categoricalLabel)
+			.addMiningFields(new MiningField("x1"), new MiningField("x2"));
+		Output output = ModelUtil.createProbabilityOutput(DataType.DOUBLE, categoricalLabel);
+
+		RegressionTable noRegressionTable = new RegressionTable()
+			.setTargetCategory("no")
+			.addNumericPredictors(new NumericPredictor("x1", 1d), new NumericPredictor("x2", 2d));
+
+		RegressionTable yesRegressionTable = new RegressionTable()
+			.setTargetCategory("yes")
+			.addNumericPredictors(new NumericPredictor("x1", 3d));
+
+		RegressionModel regressionModel = new RegressionModel(MiningFunction.CLASSIFICATION, miningSchema, null)
+			.addRegressionTables(noRegressionTable, yesRegressionTable)
+			.setOutput(output);
+
+		List<Customization> customizations = Arrays.asList(
+			Customization.createUpdate("//:RegressionTable[@targetCategory='yes']/:NumericPredictor[1]", CustomizationUtil.formatPMML(new NumericPredictor("x1", 5d))),
+			Customization.createUpdate("//:NumericPredictor[2]", CustomizationUtil.formatPMML(new NumericPredictor("x2", 4d))),
+			Customization.createUpdate("/:RegressionModel/*[1]/:MiningField[@name=\"x2\"]", CustomizationUtil.formatPMML(new MiningField("x2").setOpType(OpType.CONTINUOUS))),
+			// Every XPath expression is evaluated against the outcome of all the preceding customizations
+			Customization.createDelete("//:OutputField[1]"),
+			Customization.createDelete("//:OutputField[1]"),
+			// Not supported by the PMML object graph evaluator
+			Customization.createUpdate("//:MiningField[last()]", CustomizationUtil.formatPMML(new MiningField("x2").setImportance(0.5d)))
+		);
+
+		CustomizationUtil.customize(regressionModel, customizations);
+
+		List<NumericPredictor> noNumericPredictors = noRegressionTable.getNumericPredictors();
+
+		assertEquals(1d, (noNumericPredictors.get(0)).getCoefficient());
+		assertEquals(4d, (noNumericPredictors.get(1)).getCoefficient());
+
+		List<NumericPredictor> yesNumericPredictors = yesRegressionTable.getNumericPredictors();
+
+		assertEquals(5d, (yesNumericPredictors.get(0)).getCoefficient());
+
+		List<MiningField> miningFields = miningSchema.getMiningFields();
+
+		MiningField miningField = miningFields.get(miningFields.size() - 1);
+
+		assertEquals("x2", miningField.requireName());
+		assertEquals(OpType.CONTINUOUS, miningField.getOpType());
+		assertEquals(0.5d, miningField.getImportance());
+
+		assertFalse(output.hasOutputFields());
+
+		try {
+			CustomizationUtil.customize(regressionModel, Arrays.asList(Customization.createDelete("//:OutputField[1]")));
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+	}
+
+	@Test
+	public void customizeMixed() throws Exception {
+		CategoricalLabel categoricalLabel = new CategoricalLabel(DataType.STRING, Arrays.asList("no", "yes"));
+
+		MiningSchema miningSchema = ModelUtil.createMiningSchema(categoricalLabel)
+			.addMiningFields(new MiningField("x1"), new MiningField("x2"));
+
+		RegressionModel regressionModel = new RegressionModel(MiningFunction.CLASSIFICATION, miningSchema, null);
+
+		List<Customization> customizations = Arrays.asList(
+			// Evaluated by the DOM evaluator
+			Customization.createUpdate("//:MiningField[last()]", CustomizationUtil.formatPMML(new MiningField("x2").setImportance(0.5d))),
+			// Evaluated by the PMML object graph evaluator
+			Customization.createInsert("/:RegressionModel/:MiningSchema", CustomizationUtil.formatPMML(new MiningField("x3"))),
+			// Evaluated by the DOM evaluator, which must see the outcome of the preceding customization
+			Customization.createUpdate("//:MiningField[last()]", CustomizationUtil.formatPMML(new MiningField("x3").setImportance(0.25d))),
+			Customization.createDelete("//:MiningField[position() = 1]")
+		);
+
+		CustomizationUtil.customize(regressionModel, customizations);
+
+		List<MiningField> miningFields = miningSchema.getMiningFields();
+
+		assertEquals(2, miningFields.size());
+
+		MiningField x2 = miningFields.get(0);
+		MiningField x3 = miningFields.get(1);
+
+		assertEquals("x2", x2.requireName());
+		assertEquals(0.5d, x2.getImportance());
+
+		assertEquals("x3", x3.requireName());
+		assertEquals(0.25d, x3.getImportance());
+	}
+
 	static
 	private <E extends PMMLObject> void checkList(List<E> expected, List<E> actual){
 		assertEquals(expected.size(), actual.size());
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn2pmml.pipeline;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multiset;
+import numpy.core.NDArray;
+import org.dmg.pmml.InlineTable;
+import org.dmg.pmml.Model;
+import org.dmg.pmml.ModelVerification;
+import org.dmg.pmml.PMML;
+import org.jpmml.python.PickleUtil;
+import org.jpmml.python.Storage;
+import org.jpmml.python.StorageUtil;
+import org.jpmml.sklearn.HasSkLearnOptions;
+import org.jpmml.sklearn.SkLearnUtil;
+import org.junit.Test;
+import sklearn.Estimator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class VerificationUtilTest {
+
+	@Test
+	public void selectRows(){
+		assertArrayEquals(new int[]{0, 1, 2}, VerificationUtil.selectRows(3, 5));
+		assertArrayEquals(new int[]{0, 2, 5, 7}, VerificationUtil.selectRows(10, 4));
+
+		List<String> strata = Arrays.asList("a", "a", "b", "a", "a", "b", "c", "a", "b", "a");
+
+		assertArrayEquals(new int[]{0, 2, 4, 6}, VerificationUtil.selectRows(strata, 4));
+		assertArrayEquals(new int[]{0, 2}, VerificationUtil.selectRows(strata, 2));
+	}
+
+	@Test
+	public void getColumns(){
+		double[] values = {1d, 2d, 3d, Double.NaN, 5d, 6d};
+
+		ByteBuffer buffer = ByteBuffer.allocate(values.length * 8)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+		for(double value : values){
+			buffer.putDouble(value);
+		}
+
+		byte[] data = buffer.array();
+
+		NDArray cArray = createArray(new Object[]{3, 2}, Boolean.FALSE, data);
+
+		assertEquals(Arrays.asList(Arrays.asList(5d, 1d), Arrays.asList(6d, 2d)), VerificationUtil.getColumns(cArray, 3, 2, new int[]{2, 0}));
+		assertEquals(Arrays.asList(Arrays.asList(1d, 3d, 5d), Arrays.asList(2d, null, 6d)), VerificationUtil.getColumns(cArray, 3, 2, null));
+
+		NDArray fortranArray = createArray(new Object[]{3, 2}, Boolean.TRUE, data);
+
+		assertEquals(Arrays.asList(Arrays.asList(3d, 1d), Arrays.asList(6d, null)), VerificationUtil.getColumns(fortranArray, 3, 2, new int[]{2, 0}));
+	}
+
+	@Test
+	public void encode() throws Exception {
+		PMMLPipeline pipeline = unpickle("RuleSetIris");
+
+		Verification verification = pipeline.getVerification();
+
+		int[] targetValuesShape = verification.getTargetValuesShape();
+
+		List<?> strata = VerificationUtil.getRows(verification.getTargetValuesArray(), targetValuesShape[0], 1);
+
+		Multiset<Object> sampledStrata = HashMultiset.create();
+
+		for(int row : VerificationUtil.selectRows(strata, 6)){
+			sampledStrata.add(strata.get(row));
+		}
+
+		// Every stratum is represented
+		assertEquals(new HashSet<>(strata), sampledStrata.elementSet());
+		assertEquals(6, sampledStrata.size());
+
+		Estimator estimator = pipeline.getFinalEstimator();
+
+		estimator.putOption(HasSkLearnOptions.OPTION_VERIFICATION_MAX_RECORDS, 6);
+		estimator.putOption(HasSkLearnOptions.OPTION_VERIFICATION_SAMPLING, VerificationUtil.SAMPLING_STRATIFIED);
+
+		PMML pmml = pipeline.encodePMML();
+
+		Model model = Iterables.getOnlyElement(pmml.getModels());
+
+		ModelVerification modelVerification = model.getModelVerification();
+
+		assertEquals((Integer)6, modelVerification.getRecordCount());
+
+		InlineTable inlineTable = modelVerification.getInlineTable();
+
+		assertEquals(6, (inlineTable.getRows()).size());
+	}
+
+	static
+	private NDArray createArray(Object[] shape, Boolean fortranOrder, byte[] data){
+		NDArray result = new NDArray();
+		result.__setstate__(new Object[]{1, shape, "<f8", fortranOrder, data});
+
+		return result;
+	}
+
+	static
+	private PMMLPipeline unpickle(String name) throws Exception {
+
+		try(InputStream is = VerificationUtilTest.class.getResourceAsStream("/pkl/" + name + ".pkl"); Storage storage = StorageUtil.createStorage(is)){
+			return (PMMLPipeline)PickleUtil.unpickle(storage);
+		}
+	}
+
+	static {
+		SkLearnUtil.initOnce();
+	}
+}
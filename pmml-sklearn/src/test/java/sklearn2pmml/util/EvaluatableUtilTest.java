@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2024 Villu Ruusmann
+ *
+ * This file is part of JPMML-SkLearn
+ *
+ * JPMML-SkLearn is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * JPMML-SkLearn is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with JPMML-SkLearn.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package sklearn2pmml.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.cache.CacheStats;
+import org.dmg.pmml.FieldRef;
+import org.jpmml.converter.ContinuousFeature;
+import org.jpmml.converter.Feature;
+import org.jpmml.python.DataFrameScope;
+import org.jpmml.python.FunctionDef;
+import org.jpmml.python.Scope;
+import org.jpmml.sklearn.SkLearnEncoder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EvaluatableUtilTest {
+
+	@Test
+	public void parseFunctionDef(){
+		String string = "def _evaluatable_util_test_square(x):\n\treturn (x * x)\n";
+
+		CacheStats prevStats = EvaluatableUtil.getFunctionDefCacheStats();
+
+		FunctionDef functionDef = EvaluatableUtil.parseFunctionDef(string);
+
+		assertEquals("_evaluatable_util_test_square", functionDef.getName());
+		assertEquals(1, (functionDef.getParameters()).size());
+
+		// Changes to a returned function definition do not leak into the cache
+		functionDef.setName("_evaluatable_util_test_renamed");
+
+		FunctionDef cachedFunctionDef = EvaluatableUtil.parseFunctionDef(string);
+
+		assertNotSame(functionDef, cachedFunctionDef);
+		assertEquals("_evaluatable_util_test_square", cachedFunctionDef.getName());
+		assertEquals(functionDef.getParameters(), cachedFunctionDef.getParameters());
+
+		CacheStats stats = (EvaluatableUtil.getFunctionDefCacheStats()).minus(prevStats);
+
+		assertEquals(1L, stats.missCount());
+		assertEquals(1L, stats.hitCount());
+
+		try {
+			EvaluatableUtil.parseFunctionDef("def (x):\n\treturn x\n");
+
+			fail();
+		} catch(IllegalArgumentException iae){
+			// Ignored
+		}
+	}
+
+	@Test
+	public void translateExpression(){
+		String functionDef = "def _evaluatable_util_test_cube(x):\n\treturn (x * x * x)\n";
+
+		CacheStats prevStats = EvaluatableUtil.getFunctionDefCacheStats();
+
+		for(int i = 0; i < 3; i++){
+			SkLearnEncoder encoder = new SkLearnEncoder();
+
+			List<Feature> features = Collections.singletonList(new ContinuousFeature(encoder, encoder.createDataField("x")));
+
+			Scope scope = new DataFrameScope("X", features, encoder);
+
+			org.dmg.pmml.Expression expression = EvaluatableUtil.translateExpression("_evaluatable_util_test_cube(X[0])", Arrays.asList(functionDef), scope);
+
+			assertTrue(expression instanceof FieldRef);
+
+			FieldRef fieldRef = (FieldRef)expression;
+
+			// Function invocations are encoded in the current encoder
+			assertTrue((encoder.getDerivedFields()).containsKey(fieldRef.requireField()));
+		}
+
+		CacheStats stats = (EvaluatableUtil.getFunctionDefCacheStats()).minus(prevStats);
+
+		assertEquals(1L, stats.missCount());
+		assertEquals(2L, stats.hitCount());
+	}
+}